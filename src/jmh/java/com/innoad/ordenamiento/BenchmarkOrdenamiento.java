@@ -0,0 +1,42 @@
+package com.innoad.ordenamiento;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de cada algoritmo secuencial del motor sobre distintos tamanos
+ * y distribuciones de entrada. Cada invocacion ordena una copia fresca de
+ * los mismos datos; la copia se incluye en la medicion y es igual para
+ * todos los algoritmos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BenchmarkOrdenamiento {
+
+    @Param({"1000", "100000", "10000000", "100000000"})
+    public int cantidad;
+
+    @Param
+    public Distribucion distribucion;
+
+    @Param
+    public Algoritmo algoritmo;
+
+    private int[] original;
+    private int[] trabajo;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        original = distribucion.generar(cantidad);
+        trabajo = new int[cantidad];
+    }
+
+    @Benchmark
+    public int[] ordenar() {
+        System.arraycopy(original, 0, trabajo, 0, cantidad);
+        MotorOrdenamiento.ordenar(trabajo, algoritmo);
+        return trabajo;
+    }
+}
@@ -0,0 +1,61 @@
+package com.innoad.ordenamiento;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de punta a punta de {@link OrdenamientoExterno}: leer texto,
+ * generar corridas, mezclarlas y escribir el resultado. Como cada
+ * invocacion toca disco se mide en modo de un solo disparo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class BenchmarkOrdenamientoExterno {
+
+    @Param({"1000000", "10000000"})
+    public int cantidad;
+
+    @Param({"ALEATORIO", "ORDENADO"})
+    public Distribucion distribucion;
+
+    /** Presupuesto en MB; con el menor se generan varias corridas */
+    @Param({"4", "64"})
+    public int presupuestoMB;
+
+    private Path directorio;
+    private Path entrada;
+    private Path salida;
+    private OrdenamientoExterno ordenador;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        directorio = Files.createTempDirectory("innoad-jmh-");
+        entrada = directorio.resolve("entrada.txt");
+        salida = directorio.resolve("salida.txt");
+        try (EscritorNumeros escritor = EscritorNumeros.texto(entrada)) {
+            int[] datos = distribucion.generar(cantidad);
+            escritor.escribir(datos, 0, datos.length);
+        }
+        ordenador = new OrdenamientoExterno(presupuestoMB * 1024L * 1024L,
+                OrdenamientoExterno.ABANICO_MAXIMO_PREDETERMINADO, directorio);
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws IOException {
+        Files.deleteIfExists(entrada);
+        Files.deleteIfExists(salida);
+        Files.deleteIfExists(directorio);
+    }
+
+    @Benchmark
+    public long ordenar() throws IOException {
+        return ordenador.ordenar(entrada, salida);
+    }
+}
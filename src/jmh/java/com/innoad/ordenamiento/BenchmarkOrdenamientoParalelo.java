@@ -0,0 +1,46 @@
+package com.innoad.ordenamiento;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de {@link OrdenadorParalelo} segun la cantidad de hilos del pool
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BenchmarkOrdenamientoParalelo {
+
+    @Param({"1000", "100000", "10000000", "100000000"})
+    public int cantidad;
+
+    @Param
+    public Distribucion distribucion;
+
+    @Param({"1", "2", "4", "8", "16", "32"})
+    public int hilos;
+
+    private int[] original;
+    private int[] trabajo;
+    private OrdenadorParalelo ordenador;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        original = distribucion.generar(cantidad);
+        trabajo = new int[cantidad];
+        ordenador = new OrdenadorParalelo(hilos, OrdenadorParalelo.UMBRAL_SECUENCIAL_PREDETERMINADO);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        ordenador.close();
+    }
+
+    @Benchmark
+    public int[] ordenar() {
+        System.arraycopy(original, 0, trabajo, 0, cantidad);
+        ordenador.ordenar(trabajo);
+        return trabajo;
+    }
+}
@@ -0,0 +1,70 @@
+package com.innoad.ordenamiento;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo por elemento de {@link OrdenamientoVectorial} frente al Merge Sort
+ * escalar, del ordenamiento completo y de una sola mezcla de dos mitades
+ * ordenadas. Como cada invocacion cuenta CANTIDAD operaciones, JMH informa
+ * directamente nanosegundos por elemento. Sin la Vector API la preparacion
+ * falla en lugar de medir el motor escalar dos veces. Los resultados dependen
+ * del ancho de vector de la maquina: se corre con
+ * ./gradlew jmh -PjmhIncluir=BenchmarkOrdenamientoVectorial y quedan en
+ * build/reports/jmh/resultados.json.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(BenchmarkOrdenamientoVectorial.CANTIDAD)
+public class BenchmarkOrdenamientoVectorial {
+
+    static final int CANTIDAD = 1 << 20;
+
+    @Param({"ALEATORIO", "CASI_ORDENADO", "POCOS_UNICOS", "ZIPF"})
+    public Distribucion distribucion;
+
+    private int[] original;
+    private int[] mitadesOrdenadas;
+    private int[] trabajo;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        if (!OrdenamientoVectorial.estaDisponible()) {
+            throw new IllegalStateException("La Vector API no esta disponible: " + OrdenamientoVectorial.describir());
+        }
+        original = distribucion.generar(CANTIDAD);
+        mitadesOrdenadas = original.clone();
+        MotorOrdenamiento.ordenar(mitadesOrdenadas, 0, CANTIDAD / 2, 0);
+        MotorOrdenamiento.ordenar(mitadesOrdenadas, CANTIDAD / 2, CANTIDAD, 0);
+        trabajo = new int[CANTIDAD];
+    }
+
+    @Benchmark
+    public int[] ordenarEscalar() {
+        System.arraycopy(original, 0, trabajo, 0, CANTIDAD);
+        MotorOrdenamiento.ordenar(trabajo, Algoritmo.MERGE_SORT);
+        return trabajo;
+    }
+
+    @Benchmark
+    public int[] ordenarVectorial() {
+        System.arraycopy(original, 0, trabajo, 0, CANTIDAD);
+        OrdenamientoVectorial.ordenar(trabajo);
+        return trabajo;
+    }
+
+    @Benchmark
+    public int[] mezclarEscalar() {
+        MotorOrdenamiento.mezclar(mitadesOrdenadas, 0, CANTIDAD / 2,
+                mitadesOrdenadas, CANTIDAD / 2, CANTIDAD, trabajo, 0);
+        return trabajo;
+    }
+
+    @Benchmark
+    public int[] mezclarVectorial() {
+        NucleosVectoriales.mezclar(mitadesOrdenadas, 0, CANTIDAD / 2, CANTIDAD, trabajo);
+        return trabajo;
+    }
+}
@@ -0,0 +1,70 @@
+package com.innoad.ordenamiento;
+
+/**
+ * Distribuciones de entrada de los benchmarks. Salvo DIENTE_SIERRA, todas
+ * son perfiles de {@link GeneradorDatos} en todo el rango de int con una
+ * semilla fija, para que cada fork y cada version midan exactamente los
+ * mismos datos.
+ */
+public enum Distribucion {
+
+    /** Valores uniformes en todo el rango de int */
+    ALEATORIO(GeneradorDatos.Perfil.UNIFORME),
+
+    /** Valores ya ordenados ascendentemente */
+    ORDENADO(GeneradorDatos.Perfil.ORDENADO),
+
+    /** Valores ordenados descendentemente */
+    INVERSO(GeneradorDatos.Perfil.INVERSO),
+
+    /** Ordenados con un intercambio de dos posiciones al azar cada 100 elementos */
+    CASI_ORDENADO(GeneradorDatos.Perfil.CASI_ORDENADO),
+
+    /** Solo 16 valores distintos repetidos al azar */
+    POCOS_UNICOS(GeneradorDatos.Perfil.POCOS_UNICOS),
+
+    /** Frecuencias de Zipf con exponente 1 sobre 1000 valores */
+    ZIPF(GeneradorDatos.Perfil.ZIPF),
+
+    /** Normal centrada en 0 */
+    GAUSSIANA(GeneradorDatos.Perfil.GAUSSIANA),
+
+    /** Ascendente hasta la mitad y descendente despues */
+    ORGANO(GeneradorDatos.Perfil.ORGANO),
+
+    /** Tramos ascendentes de 1000 elementos que vuelven a empezar */
+    DIENTE_SIERRA(null);
+
+    static final long SEMILLA = GeneradorDatos.SEMILLA_PREDETERMINADA;
+
+    private static final int LONGITUD_DIENTE = 1000;
+    private static final int VALORES_ZIPF = 1000;
+
+    private final GeneradorDatos.Perfil perfil;
+
+    Distribucion(GeneradorDatos.Perfil perfil) {
+        this.perfil = perfil;
+    }
+
+    /**
+     * @param cantidad Cantidad de elementos
+     * @return Datos generados con la semilla fija
+     */
+    int[] generar(int cantidad) {
+        if (perfil == null) {
+            int[] datos = new int[cantidad];
+            for (int i = 0; i < cantidad; i++) {
+                datos[i] = i % LONGITUD_DIENTE;
+            }
+            return datos;
+        }
+
+        GeneradorDatos.Configuracion configuracion = GeneradorDatos.Configuracion.de(perfil).conSemilla(SEMILLA);
+        if (perfil == GeneradorDatos.Perfil.ZIPF) {
+            configuracion = configuracion.conRango(0, VALORES_ZIPF - 1);
+        }
+        try (GeneradorDatos generador = new GeneradorDatos()) {
+            return generador.generarEnteros(configuracion, cantidad);
+        }
+    }
+}
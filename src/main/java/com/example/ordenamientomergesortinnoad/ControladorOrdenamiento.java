@@ -0,0 +1,102 @@
+package com.example.ordenamientomergesortinnoad;
+
+import com.innoad.ordenamiento.EscritorNumeros;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Endpoints HTTP de ordenamiento y seleccion:
+ * <pre>
+ * POST /ordenar?salida=TEXTO|TEXTO_GZIP|BINARIO
+ * POST /menores?k=N&amp;salida=...         los k menores, ascendentes
+ * POST /mayores?k=N&amp;salida=...         los k mayores, descendentes
+ * Content-Type: text/plain                 un numero por linea
+ * Content-Type: application/octet-stream   formato de ArchivoBinarioNumeros
+ * </pre>
+ * El cuerpo se lee como flujo y el resultado se escribe en la respuesta a
+ * medida que sale de la ultima mezcla. La cabecera X-Cantidad-Numeros
+ * indica cuantos numeros se ordenaron. Con spring.threads.virtual.enabled
+ * cada solicitud corre en un hilo virtual, asi la espera de admision y la
+ * E/S bloqueante no ocupan hilos de plataforma.
+ */
+@RestController
+public class ControladorOrdenamiento {
+
+    /** Cabecera de la respuesta con la cantidad de numeros ordenados */
+    public static final String CABECERA_CANTIDAD = "X-Cantidad-Numeros";
+
+    /** Segundos sugeridos al cliente antes de reintentar una solicitud rechazada */
+    private static final String SEGUNDOS_REINTENTO = "1";
+
+    private final ServicioOrdenamiento servicio;
+
+    public ControladorOrdenamiento(ServicioOrdenamiento servicio) {
+        this.servicio = servicio;
+    }
+
+    @PostMapping(path = "/ordenar", consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public void ordenar(@RequestParam(name = "salida", defaultValue = "TEXTO") EscritorNumeros.Formato salida,
+                        HttpServletRequest solicitud, HttpServletResponse respuesta) throws IOException {
+        servicio.ordenar(solicitud.getInputStream(), solicitud.getContentLengthLong(), esEntradaBinaria(solicitud),
+                salida, abrirRespuesta(respuesta, salida));
+    }
+
+    @PostMapping(path = "/menores", consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public void menores(@RequestParam(name = "k") int k,
+                        @RequestParam(name = "salida", defaultValue = "TEXTO") EscritorNumeros.Formato salida,
+                        HttpServletRequest solicitud, HttpServletResponse respuesta) throws IOException {
+        servicio.seleccionar(solicitud.getInputStream(), esEntradaBinaria(solicitud), k, false, salida,
+                abrirRespuesta(respuesta, salida));
+    }
+
+    @PostMapping(path = "/mayores", consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public void mayores(@RequestParam(name = "k") int k,
+                        @RequestParam(name = "salida", defaultValue = "TEXTO") EscritorNumeros.Formato salida,
+                        HttpServletRequest solicitud, HttpServletResponse respuesta) throws IOException {
+        servicio.seleccionar(solicitud.getInputStream(), esEntradaBinaria(solicitud), k, true, salida,
+                abrirRespuesta(respuesta, salida));
+    }
+
+    @ExceptionHandler(SolicitudRechazadaException.class)
+    public ResponseEntity<String> solicitudRechazada(SolicitudRechazadaException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, SEGUNDOS_REINTENTO)
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> cuerpoInvalido(IllegalArgumentException e) {
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(e.getMessage());
+    }
+
+    private static boolean esEntradaBinaria(HttpServletRequest solicitud) {
+        return MediaType.APPLICATION_OCTET_STREAM.isCompatibleWith(MediaType.parseMediaType(solicitud.getContentType()));
+    }
+
+    private static ServicioOrdenamiento.DestinoRespuesta abrirRespuesta(HttpServletResponse respuesta,
+                                                                       EscritorNumeros.Formato salida) {
+        return cantidad -> {
+            respuesta.setStatus(HttpStatus.OK.value());
+            respuesta.setContentType(salida == EscritorNumeros.Formato.BINARIO
+                    ? MediaType.APPLICATION_OCTET_STREAM_VALUE : MediaType.TEXT_PLAIN_VALUE);
+            if (salida == EscritorNumeros.Formato.TEXTO_GZIP) {
+                respuesta.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            respuesta.setHeader(CABECERA_CANTIDAD, Long.toString(cantidad));
+            return respuesta.getOutputStream();
+        };
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.ordenamientomergesortinnoad;
+
+import com.innoad.ordenamiento.ObservadorOrdenamiento;
+import com.innoad.ordenamiento.TelemetriaOrdenamiento;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Publica en Micrometer cada ordenamiento que informa
+ * {@link TelemetriaOrdenamiento}, con etiquetas de estrategia y de tamano:
+ * <pre>
+ * innoad.ordenamiento.duracion        histograma con p50, p99 y p999
+ * innoad.ordenamiento.elementos       contador; su tasa es el rendimiento en elementos por segundo
+ * innoad.ordenamiento.rendimiento     elementos por segundo de cada ordenamiento
+ * innoad.ordenamiento.memoria         bytes reservados en el heap por ordenamiento
+ * innoad.ordenamiento.comparaciones   por ordenamiento, solo los contados por muestreo
+ * innoad.ordenamiento.movimientos     por ordenamiento, solo los contados por muestreo
+ * </pre>
+ * Los medidores se registran una vez por estrategia y grupo de tamano y se
+ * reutilizan: cada ordenamiento solo registra sus valores.
+ * Con innoad.telemetria.habilitada=false no se instala y el motor no paga
+ * mas que la consulta de si hay observador. Se instala cuando el contexto
+ * termino de crear los singletons, no en el constructor.
+ */
+@Component
+public class MetricasOrdenamiento implements ObservadorOrdenamiento, SmartInitializingSingleton, AutoCloseable {
+
+    /** Limites superiores de los grupos de tamano */
+    private static final long[] LIMITES_TAMANO = {1L << 10, 1L << 16, 1L << 20, 1L << 24};
+    private static final String[] NOMBRES_TAMANO = {"hasta-1K", "hasta-64K", "hasta-1M", "hasta-16M", "mas-de-16M"};
+
+    private final MeterRegistry registro;
+    private final boolean habilitada;
+    private final int intervaloConteo;
+
+    /** Medidores por estrategia, uno por grupo de tamano; se crean con el primer ordenamiento */
+    private final Map<String, AtomicReferenceArray<Medidores>> medidores = new ConcurrentHashMap<>();
+
+    /**
+     * @param registro Registro de Micrometer de la aplicacion
+     * @param habilitada Si se instala como observador de los ordenamientos
+     * @param intervaloConteo Uno de cada cuantos ordenamientos con Merge Sort cuenta operaciones; 0 no cuenta
+     */
+    public MetricasOrdenamiento(MeterRegistry registro,
+                                @Value("${innoad.telemetria.habilitada:true}") boolean habilitada,
+                                @Value("${innoad.telemetria.intervalo-conteo:100}") int intervaloConteo) {
+        this.registro = registro;
+        this.habilitada = habilitada;
+        this.intervaloConteo = intervaloConteo;
+    }
+
+    /**
+     * Se instala como observador con el bean ya construido
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (habilitada) {
+            TelemetriaOrdenamiento.configurarIntervaloConteo(intervaloConteo);
+            TelemetriaOrdenamiento.instalar(this);
+        }
+    }
+
+    @Override
+    public void registrar(TelemetriaOrdenamiento.Medicion medicion) {
+        Medidores grupo = obtenerMedidores(medicion.obtenerEstrategia(),
+                indiceTamano(medicion.obtenerElementos()));
+
+        grupo.duracion.record(medicion.obtenerNanos(), TimeUnit.NANOSECONDS);
+        grupo.elementos.increment(medicion.obtenerElementos());
+        grupo.rendimiento.record(medicion.obtenerElementosPorSegundo());
+        if (medicion.obtenerBytesReservados() >= 0) {
+            grupo.memoria().record(medicion.obtenerBytesReservados());
+        }
+        if (medicion.tieneConteos()) {
+            grupo.comparaciones().record(medicion.obtenerComparaciones());
+            grupo.movimientos().record(medicion.obtenerMovimientos());
+        }
+    }
+
+    /**
+     * Deja de observar al cerrar el contexto de Spring
+     */
+    @Override
+    public void close() {
+        if (habilitada) {
+            TelemetriaOrdenamiento.quitar(this);
+        }
+    }
+
+    /**
+     * @param elementos Elementos de un ordenamiento
+     * @return Posicion del grupo de tamano en NOMBRES_TAMANO
+     */
+    private static int indiceTamano(long elementos) {
+        for (int i = 0; i < LIMITES_TAMANO.length; i++) {
+            if (elementos <= LIMITES_TAMANO[i]) {
+                return i;
+            }
+        }
+        return LIMITES_TAMANO.length;
+    }
+
+    /**
+     * Busca los medidores del grupo y los registra la primera vez. Si dos
+     * hilos los crean a la vez, Micrometer devuelve los mismos medidores a ambos
+     */
+    private Medidores obtenerMedidores(String estrategia, int tamano) {
+        AtomicReferenceArray<Medidores> porTamano = medidores.computeIfAbsent(estrategia,
+                clave -> new AtomicReferenceArray<>(NOMBRES_TAMANO.length));
+        Medidores grupo = porTamano.get(tamano);
+        if (grupo == null) {
+            grupo = new Medidores(registro, estrategia, NOMBRES_TAMANO[tamano]);
+            porTamano.set(tamano, grupo);
+        }
+        return grupo;
+    }
+
+    /**
+     * Los medidores de una estrategia y un grupo de tamano. Memoria y
+     * conteos se registran recien cuando alguna medicion los trae
+     */
+    private static final class Medidores {
+        private final MeterRegistry registro;
+        private final String estrategia;
+        private final String tamano;
+        final Timer duracion;
+        final Counter elementos;
+        final DistributionSummary rendimiento;
+        private volatile DistributionSummary memoria;
+        private volatile DistributionSummary comparaciones;
+        private volatile DistributionSummary movimientos;
+
+        Medidores(MeterRegistry registro, String estrategia, String tamano) {
+            this.registro = registro;
+            this.estrategia = estrategia;
+            this.tamano = tamano;
+            this.duracion = Timer.builder("innoad.ordenamiento.duracion")
+                    .description("Duracion de cada ordenamiento")
+                    .tag("estrategia", estrategia)
+                    .tag("tamano", tamano)
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .publishPercentileHistogram()
+                    .register(registro);
+            this.elementos = Counter.builder("innoad.ordenamiento.elementos")
+                    .description("Elementos ordenados")
+                    .baseUnit("elementos")
+                    .tag("estrategia", estrategia)
+                    .register(registro);
+            this.rendimiento = resumen("innoad.ordenamiento.rendimiento",
+                    "Elementos por segundo de cada ordenamiento", "elementos/s");
+        }
+
+        DistributionSummary memoria() {
+            if (memoria == null) {
+                memoria = resumen("innoad.ordenamiento.memoria", "Bytes reservados en el heap por ordenamiento",
+                        "bytes");
+            }
+            return memoria;
+        }
+
+        DistributionSummary comparaciones() {
+            if (comparaciones == null) {
+                comparaciones = resumen("innoad.ordenamiento.comparaciones",
+                        "Comparaciones por ordenamiento (muestreado)", "comparaciones");
+            }
+            return comparaciones;
+        }
+
+        DistributionSummary movimientos() {
+            if (movimientos == null) {
+                movimientos = resumen("innoad.ordenamiento.movimientos",
+                        "Movimientos por ordenamiento (muestreado)", "movimientos");
+            }
+            return movimientos;
+        }
+
+        private DistributionSummary resumen(String nombre, String descripcion, String unidad) {
+            return DistributionSummary.builder(nombre)
+                    .description(descripcion)
+                    .baseUnit(unidad)
+                    .tag("estrategia", estrategia)
+                    .tag("tamano", tamano)
+                    .register(registro);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.example.ordenamientomergesortinnoad;
+
+import com.innoad.ordenamiento.ArchivoBinarioNumeros;
+import com.innoad.ordenamiento.ArregloEnteros;
+import com.innoad.ordenamiento.EscritorNumeros;
+import com.innoad.ordenamiento.EventoFase;
+import com.innoad.ordenamiento.FormatoBinarioInvalidoException;
+import com.innoad.ordenamiento.LectorNumerosTexto;
+import com.innoad.ordenamiento.MotorOrdenamiento;
+import com.innoad.ordenamiento.OrdenamientoExterno;
+import com.innoad.ordenamiento.Seleccion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Ordena los numeros recibidos en el cuerpo de una solicitud y escribe el
+ * resultado en la respuesta.
+ * Cada solicitud reserva antes de empezar la memoria que puede llegar a
+ * usar, estimada a partir de Content-Length; si no hay memoria libre espera
+ * un tiempo acotado y despues se rechaza. Las solicitudes cuya estimacion
+ * supera el limite por solicitud, o que no declaran su longitud, se
+ * ordenan con {@link OrdenamientoExterno} usando ese limite como
+ * presupuesto, asi varias solicitudes grandes a la vez no agotan el heap.
+ * La seleccion de los k menores o mayores recorre el cuerpo sin guardarlo y
+ * solo reserva memoria para los k valores, sea cual sea el tamano del cuerpo.
+ */
+@Service
+public class ServicioOrdenamiento {
+
+    /** Buffers de lectura, escritura y compresion de cada solicitud */
+    static final long MEMORIA_FIJA_SOLICITUD = 512L * 1024;
+
+    /**
+     * Copias del arreglo vivas a la vez en memoria: el arreglo donde se lee,
+     * el arreglo final y el buffer auxiliar de la mezcla
+     */
+    static final int COPIAS_EN_MEMORIA = 3;
+
+    /** Granularidad del semaforo de memoria */
+    private static final int BYTES_POR_PERMISO = 1024;
+
+    private final Semaphore memoriaDisponible;
+    private final long memoriaTotal;
+    private final long memoriaPorSolicitud;
+    private final long esperaAdmisionMs;
+    private final Path directorioTemporal;
+
+    /**
+     * @param memoriaTotalMB Memoria que pueden usar entre todas las solicitudes; 0 usa la mitad del heap
+     * @param memoriaPorSolicitudMB Memoria maxima de una solicitud; por encima se ordena en disco
+     * @param esperaAdmisionMs Tiempo maximo de espera por memoria antes de rechazar la solicitud
+     * @param directorioTemporal Directorio de las corridas del ordenamiento en disco
+     */
+    public ServicioOrdenamiento(@Value("${innoad.servicio.memoria-total-mb:0}") long memoriaTotalMB,
+                                @Value("${innoad.servicio.memoria-por-solicitud-mb:64}") long memoriaPorSolicitudMB,
+                                @Value("${innoad.servicio.espera-admision-ms:2000}") long esperaAdmisionMs,
+                                @Value("${innoad.servicio.directorio-temporal:${java.io.tmpdir}}") String directorioTemporal) {
+        long total = memoriaTotalMB > 0 ? memoriaTotalMB * 1024 * 1024 : Runtime.getRuntime().maxMemory() / 2;
+        long porSolicitud = Math.min(memoriaPorSolicitudMB * 1024 * 1024, total);
+        if (porSolicitud <= MEMORIA_FIJA_SOLICITUD) {
+            throw new IllegalArgumentException("La memoria por solicitud es demasiado pequena: " + porSolicitud + " bytes");
+        }
+        this.memoriaTotal = total;
+        this.memoriaPorSolicitud = porSolicitud;
+        this.esperaAdmisionMs = esperaAdmisionMs;
+        this.directorioTemporal = Paths.get(directorioTemporal);
+        this.memoriaDisponible = new Semaphore(aPermisos(total), true);
+    }
+
+    /**
+     * Abre la salida de la respuesta. Se llama recien cuando el cuerpo se
+     * leyo completo y es valido, para poder responder con un error sin
+     * haber enviado nada.
+     */
+    @FunctionalInterface
+    public interface DestinoRespuesta {
+        /**
+         * @param cantidad Cantidad de numeros que se van a escribir
+         * @return Flujo de la respuesta
+         */
+        OutputStream abrir(long cantidad) throws IOException;
+    }
+
+    /**
+     * Ordena los numeros del cuerpo y los escribe en la respuesta
+     * @param cuerpo Cuerpo de la solicitud
+     * @param longitud Bytes declarados en Content-Length, o -1 si no se conocen
+     * @param entradaBinaria true si el cuerpo viene en formato {@link ArchivoBinarioNumeros}, false si es texto
+     * @param formatoSalida Formato de la respuesta
+     * @param destino Apertura de la respuesta
+     * @return Cantidad de numeros ordenados
+     * @throws SolicitudRechazadaException si no hubo memoria libre a tiempo
+     * @throws IllegalArgumentException si el cuerpo tiene lineas que no son numeros
+     *         o no respeta el formato binario, ordenando en memoria o en disco
+     */
+    public long ordenar(InputStream cuerpo, long longitud, boolean entradaBinaria,
+                        EscritorNumeros.Formato formatoSalida, DestinoRespuesta destino) throws IOException {
+        long estimacion = longitud >= 0 ? estimarMemoria(longitud, entradaBinaria) : Long.MAX_VALUE;
+        boolean enMemoria = estimacion <= memoriaPorSolicitud;
+        int permisos = aPermisos(enMemoria ? estimacion : memoriaPorSolicitud);
+
+        admitir(permisos);
+        try {
+            if (enMemoria) {
+                return ordenarEnMemoria(cuerpo, longitud, entradaBinaria, formatoSalida, destino);
+            }
+            return ordenarEnDisco(cuerpo, entradaBinaria, formatoSalida, destino);
+        } finally {
+            memoriaDisponible.release(permisos);
+        }
+    }
+
+    /**
+     * Recorre el cuerpo conservando solo los k menores o mayores y los
+     * escribe en la respuesta
+     * @param cuerpo Cuerpo de la solicitud
+     * @param entradaBinaria true si el cuerpo viene en formato {@link ArchivoBinarioNumeros}, false si es texto
+     * @param k Cantidad de valores a devolver
+     * @param mayores true para los mayores en orden descendente, false para los menores en orden ascendente
+     * @param formatoSalida Formato de la respuesta
+     * @param destino Apertura de la respuesta
+     * @return Cantidad de numeros escritos, el menor entre k y los del cuerpo
+     * @throws SolicitudRechazadaException si no hubo memoria libre a tiempo
+     * @throws IllegalArgumentException si k no entra en la memoria por solicitud o el cuerpo es invalido
+     */
+    public long seleccionar(InputStream cuerpo, boolean entradaBinaria, int k, boolean mayores,
+                            EscritorNumeros.Formato formatoSalida, DestinoRespuesta destino) throws IOException {
+        if (k < 0) {
+            throw new IllegalArgumentException("k no puede ser negativo: " + k);
+        }
+        // El monticulo y el resultado ordenado
+        long estimacion = (long) k * Integer.BYTES * 2 + MEMORIA_FIJA_SOLICITUD;
+        if (estimacion > memoriaPorSolicitud) {
+            throw new IllegalArgumentException("k es demasiado grande para la memoria por solicitud: " + k);
+        }
+        int permisos = aPermisos(estimacion);
+
+        admitir(permisos);
+        try {
+            Seleccion.Acumulador acumulador = new Seleccion.Acumulador(k, mayores);
+            try {
+                leerCuerpo(cuerpo, entradaBinaria, acumulador);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("El cuerpo de la solicitud no es valido: " + e.getMessage(), e);
+            }
+            int[] resultado = acumulador.obtenerResultado();
+
+            if (formatoSalida == EscritorNumeros.Formato.BINARIO) {
+                try (OutputStream salida = destino.abrir(resultado.length)) {
+                    ArchivoBinarioNumeros.escribir(salida, resultado, 0, resultado.length, !mayores);
+                }
+                return resultado.length;
+            }
+            try (EscritorNumeros escritor = EscritorNumeros.flujo(destino.abrir(resultado.length), formatoSalida)) {
+                escritor.escribir(resultado, 0, resultado.length);
+            }
+            return resultado.length;
+        } finally {
+            memoriaDisponible.release(permisos);
+        }
+    }
+
+    /**
+     * Cota superior de la memoria que necesita ordenar un cuerpo en memoria:
+     * en texto cada numero ocupa al menos dos bytes (un digito y el salto de linea)
+     * @param longitud Bytes del cuerpo
+     * @param entradaBinaria Si el cuerpo es binario
+     * @return Bytes a reservar
+     */
+    static long estimarMemoria(long longitud, boolean entradaBinaria) {
+        long maximoNumeros = entradaBinaria
+                ? Math.max(0, longitud - ArchivoBinarioNumeros.TAMANO_CABECERA) / Integer.BYTES
+                : (longitud + 1) / 2;
+        return maximoNumeros * Integer.BYTES * COPIAS_EN_MEMORIA + MEMORIA_FIJA_SOLICITUD;
+    }
+
+    /**
+     * @return Bytes de memoria libres para nuevas solicitudes
+     */
+    public long obtenerMemoriaLibre() {
+        return (long) memoriaDisponible.availablePermits() * BYTES_POR_PERMISO;
+    }
+
+    /**
+     * @return Bytes de memoria que pueden usar entre todas las solicitudes
+     */
+    public long obtenerMemoriaTotal() {
+        return memoriaTotal;
+    }
+
+    /**
+     * @return Bytes maximos de una solicitud en memoria
+     */
+    public long obtenerMemoriaPorSolicitud() {
+        return memoriaPorSolicitud;
+    }
+
+    private void admitir(int permisos) {
+        try {
+            if (!memoriaDisponible.tryAcquire(permisos, esperaAdmisionMs, TimeUnit.MILLISECONDS)) {
+                throw new SolicitudRechazadaException("No hay memoria libre para la solicitud ("
+                        + (long) permisos * BYTES_POR_PERMISO + " bytes) despues de esperar " + esperaAdmisionMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SolicitudRechazadaException("La espera por memoria fue interrumpida");
+        }
+    }
+
+    private long ordenarEnMemoria(InputStream cuerpo, long longitud, boolean entradaBinaria,
+                                  EscritorNumeros.Formato formatoSalida, DestinoRespuesta destino) throws IOException {
+        // Capacidad para la cota de estimarMemoria: el arreglo no crece y la reserva no se excede
+        long maximoNumeros = (estimarMemoria(longitud, entradaBinaria) - MEMORIA_FIJA_SOLICITUD)
+                / (Integer.BYTES * COPIAS_EN_MEMORIA);
+        ArregloEnteros numeros = new ArregloEnteros((int) Math.min(Math.max(16, maximoNumeros), Integer.MAX_VALUE - 8));
+        EventoFase lectura = EventoFase.iniciar(EventoFase.Fase.LECTURA, 0);
+        try {
+            leerCuerpo(cuerpo, entradaBinaria, numeros::agregar);
+        } catch (IOException e) {
+            // Aca no se escribe en disco: cualquier falla viene del cuerpo
+            throw new IllegalArgumentException("El cuerpo de la solicitud no es valido: " + e.getMessage(), e);
+        }
+        int[] datos = numeros.aArreglo();
+        lectura.fijarElementos(datos.length);
+        lectura.commit();
+
+        if (formatoSalida == EscritorNumeros.Formato.BINARIO) {
+            MotorOrdenamiento.ordenar(datos);
+            try (OutputStream salida = destino.abrir(datos.length)) {
+                ArchivoBinarioNumeros.escribir(salida, datos, 0, datos.length, true);
+            }
+            return datos.length;
+        }
+
+        // La ultima mezcla escribe directamente en la respuesta
+        try (EscritorNumeros escritor = EscritorNumeros.flujo(destino.abrir(datos.length), formatoSalida)) {
+            MotorOrdenamiento.ordenarHacia(datos, escritor);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return datos.length;
+    }
+
+    private long ordenarEnDisco(InputStream cuerpo, boolean entradaBinaria,
+                                EscritorNumeros.Formato formatoSalida, DestinoRespuesta destino) throws IOException {
+        OrdenamientoExterno ordenador = new OrdenamientoExterno(memoriaPorSolicitud - MEMORIA_FIJA_SOLICITUD,
+                OrdenamientoExterno.ABANICO_MAXIMO_PREDETERMINADO, directorioTemporal);
+        OrdenamientoExterno.FuenteNumeros fuente = numeros -> leerCuerpo(cuerpo, entradaBinaria, numeros);
+
+        if (formatoSalida != EscritorNumeros.Formato.BINARIO) {
+            return ordenador.ordenar(fuente, cantidad -> EscritorNumeros.flujo(destino.abrir(cantidad), formatoSalida));
+        }
+
+        // La cabecera binaria lleva la suma de control del contenido: se arma
+        // el archivo completo en disco y despues se copia a la respuesta
+        Path binario = Files.createTempFile(directorioTemporal, "innoad-respuesta-", ".bin");
+        try {
+            long cantidad = ordenador.ordenar(fuente, total -> EscritorNumeros.abrir(binario, formatoSalida));
+            try (OutputStream salida = destino.abrir(cantidad)) {
+                Files.copy(binario, salida);
+            }
+            return cantidad;
+        } finally {
+            Files.deleteIfExists(binario);
+        }
+    }
+
+    /**
+     * Un cuerpo mal formado es un error del cliente en cualquier camino: se
+     * informa como IllegalArgumentException. Las demas IOException son fallas
+     * de lectura o del disco
+     */
+    private static void leerCuerpo(InputStream cuerpo, boolean entradaBinaria, IntConsumer numeros) throws IOException {
+        if (entradaBinaria) {
+            try {
+                ArchivoBinarioNumeros.recorrer(cuerpo, numeros);
+            } catch (FormatoBinarioInvalidoException e) {
+                throw new IllegalArgumentException("El cuerpo de la solicitud no es valido: " + e.getMessage(), e);
+            }
+            return;
+        }
+        LectorNumerosTexto.Resultado resultado = LectorNumerosTexto.recorrer(cuerpo, numeros);
+        if (!resultado.esValido()) {
+            throw new IllegalArgumentException(LectorNumerosTexto.describirErrores("El cuerpo de la solicitud", resultado));
+        }
+    }
+
+    private static int aPermisos(long bytes) {
+        return (int) Math.min(Integer.MAX_VALUE, (bytes + BYTES_POR_PERMISO - 1) / BYTES_POR_PERMISO);
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.example.ordenamientomergesortinnoad;
+
+/**
+ * La solicitud no se admitio porque no hubo memoria libre dentro del
+ * tiempo de espera; el cliente puede reintentar mas tarde
+ */
+public class SolicitudRechazadaException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SolicitudRechazadaException(String mensaje) {
+        super(mensaje);
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.innoad.ordenamiento;
+
+/**
+ * Algoritmos que se pueden elegir al llamar a {@link MotorOrdenamiento}
+ */
+public enum Algoritmo {
+
+    /** Merge Sort con un unico buffer auxiliar, sin deteccion de rango */
+    MERGE_SORT,
+
+    /** Ordenamiento por conteo; si el rango de valores es muy amplio se usa Merge Sort */
+    CONTEO,
+
+    /** Radix Sort LSD con digitos de 11 bits para claves de rango completo */
+    RADIX,
+
+    /** Deteccion de corridas naturales al estilo TimSort; O(n) si la entrada ya esta ordenada */
+    ADAPTATIVO,
+
+    /** Merge Sort con redes bitonicas y mezclas SIMD; sin la Vector API equivale a MERGE_SORT */
+    VECTORIAL,
+
+    /** Eleccion por muestreo con {@link SelectorAlgoritmo}, sin la estrategia paralela */
+    AUTOMATICO
+}
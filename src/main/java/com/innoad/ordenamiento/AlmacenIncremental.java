@@ -0,0 +1,837 @@
+package com.innoad.ordenamiento;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Almacen ordenado para ingesta continua, al estilo de un arbol LSM, en
+ * lugar de regenerar y reordenar todo el archivo con cada lote nuevo:
+ * <ul>
+ *   <li>Los valores nuevos se agregan a un buffer en memoria. Agregar es
+ *       guardar en un arreglo: el buffer se ordena recien al volcarlo, asi
+ *       el costo de agregar no crece con el almacen.</li>
+ *   <li>Cada buffer lleno pasa a un hilo de volcado que lo ordena con
+ *       {@link MotorOrdenamiento} y lo escribe como segmento inmutable en
+ *       formato {@link ArchivoBinarioNumeros}. Si hay
+ *       {@link #MAXIMO_PENDIENTES} buffers esperando su volcado, agregar
+ *       espera: la memoria queda acotada.</li>
+ *   <li>Un hilo de compactacion mezcla con {@link MezclaCorridas} cada grupo
+ *       de factorCompactacion segmentos consecutivos del mismo nivel en un
+ *       segmento del nivel siguiente. Con la compactacion al dia quedan
+ *       como mucho factor - 1 segmentos por nivel y
+ *       log_factor(cantidad / capacidad) + 1 niveles; si se atrasa mas de
+ *       un grupo, los volcados la esperan y la cantidad de segmentos no
+ *       pasa de ese limite.</li>
+ *   <li>{@link #leer()} entrega en cualquier momento un iterador ordenado
+ *       sobre todos los segmentos y los buffers, mezclados en k vias.</li>
+ * </ul>
+ * Cada segmento se llama segmento-nivel-desde-hasta.bin, con el rango de
+ * volcados que contiene. Al abrir el directorio se borran los restos de
+ * una compactacion interrumpida: las mezclas a medio escribir y los
+ * segmentos cuyo rango ya esta dentro de otro. Los valores que todavia
+ * estan en memoria se pierden si el proceso muere antes de
+ * {@link #vaciar()} o {@link #close()}.
+ * Implementa IntConsumer para recibir directamente lo que entregan
+ * {@link LectorNumerosTexto} y {@link ArchivoBinarioNumeros}.
+ */
+public final class AlmacenIncremental implements IntConsumer, AutoCloseable {
+
+    /** Valores por buffer en memoria predeterminados: 4 MB */
+    public static final int CAPACIDAD_MEMORIA_PREDETERMINADA = 1 << 20;
+
+    /** Segmentos de un mismo nivel que se mezclan juntos */
+    public static final int FACTOR_COMPACTACION_PREDETERMINADO = 4;
+
+    /** Buffers llenos que pueden esperar su volcado antes de frenar a quien agrega */
+    public static final int MAXIMO_PENDIENTES = 2;
+
+    private static final String PREFIJO_SEGMENTO = "segmento-";
+    private static final String EXTENSION_SEGMENTO = ".bin";
+    private static final String EXTENSION_PARCIAL = ".parcial";
+    private static final String ARCHIVO_BLOQUEO = "almacen.lock";
+
+    private final Path directorio;
+    private final int capacidadMemoria;
+    private final int factorCompactacion;
+    private final FileChannel canalBloqueo;
+    private final FileLock bloqueo;
+    private final ExecutorService volcador;
+    private final ExecutorService compactador;
+
+    // Estado protegido por el monitor del almacen
+    private int[] activo;
+    private int ocupados;
+    /** Buffers llenos en orden de llegada; no se modifican despues de entrar */
+    private final ArrayDeque<int[]> pendientes = new ArrayDeque<>();
+    /** Segmentos en orden de volcado: los de nivel mas alto primero */
+    private final List<Segmento> segmentos = new ArrayList<>();
+    private long siguienteVolcado;
+    private IOException fallo;
+    private boolean cerrado;
+
+    /**
+     * Abre o crea un almacen con la capacidad y el factor predeterminados
+     * @param directorio Directorio de los segmentos (se crea si no existe)
+     */
+    public AlmacenIncremental(Path directorio) throws IOException {
+        this(directorio, CAPACIDAD_MEMORIA_PREDETERMINADA, FACTOR_COMPACTACION_PREDETERMINADO);
+    }
+
+    /**
+     * Abre o crea un almacen. Un directorio solo puede tenerlo abierto un almacen a la vez
+     * @param directorio Directorio de los segmentos (se crea si no existe)
+     * @param capacidadMemoria Valores por buffer en memoria, y por lo tanto por segmento de nivel 0
+     * @param factorCompactacion Segmentos de un nivel que se mezclan juntos (al menos 2)
+     * @throws IOException si el directorio no se puede usar o ya esta abierto
+     */
+    public AlmacenIncremental(Path directorio, int capacidadMemoria, int factorCompactacion) throws IOException {
+        if (capacidadMemoria < 1) {
+            throw new IllegalArgumentException("La capacidad en memoria debe ser mayor a 0: " + capacidadMemoria);
+        }
+        if (factorCompactacion < 2) {
+            throw new IllegalArgumentException("El factor de compactacion debe ser al menos 2: " + factorCompactacion);
+        }
+        this.directorio = directorio;
+        this.capacidadMemoria = capacidadMemoria;
+        this.factorCompactacion = factorCompactacion;
+
+        Files.createDirectories(directorio);
+        this.canalBloqueo = FileChannel.open(directorio.resolve(ARCHIVO_BLOQUEO),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock obtenido;
+        try {
+            obtenido = canalBloqueo.tryLock();
+        } catch (OverlappingFileLockException e) {
+            obtenido = null;
+        }
+        if (obtenido == null) {
+            canalBloqueo.close();
+            throw new IOException("El almacen " + directorio + " ya esta abierto");
+        }
+        this.bloqueo = obtenido;
+
+        try {
+            recuperar();
+        } catch (IOException | RuntimeException e) {
+            bloqueo.release();
+            canalBloqueo.close();
+            throw e;
+        }
+        this.activo = new int[capacidadMemoria];
+        this.volcador = Executors.newSingleThreadExecutor();
+        this.compactador = Executors.newSingleThreadExecutor();
+        // Un cierre anterior pudo dejar niveles llenos sin compactar
+        compactador.execute(this::compactar);
+    }
+
+    public static void main(String[] args) {
+        // agregar y exportar llevan ademas el archivo
+        boolean faltaArchivo = args.length == 2 && (args[1].equals("agregar") || args[1].equals("exportar"));
+        if (args.length < 2 || faltaArchivo) {
+            System.out.println("Uso: AlmacenIncremental <directorio> agregar <archivo>");
+            System.out.println("     AlmacenIncremental <directorio> exportar <salida.txt|salida.bin>");
+            System.out.println("     AlmacenIncremental <directorio> estado");
+            return;
+        }
+
+        long tiempoInicio = System.currentTimeMillis();
+        try (AlmacenIncremental almacen = new AlmacenIncremental(Paths.get(args[0]))) {
+            switch (args[1]) {
+                case "agregar" -> {
+                    Path entrada = Paths.get(args[2]);
+                    long antes = almacen.obtenerCantidad();
+                    if (ArchivoBinarioNumeros.esBinario(entrada)) {
+                        try (InputStream flujo = Files.newInputStream(entrada)) {
+                            ArchivoBinarioNumeros.recorrer(flujo, almacen);
+                        }
+                    } else {
+                        LectorNumerosTexto.Resultado resultado = LectorNumerosTexto.recorrer(entrada, almacen);
+                        if (!resultado.esValido()) {
+                            System.err.println(LectorNumerosTexto.describirErrores(entrada, resultado));
+                        }
+                    }
+                    almacen.vaciar();
+                    System.out.println("[OK] " + (almacen.obtenerCantidad() - antes) + " numeros agregados en "
+                            + (System.currentTimeMillis() - tiempoInicio) + " milisegundos");
+                }
+                case "exportar" -> {
+                    Path salida = Paths.get(args[2]);
+                    EscritorNumeros.Formato formato = salida.toString().endsWith(".bin")
+                            ? EscritorNumeros.Formato.BINARIO : EscritorNumeros.Formato.TEXTO;
+                    long cantidad = almacen.exportar(salida, formato);
+                    System.out.println("[OK] " + cantidad + " numeros exportados en orden en "
+                            + (System.currentTimeMillis() - tiempoInicio) + " milisegundos");
+                }
+                case "estado" -> System.out.println(almacen.obtenerCantidad() + " numeros en "
+                        + almacen.obtenerSegmentos() + " segmentos");
+                default -> System.err.println("Operacion desconocida: " + args[1]);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error en el almacen incremental: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Agrega un valor al buffer en memoria. Solo espera si el volcado va
+     * {@link #MAXIMO_PENDIENTES} buffers atrasado
+     * @param valor Valor a agregar
+     * @throws IOException si un volcado o una compactacion anterior fallo
+     */
+    public synchronized void agregar(int valor) throws IOException {
+        verificarEstado();
+        if (ocupados == activo.length) {
+            entregarActivo();
+        }
+        activo[ocupados++] = valor;
+    }
+
+    /**
+     * Agrega el rango [desde, hasta) de un arreglo
+     * @param valores Valores a agregar
+     * @param desde Indice inicial, inclusivo
+     * @param hasta Indice final, exclusivo
+     */
+    public synchronized void agregar(int[] valores, int desde, int hasta) throws IOException {
+        MotorOrdenamiento.verificarRango(valores.length, desde, hasta);
+        verificarEstado();
+        while (desde < hasta) {
+            if (ocupados == activo.length) {
+                entregarActivo();
+            }
+            int copiados = Math.min(hasta - desde, activo.length - ocupados);
+            System.arraycopy(valores, desde, activo, ocupados, copiados);
+            ocupados += copiados;
+            desde += copiados;
+        }
+    }
+
+    /**
+     * Version de {@link #agregar(int)} para usar como IntConsumer
+     * @throws UncheckedIOException si el almacen fallo
+     */
+    @Override
+    public void accept(int valor) {
+        try {
+            agregar(valor);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Vuelca a segmentos todo lo que esta en memoria y espera a que termine.
+     * Al volver, todo lo agregado hasta ahora sobrevive a un reinicio
+     */
+    public void vaciar() throws IOException {
+        synchronized (this) {
+            verificarEstado();
+            if (ocupados > 0) {
+                pendientes.addLast(Arrays.copyOf(activo, ocupados));
+                ocupados = 0;
+                volcador.execute(this::volcarPendiente);
+            }
+            try {
+                while (!pendientes.isEmpty() && fallo == null) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Vaciado del almacen interrumpido");
+            }
+            verificarEstado();
+        }
+    }
+
+    /**
+     * Abre una lectura ordenada de todo lo agregado hasta ahora, incluidos
+     * los buffers en memoria. Lo que se agregue despues no aparece. Los
+     * segmentos que lee quedan en disco hasta cerrarla aunque una
+     * compactacion los reemplace
+     * @return Iterador ordenado; se cierra al terminar
+     */
+    public Lectura leer() throws IOException {
+        List<Segmento> vistos;
+        List<int[]> pendientesVistos;
+        int[] copiaActivo;
+        synchronized (this) {
+            verificarEstado();
+            vistos = new ArrayList<>(segmentos);
+            for (Segmento segmento : vistos) {
+                segmento.referencias++;
+            }
+            // Los pendientes no cambian: se copian fuera del monitor
+            pendientesVistos = new ArrayList<>(pendientes);
+            copiaActivo = Arrays.copyOf(activo, ocupados);
+        }
+
+        Lectura lectura = new Lectura(vistos);
+        try {
+            for (int[] buffer : pendientesVistos) {
+                int[] ordenado = buffer.clone();
+                MotorOrdenamiento.ordenar(ordenado);
+                lectura.corridas.add(new CorridaArreglo(ordenado));
+            }
+            MotorOrdenamiento.ordenar(copiaActivo);
+            lectura.corridas.add(new CorridaArreglo(copiaActivo));
+            lectura.iniciar();
+        } catch (IOException | RuntimeException e) {
+            lectura.close();
+            throw e;
+        }
+        return lectura;
+    }
+
+    /**
+     * Escribe todo el contenido ordenado en un archivo
+     * @param salida Archivo destino (se reemplaza si existe)
+     * @param formato Formato de salida
+     * @return Cantidad de numeros escritos
+     */
+    public long exportar(Path salida, EscritorNumeros.Formato formato) throws IOException {
+        try (Lectura lectura = leer();
+             EscritorNumeros escritor = EscritorNumeros.abrir(salida, formato)) {
+            while (lectura.hasNext()) {
+                escritor.escribir(lectura.nextInt());
+            }
+            return escritor.obtenerCantidad();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * @return Valores en el almacen, en disco y en memoria
+     */
+    public synchronized long obtenerCantidad() {
+        long cantidad = ocupados;
+        for (int[] buffer : pendientes) {
+            cantidad += buffer.length;
+        }
+        for (Segmento segmento : segmentos) {
+            cantidad += segmento.cantidad;
+        }
+        return cantidad;
+    }
+
+    /**
+     * @return Segmentos en disco en este momento
+     */
+    public synchronized int obtenerSegmentos() {
+        return segmentos.size();
+    }
+
+    /**
+     * Vuelca lo que queda en memoria, espera a la compactacion en curso y
+     * libera el directorio
+     */
+    @Override
+    public void close() throws IOException {
+        boolean fallido;
+        synchronized (this) {
+            if (cerrado) {
+                return;
+            }
+            fallido = fallo != null;
+        }
+        try {
+            if (!fallido) {
+                vaciar();
+            }
+        } finally {
+            synchronized (this) {
+                cerrado = true;
+                volcador.shutdown();
+                compactador.shutdown();
+            }
+            try {
+                volcador.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+                compactador.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            bloqueo.release();
+            canalBloqueo.close();
+        }
+    }
+
+    private void verificarEstado() throws IOException {
+        if (cerrado) {
+            throw new IllegalStateException("El almacen esta cerrado");
+        }
+        if (fallo != null) {
+            throw new IOException("El almacen fallo en segundo plano: " + fallo.getMessage(), fallo);
+        }
+    }
+
+    /**
+     * Pasa el buffer activo lleno a los pendientes de volcado, esperando si
+     * ya hay demasiados. Se llama con el monitor tomado
+     */
+    private void entregarActivo() throws IOException {
+        try {
+            while (pendientes.size() >= MAXIMO_PENDIENTES && fallo == null) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Espera del volcado interrumpida");
+        }
+        verificarEstado();
+        pendientes.addLast(activo);
+        activo = new int[capacidadMemoria];
+        ocupados = 0;
+        volcador.execute(this::volcarPendiente);
+    }
+
+    /**
+     * Tarea del hilo de volcado: ordena el pendiente mas viejo y lo escribe
+     * como segmento de nivel 0. El buffer sale de los pendientes en el mismo
+     * paso en que el segmento entra a la lista, asi una lectura nunca ve
+     * sus valores dos veces ni deja de verlos
+     */
+    private void volcarPendiente() {
+        int[] buffer;
+        long volcado;
+        synchronized (this) {
+            try {
+                // Si la compactacion va atrasada, el volcado la espera y los pendientes frenan a quien agrega
+                while (segmentos.size() >= limiteSegmentos() && fallo == null) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                registrarFallo(new InterruptedIOException("Volcado interrumpido"));
+                return;
+            }
+            buffer = pendientes.peekFirst();
+            if (buffer == null || fallo != null) {
+                return;
+            }
+            volcado = siguienteVolcado++;
+        }
+        try {
+            // Una lectura puede estar copiando el buffer: se ordena una copia
+            int[] ordenado = buffer.clone();
+            MotorOrdenamiento.ordenar(ordenado);
+            EventoFase fase = EventoFase.iniciar(EventoFase.Fase.VOLCADO, ordenado.length);
+            Path destino = directorio.resolve(nombreSegmento(0, volcado, volcado));
+            Path parcial = rutaParcial(destino);
+            ArchivoBinarioNumeros.escribir(parcial, ordenado, 0, ordenado.length, true);
+            publicar(parcial, destino);
+            fase.commit();
+
+            synchronized (this) {
+                pendientes.pollFirst();
+                segmentos.add(new Segmento(destino, 0, volcado, volcado, ordenado.length));
+                if (!cerrado) {
+                    compactador.execute(this::compactar);
+                }
+                notifyAll();
+            }
+        } catch (IOException | RuntimeException e) {
+            registrarFallo(e);
+        }
+    }
+
+    /**
+     * Tarea del hilo de compactacion: mientras haya factorCompactacion
+     * segmentos consecutivos del mismo nivel, los mezcla en uno del nivel
+     * siguiente. Los reemplazados se borran cuando ninguna lectura los usa
+     */
+    private void compactar() {
+        while (true) {
+            List<Segmento> grupo;
+            synchronized (this) {
+                if (cerrado || fallo != null) {
+                    return;
+                }
+                grupo = elegirGrupo();
+                if (grupo == null) {
+                    return;
+                }
+            }
+            try {
+                Segmento nuevo = mezclar(grupo);
+                synchronized (this) {
+                    int posicion = segmentos.indexOf(grupo.get(0));
+                    segmentos.subList(posicion, posicion + grupo.size()).clear();
+                    segmentos.add(posicion, nuevo);
+                    for (Segmento segmento : grupo) {
+                        segmento.obsoleto = true;
+                        borrarSiLibre(segmento);
+                    }
+                    notifyAll();
+                }
+            } catch (IOException | RuntimeException e) {
+                registrarFallo(e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Segmentos que la politica deja sin compactar, mas un grupo por
+     * mezclar: factor - 1 por cada nivel existente y por el que puede crear
+     * la proxima mezcla. Como los niveles bajan a lo largo de la lista, por
+     * encima del limite siempre hay un grupo para compactar. Se llama con el
+     * monitor tomado
+     */
+    private int limiteSegmentos() {
+        int niveles = 0;
+        for (Segmento segmento : segmentos) {
+            niveles = Math.max(niveles, segmento.nivel + 1);
+        }
+        return (factorCompactacion - 1) * (niveles + 1) + factorCompactacion;
+    }
+
+    /**
+     * Primeros factorCompactacion segmentos consecutivos del mismo nivel, o
+     * null si ningun nivel esta lleno. Se llama con el monitor tomado
+     */
+    private List<Segmento> elegirGrupo() {
+        int inicio = 0;
+        for (int i = 1; i <= segmentos.size(); i++) {
+            if (i == segmentos.size() || segmentos.get(i).nivel != segmentos.get(inicio).nivel) {
+                inicio = i;
+            } else if (i - inicio + 1 == factorCompactacion) {
+                return new ArrayList<>(segmentos.subList(inicio, i + 1));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Mezcla un grupo de segmentos consecutivos en uno nuevo del nivel siguiente
+     */
+    private Segmento mezclar(List<Segmento> grupo) throws IOException {
+        int nivel = grupo.get(0).nivel + 1;
+        long desde = grupo.get(0).desde;
+        long hasta = grupo.get(grupo.size() - 1).hasta;
+        Path destino = directorio.resolve(nombreSegmento(nivel, desde, hasta));
+        Path parcial = rutaParcial(destino);
+
+        List<LectorSegmento> lectores = new ArrayList<>(grupo.size());
+        EventoFase fase = EventoFase.iniciar(EventoFase.Fase.MEZCLA, 0);
+        long cantidad;
+        try {
+            for (Segmento segmento : grupo) {
+                lectores.add(new LectorSegmento(segmento.ruta));
+            }
+            try (EscritorNumeros escritor = EscritorNumeros.abrir(parcial, EscritorNumeros.Formato.BINARIO)) {
+                MezclaCorridas mezcla = new MezclaCorridas(lectores);
+                while (mezcla.haySiguiente()) {
+                    escritor.escribir(mezcla.siguiente());
+                }
+                cantidad = escritor.obtenerCantidad();
+            }
+            publicar(parcial, destino);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(parcial);
+            throw e;
+        } finally {
+            for (LectorSegmento lector : lectores) {
+                lector.close();
+            }
+        }
+        fase.fijarElementos(cantidad);
+        fase.commit();
+        return new Segmento(destino, nivel, desde, hasta, cantidad);
+    }
+
+    /**
+     * Fuerza el archivo a disco y le da su nombre definitivo de una vez
+     */
+    private static void publicar(Path parcial, Path destino) throws IOException {
+        try (FileChannel canal = FileChannel.open(parcial, StandardOpenOption.WRITE)) {
+            canal.force(true);
+        }
+        Files.move(parcial, destino, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private synchronized void registrarFallo(Exception e) {
+        if (fallo == null) {
+            fallo = e instanceof IOException io ? io : new IOException(e);
+            System.err.println("Error en segundo plano en el almacen " + directorio + ": " + e.getMessage());
+        }
+        notifyAll();
+    }
+
+    /**
+     * Borra un segmento reemplazado si ninguna lectura lo esta usando. Se
+     * llama con el monitor tomado
+     */
+    private void borrarSiLibre(Segmento segmento) {
+        if (!segmento.obsoleto || segmento.referencias > 0) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(segmento.ruta);
+        } catch (IOException e) {
+            System.err.println("No se pudo borrar el segmento " + segmento.ruta + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Carga los segmentos del directorio, borrando las mezclas a medio
+     * escribir y los segmentos que una compactacion ya habia reemplazado
+     */
+    private void recuperar() throws IOException {
+        List<Segmento> encontrados = new ArrayList<>();
+        try (DirectoryStream<Path> contenido = Files.newDirectoryStream(directorio)) {
+            for (Path archivo : contenido) {
+                String nombre = archivo.getFileName().toString();
+                if (nombre.startsWith(PREFIJO_SEGMENTO) && nombre.endsWith(EXTENSION_PARCIAL)) {
+                    Files.deleteIfExists(archivo);
+                    continue;
+                }
+                Segmento segmento = Segmento.desdeNombre(archivo);
+                if (segmento != null) {
+                    encontrados.add(segmento);
+                }
+            }
+        }
+
+        // Por inicio del rango y, a igual inicio, el mas amplio primero
+        encontrados.sort(Comparator.comparingLong((Segmento segmento) -> segmento.desde)
+                .thenComparing(Comparator.comparingLong((Segmento segmento) -> segmento.hasta).reversed()));
+        for (Segmento segmento : encontrados) {
+            Segmento anterior = segmentos.isEmpty() ? null : segmentos.get(segmentos.size() - 1);
+            if (anterior != null && segmento.hasta <= anterior.hasta) {
+                Files.deleteIfExists(segmento.ruta);
+                continue;
+            }
+            segmento.cantidad = ArchivoBinarioNumeros.leerCabecera(segmento.ruta).obtenerCantidad();
+            segmentos.add(segmento);
+        }
+        siguienteVolcado = segmentos.isEmpty() ? 0 : segmentos.get(segmentos.size() - 1).hasta + 1;
+    }
+
+    private static String nombreSegmento(int nivel, long desde, long hasta) {
+        return PREFIJO_SEGMENTO + nivel + "-" + desde + "-" + hasta + EXTENSION_SEGMENTO;
+    }
+
+    private static Path rutaParcial(Path destino) {
+        return destino.resolveSibling(destino.getFileName() + EXTENSION_PARCIAL);
+    }
+
+    /**
+     * Lectura ordenada de una foto del almacen. Mientras esta abierta, los
+     * segmentos que usa no se borran
+     */
+    public final class Lectura implements PrimitiveIterator.OfInt, Closeable {
+        private final List<Segmento> vistos;
+        private final List<MezclaCorridas.Corrida> corridas = new ArrayList<>();
+        private final List<LectorSegmento> lectores = new ArrayList<>();
+        private MezclaCorridas mezcla;
+        private boolean cerrada;
+
+        private Lectura(List<Segmento> vistos) {
+            this.vistos = vistos;
+        }
+
+        /**
+         * Abre los segmentos y arma la mezcla; los buffers en memoria ya
+         * estan en las corridas y, a igual valor, salen despues de los segmentos
+         */
+        private void iniciar() throws IOException {
+            List<MezclaCorridas.Corrida> todas = new ArrayList<>(vistos.size() + corridas.size());
+            for (Segmento segmento : vistos) {
+                LectorSegmento lector = new LectorSegmento(segmento.ruta);
+                lectores.add(lector);
+                todas.add(lector);
+            }
+            todas.addAll(corridas);
+            mezcla = new MezclaCorridas(todas);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return mezcla.haySiguiente();
+        }
+
+        /**
+         * @throws UncheckedIOException si falla la lectura de un segmento
+         */
+        @Override
+        public int nextInt() {
+            if (!mezcla.haySiguiente()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                return mezcla.siguiente();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Cierra los segmentos y permite borrar los que una compactacion reemplazo
+         */
+        @Override
+        public void close() throws IOException {
+            if (cerrada) {
+                return;
+            }
+            cerrada = true;
+            IOException primerError = null;
+            for (LectorSegmento lector : lectores) {
+                try {
+                    lector.close();
+                } catch (IOException e) {
+                    primerError = primerError == null ? e : primerError;
+                }
+            }
+            synchronized (AlmacenIncremental.this) {
+                for (Segmento segmento : vistos) {
+                    segmento.referencias--;
+                    borrarSiLibre(segmento);
+                }
+            }
+            if (primerError != null) {
+                throw primerError;
+            }
+        }
+    }
+
+    /**
+     * Un segmento en disco: su nivel, el rango de volcados que contiene y
+     * cuantas lecturas lo estan usando
+     */
+    private static final class Segmento {
+        private final Path ruta;
+        private final int nivel;
+        private final long desde;
+        private final long hasta;
+        private long cantidad;
+        private int referencias;
+        private boolean obsoleto;
+
+        Segmento(Path ruta, int nivel, long desde, long hasta, long cantidad) {
+            this.ruta = ruta;
+            this.nivel = nivel;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.cantidad = cantidad;
+        }
+
+        /**
+         * @return Segmento descrito por el nombre del archivo, o null si no es un segmento
+         */
+        static Segmento desdeNombre(Path archivo) {
+            String nombre = archivo.getFileName().toString();
+            if (!nombre.startsWith(PREFIJO_SEGMENTO) || !nombre.endsWith(EXTENSION_SEGMENTO)) {
+                return null;
+            }
+            String[] partes = nombre.substring(PREFIJO_SEGMENTO.length(),
+                    nombre.length() - EXTENSION_SEGMENTO.length()).split("-");
+            if (partes.length != 3) {
+                return null;
+            }
+            try {
+                return new Segmento(archivo, Integer.parseInt(partes[0]), Long.parseLong(partes[1]),
+                        Long.parseLong(partes[2]), 0);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Lector secuencial de un segmento binario que verifica la suma de
+     * control al llegar al final
+     */
+    private static final class LectorSegmento implements MezclaCorridas.Corrida, Closeable {
+        private final Path ruta;
+        private final FileChannel canal;
+        private final long sumaEsperada;
+        private final CRC32C suma = new CRC32C();
+        private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        private long posicion = ArchivoBinarioNumeros.TAMANO_CABECERA;
+        private long restantes;
+        private int actual;
+
+        LectorSegmento(Path ruta) throws IOException {
+            ArchivoBinarioNumeros.Cabecera cabecera = ArchivoBinarioNumeros.leerCabecera(ruta);
+            if (cabecera.obtenerAncho() != ArchivoBinarioNumeros.ANCHO_INT || !cabecera.estaOrdenado()) {
+                throw new IOException("El segmento " + ruta + " no es un archivo ordenado de int");
+            }
+            this.ruta = ruta;
+            this.canal = FileChannel.open(ruta, StandardOpenOption.READ);
+            this.sumaEsperada = cabecera.obtenerSuma();
+            this.restantes = cabecera.obtenerCantidad();
+            buffer.limit(0);
+        }
+
+        @Override
+        public boolean avanzar() throws IOException {
+            if (!buffer.hasRemaining()) {
+                if (restantes == 0) {
+                    return false;
+                }
+                recargar();
+            }
+            actual = buffer.getInt();
+            return true;
+        }
+
+        @Override
+        public int actual() {
+            return actual;
+        }
+
+        private void recargar() throws IOException {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), restantes * Integer.BYTES));
+            while (buffer.hasRemaining()) {
+                int leidos = canal.read(buffer, posicion);
+                if (leidos < 0) {
+                    throw new EOFException("El segmento " + ruta + " esta truncado");
+                }
+                posicion += leidos;
+            }
+            buffer.flip();
+            suma.update(buffer.array(), 0, buffer.limit());
+            restantes -= buffer.limit() / Integer.BYTES;
+            if (restantes == 0 && suma.getValue() != sumaEsperada) {
+                throw new IOException("Suma de control incorrecta en el segmento " + ruta);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            canal.close();
+        }
+    }
+
+    /**
+     * Corrida sobre un buffer en memoria ya ordenado
+     */
+    private static final class CorridaArreglo implements MezclaCorridas.Corrida {
+        private final int[] datos;
+        private int posicion = -1;
+
+        CorridaArreglo(int[] datos) {
+            this.datos = datos;
+        }
+
+        @Override
+        public boolean avanzar() {
+            return ++posicion < datos.length;
+        }
+
+        @Override
+        public int actual() {
+            return datos[posicion];
+        }
+    }
+}
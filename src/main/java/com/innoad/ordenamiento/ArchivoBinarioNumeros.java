@@ -0,0 +1,650 @@
+package com.innoad.ordenamiento;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.function.IntConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Formato binario de archivos de numeros, alternativo al texto de
+ * numeros_aleatorios.txt. Los valores se guardan en little-endian despues
+ * de una cabecera de 32 bytes:
+ * <pre>
+ *  0  "INAD"           identificador del formato
+ *  4  version          1 byte
+ *  5  ancho            bytes por elemento (4 para int, 8 para long)
+ *  6  indicadores      bit 0: el contenido esta ordenado
+ *  7  reservado
+ *  8  cantidad         long, cantidad de elementos
+ * 16  suma             long, CRC32C del contenido
+ * 24  reservado        8 bytes
+ * </pre>
+ * Lectura y escritura van por FileChannel y MappedByteBuffer, asi un archivo
+ * se puede ordenar directamente sobre su IntBuffer mapeado sin parsear texto.
+ */
+public final class ArchivoBinarioNumeros {
+
+    /** Tamano de la cabecera; el contenido arranca alineado a 8 bytes */
+    public static final int TAMANO_CABECERA = 32;
+
+    /** Version actual del formato */
+    public static final byte VERSION = 1;
+
+    /** Ancho en bytes de un elemento int */
+    public static final int ANCHO_INT = Integer.BYTES;
+
+    /** Ancho en bytes de un elemento long */
+    public static final int ANCHO_LONG = Long.BYTES;
+
+    private static final byte[] IDENTIFICADOR = {'I', 'N', 'A', 'D'};
+    private static final int INDICADOR_ORDENADO = 1;
+
+    /** Tamano maximo de cada ventana mapeada (multiplo de 8) */
+    private static final int VENTANA_MAPEO = 1 << 30;
+
+    private ArchivoBinarioNumeros() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Uso: ArchivoBinarioNumeros a-binario <texto> <binario>");
+            System.out.println("     ArchivoBinarioNumeros a-texto <binario> <texto>");
+            return;
+        }
+
+        try {
+            long tiempoInicio = System.currentTimeMillis();
+            long cantidad;
+            if (args[0].equals("a-binario")) {
+                cantidad = convertirTextoABinario(Paths.get(args[1]), Paths.get(args[2]));
+            } else if (args[0].equals("a-texto")) {
+                cantidad = convertirBinarioATexto(Paths.get(args[1]), Paths.get(args[2]));
+            } else {
+                System.out.println("Error: operacion desconocida " + args[0]);
+                return;
+            }
+            long tiempoTranscurrido = System.currentTimeMillis() - tiempoInicio;
+            System.out.println("[OK] " + cantidad + " numeros convertidos en " + tiempoTranscurrido + " milisegundos");
+        } catch (IOException e) {
+            System.err.println("Error al convertir el archivo: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cabecera de un archivo binario de numeros
+     */
+    public static final class Cabecera {
+        private final int ancho;
+        private final boolean ordenado;
+        private final long cantidad;
+        private final long suma;
+
+        Cabecera(int ancho, boolean ordenado, long cantidad, long suma) {
+            this.ancho = ancho;
+            this.ordenado = ordenado;
+            this.cantidad = cantidad;
+            this.suma = suma;
+        }
+
+        /** @return Bytes por elemento (4 o 8) */
+        public int obtenerAncho() {
+            return ancho;
+        }
+
+        /** @return true si el contenido esta marcado como ordenado */
+        public boolean estaOrdenado() {
+            return ordenado;
+        }
+
+        /** @return Cantidad de elementos */
+        public long obtenerCantidad() {
+            return cantidad;
+        }
+
+        /** @return CRC32C del contenido */
+        public long obtenerSuma() {
+            return suma;
+        }
+    }
+
+    /**
+     * Detecta si un archivo esta en formato binario mirando su identificador
+     * @param ruta Archivo a revisar
+     * @return true si empieza con la cabecera binaria
+     */
+    public static boolean esBinario(Path ruta) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            if (canal.size() < TAMANO_CABECERA) {
+                return false;
+            }
+            ByteBuffer inicio = ByteBuffer.allocate(IDENTIFICADOR.length);
+            leerCompleto(canal, inicio, ruta);
+            for (int i = 0; i < IDENTIFICADOR.length; i++) {
+                if (inicio.get(i) != IDENTIFICADOR[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Lee y valida la cabecera de un archivo binario
+     * @param ruta Archivo binario
+     * @return Cabecera leida
+     * @throws FormatoBinarioInvalidoException si no es un archivo binario valido o esta truncado
+     */
+    public static Cabecera leerCabecera(Path ruta) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            return leerCabecera(canal, ruta);
+        }
+    }
+
+    /**
+     * Escribe un arreglo completo de int
+     * @param ruta Archivo destino (se reemplaza si existe)
+     * @param datos Numeros a escribir
+     */
+    public static void escribir(Path ruta, int[] datos) throws IOException {
+        escribir(ruta, datos, 0, datos.length, false);
+    }
+
+    /**
+     * Escribe el rango [desde, hasta) de un arreglo de int a traves de ventanas mapeadas
+     * @param ruta Archivo destino (se reemplaza si existe)
+     * @param datos Numeros a escribir
+     * @param desde Indice inicial, inclusivo
+     * @param hasta Indice final, exclusivo
+     * @param ordenado Si el rango ya esta ordenado, para marcarlo en la cabecera
+     */
+    public static void escribir(Path ruta, int[] datos, int desde, int hasta, boolean ordenado) throws IOException {
+        MotorOrdenamiento.verificarRango(datos.length, desde, hasta);
+        try (FileChannel canal = abrirParaEscribir(ruta)) {
+            CRC32C suma = new CRC32C();
+            long posicion = TAMANO_CABECERA;
+            int indice = desde;
+            while (indice < hasta) {
+                int cantidad = Math.min(hasta - indice, VENTANA_MAPEO / ANCHO_INT);
+                MappedByteBuffer ventana = canal.map(FileChannel.MapMode.READ_WRITE, posicion, (long) cantidad * ANCHO_INT);
+                ventana.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().put(datos, indice, cantidad);
+                suma.update(ventana);
+                posicion += (long) cantidad * ANCHO_INT;
+                indice += cantidad;
+            }
+            escribirCabecera(canal, new Cabecera(ANCHO_INT, ordenado, hasta - desde, suma.getValue()));
+        }
+    }
+
+    /**
+     * Escribe un arreglo completo de long
+     * @param ruta Archivo destino (se reemplaza si existe)
+     * @param datos Numeros a escribir
+     */
+    public static void escribir(Path ruta, long[] datos) throws IOException {
+        try (FileChannel canal = abrirParaEscribir(ruta)) {
+            CRC32C suma = new CRC32C();
+            long posicion = TAMANO_CABECERA;
+            int indice = 0;
+            while (indice < datos.length) {
+                int cantidad = Math.min(datos.length - indice, VENTANA_MAPEO / ANCHO_LONG);
+                MappedByteBuffer ventana = canal.map(FileChannel.MapMode.READ_WRITE, posicion, (long) cantidad * ANCHO_LONG);
+                ventana.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().put(datos, indice, cantidad);
+                suma.update(ventana);
+                posicion += (long) cantidad * ANCHO_LONG;
+                indice += cantidad;
+            }
+            escribirCabecera(canal, new Cabecera(ANCHO_LONG, false, datos.length, suma.getValue()));
+        }
+    }
+
+    /**
+     * Lee todos los int de un archivo binario verificando la suma de control
+     * @param ruta Archivo binario con elementos de 4 bytes
+     * @return Numeros leidos
+     */
+    public static int[] leerEnteros(Path ruta) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            Cabecera cabecera = leerCabecera(canal, ruta);
+            verificarAncho(cabecera, ANCHO_INT, ruta);
+            int[] datos = new int[verificarCantidadArreglo(cabecera, ruta)];
+
+            CRC32C suma = new CRC32C();
+            long posicion = TAMANO_CABECERA;
+            int indice = 0;
+            while (indice < datos.length) {
+                int cantidad = Math.min(datos.length - indice, VENTANA_MAPEO / ANCHO_INT);
+                MappedByteBuffer ventana = canal.map(FileChannel.MapMode.READ_ONLY, posicion, (long) cantidad * ANCHO_INT);
+                ventana.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(datos, indice, cantidad);
+                suma.update(ventana);
+                posicion += (long) cantidad * ANCHO_INT;
+                indice += cantidad;
+            }
+            verificarSuma(cabecera, suma.getValue(), ruta);
+            return datos;
+        }
+    }
+
+    /**
+     * Lee todos los long de un archivo binario verificando la suma de control
+     * @param ruta Archivo binario con elementos de 8 bytes
+     * @return Numeros leidos
+     */
+    public static long[] leerLargos(Path ruta) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            Cabecera cabecera = leerCabecera(canal, ruta);
+            verificarAncho(cabecera, ANCHO_LONG, ruta);
+            long[] datos = new long[verificarCantidadArreglo(cabecera, ruta)];
+
+            CRC32C suma = new CRC32C();
+            long posicion = TAMANO_CABECERA;
+            int indice = 0;
+            while (indice < datos.length) {
+                int cantidad = Math.min(datos.length - indice, VENTANA_MAPEO / ANCHO_LONG);
+                MappedByteBuffer ventana = canal.map(FileChannel.MapMode.READ_ONLY, posicion, (long) cantidad * ANCHO_LONG);
+                ventana.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(datos, indice, cantidad);
+                suma.update(ventana);
+                posicion += (long) cantidad * ANCHO_LONG;
+                indice += cantidad;
+            }
+            verificarSuma(cabecera, suma.getValue(), ruta);
+            return datos;
+        }
+    }
+
+    /**
+     * Recorre un flujo en formato binario de int, por ejemplo el cuerpo de
+     * una solicitud HTTP, entregando cada numero a un consumidor y
+     * verificando al final la suma de control. El flujo no se cierra.
+     * Si el consumidor lanza UncheckedIOException se propaga la IOException original.
+     * @param entrada Flujo que empieza con la cabecera
+     * @param destino Consumidor de los numeros, en el orden del flujo
+     * @return Cabecera leida
+     * @throws FormatoBinarioInvalidoException si la cabecera es invalida, el
+     *         flujo esta truncado, sobran bytes o la suma de control no coincide
+     * @throws IOException si falla la lectura del flujo
+     */
+    public static Cabecera recorrer(InputStream entrada, IntConsumer destino) throws IOException {
+        byte[] bytes = new byte[1 << 16];
+        if (entrada.readNBytes(bytes, 0, TAMANO_CABECERA) < TAMANO_CABECERA) {
+            throw new FormatoBinarioInvalidoException("El flujo es demasiado corto para ser binario");
+        }
+        Cabecera cabecera = decodificarCabecera(
+                ByteBuffer.wrap(bytes, 0, TAMANO_CABECERA).order(ByteOrder.LITTLE_ENDIAN), "el flujo");
+        if (cabecera.ancho != ANCHO_INT) {
+            throw new FormatoBinarioInvalidoException("El flujo tiene elementos de " + cabecera.ancho
+                    + " bytes y se esperaban de " + ANCHO_INT);
+        }
+
+        CRC32C suma = new CRC32C();
+        ByteBuffer envoltorio = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        long restantes = cabecera.cantidad * ANCHO_INT;
+        try {
+            while (restantes > 0) {
+                // readNBytes solo devuelve menos de lo pedido al llegar al final del flujo
+                int pedidos = (int) Math.min(restantes, bytes.length);
+                int leidos = entrada.readNBytes(bytes, 0, pedidos);
+                if (leidos < pedidos) {
+                    throw new FormatoBinarioInvalidoException("El flujo esta truncado: faltan "
+                            + (restantes - leidos) + " bytes");
+                }
+                suma.update(bytes, 0, leidos);
+                for (int i = 0; i < leidos; i += ANCHO_INT) {
+                    destino.accept(envoltorio.getInt(i));
+                }
+                restantes -= leidos;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (entrada.read() >= 0) {
+            throw new FormatoBinarioInvalidoException("El flujo tiene mas bytes que los " + cabecera.cantidad
+                    + " elementos declarados");
+        }
+        if (cabecera.suma != suma.getValue()) {
+            throw new FormatoBinarioInvalidoException(
+                    "Suma de control incorrecta en el flujo: el contenido esta corrupto");
+        }
+        return cabecera;
+    }
+
+    /**
+     * Escribe el rango [desde, hasta) de un arreglo en formato binario hacia
+     * un flujo. La suma de control se calcula en una primera pasada para
+     * poder enviar la cabecera antes que el contenido. El flujo no se cierra.
+     * @param salida Flujo destino
+     * @param datos Numeros a escribir
+     * @param desde Indice inicial, inclusivo
+     * @param hasta Indice final, exclusivo
+     * @param ordenado Si el rango esta ordenado ascendentemente
+     */
+    public static void escribir(OutputStream salida, int[] datos, int desde, int hasta, boolean ordenado)
+            throws IOException {
+        MotorOrdenamiento.verificarRango(datos.length, desde, hasta);
+        ByteBuffer bloque = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        IntBuffer enteros = bloque.asIntBuffer();
+
+        CRC32C suma = new CRC32C();
+        for (int i = desde; i < hasta; i += enteros.capacity()) {
+            int cantidad = Math.min(hasta - i, enteros.capacity());
+            enteros.clear();
+            enteros.put(datos, i, cantidad);
+            suma.update(bloque.array(), 0, cantidad * ANCHO_INT);
+        }
+
+        ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA).order(ByteOrder.LITTLE_ENDIAN);
+        codificarCabecera(cabecera, new Cabecera(ANCHO_INT, ordenado, hasta - desde, suma.getValue()));
+        salida.write(cabecera.array());
+        for (int i = desde; i < hasta; i += enteros.capacity()) {
+            int cantidad = Math.min(hasta - i, enteros.capacity());
+            enteros.clear();
+            enteros.put(datos, i, cantidad);
+            salida.write(bloque.array(), 0, cantidad * ANCHO_INT);
+        }
+    }
+
+    /**
+     * Lee un archivo de numeros detectando el formato por su cabecera:
+     * binario si empieza con el identificador, texto con un numero por linea si no
+     * @param ruta Archivo a leer
+     * @return Numeros leidos
+     */
+    public static int[] leerNumeros(Path ruta) throws IOException {
+        if (esBinario(ruta)) {
+            return leerEnteros(ruta);
+        }
+
+        LectorNumerosTexto.Resultado resultado = LectorNumerosTexto.leer(ruta);
+        if (!resultado.esValido()) {
+            throw new IOException(LectorNumerosTexto.describirErrores(ruta, resultado));
+        }
+        return resultado.obtenerNumeros();
+    }
+
+    /**
+     * Ordena en sitio un archivo binario de int sobre su IntBuffer mapeado,
+     * marca la cabecera como ordenada y actualiza la suma de control.
+     * Si la cabecera ya indica que esta ordenado no hace nada. Antes de
+     * ordenar se verifica la suma de control, para no dejar con una suma
+     * valida un contenido corrupto.
+     * Si el contenido no cabe en una sola ventana mapeada se mapea por
+     * bloques como {@link SegmentoEnteros} y se ordena con
+     * {@link OrdenamientoFueraHeap}, sin copiarlo al heap; el auxiliar de la
+     * mezcla ocupa otro tanto de memoria directa. Para archivos que no
+     * entran en memoria esta {@link OrdenamientoExterno}
+     * @param ruta Archivo binario con elementos de 4 bytes
+     * @return Cantidad de elementos del archivo
+     * @throws IOException si la suma de control no coincide; el archivo queda sin cambios
+     */
+    public static long ordenarArchivo(Path ruta) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            Cabecera cabecera = leerCabecera(canal, ruta);
+            verificarAncho(cabecera, ANCHO_INT, ruta);
+            if (cabecera.estaOrdenado()) {
+                return cabecera.obtenerCantidad();
+            }
+            long bytes = cabecera.obtenerCantidad() * ANCHO_INT;
+            if (bytes > Integer.MAX_VALUE) {
+                try (ArenaFueraHeap arena = new ArenaFueraHeap()) {
+                    SegmentoEnteros contenido = arena.mapear(canal, TAMANO_CABECERA, cabecera.obtenerCantidad());
+                    CRC32C suma = new CRC32C();
+                    contenido.actualizarSuma(suma);
+                    verificarSuma(cabecera, suma.getValue(), ruta);
+
+                    OrdenamientoFueraHeap.ordenar(contenido);
+                    EventoFase escritura = EventoFase.iniciar(EventoFase.Fase.ESCRITURA, cabecera.obtenerCantidad());
+                    contenido.forzar();
+                    escritura.commit();
+
+                    suma.reset();
+                    contenido.actualizarSuma(suma);
+                    escribirCabecera(canal, new Cabecera(ANCHO_INT, true, cabecera.obtenerCantidad(), suma.getValue()));
+                }
+                return cabecera.obtenerCantidad();
+            }
+
+            MappedByteBuffer contenido = canal.map(FileChannel.MapMode.READ_WRITE, TAMANO_CABECERA, bytes);
+            CRC32C suma = new CRC32C();
+            suma.update(contenido.duplicate());
+            verificarSuma(cabecera, suma.getValue(), ruta);
+
+            IntBuffer enteros = contenido.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            MotorOrdenamiento.ordenar(enteros);
+            EventoFase escritura = EventoFase.iniciar(EventoFase.Fase.ESCRITURA, cabecera.obtenerCantidad());
+            contenido.force();
+            escritura.commit();
+
+            suma.reset();
+            suma.update(contenido);
+            escribirCabecera(canal, new Cabecera(ANCHO_INT, true, cabecera.obtenerCantidad(), suma.getValue()));
+            return cabecera.obtenerCantidad();
+        }
+    }
+
+    /**
+     * Convierte un archivo de texto con un numero por linea al formato binario
+     * @param texto Archivo de texto de origen
+     * @param binario Archivo binario destino (se reemplaza si existe)
+     * @return Cantidad de numeros convertidos
+     */
+    public static long convertirTextoABinario(Path texto, Path binario) throws IOException {
+        try (FileChannel canal = abrirParaEscribir(binario)) {
+            VolcadoBinario volcado = new VolcadoBinario(canal);
+            LectorNumerosTexto.Resultado resultado = LectorNumerosTexto.recorrer(texto, volcado);
+            if (!resultado.esValido()) {
+                throw new IOException(LectorNumerosTexto.describirErrores(texto, resultado));
+            }
+            volcado.vaciar();
+
+            escribirCabecera(canal, new Cabecera(ANCHO_INT, volcado.ordenado, volcado.cantidad, volcado.suma.getValue()));
+            return volcado.cantidad;
+        }
+    }
+
+    /**
+     * Convierte un archivo binario de int al formato de texto con un numero
+     * por linea. La cabecera se valida antes de crear nada y el texto se
+     * escribe en un archivo temporal junto al destino que lo reemplaza solo
+     * si la suma de control coincide: una conversion fallida no toca el destino
+     * @param binario Archivo binario de origen
+     * @param texto Archivo de texto destino (se reemplaza si existe)
+     * @return Cantidad de numeros convertidos
+     */
+    public static long convertirBinarioATexto(Path binario, Path texto) throws IOException {
+        try (FileChannel canal = FileChannel.open(binario, StandardOpenOption.READ)) {
+            Cabecera cabecera = leerCabecera(canal, binario);
+            verificarAncho(cabecera, ANCHO_INT, binario);
+
+            Path temporal = Files.createTempFile(texto.toAbsolutePath().getParent(),
+                    texto.getFileName().toString(), ".parcial");
+            boolean movido = false;
+            try {
+                try (EscritorNumeros escritor = EscritorNumeros.texto(temporal)) {
+                    CRC32C suma = new CRC32C();
+                    long restantes = cabecera.obtenerCantidad();
+                    long posicion = TAMANO_CABECERA;
+                    while (restantes > 0) {
+                        int cantidad = (int) Math.min(restantes, VENTANA_MAPEO / ANCHO_INT);
+                        MappedByteBuffer ventana = canal.map(FileChannel.MapMode.READ_ONLY, posicion,
+                                (long) cantidad * ANCHO_INT);
+                        IntBuffer enteros = ventana.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+                        for (int i = 0; i < cantidad; i++) {
+                            escritor.escribir(enteros.get(i));
+                        }
+                        suma.update(ventana);
+                        posicion += (long) cantidad * ANCHO_INT;
+                        restantes -= cantidad;
+                    }
+                    verificarSuma(cabecera, suma.getValue(), binario);
+                }
+                Files.move(temporal, texto, StandardCopyOption.REPLACE_EXISTING);
+                movido = true;
+                return cabecera.obtenerCantidad();
+            } finally {
+                if (!movido) {
+                    Files.deleteIfExists(temporal);
+                }
+            }
+        }
+    }
+
+    /**
+     * Recibe los numeros leidos del texto y los escribe por bloques en el
+     * canal, calculando a la vez la suma de control y si vienen ordenados
+     */
+    private static final class VolcadoBinario implements IntConsumer {
+        private final FileChannel canal;
+        private final ByteBuffer bloque = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32C suma = new CRC32C();
+        private long posicion = TAMANO_CABECERA;
+        private long cantidad;
+        private boolean ordenado = true;
+        private int anterior = Integer.MIN_VALUE;
+
+        VolcadoBinario(FileChannel canal) {
+            this.canal = canal;
+        }
+
+        @Override
+        public void accept(int valor) {
+            ordenado &= valor >= anterior;
+            anterior = valor;
+            if (!bloque.hasRemaining()) {
+                try {
+                    vaciar();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            bloque.putInt(valor);
+            cantidad++;
+        }
+
+        /**
+         * Escribe el contenido pendiente del bloque en el canal y lo deja vacio
+         */
+        void vaciar() throws IOException {
+            bloque.flip();
+            suma.update(bloque.duplicate());
+            while (bloque.hasRemaining()) {
+                posicion += canal.write(bloque, posicion);
+            }
+            bloque.clear();
+        }
+    }
+
+    private static FileChannel abrirParaEscribir(Path ruta) throws IOException {
+        return FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    static void escribirCabecera(FileChannel canal, Cabecera cabecera) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANO_CABECERA).order(ByteOrder.LITTLE_ENDIAN);
+        codificarCabecera(buffer, cabecera);
+        long escrito = 0;
+        while (buffer.hasRemaining()) {
+            escrito += canal.write(buffer, escrito);
+        }
+    }
+
+    /**
+     * Escribe los 32 bytes de la cabecera en el buffer y lo deja listo para leer
+     */
+    private static void codificarCabecera(ByteBuffer buffer, Cabecera cabecera) {
+        buffer.put(IDENTIFICADOR);
+        buffer.put(VERSION);
+        buffer.put((byte) cabecera.ancho);
+        buffer.put((byte) (cabecera.ordenado ? INDICADOR_ORDENADO : 0));
+        buffer.put((byte) 0);
+        buffer.putLong(cabecera.cantidad);
+        buffer.putLong(cabecera.suma);
+        buffer.putLong(0L);
+        buffer.flip();
+    }
+
+    private static Cabecera leerCabecera(FileChannel canal, Path ruta) throws IOException {
+        if (canal.size() < TAMANO_CABECERA) {
+            throw new FormatoBinarioInvalidoException("El archivo " + ruta
+                    + " es demasiado corto para ser binario");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANO_CABECERA).order(ByteOrder.LITTLE_ENDIAN);
+        leerCompleto(canal, buffer, ruta);
+        buffer.flip();
+        Cabecera cabecera = decodificarCabecera(buffer, "el archivo " + ruta);
+
+        if (canal.size() != TAMANO_CABECERA + cabecera.cantidad * cabecera.ancho) {
+            throw new FormatoBinarioInvalidoException("El archivo " + ruta
+                    + " esta truncado o tiene una cantidad invalida: "
+                    + cabecera.cantidad + " elementos para " + canal.size() + " bytes");
+        }
+        return cabecera;
+    }
+
+    /**
+     * Valida y decodifica los 32 bytes de una cabecera
+     * @param buffer Cabecera en little-endian, lista para leer
+     * @param origen Descripcion del origen para los mensajes de error
+     */
+    private static Cabecera decodificarCabecera(ByteBuffer buffer, String origen) throws IOException {
+        for (byte esperado : IDENTIFICADOR) {
+            if (buffer.get() != esperado) {
+                throw new FormatoBinarioInvalidoException("El contenido de " + origen
+                        + " no tiene formato binario de numeros");
+            }
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new FormatoBinarioInvalidoException("Version de formato no soportada en " + origen + ": " + version);
+        }
+        int ancho = buffer.get();
+        if (ancho != ANCHO_INT && ancho != ANCHO_LONG) {
+            throw new FormatoBinarioInvalidoException("Ancho de elemento invalido en " + origen + ": " + ancho);
+        }
+        boolean ordenado = (buffer.get() & INDICADOR_ORDENADO) != 0;
+        buffer.get();
+        long cantidad = buffer.getLong();
+        long suma = buffer.getLong();
+        // Con el limite, TAMANO_CABECERA + cantidad * ancho no desborda un long
+        if (cantidad < 0 || cantidad > (Long.MAX_VALUE - TAMANO_CABECERA) / ancho) {
+            throw new FormatoBinarioInvalidoException("Cantidad de elementos invalida en " + origen + ": " + cantidad);
+        }
+        return new Cabecera(ancho, ordenado, cantidad, suma);
+    }
+
+    /**
+     * Llena el buffer con los primeros bytes del canal
+     */
+    private static void leerCompleto(FileChannel canal, ByteBuffer buffer, Path ruta) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer, buffer.position()) < 0) {
+                throw new FormatoBinarioInvalidoException("Cabecera incompleta en " + ruta);
+            }
+        }
+    }
+
+    private static void verificarAncho(Cabecera cabecera, int esperado, Path ruta) throws IOException {
+        if (cabecera.ancho != esperado) {
+            throw new FormatoBinarioInvalidoException("El archivo " + ruta + " tiene elementos de " + cabecera.ancho
+                    + " bytes y se esperaban de " + esperado);
+        }
+    }
+
+    private static int verificarCantidadArreglo(Cabecera cabecera, Path ruta) throws IOException {
+        if (cabecera.cantidad > Integer.MAX_VALUE - 8) {
+            throw new IOException("El archivo " + ruta + " tiene demasiados elementos para un arreglo: "
+                    + cabecera.cantidad);
+        }
+        return (int) cabecera.cantidad;
+    }
+
+    private static void verificarSuma(Cabecera cabecera, long calculada, Path ruta) throws IOException {
+        if (cabecera.suma != calculada) {
+            throw new FormatoBinarioInvalidoException("Suma de control incorrecta en " + ruta
+                    + ": el contenido esta corrupto");
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.innoad.ordenamiento;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Duena de la memoria fuera del heap de uno o varios {@link SegmentoEnteros}.
+ * Todos sus segmentos viven hasta que la arena se cierra; al cerrarla la
+ * memoria se devuelve en ese momento, sin esperar al recolector, y los
+ * segmentos dejan de ser validos. Se usa con try-with-resources:
+ * <pre>
+ * try (ArenaFueraHeap arena = new ArenaFueraHeap()) {
+ *     SegmentoEnteros datos = arena.reservarEnteros(5_000_000_000L);
+ *     ...
+ *     OrdenamientoFueraHeap.ordenar(datos);
+ * }
+ * </pre>
+ * La memoria directa se reserva con ByteBuffer.allocateDirect; el limite
+ * lo fija -XX:MaxDirectMemorySize, que por defecto es igual al heap maximo.
+ * <p>
+ * La liberacion inmediata llama por reflexion a sun.misc.Unsafe.invokeCleaner,
+ * que existe desde JDK 9. Es una API interna: JDK 23 la marco para eliminar
+ * (JEP 471) y desde JDK 24 la JVM avisa o la rechaza segun
+ * --sun-misc-unsafe-memory-access. Si no esta, falla o se desactiva con
+ * -Dinnoad.arena.unsafe=false, la arena suelta sus referencias a los buffers
+ * al cerrarse y la memoria vuelve cuando el recolector los descarta. No hace
+ * falta forzarlo: ByteBuffer.allocateDirect pide una recoleccion y reintenta
+ * antes de fallar por el limite. Una arena es de un solo hilo.
+ */
+public final class ArenaFueraHeap implements AutoCloseable {
+
+    /** Metodo invokeCleaner de sun.misc.Unsafe y su instancia, o null si no estan disponibles o se desactivaron */
+    private static final Method LIBERAR;
+    private static final Object UNSAFE;
+
+    static {
+        Method liberar = null;
+        Object unsafe = null;
+        if (Boolean.parseBoolean(System.getProperty("innoad.arena.unsafe", "true"))) {
+            try {
+                Class<?> clase = Class.forName("sun.misc.Unsafe");
+                Field instancia = clase.getDeclaredField("theUnsafe");
+                instancia.setAccessible(true);
+                unsafe = instancia.get(null);
+                liberar = clase.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                liberar = null;
+                unsafe = null;
+            }
+        }
+        LIBERAR = liberar;
+        UNSAFE = unsafe;
+    }
+
+    private final List<SegmentoEnteros> segmentos = new ArrayList<>();
+    private final boolean liberarAlCerrar;
+    private long bytesReservados;
+    private boolean cerrada;
+
+    /**
+     * Crea una arena que devuelve la memoria al cerrarse si sun.misc.Unsafe
+     * esta disponible, o al pasar el recolector si no
+     */
+    public ArenaFueraHeap() {
+        this(LIBERAR != null);
+    }
+
+    /**
+     * @param liberarAlCerrar false para dejar siempre la memoria al recolector,
+     *                        como sin sun.misc.Unsafe; true solo si esta disponible
+     */
+    ArenaFueraHeap(boolean liberarAlCerrar) {
+        this.liberarAlCerrar = liberarAlCerrar && LIBERAR != null;
+    }
+
+    /**
+     * Reserva memoria directa para enteros, inicializada en cero
+     * @param cantidad Cantidad de enteros; puede superar Integer.MAX_VALUE
+     * @return Segmento nuevo, valido hasta cerrar la arena
+     * @throws OutOfMemoryError si se supera el limite de memoria directa
+     */
+    public SegmentoEnteros reservarEnteros(long cantidad) {
+        verificarAbierta();
+        verificarCantidad(cantidad);
+        ByteBuffer[] memoria = new ByteBuffer[cantidadBloques(cantidad)];
+        try {
+            for (int i = 0; i < memoria.length; i++) {
+                memoria[i] = ByteBuffer.allocateDirect(tamanoBloque(cantidad, i) * Integer.BYTES);
+            }
+        } catch (OutOfMemoryError e) {
+            // Lo reservado hasta el fallo no llega a ningun segmento: se libera aca
+            liberar(memoria);
+            throw e;
+        }
+        return registrar(new SegmentoEnteros(this, memoria, ByteOrder.nativeOrder(), cantidad));
+    }
+
+    /**
+     * Mapea en modo lectura y escritura un tramo de un archivo como segmento
+     * de enteros little-endian, el orden del formato de {@link ArchivoBinarioNumeros}.
+     * Los cambios llegan al archivo; {@link SegmentoEnteros#forzar()} los escribe en disco.
+     * El mapeo sigue valido aunque el canal se cierre antes que la arena
+     * @param canal Canal abierto para leer y escribir
+     * @param posicion Posicion en bytes del primer entero
+     * @param cantidad Cantidad de enteros
+     * @return Segmento mapeado, valido hasta cerrar la arena
+     */
+    public SegmentoEnteros mapear(FileChannel canal, long posicion, long cantidad) throws IOException {
+        verificarAbierta();
+        verificarCantidad(cantidad);
+        ByteBuffer[] memoria = new ByteBuffer[cantidadBloques(cantidad)];
+        try {
+            for (int i = 0; i < memoria.length; i++) {
+                long inicio = posicion + (long) i * SegmentoEnteros.ENTEROS_BLOQUE * Integer.BYTES;
+                memoria[i] = canal.map(FileChannel.MapMode.READ_WRITE, inicio,
+                        (long) tamanoBloque(cantidad, i) * Integer.BYTES);
+            }
+        } catch (IOException | RuntimeException e) {
+            liberar(memoria);
+            throw e;
+        }
+        return registrar(new SegmentoEnteros(this, memoria, ByteOrder.LITTLE_ENDIAN, cantidad));
+    }
+
+    /** @return true si la memoria vuelve al cerrar la arena, false si espera al recolector */
+    public boolean liberaAlCerrar() {
+        return liberarAlCerrar;
+    }
+
+    /** @return Bytes de todos los segmentos de la arena */
+    public long obtenerBytesReservados() {
+        return bytesReservados;
+    }
+
+    /**
+     * Libera la memoria de todos los segmentos. Cerrar dos veces no hace nada
+     */
+    @Override
+    public void close() {
+        if (cerrada) {
+            return;
+        }
+        cerrada = true;
+        for (SegmentoEnteros segmento : segmentos) {
+            liberar(segmento.soltar());
+        }
+        segmentos.clear();
+        bytesReservados = 0;
+    }
+
+    /**
+     * @throws IllegalStateException si la arena ya se cerro
+     */
+    void verificarAbierta() {
+        if (cerrada) {
+            throw new IllegalStateException("La arena ya se cerro y su memoria fue liberada");
+        }
+    }
+
+    private SegmentoEnteros registrar(SegmentoEnteros segmento) {
+        segmentos.add(segmento);
+        bytesReservados += segmento.obtenerBytes();
+        return segmento;
+    }
+
+    private static void verificarCantidad(long cantidad) {
+        if (cantidad < 0) {
+            throw new IllegalArgumentException("La cantidad no puede ser negativa: " + cantidad);
+        }
+    }
+
+    /**
+     * Al menos un bloque, aunque sea vacio, para que el segmento siempre tenga memoria
+     */
+    private static int cantidadBloques(long cantidad) {
+        return (int) Math.max(1, (cantidad + SegmentoEnteros.ENTEROS_BLOQUE - 1) >>> SegmentoEnteros.BITS_BLOQUE);
+    }
+
+    private static int tamanoBloque(long cantidad, int bloque) {
+        return (int) Math.min(SegmentoEnteros.ENTEROS_BLOQUE,
+                cantidad - ((long) bloque << SegmentoEnteros.BITS_BLOQUE));
+    }
+
+    /**
+     * Devuelve cada bloque con invokeCleaner, si corresponde, y lo saca del
+     * arreglo: el segmento comparte el arreglo, asi que aunque alguien lo siga
+     * referenciando los buffers quedan para el recolector
+     */
+    private void liberar(ByteBuffer[] memoria) {
+        for (int i = 0; i < memoria.length; i++) {
+            if (memoria[i] != null && liberarAlCerrar) {
+                try {
+                    LIBERAR.invoke(UNSAFE, memoria[i]);
+                } catch (ReflectiveOperationException e) {
+                    // Queda para el recolector, igual que sin Unsafe
+                }
+            }
+            memoria[i] = null;
+        }
+    }
+}
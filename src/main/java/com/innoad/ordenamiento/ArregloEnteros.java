@@ -0,0 +1,102 @@
+package com.innoad.ordenamiento;
+
+import java.util.Arrays;
+
+/**
+ * Arreglo de int que crece a medida que se agregan valores, sin crear un
+ * objeto Integer por elemento como hace ArrayList
+ */
+public final class ArregloEnteros {
+
+    private static final int CAPACIDAD_INICIAL = 1024;
+
+    private int[] valores;
+    private int tamano;
+
+    public ArregloEnteros() {
+        this(CAPACIDAD_INICIAL);
+    }
+
+    /**
+     * @param capacidadInicial Cantidad de valores que caben sin crecer
+     */
+    public ArregloEnteros(int capacidadInicial) {
+        this.valores = new int[Math.max(1, capacidadInicial)];
+    }
+
+    /**
+     * Agrega un valor al final
+     * @param valor Valor a agregar
+     */
+    public void agregar(int valor) {
+        if (tamano == valores.length) {
+            crecer(tamano + 1);
+        }
+        valores[tamano++] = valor;
+    }
+
+    /**
+     * Agrega al final todos los valores de otro arreglo
+     * @param otro Arreglo cuyos valores se copian
+     */
+    public void agregarTodos(ArregloEnteros otro) {
+        if (tamano + otro.tamano > valores.length) {
+            crecer(tamano + otro.tamano);
+        }
+        System.arraycopy(otro.valores, 0, valores, tamano, otro.tamano);
+        tamano += otro.tamano;
+    }
+
+    /**
+     * Copia los valores a otro arreglo sin pasar por una copia intermedia
+     * @param destino Arreglo donde se copian
+     * @param desde Posicion de destino donde va el primer valor
+     */
+    public void copiarEn(int[] destino, int desde) {
+        System.arraycopy(valores, 0, destino, desde, tamano);
+    }
+
+    /**
+     * @param indice Posicion del valor
+     * @return Valor en la posicion indicada
+     */
+    public int obtener(int indice) {
+        if (indice >= tamano) {
+            throw new IndexOutOfBoundsException("Indice " + indice + " fuera del tamano " + tamano);
+        }
+        return valores[indice];
+    }
+
+    /**
+     * @return Cantidad de valores agregados
+     */
+    public int tamano() {
+        return tamano;
+    }
+
+    /**
+     * Descarta todos los valores conservando la capacidad
+     */
+    public void limpiar() {
+        tamano = 0;
+    }
+
+    /**
+     * @return Copia de los valores con la longitud exacta
+     */
+    public int[] aArreglo() {
+        return Arrays.copyOf(valores, tamano);
+    }
+
+    private void crecer(int capacidadMinima) {
+        // Crecer un 50% evita copiar demasiadas veces sin desperdiciar memoria
+        long nuevaCapacidad = Math.max(capacidadMinima, valores.length + (valores.length >> 1));
+        if (nuevaCapacidad > Integer.MAX_VALUE - 8) {
+            if (capacidadMinima > Integer.MAX_VALUE - 8) {
+                throw new OutOfMemoryError("Se supero la capacidad maxima de un arreglo");
+            }
+            nuevaCapacidad = Integer.MAX_VALUE - 8;
+        }
+        valores = Arrays.copyOf(valores, (int) nuevaCapacidad);
+    }
+}
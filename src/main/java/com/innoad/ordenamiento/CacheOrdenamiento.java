@@ -0,0 +1,514 @@
+package com.innoad.ordenamiento;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache de resultados delante de {@link MotorOrdenamiento}, indexado por el
+ * contenido de la entrada: la clave es un hash Murmur3 de 128 bits de los
+ * numeros mas su cantidad. Como dos entradas distintas pueden compartir hash,
+ * cada entrada guarda tambien una copia de los numeros originales y un acierto
+ * solo cuenta si son identicos, asi nunca se devuelve el resultado de otra
+ * entrada. Comparar es O(n) y mucho mas barato que volver a ordenar.
+ * El desalojo es LRU y esta acotado por bytes, no por cantidad de entradas.
+ * Opcionalmente las entradas desalojadas de memoria pasan a un directorio en
+ * el formato de {@link ArchivoBinarioNumeros}, con su propio limite en bytes,
+ * y vuelven a memoria cuando se las encuentra ahi.
+ */
+public final class CacheOrdenamiento {
+
+    /** Bytes que se suman a cada entrada por el objeto, la clave y el mapa */
+    static final long SOBRECARGA_ENTRADA = 128;
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private static final String SUFIJO_ENTRADA = ".entrada.bin";
+    private static final String SUFIJO_ORDENADO = ".ordenado.bin";
+
+    private final long maximoBytes;
+    private final Path directorioDisco;
+    private final long maximoBytesDisco;
+
+    // ReentrantLock en lugar de synchronized: no fija los hilos virtuales del servicio
+    private final ReentrantLock candado = new ReentrantLock();
+    private final LinkedHashMap<Clave, Entrada> memoria = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Clave, Long> disco = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytesMemoria;
+    private long bytesDisco;
+
+    private final AtomicLong aciertosMemoria = new AtomicLong();
+    private final AtomicLong aciertosDisco = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong colisiones = new AtomicLong();
+    private final AtomicLong desalojos = new AtomicLong();
+    private final AtomicLong desalojosDisco = new AtomicLong();
+    private final AtomicLong erroresDisco = new AtomicLong();
+
+    /**
+     * Crea una cache solo en memoria
+     * @param maximoBytes Bytes maximos que pueden ocupar las entradas en memoria
+     */
+    public CacheOrdenamiento(long maximoBytes) {
+        if (maximoBytes < 1) {
+            throw new IllegalArgumentException("La memoria de la cache debe ser mayor a 0: " + maximoBytes);
+        }
+        this.maximoBytes = maximoBytes;
+        this.directorioDisco = null;
+        this.maximoBytesDisco = 0;
+    }
+
+    /**
+     * Crea una cache con un nivel en disco. Los archivos que ya esten en el
+     * directorio de una ejecucion anterior se reutilizan
+     * @param maximoBytes Bytes maximos que pueden ocupar las entradas en memoria
+     * @param directorioDisco Directorio de las entradas en disco (se crea si no existe)
+     * @param maximoBytesDisco Bytes maximos que pueden ocupar los archivos del directorio
+     */
+    public CacheOrdenamiento(long maximoBytes, Path directorioDisco, long maximoBytesDisco) throws IOException {
+        if (maximoBytes < 1) {
+            throw new IllegalArgumentException("La memoria de la cache debe ser mayor a 0: " + maximoBytes);
+        }
+        if (maximoBytesDisco < 1) {
+            throw new IllegalArgumentException("El espacio en disco de la cache debe ser mayor a 0: " + maximoBytesDisco);
+        }
+        this.maximoBytes = maximoBytes;
+        this.directorioDisco = directorioDisco;
+        this.maximoBytesDisco = maximoBytesDisco;
+        Files.createDirectories(directorioDisco);
+        cargarIndiceDisco();
+    }
+
+    /**
+     * Ordena el arreglo en sitio; si el mismo contenido ya se ordeno antes,
+     * copia el resultado guardado en lugar de ordenar
+     * @param datos Arreglo a ordenar (se modifica en sitio)
+     */
+    public void ordenar(int[] datos) {
+        Clave clave = Clave.de(datos);
+        int[] ordenado = buscar(clave, datos);
+        if (ordenado != null) {
+            System.arraycopy(ordenado, 0, datos, 0, datos.length);
+            return;
+        }
+
+        int[] entrada = datos.clone();
+        MotorOrdenamiento.ordenar(datos);
+        guardar(clave, new Entrada(entrada, datos.clone()));
+    }
+
+    /**
+     * Devuelve el contenido ordenado sin modificar el arreglo. En un acierto
+     * el resultado es una vista del arreglo guardado en la cache, sin copiarlo
+     * @param datos Numeros a ordenar (no se modifican)
+     * @return IntBuffer de solo lectura con los numeros ordenados
+     */
+    public IntBuffer ordenarSoloLectura(int[] datos) {
+        Clave clave = Clave.de(datos);
+        int[] ordenado = buscar(clave, datos);
+        if (ordenado == null) {
+            ordenado = datos.clone();
+            MotorOrdenamiento.ordenar(ordenado);
+            guardar(clave, new Entrada(datos.clone(), ordenado));
+        }
+        return IntBuffer.wrap(ordenado).asReadOnlyBuffer();
+    }
+
+    /**
+     * Vacia el nivel en memoria; los archivos en disco se conservan
+     */
+    public void limpiar() {
+        candado.lock();
+        try {
+            memoria.clear();
+            bytesMemoria = 0;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /** @return Aciertos encontrados en memoria */
+    public long obtenerAciertosMemoria() {
+        return aciertosMemoria.get();
+    }
+
+    /** @return Aciertos encontrados en disco */
+    public long obtenerAciertosDisco() {
+        return aciertosDisco.get();
+    }
+
+    /** @return Busquedas que terminaron ordenando */
+    public long obtenerFallos() {
+        return fallos.get();
+    }
+
+    /** @return Entradas con el mismo hash que otra pero distinto contenido (cuentan como fallos) */
+    public long obtenerColisiones() {
+        return colisiones.get();
+    }
+
+    /** @return Entradas desalojadas de memoria */
+    public long obtenerDesalojos() {
+        return desalojos.get();
+    }
+
+    /** @return Entradas borradas del disco */
+    public long obtenerDesalojosDisco() {
+        return desalojosDisco.get();
+    }
+
+    /** @return Lecturas o escrituras del nivel en disco que fallaron y se ignoraron */
+    public long obtenerErroresDisco() {
+        return erroresDisco.get();
+    }
+
+    /** @return Bytes ocupados en memoria */
+    public long obtenerBytesMemoria() {
+        candado.lock();
+        try {
+            return bytesMemoria;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /** @return Bytes ocupados en disco */
+    public long obtenerBytesDisco() {
+        candado.lock();
+        try {
+            return bytesDisco;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Busca primero en memoria y despues en disco
+     * @return Arreglo ordenado guardado, o null si no hay una entrada con el mismo contenido
+     */
+    private int[] buscar(Clave clave, int[] datos) {
+        Entrada entrada;
+        boolean enDisco;
+        candado.lock();
+        try {
+            entrada = memoria.get(clave);
+            enDisco = entrada == null && disco.containsKey(clave);
+        } finally {
+            candado.unlock();
+        }
+
+        if (entrada != null) {
+            if (Arrays.equals(entrada.entrada, datos)) {
+                aciertosMemoria.incrementAndGet();
+                return entrada.ordenado;
+            }
+            colisiones.incrementAndGet();
+        } else if (enDisco) {
+            entrada = leerDeDisco(clave);
+            if (entrada != null && Arrays.equals(entrada.entrada, datos)) {
+                aciertosDisco.incrementAndGet();
+                guardar(clave, entrada);
+                return entrada.ordenado;
+            }
+            if (entrada != null) {
+                colisiones.incrementAndGet();
+            }
+        }
+        fallos.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Agrega la entrada en memoria y desaloja las menos usadas hasta volver
+     * al limite; las desalojadas se escriben en disco fuera del candado
+     */
+    private void guardar(Clave clave, Entrada entrada) {
+        if (entrada.bytes > maximoBytes) {
+            // No entra nunca en memoria: va directo al disco si lo hay
+            escribirEnDisco(clave, entrada);
+            return;
+        }
+
+        List<Map.Entry<Clave, Entrada>> desalojadas = new ArrayList<>();
+        candado.lock();
+        try {
+            Entrada anterior = memoria.put(clave, entrada);
+            if (anterior != null) {
+                bytesMemoria -= anterior.bytes;
+            }
+            bytesMemoria += entrada.bytes;
+
+            Iterator<Map.Entry<Clave, Entrada>> iterador = memoria.entrySet().iterator();
+            while (bytesMemoria > maximoBytes && iterador.hasNext()) {
+                Map.Entry<Clave, Entrada> menosUsada = iterador.next();
+                iterador.remove();
+                bytesMemoria -= menosUsada.getValue().bytes;
+                desalojos.incrementAndGet();
+                if (directorioDisco != null && !disco.containsKey(menosUsada.getKey())) {
+                    desalojadas.add(menosUsada);
+                }
+            }
+        } finally {
+            candado.unlock();
+        }
+
+        for (Map.Entry<Clave, Entrada> desalojada : desalojadas) {
+            escribirEnDisco(desalojada.getKey(), desalojada.getValue());
+        }
+    }
+
+    private void escribirEnDisco(Clave clave, Entrada entrada) {
+        if (directorioDisco == null || entrada.bytes > maximoBytesDisco) {
+            return;
+        }
+        String nombre = clave.aNombre();
+        try {
+            // Se escribe aparte y se mueve, asi una lectura concurrente nunca ve un archivo a medias
+            escribirAtomico(directorioDisco.resolve(nombre + SUFIJO_ENTRADA), entrada.entrada, false);
+            escribirAtomico(directorioDisco.resolve(nombre + SUFIJO_ORDENADO), entrada.ordenado, true);
+        } catch (IOException e) {
+            erroresDisco.incrementAndGet();
+            return;
+        }
+
+        List<Clave> borradas = new ArrayList<>();
+        candado.lock();
+        try {
+            Long anterior = disco.put(clave, entrada.bytes);
+            if (anterior != null) {
+                bytesDisco -= anterior;
+            }
+            bytesDisco += entrada.bytes;
+            Iterator<Map.Entry<Clave, Long>> iterador = disco.entrySet().iterator();
+            while (bytesDisco > maximoBytesDisco && iterador.hasNext()) {
+                Map.Entry<Clave, Long> menosUsada = iterador.next();
+                iterador.remove();
+                bytesDisco -= menosUsada.getValue();
+                desalojosDisco.incrementAndGet();
+                borradas.add(menosUsada.getKey());
+            }
+        } finally {
+            candado.unlock();
+        }
+
+        for (Clave borrada : borradas) {
+            try {
+                Files.deleteIfExists(directorioDisco.resolve(borrada.aNombre() + SUFIJO_ENTRADA));
+                Files.deleteIfExists(directorioDisco.resolve(borrada.aNombre() + SUFIJO_ORDENADO));
+            } catch (IOException e) {
+                erroresDisco.incrementAndGet();
+            }
+        }
+    }
+
+    private static void escribirAtomico(Path destino, int[] datos, boolean ordenado) throws IOException {
+        Path temporal = Files.createTempFile(destino.getParent(), destino.getFileName().toString(), ".parcial");
+        try {
+            ArchivoBinarioNumeros.escribir(temporal, datos, 0, datos.length, ordenado);
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    /**
+     * Lee una entrada del disco verificando su suma de control
+     * @return Entrada leida, o null si los archivos ya no estan o estan danados
+     */
+    private Entrada leerDeDisco(Clave clave) {
+        String nombre = clave.aNombre();
+        try {
+            int[] entrada = ArchivoBinarioNumeros.leerEnteros(directorioDisco.resolve(nombre + SUFIJO_ENTRADA));
+            int[] ordenado = ArchivoBinarioNumeros.leerEnteros(directorioDisco.resolve(nombre + SUFIJO_ORDENADO));
+            if (entrada.length == clave.cantidad && ordenado.length == clave.cantidad) {
+                return new Entrada(entrada, ordenado);
+            }
+        } catch (IOException e) {
+            erroresDisco.incrementAndGet();
+        }
+        // Archivos desaparecidos o danados: se olvida la entrada
+        candado.lock();
+        try {
+            Long bytes = disco.remove(clave);
+            if (bytes != null) {
+                bytesDisco -= bytes;
+            }
+        } finally {
+            candado.unlock();
+        }
+        return null;
+    }
+
+    /**
+     * Reconstruye el indice del disco a partir de los nombres de archivo;
+     * el contenido se verifica recien al leerlo
+     */
+    private void cargarIndiceDisco() throws IOException {
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorioDisco, "*" + SUFIJO_ORDENADO)) {
+            for (Path archivo : archivos) {
+                String nombreArchivo = archivo.getFileName().toString();
+                Clave clave = Clave.desdeNombre(nombreArchivo.substring(0, nombreArchivo.length() - SUFIJO_ORDENADO.length()));
+                if (clave != null && Files.exists(directorioDisco.resolve(clave.aNombre() + SUFIJO_ENTRADA))) {
+                    long bytes = Entrada.calcularBytes(clave.cantidad);
+                    disco.put(clave, bytes);
+                    bytesDisco += bytes;
+                }
+            }
+        }
+    }
+
+    /**
+     * Hash Murmur3 x64 de 128 bits del rango [desde, hasta), igual al de los
+     * mismos numeros serializados en little-endian
+     * @return Las dos mitades del hash
+     */
+    static long[] calcularHash(int[] datos, int desde, int hasta) {
+        long h1 = 0;
+        long h2 = 0;
+        int i = desde;
+        for (; i + 4 <= hasta; i += 4) {
+            long k1 = (datos[i] & 0xFFFFFFFFL) | ((long) datos[i + 1] << 32);
+            long k2 = (datos[i + 2] & 0xFFFFFFFFL) | ((long) datos[i + 3] << 32);
+
+            h1 ^= mezclarK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mezclarK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        // Cola de 1 a 3 numeros (4 a 12 bytes)
+        int resto = hasta - i;
+        if (resto == 3) {
+            h2 ^= mezclarK2(datos[i + 2] & 0xFFFFFFFFL);
+        }
+        if (resto >= 1) {
+            long k1 = datos[i] & 0xFFFFFFFFL;
+            if (resto >= 2) {
+                k1 |= (long) datos[i + 1] << 32;
+            }
+            h1 ^= mezclarK1(k1);
+        }
+
+        long bytes = (long) (hasta - desde) * Integer.BYTES;
+        h1 ^= bytes;
+        h2 ^= bytes;
+        h1 += h2;
+        h2 += h1;
+        h1 = mezclaFinal(h1);
+        h2 = mezclaFinal(h2);
+        h1 += h2;
+        h2 += h1;
+        return new long[]{h1, h2};
+    }
+
+    private static long mezclarK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mezclarK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long mezclaFinal(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    /**
+     * Hash del contenido mas la cantidad de numeros
+     */
+    private static final class Clave {
+        private final long alto;
+        private final long bajo;
+        private final int cantidad;
+
+        Clave(long alto, long bajo, int cantidad) {
+            this.alto = alto;
+            this.bajo = bajo;
+            this.cantidad = cantidad;
+        }
+
+        static Clave de(int[] datos) {
+            long[] hash = calcularHash(datos, 0, datos.length);
+            return new Clave(hash[0], hash[1], datos.length);
+        }
+
+        /**
+         * @return Clave del nombre de archivo, o null si el nombre no tiene el formato de {@link #aNombre()}
+         */
+        static Clave desdeNombre(String nombre) {
+            int guion = nombre.indexOf('-');
+            if (guion != 32) {
+                return null;
+            }
+            try {
+                return new Clave(Long.parseUnsignedLong(nombre.substring(0, 16), 16),
+                        Long.parseUnsignedLong(nombre.substring(16, 32), 16),
+                        Integer.parseInt(nombre.substring(33)));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        String aNombre() {
+            return String.format("%016x%016x-%d", alto, bajo, cantidad);
+        }
+
+        @Override
+        public boolean equals(Object otro) {
+            if (!(otro instanceof Clave clave)) {
+                return false;
+            }
+            return alto == clave.alto && bajo == clave.bajo && cantidad == clave.cantidad;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (alto ^ (alto >>> 32));
+        }
+    }
+
+    /**
+     * Copia de la entrada original, para descartar colisiones, y su resultado ordenado
+     */
+    private static final class Entrada {
+        private final int[] entrada;
+        private final int[] ordenado;
+        private final long bytes;
+
+        Entrada(int[] entrada, int[] ordenado) {
+            this.entrada = entrada;
+            this.ordenado = ordenado;
+            this.bytes = calcularBytes(entrada.length);
+        }
+
+        static long calcularBytes(int cantidad) {
+            return 2L * cantidad * Integer.BYTES + SOBRECARGA_ENTRADA;
+        }
+    }
+}
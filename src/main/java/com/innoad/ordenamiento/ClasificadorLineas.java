@@ -0,0 +1,343 @@
+package com.innoad.ordenamiento;
+
+/**
+ * Analizador lexico de una sola pasada que clasifica las lineas de un
+ * archivo fuente leyendo sus bytes, sin decodificar caracteres ni reservar
+ * memoria por linea. Sigue cadenas, caracteres, bloques de texto triples y
+ * comentarios de linea y de bloque, asi un // dentro de una cadena no es
+ * un comentario y el codigo despues de un cierre de bloque cuenta como codigo.
+ * Cada linea se marca segun lo que contiene fuera de los espacios: codigo,
+ * comentario o ambos (mixta, que tambien cuenta como codigo). Las lineas
+ * dentro de un bloque de texto son codigo aunque esten vacias.
+ * Los bytes pueden llegar en bloques de cualquier tamano: el estado se
+ * conserva entre llamadas a {@link #procesar(byte[], int, int)}.
+ * No es seguro entre hilos; cada hilo usa su propia instancia por archivo.
+ */
+final class ClasificadorLineas {
+
+    private static final int CODIGO = 0;
+    /** Barra en el codigo: puede abrir un comentario o ser una division */
+    private static final int BARRA = 1;
+    private static final int COMENTARIO_LINEA = 2;
+    private static final int BLOQUE = 3;
+    /** Asterisco dentro de un bloque: una barra lo cierra */
+    private static final int BLOQUE_ASTERISCO = 4;
+    /** Barra dentro de un bloque: un asterisco abre uno anidado (Kotlin) */
+    private static final int BLOQUE_BARRA = 5;
+    private static final int CADENA = 6;
+    private static final int CADENA_ESCAPE = 7;
+    /** Una comilla en el codigo que puede ser el inicio de una triple */
+    private static final int COMILLAS_1 = 8;
+    private static final int COMILLAS_2 = 9;
+    private static final int TEXTO = 10;
+    private static final int TEXTO_ESCAPE = 11;
+    private static final int TEXTO_COMILLAS_1 = 12;
+    private static final int TEXTO_COMILLAS_2 = 13;
+    private static final int PROPIEDAD_INICIO = 14;
+    private static final int PROPIEDAD_COMENTARIO = 15;
+    private static final int PROPIEDAD_VALOR = 16;
+    /** Despues de cerrar una cadena triple: mas comillas seguidas siguen siendo parte del cierre */
+    private static final int TEXTO_CERRADO = 17;
+
+    /** Bytes que pueden cambiar el estado cuando se esta en codigo */
+    private static final boolean[] ESPECIALES_CODIGO = tabla("/\"'\n\r");
+
+    /** Bytes que pueden cambiar el estado dentro de un comentario de bloque */
+    private static final boolean[] ESPECIALES_BLOQUE = tabla("*/\n\r");
+
+    private final LenguajeFuente lenguaje;
+
+    private long total;
+    private long codigo;
+    private long comentarios;
+    private long blanco;
+    private long mixtas;
+
+    private int estado;
+    private int comilla;
+    private int profundidad;
+    private int barrasFinales;
+    private boolean continuacion;
+    private boolean lineaConCodigo;
+    private boolean lineaConComentario;
+    private boolean hayContenido;
+    private boolean retornoCarro;
+
+    /**
+     * @param lenguaje Reglas de comentarios y literales a aplicar
+     */
+    ClasificadorLineas(LenguajeFuente lenguaje) {
+        this.lenguaje = lenguaje;
+        this.estado = lenguaje.tieneComentariosC() ? CODIGO : PROPIEDAD_INICIO;
+    }
+
+    /**
+     * Procesa el siguiente bloque de bytes del archivo
+     * @param bytes Buffer con el bloque
+     * @param desde Indice inicial, inclusivo
+     * @param hasta Indice final, exclusivo
+     */
+    void procesar(byte[] bytes, int desde, int hasta) {
+        // Copias locales para que el JIT las mantenga en registros
+        int estadoLocal = estado;
+        int comillaLocal = comilla;
+        int profundidadLocal = profundidad;
+        boolean conCodigo = lineaConCodigo;
+        boolean conComentario = lineaConComentario;
+        boolean contenido = hayContenido;
+        boolean ultimoRetorno = retornoCarro;
+        boolean anidados = lenguaje.tieneComentariosAnidados();
+
+        int i = desde;
+        while (i < hasta) {
+            int b = bytes[i++] & 0xFF;
+            if (b == '\n' || b == '\r') {
+                // \r\n es un solo fin de linea
+                if (b == '\n' && ultimoRetorno) {
+                    ultimoRetorno = false;
+                    continue;
+                }
+                ultimoRetorno = b == '\r';
+                estadoLocal = terminarLinea(estadoLocal, conCodigo, conComentario);
+                conCodigo = false;
+                conComentario = false;
+                contenido = false;
+                continue;
+            }
+            ultimoRetorno = false;
+            contenido = true;
+
+            switch (estadoLocal) {
+                case CODIGO:
+                    // Camino rapido: la mayoria de los bytes de codigo no cambian el estado
+                    while (!ESPECIALES_CODIGO[b]) {
+                        conCodigo |= b > ' ';
+                        if (i == hasta) {
+                            b = -1;
+                            break;
+                        }
+                        b = bytes[i++] & 0xFF;
+                    }
+                    if (b < 0) {
+                        break;
+                    }
+                    if (b == '\n' || b == '\r') {
+                        i--;
+                    } else if (b == '/') {
+                        estadoLocal = BARRA;
+                    } else {
+                        conCodigo = true;
+                        comillaLocal = b;
+                        estadoLocal = lenguaje.tieneTriples(b) ? COMILLAS_1 : CADENA;
+                    }
+                    break;
+                case BARRA:
+                    if (b == '/') {
+                        estadoLocal = COMENTARIO_LINEA;
+                        conComentario = true;
+                    } else if (b == '*') {
+                        estadoLocal = BLOQUE;
+                        profundidadLocal = 1;
+                        conComentario = true;
+                    } else {
+                        // Era una division: la barra es codigo y el byte se vuelve a procesar
+                        conCodigo = true;
+                        estadoLocal = CODIGO;
+                        i--;
+                    }
+                    break;
+                case COMENTARIO_LINEA:
+                case PROPIEDAD_COMENTARIO:
+                    // El resto de la linea no cambia la clasificacion
+                    while (i < hasta && bytes[i] != '\n' && bytes[i] != '\r') {
+                        i++;
+                    }
+                    break;
+                case BLOQUE:
+                    while (!ESPECIALES_BLOQUE[b]) {
+                        conComentario |= b > ' ';
+                        if (i == hasta) {
+                            b = -1;
+                            break;
+                        }
+                        b = bytes[i++] & 0xFF;
+                    }
+                    if (b < 0) {
+                        break;
+                    }
+                    if (b == '\n' || b == '\r') {
+                        i--;
+                    } else {
+                        conComentario = true;
+                        if (b == '*') {
+                            estadoLocal = BLOQUE_ASTERISCO;
+                        } else if (anidados) {
+                            estadoLocal = BLOQUE_BARRA;
+                        }
+                    }
+                    break;
+                case BLOQUE_ASTERISCO:
+                    conComentario |= b > ' ';
+                    if (b == '/') {
+                        profundidadLocal--;
+                        estadoLocal = profundidadLocal == 0 ? CODIGO : BLOQUE;
+                    } else if (b != '*') {
+                        estadoLocal = BLOQUE;
+                    }
+                    break;
+                case BLOQUE_BARRA:
+                    conComentario |= b > ' ';
+                    if (b == '*') {
+                        profundidadLocal++;
+                        estadoLocal = BLOQUE;
+                    } else if (b != '/') {
+                        estadoLocal = BLOQUE;
+                    }
+                    break;
+                case CADENA:
+                    if (b == '\\') {
+                        estadoLocal = CADENA_ESCAPE;
+                    } else if (b == comillaLocal) {
+                        estadoLocal = CODIGO;
+                    }
+                    break;
+                case CADENA_ESCAPE:
+                    estadoLocal = CADENA;
+                    break;
+                case COMILLAS_1:
+                    if (b == comillaLocal) {
+                        estadoLocal = COMILLAS_2;
+                    } else {
+                        estadoLocal = CADENA;
+                        i--;
+                    }
+                    break;
+                case COMILLAS_2:
+                    if (b == comillaLocal) {
+                        estadoLocal = TEXTO;
+                    } else {
+                        // Cadena vacia
+                        estadoLocal = CODIGO;
+                        i--;
+                    }
+                    break;
+                case TEXTO:
+                    conCodigo |= b > ' ';
+                    if (b == '\\' && lenguaje.tieneEscapesEnTriples()) {
+                        estadoLocal = TEXTO_ESCAPE;
+                    } else if (b == comillaLocal) {
+                        estadoLocal = TEXTO_COMILLAS_1;
+                    }
+                    break;
+                case TEXTO_ESCAPE:
+                    conCodigo |= b > ' ';
+                    estadoLocal = TEXTO;
+                    break;
+                case TEXTO_COMILLAS_1:
+                case TEXTO_COMILLAS_2:
+                    if (b == comillaLocal) {
+                        estadoLocal = estadoLocal == TEXTO_COMILLAS_1 ? TEXTO_COMILLAS_2 : TEXTO_CERRADO;
+                        conCodigo = true;
+                    } else {
+                        estadoLocal = TEXTO;
+                        i--;
+                    }
+                    break;
+                case TEXTO_CERRADO:
+                    // En """a"""" la cadena es a" (Kotlin y Groovy); en Java una comilla
+                    // pegada al cierre no compila, asi que no abre otra cadena en ningun caso
+                    if (b != comillaLocal) {
+                        estadoLocal = CODIGO;
+                        i--;
+                    }
+                    break;
+                case PROPIEDAD_INICIO:
+                    if (b <= ' ') {
+                        break;
+                    }
+                    if (!continuacion && (b == '#' || b == '!')) {
+                        estadoLocal = PROPIEDAD_COMENTARIO;
+                        conComentario = true;
+                    } else {
+                        estadoLocal = PROPIEDAD_VALOR;
+                        conCodigo = true;
+                        barrasFinales = b == '\\' ? 1 : 0;
+                    }
+                    break;
+                default:
+                    // PROPIEDAD_VALOR: solo importa cuantas barras invertidas hay al final
+                    barrasFinales = b == '\\' ? barrasFinales + 1 : 0;
+                    break;
+            }
+        }
+
+        estado = estadoLocal;
+        comilla = comillaLocal;
+        profundidad = profundidadLocal;
+        lineaConCodigo = conCodigo;
+        lineaConComentario = conComentario;
+        hayContenido = contenido;
+        retornoCarro = ultimoRetorno;
+    }
+
+    /**
+     * Cuenta la ultima linea si no termina en salto de linea
+     * @return Conteo del archivo completo
+     */
+    ConteoLineas terminar() {
+        if (hayContenido) {
+            estado = terminarLinea(estado, lineaConCodigo, lineaConComentario);
+            hayContenido = false;
+        }
+        return new ConteoLineas(total, codigo, comentarios, blanco, mixtas);
+    }
+
+    /**
+     * Cuenta la linea que termina y decide el estado de la siguiente
+     * @return Estado al comenzar la siguiente linea
+     */
+    private int terminarLinea(int estadoLinea, boolean conCodigo, boolean conComentario) {
+        int siguiente;
+        switch (estadoLinea) {
+            case BARRA -> {
+                conCodigo = true;
+                siguiente = CODIGO;
+            }
+            // Las cadenas simples no cruzan lineas: una sin cerrar no arrastra el error
+            case COMENTARIO_LINEA, CADENA, CADENA_ESCAPE, COMILLAS_1, COMILLAS_2, TEXTO_CERRADO -> siguiente = CODIGO;
+            case BLOQUE_ASTERISCO, BLOQUE_BARRA -> siguiente = BLOQUE;
+            case TEXTO, TEXTO_ESCAPE, TEXTO_COMILLAS_1, TEXTO_COMILLAS_2 -> {
+                conCodigo = true;
+                siguiente = TEXTO;
+            }
+            case PROPIEDAD_INICIO, PROPIEDAD_COMENTARIO, PROPIEDAD_VALOR -> {
+                // Un valor que termina en un numero impar de barras sigue en la linea siguiente
+                continuacion = estadoLinea == PROPIEDAD_VALOR && (barrasFinales & 1) == 1;
+                barrasFinales = 0;
+                siguiente = PROPIEDAD_INICIO;
+            }
+            default -> siguiente = estadoLinea;
+        }
+
+        total++;
+        if (conCodigo) {
+            codigo++;
+            if (conComentario) {
+                mixtas++;
+            }
+        } else if (conComentario) {
+            comentarios++;
+        } else {
+            blanco++;
+        }
+        return siguiente;
+    }
+
+    private static boolean[] tabla(String bytes) {
+        boolean[] especiales = new boolean[256];
+        for (int i = 0; i < bytes.length(); i++) {
+            especiales[bytes.charAt(i)] = true;
+        }
+        return especiales;
+    }
+}
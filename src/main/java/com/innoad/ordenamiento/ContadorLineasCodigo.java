@@ -1,15 +1,10 @@
 package com.innoad.ordenamiento;
 
 import java.io.*;
-        import java.nio.file.*;
+import java.nio.file.*;
 
 public class ContadorLineasCodigo {
 
-    private static int totalLineas = 0;
-    private static int lineasCodigo = 0;
-    private static int lineasComentarios = 0;
-    private static int lineasBlanco = 0;
-
     // Constantes COCOMO para modo Orgánico
     private static final double A_ORGANICO = 2.4;
     private static final double B_ORGANICO = 1.05;
@@ -22,98 +17,95 @@ public class ContadorLineasCodigo {
         System.out.println("╚══════════════════════════════════════════════════════════════╝");
         System.out.println();
 
-        // Directorio actual del proyecto
+        // Uso: ContadorLineasCodigo [directorio] [--vigilar]
+        boolean vigilar = false;
         String directorioActual = System.getProperty("user.dir");
+        for (String argumento : args) {
+            if (argumento.equals("--vigilar")) {
+                vigilar = true;
+            } else {
+                directorioActual = argumento;
+            }
+        }
         System.out.println("Analizando directorio: " + directorioActual);
         System.out.println();
 
-        // Contar líneas en todos los archivos .java del directorio
-        contarLineasEnDirectorio(directorioActual);
+        try (IndiceLineasCodigo indice = new IndiceLineasCodigo(Paths.get(directorioActual))) {
+            // Contar líneas en los archivos fuente que cambiaron desde la ultima ejecucion
+            IndiceLineasCodigo.Actualizacion actualizacion = contarLineasEnDirectorio(indice);
+
+            // Mostrar resultados del conteo
+            mostrarEstadisticas(actualizacion);
 
-        // Mostrar resultados del conteo
-        mostrarEstadisticas();
+            // Calcular COCOMO, como siempre solo con las lineas de los archivos .java
+            calcularCOCOMO(actualizacion.obtenerTotal(LenguajeFuente.JAVA).obtenerCodigo());
 
-        // Calcular COCOMO
-        calcularCOCOMO();
+            if (vigilar) {
+                vigilarCambios(indice);
+            }
+        } catch (IOException e) {
+            System.err.println("Error al recorrer el directorio " + directorioActual + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
-     * Con este contaria las lineas de codigo en todos los archivos .java de un directorio
-     * @param rutaDirectorio
+     * Con este contaria las lineas de codigo en todos los archivos fuente de un directorio
+     * (Java, Kotlin, Groovy y .properties). Las estadisticas muestran todos los
+     * lenguajes, pero COCOMO sigue usando solo las lineas de codigo de los .java.
+     * Usa el indice guardado de la ejecucion anterior: solo se leen, en paralelo,
+     * los archivos nuevos o modificados
+     * @param indice Indice del directorio
+     * @return Actualizacion con el total y el total de cada lenguaje
      */
-    private static void contarLineasEnDirectorio(String rutaDirectorio) {
-        File directorio = new File(rutaDirectorio);
-        File[] archivos = directorio.listFiles();
-
-        if (archivos != null) {
-            for (File archivo : archivos) {
-                if (archivo.isFile() && archivo.getName().endsWith(".java")) {
-                    System.out.println("Analizando: " + archivo.getName());
-                    contarLineasArchivo(archivo);
-                } else if (archivo.isDirectory()) {
-                    // Recursivamente analizar subdirectorios
-                    contarLineasEnDirectorio(archivo.getAbsolutePath());
-                }
-            }
+    private static IndiceLineasCodigo.Actualizacion contarLineasEnDirectorio(IndiceLineasCodigo indice)
+            throws IOException {
+        long tiempoInicio = System.currentTimeMillis();
+        IndiceLineasCodigo.Actualizacion actualizacion = indice.actualizar();
+        long tiempoTranscurrido = System.currentTimeMillis() - tiempoInicio;
+
+        for (String error : actualizacion.obtenerErrores()) {
+            System.err.println("Error al leer archivo " + error);
         }
+        System.out.println("Archivos analizados: " + indice.cantidadArchivos()
+                + " (leídos " + actualizacion.obtenerLeidos()
+                + ", modificados " + actualizacion.obtenerModificados()
+                + ", eliminados " + actualizacion.obtenerEliminados()
+                + ") en " + tiempoTranscurrido + " ms");
+        return actualizacion;
     }
 
     /**
-     * Cuenta las lineas de un archivo Java especifico
-     * @param archivo Archivo a analizar
+     * Vigila el directorio y recalcula COCOMO cada vez que cambia un archivo fuente.
+     * No termina hasta que se detiene el programa
+     * @param indice Indice del directorio, ya actualizado
      */
-    private static void contarLineasArchivo(File archivo) {
-        try (BufferedReader lector = new BufferedReader(new FileReader(archivo))) {
-            String linea;
-            boolean enComentarioMultilinea = false;
-
-            while ((linea = lector.readLine()) != null) {
-                totalLineas++;
-                String lineaLimpia = linea.trim();
-
-                // Línea en blanco
-                if (lineaLimpia.isEmpty()) {
-                    lineasBlanco++;
-                    continue;
-                }
-
-                // Detectar inicio de comentario multilinea
-                if (lineaLimpia.startsWith("/*")) {
-                    enComentarioMultilinea = true;
-                    lineasComentarios++;
-                    if (lineaLimpia.contains("*/")) {
-                        enComentarioMultilinea = false;
-                    }
-                    continue;
-                }
-
-                // Detectar fin de comentario multilinea
-                if (enComentarioMultilinea) {
-                    lineasComentarios++;
-                    if (lineaLimpia.contains("*/")) {
-                        enComentarioMultilinea = false;
-                    }
-                    continue;
-                }
-
-                // Comentario de una línea
-                if (lineaLimpia.startsWith("//")) {
-                    lineasComentarios++;
-                    continue;
-                }
-
-                // Línea de código
-                lineasCodigo++;
+    private static void vigilarCambios(IndiceLineasCodigo indice) throws IOException, InterruptedException {
+        System.out.println("\nVigilando cambios en " + indice.obtenerRaiz() + " (Ctrl+C para terminar)...");
+        indice.vigilar(actualizacion -> {
+            for (String error : actualizacion.obtenerErrores()) {
+                System.err.println("Error al leer archivo " + error);
             }
-        } catch (IOException e) {
-            System.err.println("Error al leer archivo " + archivo.getName() + ": " + e.getMessage());
-        }
+            long codigoJava = actualizacion.obtenerTotal(LenguajeFuente.JAVA).obtenerCodigo();
+            long diferencia = codigoJava - actualizacion.obtenerAnterior(LenguajeFuente.JAVA).obtenerCodigo();
+            System.out.println("\n→ Cambios: " + actualizacion.obtenerModificados() + " modificados, "
+                    + actualizacion.obtenerEliminados() + " eliminados; líneas de código Java: "
+                    + codigoJava + " (" + (diferencia >= 0 ? "+" : "") + diferencia + ")");
+            calcularCOCOMO(codigoJava);
+        });
     }
 
     /**
      * Muestra estadisticas del conteo de lineas
      */
-    private static void mostrarEstadisticas() {
+    private static void mostrarEstadisticas(IndiceLineasCodigo.Actualizacion actualizacion) {
+        ConteoLineas conteo = actualizacion.obtenerTotal();
+        long totalLineas = conteo.obtenerTotal();
+        long lineasCodigo = conteo.obtenerCodigo();
+        long lineasComentarios = conteo.obtenerComentarios();
+        long lineasBlanco = conteo.obtenerBlanco();
+
         System.out.println("\n════════════════════════════════════════════════════════════");
         System.out.println("ESTADISTICAS DE LINEAS DE CODIGO");
         System.out.println("════════════════════════════════════════════════════════════");
@@ -121,7 +113,16 @@ public class ContadorLineasCodigo {
         System.out.println("Líneas de código:       " + lineasCodigo);
         System.out.println("Líneas de comentarios:  " + lineasComentarios);
         System.out.println("Líneas en blanco:       " + lineasBlanco);
+        System.out.println("Líneas mixtas:          " + conteo.obtenerMixtas() + " (código y comentario, incluidas en código)");
         System.out.println("════════════════════════════════════════════════════════════");
+        for (LenguajeFuente lenguaje : LenguajeFuente.values()) {
+            ConteoLineas delLenguaje = actualizacion.obtenerTotal(lenguaje);
+            if (delLenguaje.obtenerTotal() > 0) {
+                System.out.println(String.format("%-24s", lenguaje + ":") + delLenguaje.obtenerCodigo()
+                        + " de código de " + delLenguaje.obtenerTotal() + " líneas");
+            }
+        }
+        System.out.println("COCOMO usa solo las líneas de código de JAVA");
 
         double porcentajeCodigo = (lineasCodigo * 100.0) / totalLineas;
         double porcentajeComentarios = (lineasComentarios * 100.0) / totalLineas;
@@ -132,8 +133,9 @@ public class ContadorLineasCodigo {
 
     /**
      * Calcula las estimaciones usando el modelo COCOMO Orgánico
+     * @param lineasCodigo Lineas de codigo contadas
      */
-    private static void calcularCOCOMO() {
+    private static void calcularCOCOMO(long lineasCodigo) {
         // Según el documento, multiplicar por 100
         double kloc = (lineasCodigo * 100.0) / 1000.0;
 
@@ -209,7 +211,7 @@ public class ContadorLineasCodigo {
         System.out.println("═════════════════════════════════════════════════════════════");
 
         // Guardar resultados en archivo
-        guardarResultadosCOCOMO(kloc, esfuerzo, tiempoDesarrollo, personasNecesarias,
+        guardarResultadosCOCOMO(lineasCodigo, kloc, esfuerzo, tiempoDesarrollo, personasNecesarias,
                 productividad, costoTotal, tiempoDeseado,
                 personasParaTiempoReducido, costoReducido);
     }
@@ -217,8 +219,8 @@ public class ContadorLineasCodigo {
     /**
      * Guarda los resultados de COCOMO en un archivo de texto
      */
-    private static void guardarResultadosCOCOMO(double kloc, double esfuerzo, double tiempoDesarrollo,
-                                                double personasNecesarias, double productividad,
+    private static void guardarResultadosCOCOMO(long lineasCodigo, double kloc, double esfuerzo,
+                                                double tiempoDesarrollo, double personasNecesarias, double productividad,
                                                 double costoTotal, double tiempoReducido,
                                                 double personasReducido, double costoReducido) {
         try (BufferedWriter escritor = new BufferedWriter(new FileWriter("resultados_cocomo.txt"))) {
@@ -0,0 +1,59 @@
+package com.innoad.ordenamiento;
+
+/**
+ * Cuenta las comparaciones entre elementos y los movimientos de un Merge
+ * Sort de {@link MotorOrdenamiento}. Los movimientos son las escrituras de
+ * un elemento en el arreglo o en el auxiliar, incluidas las copias en bloque.
+ * El motor ordena por su camino de siempre y le informa cada paso.
+ * La mezcla devuelve cuantos elementos escribio comparando.
+ * Los tramos de insercion se cuentan sobre los datos antes de que el motor
+ * los ordene, asi el ciclo de comparaciones no lleva contadores.
+ * <p>
+ * Solo lo usa {@link TelemetriaOrdenamiento} en los ordenamientos elegidos
+ * por muestreo. En los demas el motor recibe null y no cuenta nada.
+ */
+final class ContadorOperaciones {
+
+    private long comparaciones;
+    private long movimientos;
+
+    /**
+     * Suma las operaciones de un paso del motor
+     * @param comparaciones Comparaciones entre elementos del paso
+     * @param movimientos Elementos escritos en el paso
+     */
+    void contar(long comparaciones, long movimientos) {
+        this.comparaciones += comparaciones;
+        this.movimientos += movimientos;
+    }
+
+    /**
+     * Cuenta lo que hara la insercion del motor sobre [desde, hasta). Se
+     * llama antes de ordenar: cada elemento se compara con los anteriores
+     * mayores que el, que corre un lugar, y con el primero que no lo es, si
+     * existe. Despues se escribe en su lugar
+     */
+    void contarInsercion(int[] datos, int desde, int hasta) {
+        for (int i = desde + 1; i < hasta; i++) {
+            int actual = datos[i];
+            int mayores = 0;
+            for (int j = desde; j < i; j++) {
+                if (datos[j] > actual) {
+                    mayores++;
+                }
+            }
+            comparaciones += mayores < i - desde ? mayores + 1 : mayores;
+            movimientos += mayores + 1;
+        }
+    }
+
+    /** @return Comparaciones entre elementos hasta ahora */
+    long obtenerComparaciones() {
+        return comparaciones;
+    }
+
+    /** @return Escrituras de elementos hasta ahora */
+    long obtenerMovimientos() {
+        return movimientos;
+    }
+}
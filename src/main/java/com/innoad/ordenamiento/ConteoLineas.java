@@ -0,0 +1,98 @@
+package com.innoad.ordenamiento;
+
+/**
+ * Cantidad de lineas de cada tipo de un archivo o de un conjunto de archivos.
+ * Cada linea es de codigo, de comentarios o en blanco; las mixtas, con codigo
+ * y un comentario, se cuentan como codigo y ademas aparte.
+ * Es inmutable: los conteos de varios archivos se combinan con
+ * {@link #sumar(ConteoLineas)} sin compartir contadores entre hilos.
+ */
+public final class ConteoLineas {
+
+    /** Conteo sin lineas, neutro para la suma */
+    public static final ConteoLineas VACIO = new ConteoLineas(0, 0, 0, 0, 0);
+
+    private final long total;
+    private final long codigo;
+    private final long comentarios;
+    private final long blanco;
+    private final long mixtas;
+
+    /**
+     * @param total Lineas totales
+     * @param codigo Lineas de codigo, incluidas las mixtas
+     * @param comentarios Lineas solo con comentarios
+     * @param blanco Lineas en blanco
+     * @param mixtas Lineas con codigo y comentario
+     */
+    public ConteoLineas(long total, long codigo, long comentarios, long blanco, long mixtas) {
+        this.total = total;
+        this.codigo = codigo;
+        this.comentarios = comentarios;
+        this.blanco = blanco;
+        this.mixtas = mixtas;
+    }
+
+    /**
+     * @param otro Conteo a sumar
+     * @return Nuevo conteo con la suma de ambos
+     */
+    public ConteoLineas sumar(ConteoLineas otro) {
+        return new ConteoLineas(total + otro.total, codigo + otro.codigo,
+                comentarios + otro.comentarios, blanco + otro.blanco, mixtas + otro.mixtas);
+    }
+
+    /**
+     * @param otro Conteo a restar
+     * @return Nuevo conteo con la diferencia
+     */
+    public ConteoLineas restar(ConteoLineas otro) {
+        return new ConteoLineas(total - otro.total, codigo - otro.codigo,
+                comentarios - otro.comentarios, blanco - otro.blanco, mixtas - otro.mixtas);
+    }
+
+    /** @return Lineas totales */
+    public long obtenerTotal() {
+        return total;
+    }
+
+    /** @return Lineas de codigo, incluidas las mixtas */
+    public long obtenerCodigo() {
+        return codigo;
+    }
+
+    /** @return Lineas solo con comentarios */
+    public long obtenerComentarios() {
+        return comentarios;
+    }
+
+    /** @return Lineas en blanco */
+    public long obtenerBlanco() {
+        return blanco;
+    }
+
+    /** @return Lineas con codigo y comentario */
+    public long obtenerMixtas() {
+        return mixtas;
+    }
+
+    @Override
+    public boolean equals(Object otro) {
+        if (!(otro instanceof ConteoLineas conteo)) {
+            return false;
+        }
+        return total == conteo.total && codigo == conteo.codigo
+                && comentarios == conteo.comentarios && blanco == conteo.blanco && mixtas == conteo.mixtas;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(total) * 31 + Long.hashCode(codigo);
+    }
+
+    @Override
+    public String toString() {
+        return total + " lineas (" + codigo + " de codigo, " + comentarios + " de comentarios, "
+                + blanco + " en blanco, " + mixtas + " mixtas)";
+    }
+}
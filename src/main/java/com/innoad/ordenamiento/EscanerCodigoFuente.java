@@ -0,0 +1,316 @@
+package com.innoad.ordenamiento;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Recorre un arbol de directorios con Files.walkFileTree y clasifica las
+ * lineas de cada archivo fuente en paralelo. El hilo que llama recorre el
+ * arbol y encola las rutas; cada hilo del pool las toma de la cola, lee el
+ * archivo en bloques grandes sobre un buffer propio que reutiliza entre
+ * archivos y lo pasa por {@link ClasificadorLineas} con las reglas del
+ * lenguaje que indica su extension ({@link LenguajeFuente}). Cada hilo
+ * acumula sus resultados por separado y se combinan al final, sin
+ * contadores compartidos, asi el recorrido y la lectura avanzan a la vez.
+ */
+public class EscanerCodigoFuente implements AutoCloseable {
+
+    /** Tamano del buffer de lectura de cada hilo */
+    static final int TAMANO_BLOQUE = 1 << 16;
+
+    /** Rutas pendientes como maximo en la cola entre el recorrido y los hilos */
+    private static final int CAPACIDAD_COLA = 4096;
+
+    /** Marca de fin de la cola, una por hilo */
+    private static final Path FIN = Paths.get("");
+
+    private final ExecutorService hilos;
+    private final int paralelismo;
+
+    /**
+     * Crea un escaner con un hilo por procesador disponible
+     */
+    public EscanerCodigoFuente() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Crea un escaner con un pool propio
+     * @param paralelismo Cantidad de hilos que leen archivos
+     */
+    public EscanerCodigoFuente(int paralelismo) {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("El paralelismo debe ser mayor a 0: " + paralelismo);
+        }
+        this.paralelismo = paralelismo;
+        this.hilos = Executors.newFixedThreadPool(paralelismo);
+    }
+
+    /**
+     * Conteo de un archivo analizado
+     */
+    public static final class ArchivoContado {
+        private final Path ruta;
+        private final LenguajeFuente lenguaje;
+        private final ConteoLineas conteo;
+        private final long suma;
+
+        ArchivoContado(Path ruta, LenguajeFuente lenguaje, ConteoLineas conteo, long suma) {
+            this.ruta = ruta;
+            this.lenguaje = lenguaje;
+            this.conteo = conteo;
+            this.suma = suma;
+        }
+
+        /** @return Ruta del archivo */
+        public Path obtenerRuta() {
+            return ruta;
+        }
+
+        /** @return Lenguaje con el que se clasificaron las lineas */
+        public LenguajeFuente obtenerLenguaje() {
+            return lenguaje;
+        }
+
+        /** @return Lineas del archivo */
+        public ConteoLineas obtenerConteo() {
+            return conteo;
+        }
+
+        /** @return CRC32C del contenido leido */
+        public long obtenerSuma() {
+            return suma;
+        }
+    }
+
+    /**
+     * Resultado del analisis de un arbol completo
+     */
+    public static final class ResultadoEscaneo {
+        private final List<ArchivoContado> archivos;
+        private final List<String> errores;
+        private final ConteoLineas total;
+
+        ResultadoEscaneo(List<ArchivoContado> archivos, List<String> errores, ConteoLineas total) {
+            this.archivos = archivos;
+            this.errores = errores;
+            this.total = total;
+        }
+
+        /** @return Archivos analizados, ordenados por ruta */
+        public List<ArchivoContado> obtenerArchivos() {
+            return archivos;
+        }
+
+        /** @return Archivos o directorios que no se pudieron leer, con el motivo */
+        public List<String> obtenerErrores() {
+            return errores;
+        }
+
+        /** @return Suma de las lineas de todos los archivos */
+        public ConteoLineas obtenerTotal() {
+            return total;
+        }
+    }
+
+    /**
+     * Analiza todos los archivos fuente debajo de un directorio
+     * @param raiz Directorio a recorrer
+     * @return Conteo por archivo y total
+     * @throws IOException si la raiz no se puede recorrer
+     */
+    public ResultadoEscaneo escanear(Path raiz) throws IOException {
+        return analizar((encolar, errores) -> Files.walkFileTree(raiz, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path archivo, BasicFileAttributes atributos) {
+                if (atributos.isRegularFile() && esFuente(archivo)) {
+                    encolar.accept(archivo);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path archivo, IOException e) {
+                errores.add(archivo + ": " + e.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        }));
+    }
+
+    /**
+     * Analiza en paralelo una lista de archivos ya conocida, por ejemplo los
+     * que cambiaron desde el ultimo analisis
+     * @param archivos Archivos a analizar
+     * @return Conteo por archivo y total
+     */
+    public ResultadoEscaneo contar(Collection<Path> archivos) throws IOException {
+        return analizar((encolar, errores) -> archivos.forEach(encolar));
+    }
+
+    /**
+     * Origen de las rutas que se reparten entre los hilos
+     */
+    @FunctionalInterface
+    private interface Recorrido {
+        void recorrer(Consumer<Path> encolar, List<String> errores) throws IOException;
+    }
+
+    private ResultadoEscaneo analizar(Recorrido recorrido) throws IOException {
+        BlockingQueue<Path> pendientes = new ArrayBlockingQueue<>(CAPACIDAD_COLA);
+        List<Future<Parcial>> parciales = new ArrayList<>(paralelismo);
+        for (int i = 0; i < paralelismo; i++) {
+            parciales.add(hilos.submit(() -> analizarPendientes(pendientes)));
+        }
+
+        List<String> errores = new ArrayList<>();
+        try {
+            recorrido.recorrer(archivo -> encolar(pendientes, archivo), errores);
+        } finally {
+            // Aunque el recorrido falle o se interrumpa, los hilos tienen que terminar
+            encolarFin(pendientes);
+        }
+
+        List<ArchivoContado> archivos = new ArrayList<>();
+        ConteoLineas total = ConteoLineas.VACIO;
+        for (Future<Parcial> futuro : parciales) {
+            Parcial parcial = esperar(futuro);
+            archivos.addAll(parcial.archivos);
+            errores.addAll(parcial.errores);
+            total = total.sumar(parcial.total);
+        }
+        archivos.sort(Comparator.comparing(ArchivoContado::obtenerRuta));
+        return new ResultadoEscaneo(archivos, errores, total);
+    }
+
+    /**
+     * Cuenta las lineas de un solo archivo en el hilo que llama
+     * @param archivo Archivo a analizar
+     * @return Conteo del archivo
+     */
+    public static ConteoLineas contarArchivo(Path archivo) throws IOException {
+        return contarArchivo(archivo, ByteBuffer.allocate(TAMANO_BLOQUE)).obtenerConteo();
+    }
+
+    /**
+     * @param archivo Ruta a revisar
+     * @return true si la ruta tiene la extension de un lenguaje reconocido
+     */
+    public static boolean esFuente(Path archivo) {
+        return LenguajeFuente.detectar(archivo) != null;
+    }
+
+    /** @return Cantidad de hilos que leen archivos */
+    public int obtenerParalelismo() {
+        return paralelismo;
+    }
+
+    @Override
+    public void close() {
+        hilos.shutdown();
+    }
+
+    /**
+     * Lee el archivo por bloques con un buffer de arreglo, para que el
+     * clasificador recorra un byte[] sin pasar por los metodos del ByteBuffer.
+     * En la misma pasada se calcula la suma de control del contenido
+     */
+    private static ArchivoContado contarArchivo(Path archivo, ByteBuffer buffer) throws IOException {
+        LenguajeFuente lenguaje = LenguajeFuente.detectar(archivo);
+        if (lenguaje == null) {
+            throw new IOException("Extension no reconocida: " + archivo.getFileName());
+        }
+        ClasificadorLineas clasificador = new ClasificadorLineas(lenguaje);
+        CRC32C suma = new CRC32C();
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            int leidos;
+            while ((leidos = canal.read(buffer.clear())) != -1) {
+                clasificador.procesar(buffer.array(), 0, leidos);
+                suma.update(buffer.array(), 0, leidos);
+            }
+        }
+        return new ArchivoContado(archivo, lenguaje, clasificador.terminar(), suma.getValue());
+    }
+
+    /**
+     * Cuerpo de cada hilo: analiza rutas de la cola hasta encontrar la marca de fin
+     */
+    private static Parcial analizarPendientes(BlockingQueue<Path> pendientes) throws InterruptedException {
+        Parcial parcial = new Parcial();
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANO_BLOQUE);
+        Path archivo;
+        while ((archivo = pendientes.take()) != FIN) {
+            try {
+                ArchivoContado contado = contarArchivo(archivo, buffer);
+                parcial.archivos.add(contado);
+                parcial.total = parcial.total.sumar(contado.obtenerConteo());
+            } catch (IOException e) {
+                parcial.errores.add(archivo + ": " + e.getMessage());
+            }
+        }
+        return parcial;
+    }
+
+    private static void encolar(BlockingQueue<Path> pendientes, Path archivo) {
+        try {
+            pendientes.put(archivo);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("El recorrido del directorio fue interrumpido", e);
+        }
+    }
+
+    private void encolarFin(BlockingQueue<Path> pendientes) {
+        boolean interrumpido = Thread.interrupted();
+        for (int i = 0; i < paralelismo; ) {
+            try {
+                pendientes.put(FIN);
+                i++;
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        if (interrumpido) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Parcial esperar(Future<Parcial> futuro) throws IOException {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("El analisis fue interrumpido", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Fallo un hilo del analisis: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Resultados de un solo hilo; solo ese hilo lo modifica hasta terminar
+     */
+    private static final class Parcial {
+        private final List<ArchivoContado> archivos = new ArrayList<>();
+        private final List<String> errores = new ArrayList<>();
+        private ConteoLineas total = ConteoLineas.VACIO;
+    }
+}
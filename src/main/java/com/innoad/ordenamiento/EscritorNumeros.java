@@ -0,0 +1,275 @@
+package com.innoad.ordenamiento;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntConsumer;
+import java.util.zip.CRC32C;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Escritor de numeros por bloques. Cada int se convierte a digitos (o a
+ * bytes little-endian) directamente en un buffer reutilizable, que se vacia
+ * en bloques grandes a un FileChannel, a un flujo comprimido o a la salida
+ * estandar, sin crear un String por numero.
+ * Implementa IntConsumer para que el motor de ordenamiento pueda escribir
+ * mientras hace la ultima mezcla.
+ */
+public final class EscritorNumeros implements IntConsumer, Closeable {
+
+    /** Tamano del buffer que se vacia en cada escritura */
+    static final int TAMANO_BUFFER = 1 << 16;
+
+    /** Espacio para el int mas largo ("-2147483648") con sus separadores */
+    private static final int MAXIMO_BYTES_NUMERO = 16;
+
+    /**
+     * Formatos de salida
+     */
+    public enum Formato {
+        /** Texto con un numero por linea, como numeros_aleatorios.txt */
+        TEXTO,
+        /** Texto con un numero por linea comprimido con GZIP */
+        TEXTO_GZIP,
+        /** Formato de {@link ArchivoBinarioNumeros} */
+        BINARIO
+    }
+
+    private final WritableByteChannel destino;
+    private final FileChannel canalBinario;
+    private final Formato formato;
+    private final int numerosPorLinea;
+    private final boolean cerrarDestino;
+    private final byte[] bytes = new byte[TAMANO_BUFFER];
+    private final ByteBuffer envoltorio = ByteBuffer.wrap(bytes);
+    private int ocupados;
+    private long cantidad;
+    private int enLinea;
+
+    // Solo para el formato binario
+    private final CRC32C suma;
+    private boolean ordenado = true;
+    private int anterior = Integer.MIN_VALUE;
+    private long posicionBinaria = ArchivoBinarioNumeros.TAMANO_CABECERA;
+
+    private EscritorNumeros(WritableByteChannel destino, FileChannel canalBinario, Formato formato,
+                            int numerosPorLinea, boolean cerrarDestino) {
+        this.destino = destino;
+        this.canalBinario = canalBinario;
+        this.formato = formato;
+        this.numerosPorLinea = numerosPorLinea;
+        this.cerrarDestino = cerrarDestino;
+        this.suma = formato == Formato.BINARIO ? new CRC32C() : null;
+    }
+
+    /**
+     * Crea un escritor hacia un archivo
+     * @param ruta Archivo destino (se reemplaza si existe)
+     * @param formato Formato de salida
+     * @return Escritor listo para usar
+     */
+    public static EscritorNumeros abrir(Path ruta, Formato formato) throws IOException {
+        return switch (formato) {
+            case TEXTO -> new EscritorNumeros(abrirCanal(ruta), null, formato, 1, true);
+            case TEXTO_GZIP -> {
+                OutputStream comprimido = new GZIPOutputStream(
+                        Channels.newOutputStream(abrirCanal(ruta)), TAMANO_BUFFER);
+                yield new EscritorNumeros(Channels.newChannel(comprimido), null, formato, 1, true);
+            }
+            case BINARIO -> {
+                FileChannel canal = abrirCanal(ruta);
+                yield new EscritorNumeros(canal, canal, formato, 1, true);
+            }
+        };
+    }
+
+    /**
+     * Crea un escritor de texto hacia un archivo
+     * @param ruta Archivo destino (se reemplaza si existe)
+     * @return Escritor listo para usar
+     */
+    public static EscritorNumeros texto(Path ruta) throws IOException {
+        return abrir(ruta, Formato.TEXTO);
+    }
+
+    /**
+     * Crea un escritor de texto hacia un flujo, por ejemplo la respuesta de
+     * una solicitud HTTP. El flujo se cierra al cerrar el escritor.
+     * @param salida Flujo destino
+     * @param formato TEXTO o TEXTO_GZIP
+     * @return Escritor listo para usar
+     * @throws IllegalArgumentException con BINARIO, que necesita un archivo
+     *         para escribir la cabecera al cerrar; para flujos binarios se usa
+     *         {@link ArchivoBinarioNumeros#escribir(OutputStream, int[], int, int, boolean)}
+     */
+    public static EscritorNumeros flujo(OutputStream salida, Formato formato) throws IOException {
+        return switch (formato) {
+            case TEXTO -> new EscritorNumeros(Channels.newChannel(salida), null, formato, 1, true);
+            case TEXTO_GZIP -> new EscritorNumeros(
+                    Channels.newChannel(new GZIPOutputStream(salida, TAMANO_BUFFER)), null, formato, 1, true);
+            case BINARIO -> throw new IllegalArgumentException("El formato binario no se puede escribir en un flujo");
+        };
+    }
+
+    /**
+     * Crea un escritor hacia la salida estandar, separando los numeros con
+     * espacios y saltando de linea cada numerosPorLinea numeros.
+     * Al cerrarlo solo se vacia el buffer; la salida estandar queda abierta.
+     * @param numerosPorLinea Cantidad de numeros por linea
+     * @return Escritor listo para usar
+     */
+    public static EscritorNumeros consola(int numerosPorLinea) {
+        // Lo que System.out tenga pendiente debe salir antes que nuestros bloques
+        System.out.flush();
+        WritableByteChannel salida = new FileOutputStream(FileDescriptor.out).getChannel();
+        return new EscritorNumeros(salida, null, Formato.TEXTO, numerosPorLinea, false);
+    }
+
+    /**
+     * Escribe un numero
+     * @param valor Numero a escribir
+     */
+    public void escribir(int valor) throws IOException {
+        if (ocupados > TAMANO_BUFFER - MAXIMO_BYTES_NUMERO) {
+            vaciar();
+        }
+        if (formato == Formato.BINARIO) {
+            escribirBinario(valor);
+        } else {
+            escribirTexto(valor);
+        }
+        cantidad++;
+    }
+
+    /**
+     * Escribe el rango [desde, hasta) de un arreglo
+     * @param datos Numeros a escribir
+     * @param desde Indice inicial, inclusivo
+     * @param hasta Indice final, exclusivo
+     */
+    public void escribir(int[] datos, int desde, int hasta) throws IOException {
+        MotorOrdenamiento.verificarRango(datos.length, desde, hasta);
+        for (int i = desde; i < hasta; i++) {
+            escribir(datos[i]);
+        }
+    }
+
+    /**
+     * Version de {@link #escribir(int)} para usar como IntConsumer
+     * @throws UncheckedIOException si falla la escritura
+     */
+    @Override
+    public void accept(int valor) {
+        try {
+            escribir(valor);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return Cantidad de numeros escritos
+     */
+    public long obtenerCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Escribe en el destino todo lo que haya en el buffer
+     */
+    public void vaciar() throws IOException {
+        if (ocupados == 0) {
+            return;
+        }
+        envoltorio.clear().limit(ocupados);
+        if (suma != null) {
+            suma.update(bytes, 0, ocupados);
+        }
+        while (envoltorio.hasRemaining()) {
+            if (canalBinario != null) {
+                posicionBinaria += canalBinario.write(envoltorio, posicionBinaria);
+            } else {
+                destino.write(envoltorio);
+            }
+        }
+        ocupados = 0;
+    }
+
+    /**
+     * Vacia el buffer y cierra el destino. En formato binario escribe la
+     * cabecera con la cantidad, la suma de control y si quedo ordenado.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (formato != Formato.BINARIO && numerosPorLinea > 1 && enLinea > 0) {
+                bytes[ocupados++] = '\n';
+                enLinea = 0;
+            }
+            vaciar();
+            if (formato == Formato.BINARIO) {
+                ArchivoBinarioNumeros.escribirCabecera(canalBinario, new ArchivoBinarioNumeros.Cabecera(
+                        ArchivoBinarioNumeros.ANCHO_INT, ordenado, cantidad, suma.getValue()));
+            }
+        } finally {
+            if (cerrarDestino) {
+                destino.close();
+            }
+        }
+    }
+
+    private void escribirTexto(int valor) {
+        // Convertir a digitos de derecha a izquierda sobre el propio buffer
+        long resto = valor;
+        if (resto < 0) {
+            bytes[ocupados++] = '-';
+            resto = -resto;
+        }
+        int digitos = contarDigitos(resto);
+        int posicion = ocupados + digitos;
+        do {
+            bytes[--posicion] = (byte) ('0' + (resto % 10));
+            resto /= 10;
+        } while (resto != 0);
+        ocupados += digitos;
+
+        if (numerosPorLinea == 1) {
+            bytes[ocupados++] = '\n';
+        } else {
+            bytes[ocupados++] = ' ';
+            if (++enLinea == numerosPorLinea) {
+                bytes[ocupados++] = '\n';
+                enLinea = 0;
+            }
+        }
+    }
+
+    private void escribirBinario(int valor) {
+        ordenado &= valor >= anterior;
+        anterior = valor;
+        bytes[ocupados] = (byte) valor;
+        bytes[ocupados + 1] = (byte) (valor >>> 8);
+        bytes[ocupados + 2] = (byte) (valor >>> 16);
+        bytes[ocupados + 3] = (byte) (valor >>> 24);
+        ocupados += Integer.BYTES;
+    }
+
+    private static int contarDigitos(long valor) {
+        int digitos = 1;
+        long limite = 10;
+        while (valor >= limite && digitos < 19) {
+            digitos++;
+            limite *= 10;
+        }
+        return digitos;
+    }
+
+    private static FileChannel abrirCanal(Path ruta) throws IOException {
+        return FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+    }
+}
@@ -0,0 +1,74 @@
+package com.innoad.ordenamiento;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento de JFR de una fase de un ordenamiento: ordenar un bloque en
+ * memoria, una pasada de mezcla, volcar una corrida a disco o leer y
+ * escribir los datos. Solo se emite en fases de grano grueso (bloques,
+ * pasadas y archivos), nunca dentro de la recursion de Merge Sort. Sin
+ * grabacion activa, begin y commit no hacen nada.
+ * <pre>
+ * EventoFase fase = EventoFase.iniciar(EventoFase.Fase.MEZCLA, cantidad);
+ * ...
+ * fase.commit();
+ * </pre>
+ */
+@Name("com.innoad.ordenamiento.Fase")
+@Label("Fase de ordenamiento")
+@Category({"InnoAd", "Ordenamiento"})
+@Description("Division, mezcla, volcado a disco o entrada y salida de un ordenamiento")
+public final class EventoFase extends jdk.jfr.Event {
+
+    /**
+     * Fases que se registran
+     */
+    public enum Fase {
+        /** Ordenar en memoria un bloque o tramo antes de mezclar */
+        DIVISION,
+        /** Una pasada de mezcla de tramos o corridas */
+        MEZCLA,
+        /** Escribir una corrida ordenada en disco */
+        VOLCADO,
+        /** Leer los datos de entrada */
+        LECTURA,
+        /** Escribir o forzar a disco el resultado */
+        ESCRITURA
+    }
+
+    @Label("Fase")
+    String fase;
+
+    @Label("Elementos")
+    long elementos;
+
+    private EventoFase() {
+    }
+
+    /**
+     * Crea el evento y empieza a medir
+     * @param fase Fase que empieza
+     * @param elementos Elementos que procesa la fase
+     * @return Evento a confirmar con commit al terminar la fase
+     */
+    public static EventoFase iniciar(Fase fase, long elementos) {
+        EventoFase evento = new EventoFase();
+        if (evento.isEnabled()) {
+            evento.fase = fase.name();
+            evento.elementos = elementos;
+            evento.begin();
+        }
+        return evento;
+    }
+
+    /**
+     * Para las fases que conocen la cantidad de elementos recien al terminar
+     * @param elementos Elementos que proceso la fase
+     */
+    public void fijarElementos(long elementos) {
+        this.elementos = elementos;
+    }
+}
@@ -0,0 +1,39 @@
+package com.innoad.ordenamiento;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento de JFR de un ordenamiento completo, con la misma informacion que
+ * la {@link TelemetriaOrdenamiento.Medicion}. Se graba con
+ * -XX:StartFlightRecording o jcmd JFR.start; sin grabacion activa no se
+ * crea ni se mide nada.
+ */
+@Name("com.innoad.ordenamiento.Ordenamiento")
+@Label("Ordenamiento")
+@Category({"InnoAd", "Ordenamiento"})
+@Description("Un ordenamiento completo desde una de las entradas publicas")
+final class EventoOrdenamiento extends jdk.jfr.Event {
+
+    @Label("Estrategia")
+    String estrategia;
+
+    @Label("Elementos")
+    long elementos;
+
+    @Label("Memoria reservada")
+    @Description("Bytes reservados en el heap por el hilo que ordeno; -1 si la JVM no lo informa")
+    @DataAmount
+    long bytesReservados;
+
+    @Label("Comparaciones")
+    @Description("-1 si el ordenamiento no fue elegido para contar")
+    long comparaciones;
+
+    @Label("Movimientos")
+    @Description("Escrituras de elementos; -1 si el ordenamiento no fue elegido para contar")
+    long movimientos;
+}
@@ -0,0 +1,20 @@
+package com.innoad.ordenamiento;
+
+import java.io.IOException;
+
+/**
+ * El contenido no respeta el formato de {@link ArchivoBinarioNumeros}:
+ * identificador, version o ancho invalidos, una cantidad que no coincide
+ * con la longitud, o una suma de control incorrecta. Separa los datos
+ * corruptos de las fallas de lectura, por ejemplo para responder a un
+ * cuerpo HTTP invalido como error del cliente
+ */
+public class FormatoBinarioInvalidoException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public FormatoBinarioInvalidoException(String mensaje) {
+        super(mensaje);
+    }
+
+}
@@ -0,0 +1,661 @@
+package com.innoad.ordenamiento;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Generador de datos de prueba reproducible y paralelo. La salida se divide
+ * en tramos de tamano fijo y cada tramo usa su propio SplittableRandom,
+ * sembrado a partir de la semilla y del numero de tramo, asi el resultado
+ * depende solo de la configuracion y de la cantidad, no de cuantos hilos lo
+ * generan ni del orden en que terminan.
+ * Los tramos se llenan en un ForkJoinPool propio directamente sobre int[] o
+ * long[], sin boxing. {@link #escribir(Configuracion, long, Path, EscritorNumeros.Formato)}
+ * genera el siguiente bloque mientras se escribe el anterior, para crear
+ * archivos de cientos de millones de numeros sin tenerlos en memoria.
+ */
+public class GeneradorDatos implements AutoCloseable {
+
+    /** Semilla de las configuraciones que no indican otra */
+    public static final long SEMILLA_PREDETERMINADA = 20251018L;
+
+    /** Cantidad de elementos de cada tramo con su propio generador */
+    static final int TAMANO_TRAMO = 1 << 16;
+
+    /** Tramos que se generan juntos antes de escribirlos en un archivo */
+    private static final int TRAMOS_POR_BLOQUE = 64;
+
+    /** Valores distintos predeterminados de POCOS_UNICOS */
+    private static final int VALORES_UNICOS_PREDETERMINADOS = 16;
+
+    /** Intercambios predeterminados de CASI_ORDENADO: uno cada 100 elementos */
+    private static final int DIVISOR_INTERCAMBIOS = 100;
+
+    private static final long PROPORCION_AUREA = 0x9E3779B97F4A7C15L;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Forma de los datos generados
+     */
+    public enum Perfil {
+        /** Valores uniformes en el rango */
+        UNIFORME,
+        /** Frecuencias de Zipf: el minimo es el mas frecuente y el valor de rango k aparece 1/k^s veces */
+        ZIPF,
+        /** Normal centrada en el medio del rango con desviacion de un sexto del rango, recortada al rango */
+        GAUSSIANA,
+        /** Ascendente de minimo a maximo */
+        ORDENADO,
+        /** Descendente de maximo a minimo */
+        INVERSO,
+        /** Ascendente con k intercambios de dos posiciones al azar */
+        CASI_ORDENADO,
+        /** Pocos valores distintos repetidos al azar */
+        POCOS_UNICOS,
+        /** Ascendente hasta la mitad y descendente despues, como los tubos de un organo */
+        ORGANO
+    }
+
+    /**
+     * Perfil, rango, semilla y parametros de una generacion. Es inmutable:
+     * cada metodo con... devuelve una copia con el cambio
+     */
+    public static final class Configuracion {
+        private final Perfil perfil;
+        private final long minimo;
+        private final long maximo;
+        private final long semilla;
+        private final double exponente;
+        private final long intercambios;
+        private final int valoresUnicos;
+
+        private Configuracion(Perfil perfil, long minimo, long maximo, long semilla, double exponente,
+                              long intercambios, int valoresUnicos) {
+            this.perfil = perfil;
+            this.minimo = minimo;
+            this.maximo = maximo;
+            this.semilla = semilla;
+            this.exponente = exponente;
+            this.intercambios = intercambios;
+            this.valoresUnicos = valoresUnicos;
+        }
+
+        /**
+         * @param perfil Forma de los datos
+         * @return Configuracion en todo el rango de int con la semilla predeterminada
+         */
+        public static Configuracion de(Perfil perfil) {
+            return new Configuracion(perfil, Integer.MIN_VALUE, Integer.MAX_VALUE, SEMILLA_PREDETERMINADA,
+                    1.0, -1, VALORES_UNICOS_PREDETERMINADOS);
+        }
+
+        /**
+         * @param minimo Valor minimo, inclusivo
+         * @param maximo Valor maximo, inclusivo
+         * @return Copia con el rango indicado
+         */
+        public Configuracion conRango(long minimo, long maximo) {
+            if (minimo > maximo) {
+                throw new IllegalArgumentException("Rango invalido: [" + minimo + ", " + maximo + "]");
+            }
+            return new Configuracion(perfil, minimo, maximo, semilla, exponente, intercambios, valoresUnicos);
+        }
+
+        /**
+         * @param semilla Semilla de la generacion
+         * @return Copia con la semilla indicada
+         */
+        public Configuracion conSemilla(long semilla) {
+            return new Configuracion(perfil, minimo, maximo, semilla, exponente, intercambios, valoresUnicos);
+        }
+
+        /**
+         * @param exponente Exponente s de ZIPF, mayor a 0; con 1 el segundo valor aparece la mitad que el primero
+         * @return Copia con el exponente indicado
+         */
+        public Configuracion conExponente(double exponente) {
+            if (!(exponente > 0) || Double.isInfinite(exponente)) {
+                throw new IllegalArgumentException("El exponente debe ser mayor a 0: " + exponente);
+            }
+            return new Configuracion(perfil, minimo, maximo, semilla, exponente, intercambios, valoresUnicos);
+        }
+
+        /**
+         * @param intercambios Intercambios de CASI_ORDENADO; por defecto uno cada 100 elementos
+         * @return Copia con los intercambios indicados
+         */
+        public Configuracion conIntercambios(long intercambios) {
+            if (intercambios < 0) {
+                throw new IllegalArgumentException("Los intercambios no pueden ser negativos: " + intercambios);
+            }
+            return new Configuracion(perfil, minimo, maximo, semilla, exponente, intercambios, valoresUnicos);
+        }
+
+        /**
+         * @param valoresUnicos Valores distintos de POCOS_UNICOS
+         * @return Copia con la cantidad de valores indicada
+         */
+        public Configuracion conValoresUnicos(int valoresUnicos) {
+            if (valoresUnicos < 1) {
+                throw new IllegalArgumentException("Debe haber al menos un valor: " + valoresUnicos);
+            }
+            return new Configuracion(perfil, minimo, maximo, semilla, exponente, intercambios, valoresUnicos);
+        }
+
+        /** @return Forma de los datos */
+        public Perfil obtenerPerfil() {
+            return perfil;
+        }
+
+        /** @return Valor minimo, inclusivo */
+        public long obtenerMinimo() {
+            return minimo;
+        }
+
+        /** @return Valor maximo, inclusivo */
+        public long obtenerMaximo() {
+            return maximo;
+        }
+
+        /** @return Semilla de la generacion */
+        public long obtenerSemilla() {
+            return semilla;
+        }
+
+        @Override
+        public String toString() {
+            return perfil + " en [" + minimo + ", " + maximo + "] con semilla " + semilla;
+        }
+    }
+
+    /**
+     * Crea un generador con un hilo por procesador disponible
+     */
+    public GeneradorDatos() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Crea un generador con un pool propio
+     * @param paralelismo Cantidad de hilos que generan tramos
+     */
+    public GeneradorDatos(int paralelismo) {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("El paralelismo debe ser mayor a 0: " + paralelismo);
+        }
+        this.pool = new ForkJoinPool(paralelismo);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Uso: GeneradorDatos <perfil> <cantidad> <archivo> [texto|gzip|binario] [semilla] [minimo maximo]");
+            System.out.println("Perfiles: " + Arrays.toString(Perfil.values()));
+            return;
+        }
+
+        try (GeneradorDatos generador = new GeneradorDatos()) {
+            Configuracion configuracion = Configuracion.de(Perfil.valueOf(args[0].toUpperCase(Locale.ROOT)));
+            long cantidad = Long.parseLong(args[1]);
+            EscritorNumeros.Formato formato = args.length > 3 ? leerFormato(args[3]) : EscritorNumeros.Formato.TEXTO;
+            if (args.length > 4) {
+                configuracion = configuracion.conSemilla(Long.parseLong(args[4]));
+            }
+            if (args.length > 6) {
+                configuracion = configuracion.conRango(Long.parseLong(args[5]), Long.parseLong(args[6]));
+            }
+
+            long tiempoInicio = System.currentTimeMillis();
+            generador.escribir(configuracion, cantidad, Paths.get(args[2]), formato);
+            long tiempoTranscurrido = System.currentTimeMillis() - tiempoInicio;
+            System.out.println("[OK] " + cantidad + " numeros " + configuracion + " generados en "
+                    + tiempoTranscurrido + " milisegundos");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Error al generar el archivo: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Genera datos en un arreglo int[]
+     * @param configuracion Perfil y parametros; el rango debe caber en int
+     * @param cantidad Cantidad de elementos
+     * @return Arreglo generado
+     */
+    public int[] generarEnteros(Configuracion configuracion, int cantidad) {
+        verificarRangoEntero(configuracion);
+        int[] datos = new int[verificarCantidad(cantidad)];
+        if (cantidad > 0) {
+            Plan plan = new Plan(configuracion, cantidad);
+            pool.invoke(new TareaTramos(plan, datos, null, 0, 0, contarTramos(cantidad), cantidad));
+        }
+        return datos;
+    }
+
+    /**
+     * Genera datos en un arreglo long[]
+     * @param configuracion Perfil y parametros
+     * @param cantidad Cantidad de elementos
+     * @return Arreglo generado
+     */
+    public long[] generarLargos(Configuracion configuracion, int cantidad) {
+        long[] datos = new long[verificarCantidad(cantidad)];
+        if (cantidad > 0) {
+            Plan plan = new Plan(configuracion, cantidad);
+            pool.invoke(new TareaTramos(plan, null, datos, 0, 0, contarTramos(cantidad), cantidad));
+        }
+        return datos;
+    }
+
+    /**
+     * Genera datos y los escribe en un archivo por bloques, sin tenerlos
+     * completos en memoria. El contenido es el mismo que el de
+     * {@link #generarEnteros(Configuracion, int)} con la misma cantidad
+     * @param configuracion Perfil y parametros; el rango debe caber en int
+     * @param cantidad Cantidad de elementos, puede superar el tamano maximo de un arreglo
+     * @param ruta Archivo destino (se reemplaza si existe)
+     * @param formato Formato de salida
+     * @return Cantidad de numeros escritos
+     */
+    public long escribir(Configuracion configuracion, long cantidad, Path ruta, EscritorNumeros.Formato formato)
+            throws IOException {
+        verificarRangoEntero(configuracion);
+        if (cantidad < 0) {
+            throw new IllegalArgumentException("La cantidad no puede ser negativa: " + cantidad);
+        }
+        Plan plan = new Plan(configuracion, cantidad);
+        long tamanoBloque = (long) TRAMOS_POR_BLOQUE * TAMANO_TRAMO;
+        long bloques = (cantidad + tamanoBloque - 1) / tamanoBloque;
+        int longitudBuffer = (int) Math.min(tamanoBloque, cantidad);
+        int[] actual = new int[longitudBuffer];
+        int[] siguiente = new int[bloques > 1 ? longitudBuffer : 0];
+
+        try (EscritorNumeros escritor = EscritorNumeros.abrir(ruta, formato)) {
+            Future<Void> pendiente = bloques > 0 ? pool.submit(tareaBloque(plan, actual, 0, tamanoBloque)) : null;
+            for (long bloque = 0; bloque < bloques; bloque++) {
+                esperar(pendiente);
+                int longitud = (int) Math.min(tamanoBloque, cantidad - bloque * tamanoBloque);
+                // El siguiente bloque se genera en el pool mientras este se escribe
+                if (bloque + 1 < bloques) {
+                    pendiente = pool.submit(tareaBloque(plan, siguiente, bloque + 1, tamanoBloque));
+                }
+                escritor.escribir(actual, 0, longitud);
+                int[] escrito = actual;
+                actual = siguiente;
+                siguiente = escrito;
+            }
+        }
+        return cantidad;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private static TareaTramos tareaBloque(Plan plan, int[] destino, long bloque, long tamanoBloque) {
+        long inicio = bloque * tamanoBloque;
+        int longitud = (int) Math.min(tamanoBloque, plan.cantidad - inicio);
+        return new TareaTramos(plan, destino, null, bloque * TRAMOS_POR_BLOQUE, 0, contarTramos(longitud), longitud);
+    }
+
+    private static void esperar(Future<Void> pendiente) throws IOException {
+        try {
+            pendiente.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("La generacion fue interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Fallo la generacion de un bloque: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static EscritorNumeros.Formato leerFormato(String texto) {
+        return switch (texto.toLowerCase(Locale.ROOT)) {
+            case "texto" -> EscritorNumeros.Formato.TEXTO;
+            case "gzip" -> EscritorNumeros.Formato.TEXTO_GZIP;
+            case "binario" -> EscritorNumeros.Formato.BINARIO;
+            default -> throw new IllegalArgumentException("Formato desconocido: " + texto);
+        };
+    }
+
+    private static void verificarRangoEntero(Configuracion configuracion) {
+        if (configuracion.minimo < Integer.MIN_VALUE || configuracion.maximo > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("El rango no cabe en int: [" + configuracion.minimo + ", "
+                    + configuracion.maximo + "]");
+        }
+    }
+
+    private static int verificarCantidad(int cantidad) {
+        if (cantidad < 0) {
+            throw new IllegalArgumentException("La cantidad no puede ser negativa: " + cantidad);
+        }
+        return cantidad;
+    }
+
+    private static int contarTramos(int cantidad) {
+        return (int) (((long) cantidad + TAMANO_TRAMO - 1) / TAMANO_TRAMO);
+    }
+
+    /**
+     * Finalizador de SplitMix64: convierte semillas consecutivas en semillas sin relacion entre si
+     */
+    private static long mezclar(long valor) {
+        valor = (valor ^ (valor >>> 30)) * 0xBF58476D1CE4E5B9L;
+        valor = (valor ^ (valor >>> 27)) * 0x94D049BB133111EBL;
+        return valor ^ (valor >>> 31);
+    }
+
+    /**
+     * Divide los tramos de un destino por la mitad hasta dejar uno por tarea
+     */
+    private static final class TareaTramos extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Plan plan;
+        private final int[] enteros;
+        private final long[] largos;
+        private final long primerTramo;
+        private final int desde;
+        private final int hasta;
+        private final int longitud;
+
+        /**
+         * @param primerTramo Tramo global que corresponde al indice 0 del destino
+         * @param desde Primer tramo local, inclusivo
+         * @param hasta Ultimo tramo local, exclusivo
+         * @param longitud Elementos validos del destino
+         */
+        TareaTramos(Plan plan, int[] enteros, long[] largos, long primerTramo, int desde, int hasta, int longitud) {
+            this.plan = plan;
+            this.enteros = enteros;
+            this.largos = largos;
+            this.primerTramo = primerTramo;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.longitud = longitud;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde == 1) {
+                int inicio = desde * TAMANO_TRAMO;
+                plan.generar(primerTramo + desde, enteros, largos, inicio, Math.min(TAMANO_TRAMO, longitud - inicio));
+                return;
+            }
+            int medio = (desde + hasta) >>> 1;
+            invokeAll(new TareaTramos(plan, enteros, largos, primerTramo, desde, medio, longitud),
+                    new TareaTramos(plan, enteros, largos, primerTramo, medio, hasta, longitud));
+        }
+    }
+
+    /**
+     * Configuracion aplicada a una cantidad concreta: lo que se calcula una
+     * sola vez antes de repartir los tramos. Solo se lee desde los hilos
+     */
+    private static final class Plan {
+        private final Perfil perfil;
+        private final long cantidad;
+        private final long semilla;
+        private final long minimo;
+        /** maximo - minimo, sin signo */
+        private final long ancho;
+        /** ancho como double, sin signo */
+        private final double anchoReal;
+
+        // POCOS_UNICOS
+        private final long[] valores;
+
+        // CASI_ORDENADO: posiciones tocadas, ordenadas, y la posicion ordenada de la que toman su valor
+        private final long[] posiciones;
+        private final long[] fuentes;
+
+        // ZIPF, muestreo por rechazo-inversion de Hormann y Derflinger
+        private final double exponente;
+        private final double integralPrimero;
+        private final double integralUltimo;
+        private final double margen;
+
+        Plan(Configuracion configuracion, long cantidad) {
+            this.perfil = configuracion.perfil;
+            this.cantidad = cantidad;
+            this.semilla = configuracion.semilla;
+            this.minimo = configuracion.minimo;
+            this.ancho = configuracion.maximo - configuracion.minimo;
+            this.anchoReal = ancho >= 0 ? ancho : ancho + 0x1p64;
+            this.exponente = configuracion.exponente;
+
+            SplittableRandom random = new SplittableRandom(mezclar(semilla));
+            if (perfil == Perfil.POCOS_UNICOS) {
+                valores = new long[configuracion.valoresUnicos];
+                for (int i = 0; i < valores.length; i++) {
+                    valores[i] = uniforme(random);
+                }
+            } else {
+                valores = null;
+            }
+
+            if (perfil == Perfil.CASI_ORDENADO && cantidad > 1) {
+                long intercambios = configuracion.intercambios < 0
+                        ? cantidad / DIVISOR_INTERCAMBIOS : configuracion.intercambios;
+                if (intercambios > (Integer.MAX_VALUE - 8) / 2) {
+                    throw new IllegalArgumentException("Demasiados intercambios: " + intercambios);
+                }
+                // Primera pasada: que posiciones se tocan. La segunda repite los mismos
+                // intercambios con la misma semilla, asi no hay que guardar los pares
+                long[] tocadas = new long[(int) (2 * intercambios)];
+                long semillaPares = random.nextLong();
+                SplittableRandom pares = new SplittableRandom(semillaPares);
+                SplittableRandom repeticion = new SplittableRandom(semillaPares);
+                for (int i = 0; i < tocadas.length; i++) {
+                    tocadas[i] = pares.nextLong(cantidad);
+                }
+                Arrays.sort(tocadas);
+                int distintas = 0;
+                for (int i = 0; i < tocadas.length; i++) {
+                    if (distintas == 0 || tocadas[i] != tocadas[distintas - 1]) {
+                        tocadas[distintas++] = tocadas[i];
+                    }
+                }
+                posiciones = Arrays.copyOf(tocadas, distintas);
+                fuentes = posiciones.clone();
+                for (long i = 0; i < intercambios; i++) {
+                    int a = Arrays.binarySearch(posiciones, repeticion.nextLong(cantidad));
+                    int b = Arrays.binarySearch(posiciones, repeticion.nextLong(cantidad));
+                    long temporal = fuentes[a];
+                    fuentes[a] = fuentes[b];
+                    fuentes[b] = temporal;
+                }
+            } else {
+                posiciones = null;
+                fuentes = null;
+            }
+
+            if (perfil == Perfil.ZIPF) {
+                integralPrimero = integralH(1.5) - 1.0;
+                integralUltimo = integralH(anchoReal + 1.5);
+                margen = 2.0 - inversaIntegralH(integralH(2.5) - h(2.0));
+            } else {
+                integralPrimero = 0;
+                integralUltimo = 0;
+                margen = 0;
+            }
+        }
+
+        /**
+         * Llena un tramo. Solo uno de los destinos es distinto de null
+         * @param tramo Numero global del tramo
+         * @param desde Indice del destino donde empieza el tramo
+         * @param longitud Elementos del tramo
+         */
+        void generar(long tramo, int[] enteros, long[] largos, int desde, int longitud) {
+            long inicio = tramo * TAMANO_TRAMO;
+            SplittableRandom random = new SplittableRandom(mezclar(semilla + (tramo + 1) * PROPORCION_AUREA));
+            int hasta = desde + longitud;
+            switch (perfil) {
+                case UNIFORME -> {
+                    for (int i = desde; i < hasta; i++) {
+                        poner(enteros, largos, i, uniforme(random));
+                    }
+                }
+                case ZIPF -> {
+                    for (int i = desde; i < hasta; i++) {
+                        poner(enteros, largos, i, desplazar(zipf(random) - 1.0));
+                    }
+                }
+                case GAUSSIANA -> {
+                    double media = anchoReal / 2;
+                    double desviacion = anchoReal / 6;
+                    for (int i = desde; i < hasta; i++) {
+                        poner(enteros, largos, i, desplazar(Math.rint(media + random.nextGaussian() * desviacion)));
+                    }
+                }
+                case ORDENADO, CASI_ORDENADO -> {
+                    for (int i = desde; i < hasta; i++) {
+                        poner(enteros, largos, i, escalar(inicio + i - desde, cantidad - 1));
+                    }
+                    if (posiciones != null) {
+                        aplicarIntercambios(enteros, largos, inicio, desde, longitud);
+                    }
+                }
+                case INVERSO -> {
+                    for (int i = desde; i < hasta; i++) {
+                        poner(enteros, largos, i, escalar(cantidad - 1 - (inicio + i - desde), cantidad - 1));
+                    }
+                }
+                case POCOS_UNICOS -> {
+                    for (int i = desde; i < hasta; i++) {
+                        poner(enteros, largos, i, valores[random.nextInt(valores.length)]);
+                    }
+                }
+                case ORGANO -> {
+                    long mitad = (cantidad - 1) / 2;
+                    for (int i = desde; i < hasta; i++) {
+                        long posicion = inicio + i - desde;
+                        poner(enteros, largos, i, escalar(Math.min(posicion, cantidad - 1 - posicion), mitad));
+                    }
+                }
+            }
+        }
+
+        private void aplicarIntercambios(int[] enteros, long[] largos, long inicio, int desde, int longitud) {
+            int indice = Arrays.binarySearch(posiciones, inicio);
+            if (indice < 0) {
+                indice = -indice - 1;
+            }
+            for (; indice < posiciones.length && posiciones[indice] < inicio + longitud; indice++) {
+                poner(enteros, largos, desde + (int) (posiciones[indice] - inicio), escalar(fuentes[indice], cantidad - 1));
+            }
+        }
+
+        private static void poner(int[] enteros, long[] largos, int indice, long valor) {
+            if (enteros != null) {
+                enteros[indice] = (int) valor;
+            } else {
+                largos[indice] = valor;
+            }
+        }
+
+        private long uniforme(SplittableRandom random) {
+            if (ancho >= 0 && ancho != Long.MAX_VALUE) {
+                return minimo + random.nextLong(ancho + 1);
+            }
+            // Rango de mas de 2^63 valores: se acepta al menos la mitad de los intentos
+            long valor;
+            do {
+                valor = random.nextLong();
+            } while (Long.compareUnsigned(valor, ancho) > 0);
+            return minimo + valor;
+        }
+
+        /**
+         * @return Valor en la posicion de una secuencia ascendente de minimo a maximo con ultima + 1 pasos
+         */
+        private long escalar(long posicion, long ultima) {
+            if (ultima <= 0) {
+                return minimo;
+            }
+            long producto = posicion * ancho;
+            if (ancho >= 0 && producto >= 0 && Math.multiplyHigh(posicion, ancho) == 0) {
+                return minimo + producto / ultima;
+            }
+            return desplazar((double) posicion / ultima * anchoReal);
+        }
+
+        /**
+         * @return minimo mas un desplazamiento recortado a [0, ancho]
+         */
+        private long desplazar(double desplazamiento) {
+            if (!(desplazamiento > 0)) {
+                return minimo;
+            }
+            if (desplazamiento >= anchoReal) {
+                return minimo + ancho;
+            }
+            long sinSigno = desplazamiento < 0x1p63 ? (long) desplazamiento
+                    : (long) (desplazamiento - 0x1p63) + Long.MIN_VALUE;
+            return minimo + sinSigno;
+        }
+
+        /**
+         * @return Rango de Zipf entre 1 y ancho + 1, como double
+         */
+        private double zipf(SplittableRandom random) {
+            while (true) {
+                double u = integralUltimo + random.nextDouble() * (integralPrimero - integralUltimo);
+                double x = inversaIntegralH(u);
+                double k = Math.floor(x + 0.5);
+                if (k < 1) {
+                    k = 1;
+                } else if (k > anchoReal + 1) {
+                    k = anchoReal + 1;
+                }
+                if (k - x <= margen || u >= integralH(k + 0.5) - h(k)) {
+                    return k;
+                }
+            }
+        }
+
+        private double h(double x) {
+            return Math.exp(-exponente * Math.log(x));
+        }
+
+        private double integralH(double x) {
+            double logaritmo = Math.log(x);
+            return auxiliar2((1.0 - exponente) * logaritmo) * logaritmo;
+        }
+
+        private double inversaIntegralH(double x) {
+            double t = x * (1.0 - exponente);
+            if (t < -1.0) {
+                t = -1.0;
+            }
+            return Math.exp(auxiliar1(t) * x);
+        }
+
+        /** log1p(x) / x, estable cerca de 0 */
+        private static double auxiliar1(double x) {
+            if (Math.abs(x) > 1e-8) {
+                return Math.log1p(x) / x;
+            }
+            return 1.0 - x * (0.5 - x * (1.0 / 3.0 - 0.25 * x));
+        }
+
+        /** expm1(x) / x, estable cerca de 0 */
+        private static double auxiliar2(double x) {
+            if (Math.abs(x) > 1e-8) {
+                return Math.expm1(x) / x;
+            }
+            return 1.0 + x * 0.5 * (1.0 + x * 1.0 / 3.0 * (1.0 + 0.25 * x));
+        }
+    }
+}
@@ -0,0 +1,567 @@
+package com.innoad.ordenamiento;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Indice persistente del conteo de lineas de cada archivo fuente de un
+ * directorio. Por cada archivo guarda su tamano, su fecha de modificacion,
+ * el CRC32C de su contenido y sus lineas de codigo, comentarios, blanco y mixtas.
+ * En cada actualizacion solo se vuelven a leer los archivos cuyo tamano o
+ * fecha cambio, y el total se corrige con la diferencia de cada uno. Ademas
+ * del total se lleva uno por lenguaje, deducido de la extension de cada archivo.
+ * Como algunos sistemas de archivos guardan la fecha con poca precision, un
+ * archivo modificado poco antes de leerlo se vuelve a leer en el siguiente
+ * analisis aunque sus metadatos coincidan (la misma regla que usa git con su
+ * indice); si la suma de control coincide el archivo cuenta como sin cambios.
+ * {@link #vigilar(Consumer)} mantiene el indice al dia con un WatchService.
+ * No es seguro entre hilos; el paralelismo esta dentro de {@link EscanerCodigoFuente}.
+ */
+public class IndiceLineasCodigo implements AutoCloseable {
+
+    /** Nombre del archivo del indice dentro del directorio analizado */
+    public static final String NOMBRE_ARCHIVO_INDICE = ".innoad-lineas.idx";
+
+    /** Modificaciones mas cercanas que esto al momento en que se leyo el archivo se vuelven a leer */
+    static final long MARGEN_FECHA_MS = 2000;
+
+    /** Espera para agrupar los eventos de una misma edicion antes de actualizar */
+    static final long ESPERA_AGRUPACION_MS = 200;
+
+    private static final int IDENTIFICADOR = 0x494E4C43; // "INLC"
+    private static final int VERSION = 2;
+
+    private final Path raiz;
+    private final Path archivoIndice;
+    private final EscanerCodigoFuente escaner;
+    private final boolean escanerPropio;
+
+    // Clave: ruta relativa a la raiz con separador '/'
+    private final Map<String, Entrada> entradas = new HashMap<>();
+    private ConteoLineas total = ConteoLineas.VACIO;
+    private final Map<LenguajeFuente, ConteoLineas> totalesPorLenguaje = new EnumMap<>(LenguajeFuente.class);
+
+    /**
+     * Abre el indice guardado en el directorio, o uno vacio si no existe o no es valido
+     * @param raiz Directorio a analizar
+     */
+    public IndiceLineasCodigo(Path raiz) throws IOException {
+        this(raiz, raiz.resolve(NOMBRE_ARCHIVO_INDICE), new EscanerCodigoFuente(), true);
+    }
+
+    /**
+     * Abre un indice guardado en otra ubicacion usando un escaner existente
+     * @param raiz Directorio a analizar
+     * @param archivoIndice Archivo donde se guarda el indice
+     * @param escaner Escaner para leer los archivos (no se cierra con el indice)
+     */
+    public IndiceLineasCodigo(Path raiz, Path archivoIndice, EscanerCodigoFuente escaner) throws IOException {
+        this(raiz, archivoIndice, escaner, false);
+    }
+
+    private IndiceLineasCodigo(Path raiz, Path archivoIndice, EscanerCodigoFuente escaner,
+                               boolean escanerPropio) throws IOException {
+        this.raiz = raiz.toAbsolutePath().normalize();
+        this.archivoIndice = archivoIndice;
+        this.escaner = escaner;
+        this.escanerPropio = escanerPropio;
+        cargar();
+    }
+
+    /**
+     * Cambios aplicados por una actualizacion
+     */
+    public static final class Actualizacion {
+        private final int leidos;
+        private final int modificados;
+        private final int sinCambios;
+        private final int eliminados;
+        private final ConteoLineas anterior;
+        private final ConteoLineas total;
+        private final Map<LenguajeFuente, ConteoLineas> anterioresPorLenguaje;
+        private final Map<LenguajeFuente, ConteoLineas> totalesPorLenguaje;
+        private final List<String> errores;
+
+        Actualizacion(int leidos, int modificados, int sinCambios, int eliminados,
+                      ConteoLineas anterior, ConteoLineas total,
+                      Map<LenguajeFuente, ConteoLineas> anterioresPorLenguaje,
+                      Map<LenguajeFuente, ConteoLineas> totalesPorLenguaje, List<String> errores) {
+            this.leidos = leidos;
+            this.modificados = modificados;
+            this.sinCambios = sinCambios;
+            this.eliminados = eliminados;
+            this.anterior = anterior;
+            this.total = total;
+            this.anterioresPorLenguaje = anterioresPorLenguaje;
+            this.totalesPorLenguaje = totalesPorLenguaje;
+            this.errores = errores;
+        }
+
+        /** @return Archivos que se volvieron a leer */
+        public int obtenerLeidos() {
+            return leidos;
+        }
+
+        /** @return Archivos leidos cuyo contenido cambio o que son nuevos */
+        public int obtenerModificados() {
+            return modificados;
+        }
+
+        /** @return Archivos que no se leyeron o que se leyeron sin encontrar cambios */
+        public int obtenerSinCambios() {
+            return sinCambios;
+        }
+
+        /** @return Archivos que ya no existen */
+        public int obtenerEliminados() {
+            return eliminados;
+        }
+
+        /** @return Total antes de la actualizacion */
+        public ConteoLineas obtenerAnterior() {
+            return anterior;
+        }
+
+        /** @return Total despues de la actualizacion */
+        public ConteoLineas obtenerTotal() {
+            return total;
+        }
+
+        /**
+         * @param lenguaje Lenguaje de los archivos
+         * @return Total de los archivos de ese lenguaje antes de la actualizacion
+         */
+        public ConteoLineas obtenerAnterior(LenguajeFuente lenguaje) {
+            return anterioresPorLenguaje.getOrDefault(lenguaje, ConteoLineas.VACIO);
+        }
+
+        /**
+         * @param lenguaje Lenguaje de los archivos
+         * @return Total de los archivos de ese lenguaje despues de la actualizacion
+         */
+        public ConteoLineas obtenerTotal(LenguajeFuente lenguaje) {
+            return totalesPorLenguaje.getOrDefault(lenguaje, ConteoLineas.VACIO);
+        }
+
+        /** @return Archivos que no se pudieron leer, con el motivo */
+        public List<String> obtenerErrores() {
+            return errores;
+        }
+
+        /** @return true si algun archivo fue agregado, modificado o eliminado */
+        public boolean huboCambios() {
+            return modificados > 0 || eliminados > 0;
+        }
+    }
+
+    /**
+     * Recorre todo el directorio, vuelve a leer solo los archivos que cambiaron
+     * y guarda el indice
+     * @return Cambios aplicados
+     */
+    public Actualizacion actualizar() throws IOException {
+        long inicio = System.currentTimeMillis();
+        Map<Path, BasicFileAttributes> candidatos = new HashMap<>();
+        Set<String> vistos = new HashSet<>();
+        List<String> errores = new ArrayList<>();
+        Files.walkFileTree(raiz, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path archivo, BasicFileAttributes atributos) {
+                if (atributos.isRegularFile() && EscanerCodigoFuente.esFuente(archivo)) {
+                    String clave = aClave(archivo);
+                    vistos.add(clave);
+                    if (necesitaLectura(entradas.get(clave), atributos)) {
+                        candidatos.put(archivo, atributos);
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path archivo, IOException e) {
+                errores.add(archivo + ": " + e.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        List<String> borrados = new ArrayList<>();
+        for (String clave : entradas.keySet()) {
+            if (!vistos.contains(clave)) {
+                borrados.add(clave);
+            }
+        }
+        return aplicar(candidatos, borrados, vistos.size(), errores, inicio);
+    }
+
+    /**
+     * Actualiza solo las rutas indicadas: archivos creados, modificados o
+     * borrados, o directorios borrados (se quitan sus archivos del indice).
+     * Guarda el indice al terminar
+     * @param rutas Rutas que pueden haber cambiado
+     * @return Cambios aplicados
+     */
+    public Actualizacion actualizar(Collection<Path> rutas) throws IOException {
+        long inicio = System.currentTimeMillis();
+        Map<Path, BasicFileAttributes> candidatos = new HashMap<>();
+        List<String> borrados = new ArrayList<>();
+        List<String> errores = new ArrayList<>();
+        int revisados = 0;
+        for (Path ruta : rutas) {
+            Path absoluta = ruta.toAbsolutePath().normalize();
+            if (!absoluta.startsWith(raiz)) {
+                continue;
+            }
+            String clave = aClave(absoluta);
+            BasicFileAttributes atributos;
+            try {
+                atributos = Files.readAttributes(absoluta, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            } catch (NoSuchFileException e) {
+                agregarBorrados(clave, borrados);
+                continue;
+            } catch (IOException e) {
+                errores.add(absoluta + ": " + e.getMessage());
+                continue;
+            }
+            if (atributos.isRegularFile() && EscanerCodigoFuente.esFuente(absoluta)) {
+                revisados++;
+                if (necesitaLectura(entradas.get(clave), atributos)) {
+                    candidatos.put(absoluta, atributos);
+                }
+            } else if (!atributos.isDirectory() && entradas.containsKey(clave)) {
+                // Un archivo fuente reemplazado por otra cosa
+                borrados.add(clave);
+            }
+        }
+        return aplicar(candidatos, borrados, revisados, errores, inicio);
+    }
+
+    /**
+     * Mantiene el indice actualizado mientras se editan archivos. Vigila todos
+     * los subdirectorios, agrupa los eventos de una misma edicion y llama a
+     * alCambiar despues de cada actualizacion que cambio algun archivo.
+     * No termina hasta que se interrumpe el hilo
+     * @param alCambiar Recibe cada actualizacion con cambios
+     */
+    public void vigilar(Consumer<Actualizacion> alCambiar) throws IOException, InterruptedException {
+        try (WatchService vigilancia = raiz.getFileSystem().newWatchService()) {
+            Map<WatchKey, Path> directorios = new HashMap<>();
+            registrarArbol(raiz, vigilancia, directorios);
+
+            while (true) {
+                WatchKey clave = vigilancia.take();
+                Set<Path> cambiadas = new LinkedHashSet<>();
+                boolean desborde = false;
+                // Una edicion suele generar varios eventos seguidos: se juntan en una actualizacion
+                while (clave != null) {
+                    desborde |= recolectar(clave, directorios, vigilancia, cambiadas);
+                    clave = vigilancia.poll(ESPERA_AGRUPACION_MS, TimeUnit.MILLISECONDS);
+                }
+
+                Actualizacion actualizacion = actualizarTrasEventos(cambiadas, desborde);
+                if (actualizacion.huboCambios()) {
+                    alCambiar.accept(actualizacion);
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            throw new IOException("La vigilancia del directorio se cerro", e);
+        }
+    }
+
+    /**
+     * Aplica una agrupacion de eventos de la vigilancia. Si se perdieron
+     * eventos las rutas recibidas no alcanzan para saber que cambio y se
+     * recorre todo el arbol
+     * @param cambiadas Rutas de los eventos recibidos
+     * @param desborde true si el WatchService informo eventos perdidos
+     * @return Cambios aplicados
+     */
+    Actualizacion actualizarTrasEventos(Collection<Path> cambiadas, boolean desborde) throws IOException {
+        return desborde ? actualizar() : actualizar(cambiadas);
+    }
+
+    /** @return Total de lineas de los archivos del indice */
+    public ConteoLineas obtenerTotal() {
+        return total;
+    }
+
+    /**
+     * @param lenguaje Lenguaje de los archivos
+     * @return Total de lineas de los archivos del indice de ese lenguaje
+     */
+    public ConteoLineas obtenerTotal(LenguajeFuente lenguaje) {
+        return totalesPorLenguaje.getOrDefault(lenguaje, ConteoLineas.VACIO);
+    }
+
+    /** @return Cantidad de archivos del indice */
+    public int cantidadArchivos() {
+        return entradas.size();
+    }
+
+    /** @return Directorio analizado */
+    public Path obtenerRaiz() {
+        return raiz;
+    }
+
+    @Override
+    public void close() {
+        if (escanerPropio) {
+            escaner.close();
+        }
+    }
+
+    /**
+     * Lee en paralelo los candidatos, aplica las diferencias al total y guarda
+     */
+    private Actualizacion aplicar(Map<Path, BasicFileAttributes> candidatos, List<String> borrados,
+                                  int revisados, List<String> errores, long inicio) throws IOException {
+        ConteoLineas anterior = total;
+        Map<LenguajeFuente, ConteoLineas> anterioresPorLenguaje = new EnumMap<>(totalesPorLenguaje);
+        int modificados = 0;
+        EscanerCodigoFuente.ResultadoEscaneo leidos = escaner.contar(candidatos.keySet());
+        errores.addAll(leidos.obtenerErrores());
+        for (EscanerCodigoFuente.ArchivoContado archivo : leidos.obtenerArchivos()) {
+            // Los metadatos son los de antes de leer: si el archivo cambio durante
+            // la lectura, el proximo analisis lo vuelve a leer
+            BasicFileAttributes atributos = candidatos.get(archivo.obtenerRuta());
+            Entrada nueva = new Entrada(atributos.size(), atributos.lastModifiedTime().toMillis(), inicio,
+                    archivo.obtenerSuma(), archivo.obtenerConteo());
+            String clave = aClave(archivo.obtenerRuta());
+            Entrada vieja = entradas.put(clave, nueva);
+            if (vieja == null || vieja.suma != nueva.suma || vieja.tamano != nueva.tamano) {
+                modificados++;
+            }
+            total = restar(total.sumar(nueva.conteo), vieja);
+            acumular(clave, nueva.conteo, vieja);
+        }
+
+        int eliminados = 0;
+        for (String clave : borrados) {
+            Entrada vieja = entradas.remove(clave);
+            if (vieja != null) {
+                total = restar(total, vieja);
+                acumular(clave, ConteoLineas.VACIO, vieja);
+                eliminados++;
+            }
+        }
+
+        if (modificados > 0 || eliminados > 0 || !candidatos.isEmpty()) {
+            guardar();
+        }
+        return new Actualizacion(leidos.obtenerArchivos().size(), modificados, revisados - modificados,
+                eliminados, anterior, total, anterioresPorLenguaje, new EnumMap<>(totalesPorLenguaje), errores);
+    }
+
+    /**
+     * Corrige el total del lenguaje del archivo de la clave: suma el conteo
+     * nuevo y resta el de la entrada vieja, si habia
+     */
+    private void acumular(String clave, ConteoLineas nuevo, Entrada vieja) {
+        LenguajeFuente lenguaje = LenguajeFuente.detectar(Paths.get(clave));
+        if (lenguaje != null) {
+            ConteoLineas anterior = totalesPorLenguaje.getOrDefault(lenguaje, ConteoLineas.VACIO);
+            totalesPorLenguaje.put(lenguaje, restar(anterior.sumar(nuevo), vieja));
+        }
+    }
+
+    /**
+     * Un archivo se vuelve a leer si es nuevo, si cambio su tamano o fecha, o
+     * si su fecha es tan reciente que un cambio posterior podria no notarse
+     */
+    private boolean necesitaLectura(Entrada entrada, BasicFileAttributes atributos) {
+        if (entrada == null) {
+            return true;
+        }
+        long modificacion = atributos.lastModifiedTime().toMillis();
+        return entrada.tamano != atributos.size()
+                || entrada.modificacion != modificacion
+                || modificacion >= entrada.leido - MARGEN_FECHA_MS;
+    }
+
+    /**
+     * Procesa los eventos de un directorio y registra los subdirectorios nuevos
+     * @return true si se perdieron eventos y hay que recorrer todo el arbol
+     */
+    private boolean recolectar(WatchKey clave, Map<WatchKey, Path> directorios, WatchService vigilancia,
+                               Set<Path> cambiadas) throws IOException {
+        Path directorio = directorios.get(clave);
+        boolean desborde = false;
+        for (WatchEvent<?> evento : clave.pollEvents()) {
+            if (evento.kind() == StandardWatchEventKinds.OVERFLOW || directorio == null) {
+                desborde = true;
+                continue;
+            }
+            Path ruta = directorio.resolve((Path) evento.context());
+            if (evento.kind() == StandardWatchEventKinds.ENTRY_CREATE
+                    && Files.isDirectory(ruta, LinkOption.NOFOLLOW_LINKS)) {
+                // Los archivos creados junto con el directorio no generan eventos propios
+                registrarArbol(ruta, vigilancia, directorios);
+                try (var archivos = Files.walk(ruta)) {
+                    archivos.forEach(cambiadas::add);
+                }
+            } else {
+                cambiadas.add(ruta);
+            }
+        }
+        if (!clave.reset()) {
+            directorios.remove(clave);
+        }
+        return desborde;
+    }
+
+    private void registrarArbol(Path inicio, WatchService vigilancia, Map<WatchKey, Path> directorios)
+            throws IOException {
+        Files.walkFileTree(inicio, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path directorio, BasicFileAttributes atributos)
+                    throws IOException {
+                WatchKey clave = directorio.register(vigilancia, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                directorios.put(clave, directorio);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path archivo, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Marca como borrados el archivo de la clave y, si era un directorio, todos los de adentro
+     */
+    private void agregarBorrados(String clave, List<String> borrados) {
+        if (entradas.containsKey(clave)) {
+            borrados.add(clave);
+        }
+        String prefijo = clave + "/";
+        for (String existente : entradas.keySet()) {
+            if (existente.startsWith(prefijo)) {
+                borrados.add(existente);
+            }
+        }
+    }
+
+    private String aClave(Path archivo) {
+        return raiz.relativize(archivo.toAbsolutePath().normalize()).toString().replace('\\', '/');
+    }
+
+    private static ConteoLineas restar(ConteoLineas conteo, Entrada vieja) {
+        return vieja == null ? conteo : conteo.restar(vieja.conteo);
+    }
+
+    /**
+     * Escribe el indice en un archivo aparte y lo mueve sobre el anterior
+     */
+    private void guardar() throws IOException {
+        Path padre = archivoIndice.toAbsolutePath().getParent();
+        Path temporal = Files.createTempFile(padre, archivoIndice.getFileName().toString(), ".parcial");
+        try {
+            try (DataOutputStream salida = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporal), 1 << 16))) {
+                salida.writeInt(IDENTIFICADOR);
+                salida.writeInt(VERSION);
+                salida.writeInt(entradas.size());
+                for (Map.Entry<String, Entrada> registro : entradas.entrySet()) {
+                    Entrada entrada = registro.getValue();
+                    salida.writeUTF(registro.getKey());
+                    salida.writeLong(entrada.tamano);
+                    salida.writeLong(entrada.modificacion);
+                    salida.writeLong(entrada.leido);
+                    salida.writeLong(entrada.suma);
+                    salida.writeLong(entrada.conteo.obtenerTotal());
+                    salida.writeLong(entrada.conteo.obtenerCodigo());
+                    salida.writeLong(entrada.conteo.obtenerComentarios());
+                    salida.writeLong(entrada.conteo.obtenerBlanco());
+                    salida.writeLong(entrada.conteo.obtenerMixtas());
+                }
+            }
+            Files.move(temporal, archivoIndice, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    /**
+     * Carga el indice guardado. Si falta, es de otra version o esta danado se
+     * empieza vacio: el indice es solo un cache y el primer analisis lo rehace
+     */
+    private void cargar() throws IOException {
+        if (!Files.exists(archivoIndice)) {
+            return;
+        }
+        Map<String, Entrada> leidas = new HashMap<>();
+        try (DataInputStream entrada = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(archivoIndice), 1 << 16))) {
+            if (entrada.readInt() != IDENTIFICADOR || entrada.readInt() != VERSION) {
+                return;
+            }
+            int cantidad = entrada.readInt();
+            for (int i = 0; i < cantidad; i++) {
+                String clave = entrada.readUTF();
+                long tamano = entrada.readLong();
+                long modificacion = entrada.readLong();
+                long leido = entrada.readLong();
+                long suma = entrada.readLong();
+                ConteoLineas conteo = new ConteoLineas(entrada.readLong(), entrada.readLong(),
+                        entrada.readLong(), entrada.readLong(), entrada.readLong());
+                leidas.put(clave, new Entrada(tamano, modificacion, leido, suma, conteo));
+            }
+        } catch (IOException e) {
+            return;
+        }
+
+        entradas.putAll(leidas);
+        for (Map.Entry<String, Entrada> registro : entradas.entrySet()) {
+            total = total.sumar(registro.getValue().conteo);
+            acumular(registro.getKey(), registro.getValue().conteo, null);
+        }
+    }
+
+    /**
+     * Estado guardado de un archivo
+     */
+    private static final class Entrada {
+        private final long tamano;
+        private final long modificacion;
+        private final long leido;
+        private final long suma;
+        private final ConteoLineas conteo;
+
+        Entrada(long tamano, long modificacion, long leido, long suma, ConteoLineas conteo) {
+            this.tamano = tamano;
+            this.modificacion = modificacion;
+            this.leido = leido;
+            this.suma = suma;
+            this.conteo = conteo;
+        }
+    }
+}
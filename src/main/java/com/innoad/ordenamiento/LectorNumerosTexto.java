@@ -0,0 +1,481 @@
+package com.innoad.ordenamiento;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * Lector de archivos de texto con un numero por linea, como
+ * numeros_aleatorios.txt, que trabaja a nivel de bytes: lee bloques grandes
+ * de un FileChannel en un ByteBuffer directo y convierte los digitos a int
+ * sin crear un String por numero. Acepta finales de linea CRLF, espacios y
+ * tabuladores alrededor del numero y lineas vacias. Las lineas mal formadas
+ * no detienen la lectura: se registran con su desplazamiento en bytes.
+ * Los archivos grandes se dividen en segmentos que terminan en un salto de
+ * linea y se leen en paralelo. Tambien puede leer de un InputStream, como el
+ * cuerpo de una solicitud HTTP.
+ */
+public final class LectorNumerosTexto {
+
+    /** Tamano del bloque leido del canal en cada llamada */
+    static final int TAMANO_BLOQUE = 1 << 20;
+
+    /** Tamano del bloque al leer de un flujo, que suele entregar menos bytes por llamada */
+    static final int TAMANO_BLOQUE_FLUJO = 1 << 16;
+
+    /** A partir de este tamano de archivo la lectura se hace en paralelo */
+    public static final long UMBRAL_PARALELO = 32L * 1024 * 1024;
+
+    /** Cantidad maxima de errores que se guardan con detalle; el resto solo se cuenta */
+    public static final int MAXIMO_ERRORES_REGISTRADOS = 100;
+
+    private static final String MOTIVO_CARACTER = "caracter invalido";
+    private static final String MOTIVO_DESBORDE = "el numero no cabe en un int";
+    private static final String MOTIVO_SIN_DIGITOS = "signo sin digitos";
+    private static final String MOTIVO_VARIOS_NUMEROS = "mas de un numero en la linea";
+
+    private LectorNumerosTexto() {
+    }
+
+    /**
+     * Linea que no se pudo convertir a numero
+     */
+    public static final class ErrorLectura {
+        private final long desplazamiento;
+        private final String motivo;
+
+        ErrorLectura(long desplazamiento, String motivo) {
+            this.desplazamiento = desplazamiento;
+            this.motivo = motivo;
+        }
+
+        /** @return Posicion en bytes del inicio de la linea dentro del archivo */
+        public long obtenerDesplazamiento() {
+            return desplazamiento;
+        }
+
+        /** @return Descripcion del problema */
+        public String obtenerMotivo() {
+            return motivo;
+        }
+
+        @Override
+        public String toString() {
+            return "byte " + desplazamiento + ": " + motivo;
+        }
+    }
+
+    /**
+     * Resultado de una lectura: los numeros validos y los errores encontrados
+     */
+    public static final class Resultado {
+        private final int[] numeros;
+        private final long cantidad;
+        private final List<ErrorLectura> errores;
+        private final long totalErrores;
+
+        Resultado(int[] numeros, long cantidad, List<ErrorLectura> errores, long totalErrores) {
+            this.numeros = numeros;
+            this.cantidad = cantidad;
+            this.errores = errores;
+            this.totalErrores = totalErrores;
+        }
+
+        /** @return Numeros leidos, o un arreglo vacio si se entregaron a un consumidor */
+        public int[] obtenerNumeros() {
+            return numeros;
+        }
+
+        /** @return Cantidad de numeros validos leidos */
+        public long obtenerCantidad() {
+            return cantidad;
+        }
+
+        /** @return Hasta MAXIMO_ERRORES_REGISTRADOS errores, ordenados por desplazamiento */
+        public List<ErrorLectura> obtenerErrores() {
+            return errores;
+        }
+
+        /** @return Cantidad total de lineas mal formadas */
+        public long obtenerTotalErrores() {
+            return totalErrores;
+        }
+
+        /** @return true si no hubo lineas mal formadas */
+        public boolean esValido() {
+            return totalErrores == 0;
+        }
+    }
+
+    /**
+     * Lee todos los numeros de un archivo, en paralelo si supera UMBRAL_PARALELO
+     * @param ruta Archivo de texto
+     * @return Numeros validos y errores encontrados
+     */
+    public static Resultado leer(Path ruta) throws IOException {
+        return leer(ruta, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Lee todos los numeros de un archivo
+     * @param ruta Archivo de texto
+     * @param paralelismo Cantidad maxima de hilos para archivos grandes
+     * @return Numeros validos y errores encontrados
+     */
+    public static Resultado leer(Path ruta, int paralelismo) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (paralelismo <= 1 || tamano < UMBRAL_PARALELO) {
+                ArregloEnteros numeros = new ArregloEnteros((int) Math.min(tamano / 4 + 16, Integer.MAX_VALUE - 8));
+                Segmento segmento = new Segmento(0, tamano);
+                segmento.analizar(canal, numeros::agregar);
+                return new Resultado(numeros.aArreglo(), numeros.tamano(), segmento.errores, segmento.totalErrores);
+            }
+            return leerEnParalelo(canal, paralelismo);
+        }
+    }
+
+    /**
+     * Recorre un archivo de forma secuencial entregando cada numero a un
+     * consumidor, sin guardarlos en memoria. Si el consumidor lanza
+     * UncheckedIOException se propaga la IOException original.
+     * @param ruta Archivo de texto
+     * @param destino Consumidor de los numeros, en el orden del archivo
+     * @return Cantidad de numeros leidos y errores encontrados
+     */
+    public static Resultado recorrer(Path ruta, IntConsumer destino) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            Segmento segmento = new Segmento(0, canal.size());
+            try {
+                segmento.analizar(canal, destino);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return new Resultado(new int[0], segmento.cantidad, segmento.errores, segmento.totalErrores);
+        }
+    }
+
+    /**
+     * Recorre un flujo de longitud desconocida, por ejemplo el cuerpo de una
+     * solicitud HTTP, entregando cada numero a un consumidor. El flujo no se
+     * cierra. Si el consumidor lanza UncheckedIOException se propaga la
+     * IOException original.
+     * @param entrada Flujo de texto con un numero por linea
+     * @param destino Consumidor de los numeros, en el orden del flujo
+     * @return Cantidad de numeros leidos y errores encontrados
+     */
+    public static Resultado recorrer(InputStream entrada, IntConsumer destino) throws IOException {
+        Segmento segmento = new Segmento(0, Long.MAX_VALUE);
+        byte[] bytes = new byte[TAMANO_BLOQUE_FLUJO];
+        long posicion = 0;
+        try {
+            int leidos;
+            while ((leidos = entrada.read(bytes)) >= 0) {
+                segmento.procesarBloque(bytes, leidos, posicion, destino);
+                posicion += leidos;
+            }
+            segmento.terminar(posicion, destino);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new Resultado(new int[0], segmento.cantidad, segmento.errores, segmento.totalErrores);
+    }
+
+    /**
+     * Divide el archivo en segmentos que terminan justo despues de un salto
+     * de linea y los analiza en un pool propio. Cuando se conoce el total,
+     * cada segmento copia sus numeros directamente a su posicion del arreglo
+     * final, tambien en paralelo.
+     */
+    private static Resultado leerEnParalelo(FileChannel canal, int paralelismo) throws IOException {
+        List<Segmento> segmentos = dividirEnSegmentos(canal, paralelismo);
+        List<Callable<ArregloEnteros>> tareas = new ArrayList<>();
+        for (Segmento segmento : segmentos) {
+            tareas.add(() -> {
+                ArregloEnteros numeros = new ArregloEnteros((int) ((segmento.fin - segmento.inicio) / 4 + 16));
+                segmento.analizar(canal, numeros::agregar);
+                return numeros;
+            });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            List<Future<ArregloEnteros>> parciales = pool.invokeAll(tareas);
+            long total = 0;
+            for (Segmento segmento : segmentos) {
+                total += segmento.cantidad;
+            }
+            if (total > Integer.MAX_VALUE - 8) {
+                throw new IOException("El archivo tiene demasiados numeros para un arreglo: " + total);
+            }
+
+            int[] numeros = new int[(int) total];
+            List<Callable<Void>> copias = new ArrayList<>(segmentos.size());
+            List<ErrorLectura> errores = new ArrayList<>();
+            long totalErrores = 0;
+            int desde = 0;
+            for (int i = 0; i < segmentos.size(); i++) {
+                ArregloEnteros parcial = parciales.get(i).get();
+                int posicion = desde;
+                copias.add(() -> {
+                    parcial.copiarEn(numeros, posicion);
+                    return null;
+                });
+                desde += parcial.tamano();
+
+                Segmento segmento = segmentos.get(i);
+                totalErrores += segmento.totalErrores;
+                for (ErrorLectura error : segmento.errores) {
+                    if (errores.size() < MAXIMO_ERRORES_REGISTRADOS) {
+                        errores.add(error);
+                    }
+                }
+            }
+            for (Future<Void> copia : pool.invokeAll(copias)) {
+                copia.get();
+            }
+            return new Resultado(numeros, total, errores, totalErrores);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Lectura interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Error al leer en paralelo: " + e.getCause(), e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Calcula cortes aproximadamente iguales y mueve cada uno hasta el byte
+     * siguiente al proximo salto de linea, para no partir ningun numero
+     */
+    private static List<Segmento> dividirEnSegmentos(FileChannel canal, int partes) throws IOException {
+        long tamano = canal.size();
+        List<Segmento> segmentos = new ArrayList<>(partes);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(4096);
+        long inicio = 0;
+        for (int parte = 1; parte <= partes && inicio < tamano; parte++) {
+            long fin = parte == partes ? tamano : Math.max(inicio, tamano / partes * parte);
+            fin = buscarFinDeLinea(canal, fin, buffer);
+            if (fin > inicio) {
+                segmentos.add(new Segmento(inicio, fin));
+            }
+            inicio = fin;
+        }
+        return segmentos;
+    }
+
+    /**
+     * @return Posicion siguiente al primer salto de linea en o despues de desde,
+     *         o el tamano del archivo si no hay mas saltos
+     */
+    private static long buscarFinDeLinea(FileChannel canal, long desde, ByteBuffer buffer) throws IOException {
+        long posicion = desde;
+        long tamano = canal.size();
+        while (posicion < tamano) {
+            buffer.clear();
+            int leidos = canal.read(buffer, posicion);
+            if (leidos <= 0) {
+                break;
+            }
+            for (int i = 0; i < leidos; i++) {
+                if (buffer.get(i) == '\n') {
+                    return posicion + i + 1;
+                }
+            }
+            posicion += leidos;
+        }
+        return tamano;
+    }
+
+    /**
+     * Tramo [inicio, fin) del archivo con su propia maquina de estados
+     */
+    private static final class Segmento {
+        private final long inicio;
+        private final long fin;
+        private final List<ErrorLectura> errores = new ArrayList<>();
+        private long totalErrores;
+        private long cantidad;
+
+        // Estado de la linea en curso entre un bloque y el siguiente
+        private long inicioLinea;
+        private long valor;
+        private boolean negativo;
+        private boolean conSigno;
+        private boolean conDigitos;
+        private boolean numeroTerminado;
+        private String motivoError;
+
+        Segmento(long inicio, long fin) {
+            this.inicio = inicio;
+            this.fin = fin;
+            this.inicioLinea = inicio;
+        }
+
+        /**
+         * Lee el segmento del canal por bloques y entrega cada numero valido al destino
+         */
+        void analizar(FileChannel canal, IntConsumer destino) throws IOException {
+            ByteBuffer bloque = ByteBuffer.allocateDirect(TAMANO_BLOQUE);
+            // Copia en el heap del bloque: recorrer un byte[] es mas rapido que get(i) sobre el buffer directo
+            byte[] bytes = new byte[TAMANO_BLOQUE];
+
+            long posicion = inicio;
+            while (posicion < fin) {
+                bloque.clear();
+                if (fin - posicion < bloque.capacity()) {
+                    bloque.limit((int) (fin - posicion));
+                }
+                int leidos = canal.read(bloque, posicion);
+                if (leidos <= 0) {
+                    break;
+                }
+                bloque.flip();
+                bloque.get(bytes, 0, leidos);
+                procesarBloque(bytes, leidos, posicion, destino);
+                posicion += leidos;
+            }
+            terminar(fin, destino);
+        }
+
+        /**
+         * Recorre un bloque byte a byte. El estado de la linea en curso se
+         * copia a variables locales y se guarda al final, asi una linea puede
+         * quedar partida entre dos bloques.
+         * @param bytes Bloque leido
+         * @param leidos Cantidad de bytes validos del bloque
+         * @param posicion Desplazamiento del bloque dentro de la entrada
+         * @param destino Consumidor de los numeros validos
+         */
+        void procesarBloque(byte[] bytes, int leidos, long posicion, IntConsumer destino) {
+            long inicioLinea = this.inicioLinea;
+            long valor = this.valor;
+            boolean negativo = this.negativo;
+            boolean conSigno = this.conSigno;
+            boolean conDigitos = this.conDigitos;
+            boolean numeroTerminado = this.numeroTerminado;
+            String motivoError = this.motivoError;
+
+            for (int i = 0; i < leidos; i++) {
+                byte caracter = bytes[i];
+                if (caracter == '\n') {
+                    terminarLinea(inicioLinea, valor, negativo, conSigno, conDigitos, motivoError, destino);
+                    inicioLinea = posicion + i + 1;
+                    valor = 0;
+                    negativo = false;
+                    conSigno = false;
+                    conDigitos = false;
+                    numeroTerminado = false;
+                    motivoError = null;
+                } else if (motivoError != null) {
+                    // La linea ya es invalida: ignorar hasta el salto de linea
+                    continue;
+                } else if (caracter >= '0' && caracter <= '9') {
+                    if (numeroTerminado) {
+                        motivoError = MOTIVO_VARIOS_NUMEROS;
+                        continue;
+                    }
+                    valor = valor * 10 + (caracter - '0');
+                    conDigitos = true;
+                    if (valor > 1L + Integer.MAX_VALUE) {
+                        motivoError = MOTIVO_DESBORDE;
+                    }
+                } else if (caracter == ' ' || caracter == '\t' || caracter == '\r') {
+                    numeroTerminado = conDigitos || conSigno;
+                } else if ((caracter == '-' || caracter == '+') && !conSigno && !conDigitos && !numeroTerminado) {
+                    conSigno = true;
+                    negativo = caracter == '-';
+                } else {
+                    motivoError = MOTIVO_CARACTER;
+                }
+            }
+
+            this.inicioLinea = inicioLinea;
+            this.valor = valor;
+            this.negativo = negativo;
+            this.conSigno = conSigno;
+            this.conDigitos = conDigitos;
+            this.numeroTerminado = numeroTerminado;
+            this.motivoError = motivoError;
+        }
+
+        /**
+         * Procesa la ultima linea si no terminaba con salto de linea
+         * @param finEntrada Desplazamiento del final de lo leido
+         */
+        void terminar(long finEntrada, IntConsumer destino) {
+            if (inicioLinea < finEntrada) {
+                terminarLinea(inicioLinea, valor, negativo, conSigno, conDigitos, motivoError, destino);
+                inicioLinea = finEntrada;
+            }
+        }
+
+        private void terminarLinea(long inicioLinea, long valor, boolean negativo, boolean conSigno,
+                                   boolean conDigitos, String motivoError, IntConsumer destino) {
+            if (motivoError == null && conSigno && !conDigitos) {
+                motivoError = MOTIVO_SIN_DIGITOS;
+            }
+            if (motivoError == null && !negativo && valor > Integer.MAX_VALUE) {
+                motivoError = MOTIVO_DESBORDE;
+            }
+            if (motivoError != null) {
+                registrarError(inicioLinea, motivoError);
+                return;
+            }
+            if (conDigitos) {
+                destino.accept((int) (negativo ? -valor : valor));
+                cantidad++;
+            }
+        }
+
+        private void registrarError(long desplazamiento, String motivo) {
+            totalErrores++;
+            if (errores.size() < MAXIMO_ERRORES_REGISTRADOS) {
+                errores.add(new ErrorLectura(desplazamiento, motivo));
+            }
+        }
+    }
+
+    /**
+     * Construye un mensaje con los primeros errores de una lectura
+     * @param ruta Archivo leido
+     * @param resultado Resultado con errores
+     * @return Mensaje para reportar
+     */
+    public static String describirErrores(Path ruta, Resultado resultado) {
+        return describirErrores("El archivo " + ruta, resultado);
+    }
+
+    /**
+     * Construye un mensaje con los primeros errores de una lectura
+     * @param origen Descripcion de lo que se leyo, por ejemplo "El cuerpo de la solicitud"
+     * @param resultado Resultado con errores
+     * @return Mensaje para reportar
+     */
+    public static String describirErrores(String origen, Resultado resultado) {
+        StringBuilder mensaje = new StringBuilder();
+        mensaje.append(origen).append(" tiene ").append(resultado.obtenerTotalErrores())
+                .append(" linea(s) mal formada(s)");
+        List<ErrorLectura> primeros = resultado.obtenerErrores()
+                .subList(0, Math.min(5, resultado.obtenerErrores().size()));
+        for (ErrorLectura error : primeros) {
+            mensaje.append("; ").append(error);
+        }
+        return mensaje.toString();
+    }
+}
@@ -0,0 +1,82 @@
+package com.innoad.ordenamiento;
+
+import java.nio.file.Path;
+
+/**
+ * Lenguajes que reconoce {@link ClasificadorLineas}, con las reglas de
+ * comentarios y literales de cada uno
+ */
+public enum LenguajeFuente {
+
+    /** Comentarios // y de bloque, cadenas, caracteres y bloques de texto triples */
+    JAVA(true, false, true, false, true, ".java"),
+
+    /** Como Java pero con comentarios de bloque anidados y cadenas triples sin escapes */
+    KOTLIN(true, true, true, false, false, ".kt", ".kts"),
+
+    /** Como Java con cadenas triples de comillas simples o dobles; incluye los scripts de Gradle */
+    GROOVY(true, false, true, true, true, ".groovy", ".gradle"),
+
+    /** Archivos .properties: comentarios con # o !, y valores que siguen en la linea siguiente con \ */
+    PROPIEDADES(false, false, false, false, false, ".properties");
+
+    private final boolean comentariosC;
+    private final boolean comentariosAnidados;
+    private final boolean triplesDobles;
+    private final boolean triplesSimples;
+    private final boolean escapesEnTriples;
+    private final String[] extensiones;
+
+    LenguajeFuente(boolean comentariosC, boolean comentariosAnidados, boolean triplesDobles,
+                   boolean triplesSimples, boolean escapesEnTriples, String... extensiones) {
+        this.comentariosC = comentariosC;
+        this.comentariosAnidados = comentariosAnidados;
+        this.triplesDobles = triplesDobles;
+        this.triplesSimples = triplesSimples;
+        this.escapesEnTriples = escapesEnTriples;
+        this.extensiones = extensiones;
+    }
+
+    /**
+     * @param archivo Ruta del archivo
+     * @return Lenguaje segun la extension, o null si no es un archivo fuente reconocido
+     */
+    public static LenguajeFuente detectar(Path archivo) {
+        Path nombre = archivo.getFileName();
+        if (nombre == null) {
+            return null;
+        }
+        String texto = nombre.toString();
+        for (LenguajeFuente lenguaje : values()) {
+            for (String extension : lenguaje.extensiones) {
+                if (texto.endsWith(extension)) {
+                    return lenguaje;
+                }
+            }
+        }
+        return null;
+    }
+
+    /** @return true si usa comentarios // y de bloque */
+    boolean tieneComentariosC() {
+        return comentariosC;
+    }
+
+    /** @return true si un comentario de bloque puede contener otro */
+    boolean tieneComentariosAnidados() {
+        return comentariosAnidados;
+    }
+
+    /**
+     * @param comilla Comilla que abre la cadena
+     * @return true si tres comillas seguidas abren una cadena de varias lineas
+     */
+    boolean tieneTriples(int comilla) {
+        return comilla == '"' ? triplesDobles : triplesSimples;
+    }
+
+    /** @return true si dentro de una cadena triple la barra invertida escapa el siguiente caracter */
+    boolean tieneEscapesEnTriples() {
+        return escapesEnTriples;
+    }
+}
@@ -0,0 +1,181 @@
+package com.innoad.ordenamiento;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lote de muchos arreglos independientes empaquetados en un unico buffer
+ * contiguo con un indice de inicios: el segmento i ocupa las posiciones
+ * [inicio(i), inicio(i + 1)) del buffer. Un lote de un millon de arreglos
+ * pequenos son asi dos arreglos primitivos en lugar de un millon de objetos,
+ * y {@link OrdenadorLotes} los recorre sin saltar por el heap.
+ */
+public final class LoteArreglos {
+
+    private int[] datos;
+    private int[] inicios;
+    private int segmentos;
+
+    /**
+     * Crea un lote vacio
+     */
+    public LoteArreglos() {
+        this(16, 1024);
+    }
+
+    /**
+     * Crea un lote vacio con capacidad inicial
+     * @param segmentosEsperados Cantidad de arreglos que se espera agregar
+     * @param elementosEsperados Cantidad total de elementos que se espera agregar
+     */
+    public LoteArreglos(int segmentosEsperados, int elementosEsperados) {
+        this.datos = new int[Math.max(1, elementosEsperados)];
+        this.inicios = new int[Math.max(1, segmentosEsperados) + 1];
+    }
+
+    /**
+     * Empaqueta una lista de arreglos en un lote nuevo, copiando su contenido
+     * @param arreglos Arreglos a empaquetar (no se modifican)
+     * @return Lote con un segmento por arreglo, en el mismo orden
+     */
+    public static LoteArreglos de(List<int[]> arreglos) {
+        long elementos = 0;
+        for (int[] arreglo : arreglos) {
+            elementos += arreglo.length;
+        }
+        if (elementos > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Demasiados elementos para un solo lote: " + elementos);
+        }
+
+        LoteArreglos lote = new LoteArreglos(arreglos.size(), (int) elementos);
+        for (int[] arreglo : arreglos) {
+            lote.agregar(arreglo);
+        }
+        return lote;
+    }
+
+    /**
+     * Agrega una copia de un arreglo como nuevo segmento
+     * @param arreglo Arreglo a copiar
+     * @return Indice del segmento agregado
+     */
+    public int agregar(int[] arreglo) {
+        return agregar(arreglo, 0, arreglo.length);
+    }
+
+    /**
+     * Agrega una copia del rango [desde, hasta) de un arreglo como nuevo segmento
+     * @param arreglo Arreglo de origen
+     * @param desde Indice inicial, inclusivo
+     * @param hasta Indice final, exclusivo
+     * @return Indice del segmento agregado
+     */
+    public int agregar(int[] arreglo, int desde, int hasta) {
+        MotorOrdenamiento.verificarRango(arreglo.length, desde, hasta);
+        int longitud = hasta - desde;
+        int ocupados = inicios[segmentos];
+        asegurarCapacidad(ocupados + (long) longitud);
+        System.arraycopy(arreglo, desde, datos, ocupados, longitud);
+
+        if (segmentos + 1 == inicios.length) {
+            inicios = Arrays.copyOf(inicios, inicios.length + (inicios.length >> 1) + 1);
+        }
+        inicios[++segmentos] = ocupados + longitud;
+        return segmentos - 1;
+    }
+
+    /**
+     * @return Cantidad de segmentos del lote
+     */
+    public int cantidadSegmentos() {
+        return segmentos;
+    }
+
+    /**
+     * @return Cantidad total de elementos de todos los segmentos
+     */
+    public int cantidadElementos() {
+        return inicios[segmentos];
+    }
+
+    /**
+     * @param segmento Indice del segmento
+     * @return Cantidad de elementos del segmento
+     */
+    public int obtenerLongitud(int segmento) {
+        verificarSegmento(segmento);
+        return inicios[segmento + 1] - inicios[segmento];
+    }
+
+    /**
+     * Vista de solo lectura de un segmento, sin copiar: refleja el contenido
+     * actual del buffer, por ejemplo despues de ordenar el lote
+     * @param segmento Indice del segmento
+     * @return IntBuffer de solo lectura con position 0 y limit igual a la longitud
+     */
+    public IntBuffer obtenerSegmento(int segmento) {
+        verificarSegmento(segmento);
+        int inicio = inicios[segmento];
+        return IntBuffer.wrap(datos, inicio, inicios[segmento + 1] - inicio).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * @param segmento Indice del segmento
+     * @return Copia del contenido del segmento
+     */
+    public int[] copiarSegmento(int segmento) {
+        verificarSegmento(segmento);
+        return Arrays.copyOfRange(datos, inicios[segmento], inicios[segmento + 1]);
+    }
+
+    /**
+     * Buffer compartido por todos los segmentos; solo para el ordenador
+     */
+    int[] obtenerDatos() {
+        return datos;
+    }
+
+    /**
+     * Posicion en el buffer donde empieza un segmento; inicio(cantidadSegmentos())
+     * es el final del ultimo
+     */
+    int inicio(int segmento) {
+        return inicios[segmento];
+    }
+
+    /**
+     * Primer segmento en [desde, hasta) que empieza en o despues de la posicion indicada
+     * @return Indice de segmento en [desde, hasta]
+     */
+    int buscarSegmento(int desde, int hasta, int posicion) {
+        int bajo = desde;
+        int alto = hasta;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (inicios[medio] < posicion) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    private void asegurarCapacidad(long requerida) {
+        if (requerida <= datos.length) {
+            return;
+        }
+        if (requerida > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("El lote no puede superar " + (Integer.MAX_VALUE - 8) + " elementos");
+        }
+        long nuevaCapacidad = Math.max(requerida, Math.min(datos.length + (datos.length >> 1), Integer.MAX_VALUE - 8));
+        datos = Arrays.copyOf(datos, (int) nuevaCapacidad);
+    }
+
+    private void verificarSegmento(int segmento) {
+        if (segmento < 0 || segmento >= segmentos) {
+            throw new IndexOutOfBoundsException("Segmento " + segmento + " fuera de rango [0, " + segmentos + ")");
+        }
+    }
+}
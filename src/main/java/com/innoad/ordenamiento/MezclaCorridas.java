@@ -0,0 +1,97 @@
+package com.innoad.ordenamiento;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Mezcla en k vias de corridas ordenadas con una cola de prioridad, valor
+ * por valor a pedido de quien la consume. Ante valores iguales gana la
+ * corrida anterior de la lista, por lo que la mezcla es estable.
+ * La usan las pasadas de {@link OrdenamientoExterno} y la lectura y la
+ * compactacion de {@link AlmacenIncremental}. No cierra las corridas: eso
+ * queda a cargo de quien las abrio.
+ */
+final class MezclaCorridas {
+
+    /**
+     * Una secuencia ordenada de enteros que se recorre una sola vez
+     */
+    interface Corrida {
+        /**
+         * Pasa al siguiente valor
+         * @return false si la corrida se termino
+         */
+        boolean avanzar() throws IOException;
+
+        /**
+         * @return Valor actual; solo es valido despues de un avanzar que devolvio true
+         */
+        int actual();
+    }
+
+    private final PriorityQueue<Cabeza> cola;
+
+    /**
+     * Lee el primer valor de cada corrida
+     * @param corridas Corridas ordenadas; su posicion en la lista desempata
+     */
+    MezclaCorridas(List<? extends Corrida> corridas) throws IOException {
+        cola = new PriorityQueue<>(Math.max(1, corridas.size()));
+        for (int i = 0; i < corridas.size(); i++) {
+            Cabeza cabeza = new Cabeza(corridas.get(i), i);
+            if (cabeza.avanzar()) {
+                cola.add(cabeza);
+            }
+        }
+    }
+
+    /**
+     * @return true si queda algun valor en alguna corrida
+     */
+    boolean haySiguiente() {
+        return !cola.isEmpty();
+    }
+
+    /**
+     * Entrega el menor valor pendiente. Solo se llama si {@link #haySiguiente()}
+     * @return Siguiente valor de la mezcla
+     */
+    int siguiente() throws IOException {
+        Cabeza menor = cola.poll();
+        int valor = menor.valor;
+        if (menor.avanzar()) {
+            cola.add(menor);
+        }
+        return valor;
+    }
+
+    /**
+     * Una corrida en la cola, con su valor actual copiado para comparar sin
+     * pasar por la interfaz
+     */
+    private static final class Cabeza implements Comparable<Cabeza> {
+        private final Corrida corrida;
+        private final int indice;
+        private int valor;
+
+        Cabeza(Corrida corrida, int indice) {
+            this.corrida = corrida;
+            this.indice = indice;
+        }
+
+        boolean avanzar() throws IOException {
+            if (!corrida.avanzar()) {
+                return false;
+            }
+            valor = corrida.actual();
+            return true;
+        }
+
+        @Override
+        public int compareTo(Cabeza otra) {
+            int comparacion = Integer.compare(valor, otra.valor);
+            return comparacion != 0 ? comparacion : Integer.compare(indice, otra.indice);
+        }
+    }
+}
@@ -0,0 +1,564 @@
+package com.innoad.ordenamiento;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Motor de ordenamiento Merge Sort sobre arreglos primitivos int[].
+ * Ordena en sitio reservando un unico buffer auxiliar por llamada; en cada
+ * nivel de la recursion se intercambian los papeles de origen y destino,
+ * de modo que nunca se crean sublistas ni objetos Integer intermedios.
+ * Los tramos pequenos se ordenan por insercion.
+ * Cuando el rango de valores es angosto (declarado por quien llama o
+ * detectado con una pasada de minimo y maximo) se usa ordenamiento por
+ * conteo en O(n + k) en lugar de Merge Sort.
+ */
+public final class MotorOrdenamiento {
+
+    /** Tamano de tramo a partir del cual se usa insercion en lugar de mezclar */
+    static final int UMBRAL_INSERCION = 32;
+
+    /**
+     * Rango maximo de valores (maximo - minimo + 1) para usar conteo.
+     * Se puede ajustar con la propiedad de sistema innoad.ordenamiento.rangoMaximoConteo
+     */
+    public static final int RANGO_MAXIMO_CONTEO_PREDETERMINADO =
+            Integer.getInteger("innoad.ordenamiento.rangoMaximoConteo", 1 << 16);
+
+    /** El histograma no puede ser mas grande que este multiplo de la cantidad de elementos */
+    static final int FACTOR_RANGO_CONTEO = 4;
+
+    private MotorOrdenamiento() {
+    }
+
+    /**
+     * Ordena ascendentemente todo el arreglo
+     * @param datos Arreglo a ordenar (se modifica en sitio)
+     */
+    public static void ordenar(int[] datos) {
+        TelemetriaOrdenamiento.Medidor medidor = TelemetriaOrdenamiento.iniciar(datos.length);
+        try {
+            ordenar(datos, 0, datos.length, RANGO_MAXIMO_CONTEO_PREDETERMINADO, medidor);
+        } finally {
+            medidor.terminar();
+        }
+    }
+
+    /**
+     * Ordena ascendentemente el rango [desde, hasta) del arreglo. Los
+     * ordenamientos de rangos son piezas de otros (tramos del modo paralelo,
+     * bloques del ordenamiento externo) y no se informan a {@link TelemetriaOrdenamiento}
+     * @param datos Arreglo a ordenar (se modifica en sitio)
+     * @param desde Indice inicial, inclusivo
+     * @param hasta Indice final, exclusivo
+     */
+    public static void ordenar(int[] datos, int desde, int hasta) {
+        ordenar(datos, desde, hasta, RANGO_MAXIMO_CONTEO_PREDETERMINADO);
+    }
+
+    /**
+     * Ordena ascendentemente el rango [desde, hasta) del arreglo, usando
+     * conteo si el rango de valores encontrado no supera rangoMaximoConteo
+     * @param datos Arreglo a ordenar (se modifica en sitio)
+     * @param desde Indice inicial, inclusivo
+     * @param hasta Indice final, exclusivo
+     * @param rangoMaximoConteo Rango de valores maximo para usar conteo (0 lo desactiva)
+     */
+    public static void ordenar(int[] datos, int desde, int hasta, int rangoMaximoConteo) {
+        ordenar(datos, desde, hasta, rangoMaximoConteo, TelemetriaOrdenamiento.Medidor.INACTIVO);
+    }
+
+    static void ordenar(int[] datos, int desde, int hasta, int rangoMaximoConteo,
+                        TelemetriaOrdenamiento.Medidor medidor) {
+        verificarRango(datos.length, desde, hasta);
+        int longitud = hasta - desde;
+        if (longitud <= UMBRAL_INSERCION) {
+            medidor.fijarEstrategia("INSERCION");
+            ordenarInsercion(datos, desde, hasta);
+            return;
+        }
+        if (intentarConteo(datos, desde, hasta, rangoMaximoConteo)) {
+            medidor.fijarEstrategia(Algoritmo.CONTEO.name());
+            return;
+        }
+
+        ordenarMergeSort(datos, desde, hasta, medidor);
+    }
+
+    /**
+     * Ordena el arreglo entregando los valores en orden ascendente a un
+     * consumidor, por ejemplo un {@link EscritorNumeros}, sin armar el
+     * arreglo ordenado completo: con un rango angosto los valores salen
+     * directamente del histograma, y con Merge Sort la ultima mezcla escribe
+     * en el consumidor en lugar de en el arreglo.
+     * Al terminar, datos queda con sus dos mitades ordenadas por separado
+     * (o sin cambios si se uso conteo).
+     * @param datos Arreglo a ordenar
+     * @param destino Consumidor de los valores ordenados
+     */
+    public static void ordenarHacia(int[] datos, IntConsumer destino) {
+        TelemetriaOrdenamiento.Medidor medidor = TelemetriaOrdenamiento.iniciar(datos.length);
+        try {
+            ordenarHacia(datos, destino, medidor);
+        } finally {
+            medidor.terminar();
+        }
+    }
+
+    private static void ordenarHacia(int[] datos, IntConsumer destino, TelemetriaOrdenamiento.Medidor medidor) {
+        int longitud = datos.length;
+        if (longitud <= UMBRAL_INSERCION) {
+            medidor.fijarEstrategia("INSERCION");
+            ordenarInsercion(datos, 0, longitud);
+            for (int valor : datos) {
+                destino.accept(valor);
+            }
+            return;
+        }
+
+        // Rango angosto: emitir cada valor tantas veces como aparece
+        int minimo = datos[0];
+        int maximo = minimo;
+        for (int valor : datos) {
+            if (valor < minimo) {
+                minimo = valor;
+            } else if (valor > maximo) {
+                maximo = valor;
+            }
+        }
+        long rango = (long) maximo - minimo + 1;
+        if (rango <= RANGO_MAXIMO_CONTEO_PREDETERMINADO && rango <= (long) longitud * FACTOR_RANGO_CONTEO) {
+            medidor.fijarEstrategia(Algoritmo.CONTEO.name());
+            int[] conteos = new int[(int) rango];
+            for (int valor : datos) {
+                conteos[valor - minimo]++;
+            }
+            for (int clave = 0; clave < conteos.length; clave++) {
+                for (int repeticion = conteos[clave]; repeticion > 0; repeticion--) {
+                    destino.accept(clave + minimo);
+                }
+            }
+            return;
+        }
+
+        // Ordenar cada mitad en datos y mezclar directamente hacia el consumidor
+        medidor.fijarEstrategia(Algoritmo.MERGE_SORT.name());
+        int mitad = longitud >>> 1;
+        int[] auxiliar = datos.clone();
+        mergeSort(auxiliar, 0, datos, 0, mitad);
+        mergeSort(auxiliar, mitad, datos, mitad, longitud - mitad);
+
+        int indiceIzq = 0;
+        int indiceDer = mitad;
+        while (indiceIzq < mitad && indiceDer < longitud) {
+            if (datos[indiceIzq] <= datos[indiceDer]) {
+                destino.accept(datos[indiceIzq++]);
+            } else {
+                destino.accept(datos[indiceDer++]);
+            }
+        }
+        while (indiceIzq < mitad) {
+            destino.accept(datos[indiceIzq++]);
+        }
+        while (indiceDer < longitud) {
+            destino.accept(datos[indiceDer++]);
+        }
+    }
+
+    /**
+     * Ordena en sitio los elementos entre position y limit de un IntBuffer,
+     * por ejemplo la vista de un archivo binario mapeado en memoria.
+     * Con un rango de valores angosto el conteo lee y reescribe el buffer
+     * directamente, sin copiarlo; en otro caso el contenido se copia a un
+     * arreglo de trabajo, se ordena con Merge Sort y se devuelve al buffer.
+     * @param datos Buffer a ordenar; su position y limit no cambian
+     */
+    public static void ordenar(IntBuffer datos) {
+        TelemetriaOrdenamiento.Medidor medidor = TelemetriaOrdenamiento.iniciar(datos.remaining());
+        try {
+            ordenar(datos, medidor);
+        } finally {
+            medidor.terminar();
+        }
+    }
+
+    private static void ordenar(IntBuffer datos, TelemetriaOrdenamiento.Medidor medidor) {
+        if (datos.hasArray()) {
+            int desplazamiento = datos.arrayOffset();
+            ordenar(datos.array(), desplazamiento + datos.position(), desplazamiento + datos.limit(),
+                    RANGO_MAXIMO_CONTEO_PREDETERMINADO, medidor);
+            return;
+        }
+
+        int inicio = datos.position();
+        int fin = datos.limit();
+        int longitud = fin - inicio;
+        if (longitud < 2) {
+            return;
+        }
+
+        // Una sola pasada para encontrar minimo y maximo
+        int minimo = datos.get(inicio);
+        int maximo = minimo;
+        for (int i = inicio + 1; i < fin; i++) {
+            int valor = datos.get(i);
+            if (valor < minimo) {
+                minimo = valor;
+            } else if (valor > maximo) {
+                maximo = valor;
+            }
+        }
+
+        long rango = (long) maximo - minimo + 1;
+        if (rango <= RANGO_MAXIMO_CONTEO_PREDETERMINADO && rango <= (long) longitud * FACTOR_RANGO_CONTEO) {
+            medidor.fijarEstrategia(Algoritmo.CONTEO.name());
+            int[] conteos = new int[(int) rango];
+            for (int i = inicio; i < fin; i++) {
+                conteos[datos.get(i) - minimo]++;
+            }
+            int posicion = inicio;
+            for (int clave = 0; clave < conteos.length; clave++) {
+                int valor = clave + minimo;
+                for (int repeticion = conteos[clave]; repeticion > 0; repeticion--) {
+                    datos.put(posicion++, valor);
+                }
+            }
+            return;
+        }
+
+        int[] copia = new int[longitud];
+        datos.get(inicio, copia);
+        ordenarMergeSort(copia, 0, longitud, medidor);
+        datos.put(inicio, copia);
+    }
+
+    /**
+     * Ordena ascendentemente todo el arreglo con el algoritmo indicado
+     * @param datos Arreglo a ordenar (se modifica en sitio)
+     * @param algoritmo Algoritmo a usar
+     */
+    public static void ordenar(int[] datos, Algoritmo algoritmo) {
+        TelemetriaOrdenamiento.Medidor medidor = TelemetriaOrdenamiento.iniciar(datos.length);
+        try {
+            // Merge Sort, conteo y el selector informan la estrategia que terminan usando
+            medidor.fijarEstrategia(algoritmo.name());
+            switch (algoritmo) {
+                case MERGE_SORT -> ordenar(datos, 0, datos.length, 0, medidor);
+                case CONTEO -> ordenar(datos, 0, datos.length, Integer.MAX_VALUE, medidor);
+                case RADIX -> OrdenamientoRadix.ordenar(datos);
+                case ADAPTATIVO -> OrdenamientoAdaptativo.ordenar(datos);
+                case VECTORIAL -> OrdenamientoVectorial.ordenar(datos);
+                case AUTOMATICO -> SelectorAlgoritmo.ordenarSecuencial(datos, medidor);
+                default -> throw new IllegalArgumentException("Algoritmo no soportado: " + algoritmo);
+            }
+        } finally {
+            medidor.terminar();
+        }
+    }
+
+    /**
+     * Ordena un arreglo cuyos valores se sabe que estan en [minimo, maximo],
+     * por ejemplo NUMERO_MINIMO..NUMERO_MAXIMO, sin pasada de deteccion
+     * @param datos Arreglo a ordenar (se modifica en sitio)
+     * @param minimo Valor minimo posible
+     * @param maximo Valor maximo posible
+     * @throws IllegalArgumentException si algun valor cae fuera del rango
+     *         declarado; en ese caso el arreglo queda sin cambios
+     */
+    public static void ordenarConRango(int[] datos, int minimo, int maximo) {
+        if (minimo > maximo) {
+            throw new IllegalArgumentException("minimo(" + minimo + ") > maximo(" + maximo + ")");
+        }
+        long rango = (long) maximo - minimo + 1;
+        if (rango <= RANGO_MAXIMO_CONTEO_PREDETERMINADO && rango <= (long) datos.length * FACTOR_RANGO_CONTEO) {
+            // El conteo verifica el rango en la misma pasada del histograma
+            ordenarConteo(datos, 0, datos.length, minimo, maximo);
+        } else {
+            verificarValores(datos, 0, datos.length, minimo, maximo);
+            ordenar(datos, 0, datos.length, 0);
+        }
+    }
+
+    /**
+     * Verifica que todos los valores de [desde, hasta) esten en [minimo, maximo]
+     * @throws IllegalArgumentException con el primer valor fuera del rango
+     */
+    private static void verificarValores(int[] datos, int desde, int hasta, int minimo, int maximo) {
+        for (int i = desde; i < hasta; i++) {
+            int valor = datos[i];
+            if (valor < minimo || valor > maximo) {
+                throw new IllegalArgumentException("El valor " + valor + " en la posicion " + i
+                        + " esta fuera del rango [" + minimo + ", " + maximo + "]");
+            }
+        }
+    }
+
+    /**
+     * Merge Sort sin deteccion de rango sobre [desde, hasta)
+     * @param datos Arreglo a ordenar (se modifica en sitio)
+     * @param desde Indice inicial, inclusivo
+     * @param hasta Indice final, exclusivo
+     */
+    static void ordenarMergeSort(int[] datos, int desde, int hasta) {
+        ordenarMergeSort(datos, desde, hasta, (ContadorOperaciones) null);
+    }
+
+    /**
+     * Merge Sort sin deteccion de rango; si el medidor lo pide, el mismo
+     * camino informa comparaciones y movimientos a un {@link ContadorOperaciones}
+     */
+    static void ordenarMergeSort(int[] datos, int desde, int hasta, TelemetriaOrdenamiento.Medidor medidor) {
+        medidor.fijarEstrategia(Algoritmo.MERGE_SORT.name());
+        ContadorOperaciones contador = medidor.debeContar() ? new ContadorOperaciones() : null;
+        ordenarMergeSort(datos, desde, hasta, contador);
+        if (contador != null) {
+            medidor.registrarConteos(contador);
+        }
+    }
+
+    private static void ordenarMergeSort(int[] datos, int desde, int hasta, ContadorOperaciones contador) {
+        int longitud = hasta - desde;
+        if (longitud <= UMBRAL_INSERCION) {
+            if (contador != null) {
+                contador.contarInsercion(datos, desde, hasta);
+            }
+            ordenarInsercion(datos, desde, hasta);
+            return;
+        }
+
+        // Unico buffer auxiliar: arranca como copia del rango a ordenar
+        int[] auxiliar = new int[longitud];
+        System.arraycopy(datos, desde, auxiliar, 0, longitud);
+        if (contador != null) {
+            contador.contar(0, longitud);
+        }
+        mergeSort(auxiliar, 0, datos, desde, longitud, contador);
+    }
+
+    /**
+     * Adaptador para la API con objetos: ordena una lista de enteros
+     * @param lista Lista de numeros a ordenar (no se modifica)
+     * @return Nueva lista ordenada
+     */
+    public static List<Integer> ordenar(List<Integer> lista) {
+        int[] datos = aArreglo(lista);
+        ordenar(datos);
+        return aLista(datos);
+    }
+
+    /**
+     * Convierte una lista de enteros en un arreglo primitivo
+     * @param lista Lista de origen
+     * @return Arreglo con los mismos valores y en el mismo orden
+     */
+    public static int[] aArreglo(List<Integer> lista) {
+        int[] datos = new int[lista.size()];
+        int i = 0;
+        for (Integer numero : lista) {
+            datos[i++] = numero;
+        }
+        return datos;
+    }
+
+    /**
+     * Convierte un arreglo primitivo en una lista de enteros
+     * @param datos Arreglo de origen
+     * @return Lista con los mismos valores y en el mismo orden
+     */
+    public static List<Integer> aLista(int[] datos) {
+        List<Integer> lista = new ArrayList<>(datos.length);
+        for (int numero : datos) {
+            lista.add(numero);
+        }
+        return lista;
+    }
+
+    /**
+     * Busca minimo y maximo del tramo y, si el rango es angosto, lo ordena por conteo
+     * @param datos Arreglo a ordenar
+     * @param desde Indice inicial, inclusivo
+     * @param hasta Indice final, exclusivo
+     * @param rangoMaximoConteo Rango de valores maximo para usar conteo
+     * @return true si el tramo quedo ordenado por conteo
+     */
+    static boolean intentarConteo(int[] datos, int desde, int hasta, int rangoMaximoConteo) {
+        if (rangoMaximoConteo <= 0 || hasta - desde < 2) {
+            return false;
+        }
+
+        // Una sola pasada para encontrar minimo y maximo
+        int minimo = datos[desde];
+        int maximo = minimo;
+        for (int i = desde + 1; i < hasta; i++) {
+            int valor = datos[i];
+            if (valor < minimo) {
+                minimo = valor;
+            } else if (valor > maximo) {
+                maximo = valor;
+            }
+        }
+
+        long rango = (long) maximo - minimo + 1;
+        if (rango > rangoMaximoConteo || rango > (long) (hasta - desde) * FACTOR_RANGO_CONTEO) {
+            return false;
+        }
+        ordenarConteo(datos, desde, hasta, minimo, maximo);
+        return true;
+    }
+
+    /**
+     * Ordenamiento por conteo del rango [desde, hasta) en O(n + k)
+     * @param datos Arreglo a ordenar
+     * @param desde Indice inicial, inclusivo
+     * @param hasta Indice final, exclusivo
+     * @param minimo Valor minimo del tramo
+     * @param maximo Valor maximo del tramo
+     */
+    static void ordenarConteo(int[] datos, int desde, int hasta, int minimo, int maximo) {
+        int[] conteos = new int[maximo - minimo + 1];
+        for (int i = desde; i < hasta; i++) {
+            int valor = datos[i];
+            if (valor < minimo || valor > maximo) {
+                throw new IllegalArgumentException("El valor " + valor + " en la posicion " + i
+                        + " esta fuera del rango [" + minimo + ", " + maximo + "]");
+            }
+            conteos[valor - minimo]++;
+        }
+
+        // Reescribir cada valor tantas veces como aparecio
+        int posicion = desde;
+        for (int clave = 0; clave < conteos.length; clave++) {
+            int repeticiones = conteos[clave];
+            if (repeticiones > 0) {
+                Arrays.fill(datos, posicion, posicion + repeticiones, clave + minimo);
+                posicion += repeticiones;
+            }
+        }
+    }
+
+    /**
+     * Merge Sort recursivo con intercambio de origen y destino.
+     * Precondicion: origen y destino contienen los mismos valores en el tramo.
+     * Al terminar, el tramo de destino queda ordenado y el de origen queda
+     * como espacio de trabajo.
+     * @param origen Arreglo usado como espacio de trabajo
+     * @param inicioOrigen Inicio del tramo en origen
+     * @param destino Arreglo donde queda el resultado ordenado
+     * @param inicioDestino Inicio del tramo en destino
+     * @param longitud Cantidad de elementos del tramo
+     */
+    static void mergeSort(int[] origen, int inicioOrigen, int[] destino, int inicioDestino, int longitud) {
+        mergeSort(origen, inicioOrigen, destino, inicioDestino, longitud, null);
+    }
+
+    /**
+     * @param contador Recibe las operaciones de cada paso, o null para no contar
+     */
+    private static void mergeSort(int[] origen, int inicioOrigen, int[] destino, int inicioDestino, int longitud,
+                                  ContadorOperaciones contador) {
+        // Caso base: tramos pequenos se ordenan por insercion directamente en destino
+        if (longitud <= UMBRAL_INSERCION) {
+            if (contador != null) {
+                contador.contarInsercion(destino, inicioDestino, inicioDestino + longitud);
+            }
+            ordenarInsercion(destino, inicioDestino, inicioDestino + longitud);
+            return;
+        }
+
+        // Ordenar cada mitad dentro de origen, usando destino como espacio de trabajo
+        int mitad = longitud >>> 1;
+        mergeSort(destino, inicioDestino, origen, inicioOrigen, mitad, contador);
+        mergeSort(destino, inicioDestino + mitad, origen, inicioOrigen + mitad, longitud - mitad, contador);
+
+        // Si las mitades ya estan en orden basta con copiar
+        if (origen[inicioOrigen + mitad - 1] <= origen[inicioOrigen + mitad]) {
+            System.arraycopy(origen, inicioOrigen, destino, inicioDestino, longitud);
+            if (contador != null) {
+                contador.contar(1, longitud);
+            }
+            return;
+        }
+
+        int comparados = mezclar(origen, inicioOrigen, inicioOrigen + mitad,
+                origen, inicioOrigen + mitad, inicioOrigen + longitud,
+                destino, inicioDestino);
+        if (contador != null) {
+            contador.contar(1 + comparados, longitud);
+        }
+    }
+
+    /**
+     * Mezcla dos tramos ordenados en destino. En caso de empate se toma
+     * primero el elemento izquierdo, por lo que la mezcla es estable.
+     * @param izquierda Arreglo del primer tramo
+     * @param inicioIzq Inicio del primer tramo, inclusivo
+     * @param finIzq Fin del primer tramo, exclusivo
+     * @param derecha Arreglo del segundo tramo
+     * @param inicioDer Inicio del segundo tramo, inclusivo
+     * @param finDer Fin del segundo tramo, exclusivo
+     * @param destino Arreglo donde se escribe el resultado
+     * @param inicioDestino Posicion de destino del primer elemento
+     * @return Elementos escritos comparando, uno por comparacion; el resto se copio en bloque
+     */
+    static int mezclar(int[] izquierda, int inicioIzq, int finIzq,
+                        int[] derecha, int inicioDer, int finDer,
+                        int[] destino, int inicioDestino) {
+        int indiceIzq = inicioIzq;
+        int indiceDer = inicioDer;
+        int indiceDestino = inicioDestino;
+
+        // Comparar elementos de ambos tramos y escribir el menor
+        while (indiceIzq < finIzq && indiceDer < finDer) {
+            if (izquierda[indiceIzq] <= derecha[indiceDer]) {
+                destino[indiceDestino++] = izquierda[indiceIzq++];
+            } else {
+                destino[indiceDestino++] = derecha[indiceDer++];
+            }
+        }
+
+        int comparados = indiceDestino - inicioDestino;
+
+        // Copiar lo que quede de cualquiera de los dos tramos
+        System.arraycopy(izquierda, indiceIzq, destino, indiceDestino, finIzq - indiceIzq);
+        indiceDestino += finIzq - indiceIzq;
+        System.arraycopy(derecha, indiceDer, destino, indiceDestino, finDer - indiceDer);
+        return comparados;
+    }
+
+    /**
+     * Ordenamiento por insercion del rango [desde, hasta)
+     * @param datos Arreglo a ordenar
+     * @param desde Indice inicial, inclusivo
+     * @param hasta Indice final, exclusivo
+     */
+    static void ordenarInsercion(int[] datos, int desde, int hasta) {
+        for (int i = desde + 1; i < hasta; i++) {
+            int actual = datos[i];
+            int j = i - 1;
+            while (j >= desde && datos[j] > actual) {
+                datos[j + 1] = datos[j];
+                j--;
+            }
+            datos[j + 1] = actual;
+        }
+    }
+
+    /**
+     * Valida que [desde, hasta) sea un rango valido para un arreglo
+     * @param longitud Longitud del arreglo
+     * @param desde Indice inicial, inclusivo
+     * @param hasta Indice final, exclusivo
+     */
+    static void verificarRango(int longitud, int desde, int hasta) {
+        if (desde > hasta) {
+            throw new IllegalArgumentException("desde(" + desde + ") > hasta(" + hasta + ")");
+        }
+        if (desde < 0 || hasta > longitud) {
+            throw new ArrayIndexOutOfBoundsException("Rango [" + desde + ", " + hasta
+                    + ") fuera del arreglo de longitud " + longitud);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.innoad.ordenamiento;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Nucleos de Merge Sort con la Vector API. Es la unica clase que usa
+ * jdk.incubator.vector: solo se carga desde {@link OrdenamientoVectorial}
+ * despues de comprobar que el modulo esta disponible.
+ * <ul>
+ *   <li>Bloques: cada vector de L enteros se ordena con una red bitonica
+ *       dentro del registro (cada etapa es una permutacion, un min, un max y
+ *       una mezcla por mascara), y dos vectores ordenados se combinan con la
+ *       red de mezcla bitonica en un bloque de 2L.</li>
+ *   <li>Mezcla: se mantiene en un registro el vector con los L mayores ya
+ *       leidos; en cada paso se carga el siguiente vector del lado cuyo
+ *       primer elemento es menor, se mezcla con la red bitonica y se guarda
+ *       la mitad baja. Hay una rama por cada L elementos en lugar de una por
+ *       elemento. El final de cada mezcla, con menos de L elementos en un
+ *       lado, se termina escalar.</li>
+ * </ul>
+ */
+final class NucleosVectoriales {
+
+    private static final VectorSpecies<Integer> ESPECIE = IntVector.SPECIES_PREFERRED;
+
+    /** Enteros por vector */
+    static final int CARRILES = ESPECIE.length();
+
+    /** Permutacion que invierte el vector */
+    private static final VectorShuffle<Integer> INVERTIR = VectorShuffle.fromOp(ESPECIE, i -> CARRILES - 1 - i);
+
+    /**
+     * Etapas de la red de mezcla bitonica: en la etapa e cada carril se
+     * compara con el que esta a distancia CARRILES >> (e + 1) y el de
+     * arriba se queda con el maximo
+     */
+    private static final VectorShuffle<Integer>[] PAREJAS_MEZCLA;
+    private static final VectorMask<Integer>[] MAXIMOS_MEZCLA;
+
+    /** Etapas de la red de ordenamiento bitonica completa de un vector */
+    private static final VectorShuffle<Integer>[] PAREJAS_ORDEN;
+    private static final VectorMask<Integer>[] MAXIMOS_ORDEN;
+
+    static {
+        int etapasMezcla = Integer.numberOfTrailingZeros(CARRILES);
+        PAREJAS_MEZCLA = crearPermutaciones(etapasMezcla);
+        MAXIMOS_MEZCLA = crearMascaras(etapasMezcla);
+        int indice = 0;
+        for (int etapa = 0; etapa < etapasMezcla; etapa++) {
+            int distancia = CARRILES >> (etapa + 1);
+            PAREJAS_MEZCLA[indice] = VectorShuffle.fromOp(ESPECIE, i -> i ^ distancia);
+            MAXIMOS_MEZCLA[indice] = mascara(i -> (i & distancia) != 0);
+            indice++;
+        }
+
+        // Red bitonica: bloques de tamano 2, 4, ... CARRILES, alternando el sentido
+        PAREJAS_ORDEN = crearPermutaciones(etapasMezcla * (etapasMezcla + 1) / 2);
+        MAXIMOS_ORDEN = crearMascaras(PAREJAS_ORDEN.length);
+        indice = 0;
+        for (int bloque = 2; bloque <= CARRILES; bloque <<= 1) {
+            for (int distancia = bloque >> 1; distancia > 0; distancia >>= 1) {
+                int d = distancia;
+                int b = bloque;
+                PAREJAS_ORDEN[indice] = VectorShuffle.fromOp(ESPECIE, i -> i ^ d);
+                // En un bloque ascendente el carril de arriba toma el maximo; en uno descendente, el minimo
+                MAXIMOS_ORDEN[indice] = mascara(i -> ((i & d) != 0) != ((i & b) != 0));
+                indice++;
+            }
+        }
+    }
+
+    private NucleosVectoriales() {
+    }
+
+    /**
+     * Ordena el rango [desde, desde + longitud) de datos usando auxiliar
+     * como espacio de trabajo. Ambos arreglos deben tener lugar para el rango
+     * @param datos Arreglo a ordenar
+     * @param auxiliar Arreglo de trabajo del mismo tamano
+     * @param desde Indice inicial, inclusivo
+     * @param longitud Cantidad de elementos
+     */
+    static void ordenar(int[] datos, int[] auxiliar, int desde, int longitud) {
+        int bloque = CARRILES << 1;
+        int hasta = desde + longitud;
+
+        // Los bloques ordenados van donde haga falta para que la ultima mezcla termine en datos
+        int niveles = 0;
+        for (long ancho = bloque; ancho < longitud; ancho <<= 1) {
+            niveles++;
+        }
+        int[] origen = niveles % 2 == 0 ? datos : auxiliar;
+        int[] destino = origen == datos ? auxiliar : datos;
+
+        int inicio = desde;
+        for (; inicio + bloque <= hasta; inicio += bloque) {
+            IntVector primero = ordenarVector(IntVector.fromArray(ESPECIE, datos, inicio));
+            IntVector segundo = ordenarVector(IntVector.fromArray(ESPECIE, datos, inicio + CARRILES));
+            IntVector maximos = segundo.rearrange(INVERTIR);
+            mezclarBitonica(primero.min(maximos)).intoArray(origen, inicio);
+            mezclarBitonica(primero.max(maximos)).intoArray(origen, inicio + CARRILES);
+        }
+        if (inicio < hasta) {
+            if (origen != datos) {
+                System.arraycopy(datos, inicio, origen, inicio, hasta - inicio);
+            }
+            MotorOrdenamiento.ordenarInsercion(origen, inicio, hasta);
+        }
+
+        for (int ancho = bloque; ancho < longitud; ancho <<= 1) {
+            for (int izquierda = desde; izquierda < hasta; izquierda += ancho << 1) {
+                int mitad = (int) Math.min((long) izquierda + ancho, hasta);
+                int fin = (int) Math.min((long) mitad + ancho, hasta);
+                // Sin mitad derecha, o mitades ya en orden: basta con copiar
+                if (mitad == fin || origen[mitad - 1] <= origen[mitad]) {
+                    System.arraycopy(origen, izquierda, destino, izquierda, fin - izquierda);
+                } else {
+                    mezclar(origen, izquierda, mitad, fin, destino);
+                }
+            }
+            int[] temporal = origen;
+            origen = destino;
+            destino = temporal;
+        }
+    }
+
+    /**
+     * Mezcla los tramos ordenados [inicio, mitad) y [mitad, fin) de origen
+     * en la misma posicion de destino
+     */
+    static void mezclar(int[] origen, int inicio, int mitad, int fin, int[] destino) {
+        int indiceIzq = inicio;
+        int indiceDer = mitad;
+        int indiceDestino = inicio;
+        if (mitad - inicio < CARRILES || fin - mitad < CARRILES) {
+            MotorOrdenamiento.mezclar(origen, inicio, mitad, origen, mitad, fin, destino, inicio);
+            return;
+        }
+
+        IntVector izquierda = IntVector.fromArray(ESPECIE, origen, indiceIzq);
+        IntVector derecha = IntVector.fromArray(ESPECIE, origen, indiceDer).rearrange(INVERTIR);
+        indiceIzq += CARRILES;
+        indiceDer += CARRILES;
+        mezclarBitonica(izquierda.min(derecha)).intoArray(destino, indiceDestino);
+        indiceDestino += CARRILES;
+        IntVector mayores = mezclarBitonica(izquierda.max(derecha));
+
+        while (indiceIzq + CARRILES <= mitad && indiceDer + CARRILES <= fin) {
+            IntVector siguiente;
+            if (origen[indiceIzq] <= origen[indiceDer]) {
+                siguiente = IntVector.fromArray(ESPECIE, origen, indiceIzq);
+                indiceIzq += CARRILES;
+            } else {
+                siguiente = IntVector.fromArray(ESPECIE, origen, indiceDer);
+                indiceDer += CARRILES;
+            }
+            siguiente = siguiente.rearrange(INVERTIR);
+            mezclarBitonica(mayores.min(siguiente)).intoArray(destino, indiceDestino);
+            indiceDestino += CARRILES;
+            mayores = mezclarBitonica(mayores.max(siguiente));
+        }
+
+        // Quedan el vector de mayores y el final de cada lado, todos ordenados
+        // y no menores que lo ya escrito: se mezclan de a tres en escalar
+        int[] pendientes = new int[CARRILES];
+        mayores.intoArray(pendientes, 0);
+        terminarEscalar(pendientes, origen, indiceIzq, mitad, indiceDer, fin, destino, indiceDestino);
+    }
+
+    /**
+     * Mezcla escalar de tres tramos ordenados: los CARRILES pendientes y el
+     * resto de cada lado. Cuando uno de los lados se agota queda una mezcla
+     * de dos tramos, y cuando se agotan los pendientes el resto se copia
+     */
+    private static void terminarEscalar(int[] pendientes, int[] origen, int indiceIzq, int finIzq,
+                                        int indiceDer, int finDer, int[] destino, int indiceDestino) {
+        int indicePendiente = 0;
+        while (indicePendiente < CARRILES) {
+            int pendiente = pendientes[indicePendiente];
+            boolean hayIzq = indiceIzq < finIzq;
+            boolean hayDer = indiceDer < finDer;
+            if (hayIzq && origen[indiceIzq] < pendiente
+                    && (!hayDer || origen[indiceIzq] <= origen[indiceDer])) {
+                destino[indiceDestino++] = origen[indiceIzq++];
+            } else if (hayDer && origen[indiceDer] < pendiente) {
+                destino[indiceDestino++] = origen[indiceDer++];
+            } else {
+                destino[indiceDestino++] = pendiente;
+                indicePendiente++;
+            }
+        }
+        MotorOrdenamiento.mezclar(origen, indiceIzq, finIzq, origen, indiceDer, finDer, destino, indiceDestino);
+    }
+
+    /**
+     * Red bitonica completa: ordena los CARRILES enteros de un vector
+     */
+    private static IntVector ordenarVector(IntVector valores) {
+        for (int etapa = 0; etapa < PAREJAS_ORDEN.length; etapa++) {
+            IntVector parejas = valores.rearrange(PAREJAS_ORDEN[etapa]);
+            valores = valores.min(parejas).blend(valores.max(parejas), MAXIMOS_ORDEN[etapa]);
+        }
+        return valores;
+    }
+
+    /**
+     * Red de mezcla bitonica: ordena un vector que es bitonico, como el
+     * minimo o el maximo carril a carril de un vector ascendente y otro
+     * descendente
+     */
+    private static IntVector mezclarBitonica(IntVector valores) {
+        for (int etapa = 0; etapa < PAREJAS_MEZCLA.length; etapa++) {
+            IntVector parejas = valores.rearrange(PAREJAS_MEZCLA[etapa]);
+            valores = valores.min(parejas).blend(valores.max(parejas), MAXIMOS_MEZCLA[etapa]);
+        }
+        return valores;
+    }
+
+    private static VectorMask<Integer> mascara(java.util.function.IntPredicate carril) {
+        boolean[] bits = new boolean[CARRILES];
+        for (int i = 0; i < CARRILES; i++) {
+            bits[i] = carril.test(i);
+        }
+        return VectorMask.fromArray(ESPECIE, bits, 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static VectorShuffle<Integer>[] crearPermutaciones(int cantidad) {
+        return (VectorShuffle<Integer>[]) new VectorShuffle<?>[cantidad];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static VectorMask<Integer>[] crearMascaras(int cantidad) {
+        return (VectorMask<Integer>[]) new VectorMask<?>[cantidad];
+    }
+}
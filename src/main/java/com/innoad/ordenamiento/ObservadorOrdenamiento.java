@@ -0,0 +1,16 @@
+package com.innoad.ordenamiento;
+
+/**
+ * Recibe una {@link TelemetriaOrdenamiento.Medicion} por cada ordenamiento
+ * completo. Se instala con {@link TelemetriaOrdenamiento#instalar}; se llama
+ * en el hilo que pidio el ordenamiento, al terminar, asi que debe ser
+ * rapido y seguro entre hilos.
+ */
+@FunctionalInterface
+public interface ObservadorOrdenamiento {
+
+    /**
+     * @param medicion Estrategia, elementos, tiempo, memoria y conteos del ordenamiento
+     */
+    void registrar(TelemetriaOrdenamiento.Medicion medicion);
+}
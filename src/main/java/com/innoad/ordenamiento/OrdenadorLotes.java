@@ -0,0 +1,163 @@
+package com.innoad.ordenamiento;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Ordena por separado cada segmento de un {@link LoteArreglos} sobre un
+ * ForkJoinPool propio. El lote se divide recursivamente por cantidad de
+ * elementos (no de segmentos) hasta un tamano de tarea, y los hilos libres
+ * roban las mitades pendientes, asi un lote con segmentos de tamanos muy
+ * distintos queda repartido de forma pareja.
+ * Cada tarea reserva un unico buffer auxiliar para todos sus segmentos, y el
+ * algoritmo de cada segmento se elige por su longitud: insercion para los
+ * muy cortos, conteo si el rango de valores es angosto, Merge Sort con el
+ * buffer compartido en general y Radix para los segmentos grandes.
+ */
+public class OrdenadorLotes implements AutoCloseable {
+
+    /** Cantidad de elementos por debajo de la cual una tarea ya no se divide */
+    public static final int ELEMENTOS_POR_TAREA_PREDETERMINADO = 1 << 15;
+
+    /** Longitud de segmento a partir de la cual se usa Radix en lugar de Merge Sort */
+    static final int UMBRAL_RADIX = 1 << 14;
+
+    private final ForkJoinPool pool;
+    private final int elementosPorTarea;
+
+    /**
+     * Crea un ordenador con un hilo por procesador disponible y el tamano de tarea predeterminado
+     */
+    public OrdenadorLotes() {
+        this(Runtime.getRuntime().availableProcessors(), ELEMENTOS_POR_TAREA_PREDETERMINADO);
+    }
+
+    /**
+     * Crea un ordenador con un pool propio
+     * @param paralelismo Cantidad de hilos del pool
+     * @param elementosPorTarea Cantidad de elementos por debajo de la cual no se divide mas
+     */
+    public OrdenadorLotes(int paralelismo, int elementosPorTarea) {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("El paralelismo debe ser mayor a 0: " + paralelismo);
+        }
+        if (elementosPorTarea < 1) {
+            throw new IllegalArgumentException("Los elementos por tarea deben ser al menos 1: " + elementosPorTarea);
+        }
+        this.pool = new ForkJoinPool(paralelismo);
+        this.elementosPorTarea = elementosPorTarea;
+    }
+
+    /**
+     * Ordena ascendentemente cada segmento del lote, en sitio
+     * @param lote Lote a ordenar
+     */
+    public void ordenar(LoteArreglos lote) {
+        if (lote.cantidadSegmentos() == 0) {
+            return;
+        }
+        pool.invoke(new TareaLote(lote, 0, lote.cantidadSegmentos()));
+    }
+
+    /**
+     * Empaqueta los arreglos en un lote y ordena cada uno
+     * @param arreglos Arreglos a ordenar (no se modifican)
+     * @return Lote con los segmentos ordenados, en el mismo orden que la lista
+     */
+    public LoteArreglos ordenar(List<int[]> arreglos) {
+        LoteArreglos lote = LoteArreglos.de(arreglos);
+        ordenar(lote);
+        return lote;
+    }
+
+    /**
+     * @return Cantidad de hilos del pool
+     */
+    public int obtenerParalelismo() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * @return Cantidad de elementos por tarea configurada
+     */
+    public int obtenerElementosPorTarea() {
+        return elementosPorTarea;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Ordena el rango [desde, hasta) eligiendo el algoritmo segun su longitud
+     * @param datos Buffer del lote
+     * @param desde Indice inicial, inclusivo
+     * @param hasta Indice final, exclusivo
+     * @param auxiliar Buffer de trabajo de al menos hasta - desde posiciones si
+     *                 el segmento es menor a UMBRAL_RADIX
+     */
+    static void ordenarSegmento(int[] datos, int desde, int hasta, int[] auxiliar) {
+        int longitud = hasta - desde;
+        if (longitud <= MotorOrdenamiento.UMBRAL_INSERCION) {
+            MotorOrdenamiento.ordenarInsercion(datos, desde, hasta);
+            return;
+        }
+        if (MotorOrdenamiento.intentarConteo(datos, desde, hasta, MotorOrdenamiento.RANGO_MAXIMO_CONTEO_PREDETERMINADO)) {
+            return;
+        }
+        if (longitud >= UMBRAL_RADIX) {
+            OrdenamientoRadix.ordenar(datos, desde, hasta);
+            return;
+        }
+
+        System.arraycopy(datos, desde, auxiliar, 0, longitud);
+        MotorOrdenamiento.mergeSort(auxiliar, 0, datos, desde, longitud);
+    }
+
+    /**
+     * Tarea que ordena los segmentos [primero, ultimo) del lote
+     */
+    private class TareaLote extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        // Las tareas de ForkJoin no se serializan: el lote no necesita serlo
+        private final transient LoteArreglos lote;
+        private final int primero;
+        private final int ultimo;
+
+        TareaLote(LoteArreglos lote, int primero, int ultimo) {
+            this.lote = lote;
+            this.primero = primero;
+            this.ultimo = ultimo;
+        }
+
+        @Override
+        protected void compute() {
+            int inicio = lote.inicio(primero);
+            int elementos = lote.inicio(ultimo) - inicio;
+            if (ultimo - primero > 1 && elementos > elementosPorTarea) {
+                // Cortar en el segmento donde se alcanza la mitad de los elementos
+                int corte = lote.buscarSegmento(primero, ultimo, inicio + (elementos >>> 1));
+                corte = Math.max(primero + 1, Math.min(corte, ultimo - 1));
+                invokeAll(new TareaLote(lote, primero, corte), new TareaLote(lote, corte, ultimo));
+                return;
+            }
+
+            // Un unico buffer auxiliar para todos los segmentos de la tarea
+            int maximo = 0;
+            for (int segmento = primero; segmento < ultimo; segmento++) {
+                int longitud = lote.inicio(segmento + 1) - lote.inicio(segmento);
+                if (longitud < UMBRAL_RADIX) {
+                    maximo = Math.max(maximo, longitud);
+                }
+            }
+            int[] auxiliar = new int[maximo];
+            int[] datos = lote.obtenerDatos();
+            for (int segmento = primero; segmento < ultimo; segmento++) {
+                ordenarSegmento(datos, lote.inicio(segmento), lote.inicio(segmento + 1), auxiliar);
+            }
+        }
+    }
+}
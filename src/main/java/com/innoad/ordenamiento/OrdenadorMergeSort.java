@@ -2,9 +2,9 @@
 package com.innoad.ordenamiento;
 
 import java.io.*;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 import java.util.Scanner;
 
 
@@ -13,6 +13,7 @@ public class OrdenadorMergeSort {
     private static final String NOMBRE_ARCHIVO = "numeros_aleatorios.txt";
     private static final int NUMERO_MINIMO = 100;
     private static final int NUMERO_MAXIMO = 999;
+    private static final int CANTIDAD_VISTA_PREVIA = 10;
 
     public static void main(String[] args) {
         Scanner scanner = new Scanner(System.in);
@@ -45,9 +46,9 @@ public class OrdenadorMergeSort {
             List<Integer> numerosLeidos = leerNumerosDesdeArchivo(NOMBRE_ARCHIVO);
             System.out.println("[OK] Numeros leidos desde el archivo: " + numerosLeidos.size() + " elementos");
 
-            // Mostrar primeros 10 numeros originales (si hay al menos 10)
-            System.out.println("\n--- NUMEROS ORIGINALES (primeros 10) ---");
-            mostrarPrimerosElementos(numerosLeidos, 10);
+            // Mostrar los primeros numeros originales
+            System.out.println("\n--- NUMEROS ORIGINALES (primeros " + CANTIDAD_VISTA_PREVIA + ") ---");
+            mostrarPrimerosElementos(numerosLeidos, CANTIDAD_VISTA_PREVIA);
 
             // Iniciar cronometro
             long tiempoInicio = System.currentTimeMillis();
@@ -62,8 +63,8 @@ public class OrdenadorMergeSort {
 
             // Mostrar resultados
             System.out.println("[OK] Ordenamiento completado");
-            System.out.println("\n--- NUMEROS ORDENADOS (primeros 10) ---");
-            mostrarPrimerosElementos(numerosOrdenados, 10);
+            System.out.println("\n--- NUMEROS ORDENADOS (primeros " + CANTIDAD_VISTA_PREVIA + ") ---");
+            mostrarPrimerosElementos(numerosOrdenados, CANTIDAD_VISTA_PREVIA);
 
             System.out.println("\n==============================================================");
             System.out.println("  TIEMPO DE ORDENAMIENTO: " + tiempoTranscurrido + " milisegundos");
@@ -91,22 +92,21 @@ public class OrdenadorMergeSort {
     }
 
     /**
-     * Genera una lista de numeros enteros aleatorios
+     * Genera una lista de numeros enteros aleatorios con {@link GeneradorDatos}.
+     * La semilla se muestra para poder repetir exactamente la misma prueba
      * @param cantidad Cantidad de numeros a generar
      * @return Lista con numeros aleatorios entre 100 y 999
      */
     private static List<Integer> generarNumerosAleatorios(int cantidad) {
-        List<Integer> numeros = new ArrayList<>();
-        Random random = new Random();
-
-        System.out.println("\nGenerando " + cantidad + " numeros aleatorios...");
-
-        for (int i = 0; i < cantidad; i++) {
-            int numeroAleatorio = random.nextInt(NUMERO_MAXIMO - NUMERO_MINIMO + 1) + NUMERO_MINIMO;
-            numeros.add(numeroAleatorio);
+        long semilla = System.nanoTime();
+        System.out.println("\nGenerando " + cantidad + " numeros aleatorios (semilla " + semilla + ")...");
+
+        GeneradorDatos.Configuracion configuracion = GeneradorDatos.Configuracion.de(GeneradorDatos.Perfil.UNIFORME)
+                .conRango(NUMERO_MINIMO, NUMERO_MAXIMO)
+                .conSemilla(semilla);
+        try (GeneradorDatos generador = new GeneradorDatos()) {
+            return MotorOrdenamiento.aLista(generador.generarEnteros(configuracion, cantidad));
         }
-
-        return numeros;
     }
 
     /**
@@ -115,10 +115,9 @@ public class OrdenadorMergeSort {
      * @param nombreArchivo Nombre del archivo donde se guardaran los numeros
      */
     private static void guardarNumerosEnArchivo(List<Integer> numeros, String nombreArchivo) {
-        try (BufferedWriter escritor = new BufferedWriter(new FileWriter(nombreArchivo))) {
+        try (EscritorNumeros escritor = EscritorNumeros.texto(Paths.get(nombreArchivo))) {
             for (Integer numero : numeros) {
-                escritor.write(numero.toString());
-                escritor.newLine();
+                escritor.escribir(numero);
             }
         } catch (IOException e) {
             System.err.println("Error al guardar numeros en el archivo: " + e.getMessage());
@@ -126,97 +125,29 @@ public class OrdenadorMergeSort {
     }
 
     /**
-     * Lee numeros desde un archivo de texto y los almacena en una lista
+     * Lee numeros desde un archivo y los almacena en una lista.
+     * El formato (texto o binario) se detecta por la cabecera del archivo
      * @param nombreArchivo Nombre del archivo a leer
      * @return Lista con los numeros leidos del archivo
      */
     private static List<Integer> leerNumerosDesdeArchivo(String nombreArchivo) {
-        List<Integer> numeros = new ArrayList<>();
-
-        try (BufferedReader lector = new BufferedReader(new FileReader(nombreArchivo))) {
-            String linea;
-            while ((linea = lector.readLine()) != null) {
-                numeros.add(Integer.parseInt(linea.trim()));
-            }
+        try {
+            return MotorOrdenamiento.aLista(ArchivoBinarioNumeros.leerNumeros(Paths.get(nombreArchivo)));
         } catch (IOException e) {
             System.err.println("Error al leer numeros del archivo: " + e.getMessage());
+            return new ArrayList<>();
         }
-
-        return numeros;
     }
 
     /**
      * Implementacion del algoritmo Merge Sort
-     * Divide la lista en sublistas hasta tener elementos individuales,
-     * luego las mezcla de forma ordenada
+     * Adaptador sobre {@link MotorOrdenamiento}, que ordena un arreglo int[]
+     * en sitio con un unico buffer auxiliar
      * @param lista Lista de numeros a ordenar
      * @return Lista ordenada
      */
     private static List<Integer> mergeSort(List<Integer> lista) {
-        // Caso base: si la lista tiene 1 o menos elementos, ya esta ordenada
-        if (lista.size() <= 1) {
-            return lista;
-        }
-
-        // Dividir la lista en dos mitades
-        int puntoMedio = lista.size() / 2;
-        List<Integer> izquierda = new ArrayList<>();
-        List<Integer> derecha = new ArrayList<>();
-
-        // Llenar la sublista izquierda
-        for (int i = 0; i < puntoMedio; i++) {
-            izquierda.add(lista.get(i));
-        }
-
-        // Llenar la sublista derecha
-        for (int i = puntoMedio; i < lista.size(); i++) {
-            derecha.add(lista.get(i));
-        }
-
-        // Aplicar recursivamente merge sort a ambas mitades
-        izquierda = mergeSort(izquierda);
-        derecha = mergeSort(derecha);
-
-        // Mezclar las dos mitades ordenadas
-        return mezclar(izquierda, derecha);
-    }
-
-    /**
-     * Mezcla dos listas ordenadas en una sola lista ordenada
-     * @param izquierda Primera lista ordenada
-     * @param derecha Segunda lista ordenada
-     * @return Lista resultante de mezclar ambas listas de forma ordenada
-     */
-    private static List<Integer> mezclar(List<Integer> izquierda, List<Integer> derecha) {
-        List<Integer> resultado = new ArrayList<>();
-
-        int indiceIzq = 0;
-        int indiceDer = 0;
-
-        // Comparar elementos de ambas listas y agregar el menor al resultado
-        while (indiceIzq < izquierda.size() && indiceDer < derecha.size()) {
-            if (izquierda.get(indiceIzq) <= derecha.get(indiceDer)) {
-                resultado.add(izquierda.get(indiceIzq));
-                indiceIzq++;
-            } else {
-                resultado.add(derecha.get(indiceDer));
-                indiceDer++;
-            }
-        }
-
-        // Agregar elementos restantes de la lista izquierda
-        while (indiceIzq < izquierda.size()) {
-            resultado.add(izquierda.get(indiceIzq));
-            indiceIzq++;
-        }
-
-        // Agregar elementos restantes de la lista derecha
-        while (indiceDer < derecha.size()) {
-            resultado.add(derecha.get(indiceDer));
-            indiceDer++;
-        }
-
-        return resultado;
+        return MotorOrdenamiento.ordenar(lista);
     }
 
     /**
@@ -229,8 +160,8 @@ public class OrdenadorMergeSort {
         for (int i = 0; i < limite; i++) {
             System.out.print(lista.get(i) + " ");
         }
-        if (lista.size() > cantidad) {
-            System.out.print("... (y " + (lista.size() - cantidad) + " mas)");
+        if (lista.size() > limite) {
+            System.out.print("... (y " + (lista.size() - limite) + " mas)");
         }
         System.out.println();
     }
@@ -240,14 +171,12 @@ public class OrdenadorMergeSort {
      * @param lista Lista de numeros a mostrar
      */
     private static void mostrarTodosLosNumeros(List<Integer> lista) {
-        int contador = 0;
-        for (Integer numero : lista) {
-            System.out.print(numero + " ");
-            contador++;
-            if (contador % 10 == 0) {
-                System.out.println();
+        try (EscritorNumeros escritor = EscritorNumeros.consola(10)) {
+            for (Integer numero : lista) {
+                escritor.escribir(numero);
             }
+        } catch (IOException e) {
+            System.err.println("Error al mostrar los numeros: " + e.getMessage());
         }
-        System.out.println();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,239 @@
+package com.innoad.ordenamiento;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Merge Sort paralelo sobre ForkJoinPool.
+ * La division se hace de forma recursiva hasta el umbral secuencial, donde
+ * cada tramo se ordena con {@link MotorOrdenamiento}. La mezcla tambien es
+ * paralela: la mitad mas grande se parte por su punto medio y la otra se
+ * corta con una busqueda binaria, asi la ultima mezcla O(n) no queda en un
+ * solo hilo.
+ */
+public class OrdenadorParalelo implements AutoCloseable {
+
+    /** Tamano de tramo por debajo del cual se ordena y mezcla secuencialmente */
+    public static final int UMBRAL_SECUENCIAL_PREDETERMINADO = 1 << 13;
+
+    private final ForkJoinPool pool;
+    private final int umbralSecuencial;
+
+    /**
+     * Crea un ordenador con un hilo por procesador disponible y el umbral predeterminado
+     */
+    public OrdenadorParalelo() {
+        this(Runtime.getRuntime().availableProcessors(), UMBRAL_SECUENCIAL_PREDETERMINADO);
+    }
+
+    /**
+     * Crea un ordenador con un pool propio
+     * @param paralelismo Cantidad de hilos del pool
+     * @param umbralSecuencial Tamano minimo de tramo para seguir dividiendo en paralelo
+     */
+    public OrdenadorParalelo(int paralelismo, int umbralSecuencial) {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("El paralelismo debe ser mayor a 0: " + paralelismo);
+        }
+        if (umbralSecuencial < 2) {
+            throw new IllegalArgumentException("El umbral secuencial debe ser al menos 2: " + umbralSecuencial);
+        }
+        this.pool = new ForkJoinPool(paralelismo);
+        this.umbralSecuencial = umbralSecuencial;
+    }
+
+    /**
+     * Ordena ascendentemente todo el arreglo
+     * @param datos Arreglo a ordenar (se modifica en sitio)
+     */
+    public void ordenar(int[] datos) {
+        ordenar(datos, 0, datos.length);
+    }
+
+    /**
+     * Ordena ascendentemente el rango [desde, hasta) del arreglo
+     * @param datos Arreglo a ordenar (se modifica en sitio)
+     * @param desde Indice inicial, inclusivo
+     * @param hasta Indice final, exclusivo
+     */
+    public void ordenar(int[] datos, int desde, int hasta) {
+        MotorOrdenamiento.verificarRango(datos.length, desde, hasta);
+        TelemetriaOrdenamiento.Medidor medidor = TelemetriaOrdenamiento.iniciar(hasta - desde);
+        try {
+            ordenar(datos, desde, hasta, medidor);
+        } finally {
+            medidor.terminar();
+        }
+    }
+
+    private void ordenar(int[] datos, int desde, int hasta, TelemetriaOrdenamiento.Medidor medidor) {
+        int longitud = hasta - desde;
+        if (longitud <= umbralSecuencial) {
+            MotorOrdenamiento.ordenar(datos, desde, hasta, MotorOrdenamiento.RANGO_MAXIMO_CONTEO_PREDETERMINADO, medidor);
+            return;
+        }
+        // Con un rango de valores angosto el conteo secuencial supera a la mezcla paralela
+        if (MotorOrdenamiento.intentarConteo(datos, desde, hasta, MotorOrdenamiento.RANGO_MAXIMO_CONTEO_PREDETERMINADO)) {
+            medidor.fijarEstrategia(Algoritmo.CONTEO.name());
+            return;
+        }
+
+        medidor.fijarEstrategia(SelectorAlgoritmo.Estrategia.PARALELO.name());
+        int[] auxiliar = new int[longitud];
+        System.arraycopy(datos, desde, auxiliar, 0, longitud);
+        pool.invoke(new TareaOrdenar(auxiliar, 0, datos, desde, longitud));
+    }
+
+    /**
+     * @return Cantidad de hilos del pool
+     */
+    public int obtenerParalelismo() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * @return Umbral secuencial configurado
+     */
+    public int obtenerUmbralSecuencial() {
+        return umbralSecuencial;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Tarea que ordena un tramo con el mismo esquema de intercambio de
+     * origen y destino que {@link MotorOrdenamiento#mergeSort}
+     */
+    private class TareaOrdenar extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] origen;
+        private final int inicioOrigen;
+        private final int[] destino;
+        private final int inicioDestino;
+        private final int longitud;
+
+        TareaOrdenar(int[] origen, int inicioOrigen, int[] destino, int inicioDestino, int longitud) {
+            this.origen = origen;
+            this.inicioOrigen = inicioOrigen;
+            this.destino = destino;
+            this.inicioDestino = inicioDestino;
+            this.longitud = longitud;
+        }
+
+        @Override
+        protected void compute() {
+            if (longitud <= umbralSecuencial) {
+                MotorOrdenamiento.mergeSort(origen, inicioOrigen, destino, inicioDestino, longitud);
+                return;
+            }
+
+            // Ordenar ambas mitades en paralelo dentro de origen
+            int mitad = longitud >>> 1;
+            invokeAll(new TareaOrdenar(destino, inicioDestino, origen, inicioOrigen, mitad),
+                    new TareaOrdenar(destino, inicioDestino + mitad, origen, inicioOrigen + mitad, longitud - mitad));
+
+            if (origen[inicioOrigen + mitad - 1] <= origen[inicioOrigen + mitad]) {
+                System.arraycopy(origen, inicioOrigen, destino, inicioDestino, longitud);
+                return;
+            }
+
+            new TareaMezclar(origen, inicioOrigen, inicioOrigen + mitad,
+                    inicioOrigen + mitad, inicioOrigen + longitud,
+                    destino, inicioDestino).compute();
+        }
+    }
+
+    /**
+     * Tarea que mezcla dos tramos ordenados y contiguos de origen en destino.
+     * Conserva la estabilidad: ante empates, los elementos izquierdos van primero.
+     */
+    private class TareaMezclar extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] origen;
+        private final int inicioIzq;
+        private final int finIzq;
+        private final int inicioDer;
+        private final int finDer;
+        private final int[] destino;
+        private final int inicioDestino;
+
+        TareaMezclar(int[] origen, int inicioIzq, int finIzq, int inicioDer, int finDer,
+                     int[] destino, int inicioDestino) {
+            this.origen = origen;
+            this.inicioIzq = inicioIzq;
+            this.finIzq = finIzq;
+            this.inicioDer = inicioDer;
+            this.finDer = finDer;
+            this.destino = destino;
+            this.inicioDestino = inicioDestino;
+        }
+
+        @Override
+        protected void compute() {
+            int longitudIzq = finIzq - inicioIzq;
+            int longitudDer = finDer - inicioDer;
+            if (longitudIzq + longitudDer <= umbralSecuencial || longitudIzq == 0 || longitudDer == 0) {
+                MotorOrdenamiento.mezclar(origen, inicioIzq, finIzq, origen, inicioDer, finDer,
+                        destino, inicioDestino);
+                return;
+            }
+
+            int corteIzq;
+            int corteDer;
+            if (longitudIzq >= longitudDer) {
+                // Partir la izquierda; en la derecha va antes todo lo estrictamente menor
+                corteIzq = (inicioIzq + finIzq) >>> 1;
+                corteDer = buscarPrimeroMayorOIgual(origen, inicioDer, finDer, origen[corteIzq]);
+            } else {
+                // Partir la derecha; en la izquierda va antes todo lo menor o igual
+                corteDer = (inicioDer + finDer) >>> 1;
+                corteIzq = buscarPrimeroMayor(origen, inicioIzq, finIzq, origen[corteDer]);
+            }
+
+            int inicioSegundaParte = inicioDestino + (corteIzq - inicioIzq) + (corteDer - inicioDer);
+            invokeAll(new TareaMezclar(origen, inicioIzq, corteIzq, inicioDer, corteDer, destino, inicioDestino),
+                    new TareaMezclar(origen, corteIzq, finIzq, corteDer, finDer, destino, inicioSegundaParte));
+        }
+    }
+
+    /**
+     * Busqueda binaria del primer indice cuyo valor es mayor o igual a la clave
+     * @return Indice en [desde, hasta]
+     */
+    static int buscarPrimeroMayorOIgual(int[] datos, int desde, int hasta, int clave) {
+        int bajo = desde;
+        int alto = hasta;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (datos[medio] < clave) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    /**
+     * Busqueda binaria del primer indice cuyo valor es estrictamente mayor a la clave
+     * @return Indice en [desde, hasta]
+     */
+    static int buscarPrimeroMayor(int[] datos, int desde, int hasta, int clave) {
+        int bajo = desde;
+        int alto = hasta;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (datos[medio] <= clave) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+}
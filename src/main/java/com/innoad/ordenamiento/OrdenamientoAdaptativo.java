@@ -0,0 +1,556 @@
+package com.innoad.ordenamiento;
+
+/**
+ * Ordenamiento adaptativo al estilo TimSort para datos casi ordenados.
+ * Recorre el arreglo buscando corridas naturales ascendentes o estrictamente
+ * descendentes (estas se invierten en sitio), alarga las corridas cortas con
+ * insercion binaria hasta un largo minimo y las va mezclando con una pila
+ * que mantiene largos decrecientes, de modo que la mezcla queda balanceada.
+ * Las mezclas usan galope: cuando un tramo gana muchas veces seguidas se
+ * busca exponencialmente hasta donde sigue ganando y se copia en bloque.
+ * Una entrada ya ordenada (o invertida) se resuelve en una sola pasada O(n).
+ * Es estable, igual que la mezcla de Merge Sort.
+ */
+public final class OrdenamientoAdaptativo {
+
+    /** Por debajo de este largo no se buscan corridas: todo va por insercion binaria */
+    static final int LARGO_MINIMO_MEZCLA = 32;
+
+    /** Victorias seguidas de un mismo tramo a partir de las cuales se empieza a galopar */
+    static final int UMBRAL_GALOPE_INICIAL = 7;
+
+    /** Suficiente para 2^31 elementos con corridas que respetan las invariantes de la pila */
+    private static final int MAXIMO_CORRIDAS = 49;
+
+    private OrdenamientoAdaptativo() {
+    }
+
+    /**
+     * Ordena ascendentemente todo el arreglo
+     * @param datos Arreglo a ordenar (se modifica en sitio)
+     */
+    public static void ordenar(int[] datos) {
+        ordenar(datos, 0, datos.length);
+    }
+
+    /**
+     * Ordena ascendentemente el rango [desde, hasta) del arreglo
+     * @param datos Arreglo a ordenar (se modifica en sitio)
+     * @param desde Indice inicial, inclusivo
+     * @param hasta Indice final, exclusivo
+     */
+    public static void ordenar(int[] datos, int desde, int hasta) {
+        MotorOrdenamiento.verificarRango(datos.length, desde, hasta);
+        int restantes = hasta - desde;
+        if (restantes < 2) {
+            return;
+        }
+
+        // Arreglos pequenos: una corrida inicial mas insercion binaria, sin mezclas
+        if (restantes < LARGO_MINIMO_MEZCLA) {
+            int largoInicial = contarCorridaYAscender(datos, desde, hasta);
+            insercionBinaria(datos, desde, hasta, desde + largoInicial);
+            return;
+        }
+
+        Mezclador mezclador = new Mezclador(datos, restantes);
+        int largoMinimo = calcularLargoMinimoCorrida(restantes);
+        int inicio = desde;
+        do {
+            int largoCorrida = contarCorridaYAscender(datos, inicio, hasta);
+
+            // Alargar las corridas cortas hasta el largo minimo
+            if (largoCorrida < largoMinimo) {
+                int forzado = Math.min(restantes, largoMinimo);
+                insercionBinaria(datos, inicio, inicio + forzado, inicio + largoCorrida);
+                largoCorrida = forzado;
+            }
+
+            mezclador.apilarCorrida(inicio, largoCorrida);
+            mezclador.mezclarSegunInvariantes();
+
+            inicio += largoCorrida;
+            restantes -= largoCorrida;
+        } while (restantes != 0);
+
+        mezclador.mezclarTodo();
+    }
+
+    /**
+     * Largo minimo de corrida: entre LARGO_MINIMO_MEZCLA / 2 y LARGO_MINIMO_MEZCLA,
+     * elegido para que n / largo sea una potencia de dos o un poco menos, lo
+     * que deja mezclas finales balanceadas
+     * @param longitud Cantidad de elementos a ordenar
+     */
+    static int calcularLargoMinimoCorrida(int longitud) {
+        int bitsDescartados = 0;
+        while (longitud >= LARGO_MINIMO_MEZCLA) {
+            bitsDescartados |= longitud & 1;
+            longitud >>= 1;
+        }
+        return longitud + bitsDescartados;
+    }
+
+    /**
+     * Mide la corrida que empieza en desde; si es estrictamente descendente
+     * la invierte para que quede ascendente. Se exige descenso estricto para
+     * no invertir elementos iguales y conservar la estabilidad.
+     * @return Largo de la corrida
+     */
+    static int contarCorridaYAscender(int[] datos, int desde, int hasta) {
+        int fin = desde + 1;
+        if (fin == hasta) {
+            return 1;
+        }
+
+        if (datos[fin++] < datos[desde]) {
+            while (fin < hasta && datos[fin] < datos[fin - 1]) {
+                fin++;
+            }
+            invertir(datos, desde, fin);
+        } else {
+            while (fin < hasta && datos[fin] >= datos[fin - 1]) {
+                fin++;
+            }
+        }
+        return fin - desde;
+    }
+
+    /**
+     * Insercion binaria del rango [desde, hasta) sabiendo que [desde, ordenadoHasta)
+     * ya esta ordenado. Busca la posicion con busqueda binaria (despues de los
+     * iguales, para ser estable) y desplaza el bloque con arraycopy.
+     */
+    static void insercionBinaria(int[] datos, int desde, int hasta, int ordenadoHasta) {
+        if (ordenadoHasta == desde) {
+            ordenadoHasta++;
+        }
+        for (int i = ordenadoHasta; i < hasta; i++) {
+            int actual = datos[i];
+            int izquierda = desde;
+            int derecha = i;
+            while (izquierda < derecha) {
+                int medio = (izquierda + derecha) >>> 1;
+                if (actual < datos[medio]) {
+                    derecha = medio;
+                } else {
+                    izquierda = medio + 1;
+                }
+            }
+            System.arraycopy(datos, izquierda, datos, izquierda + 1, i - izquierda);
+            datos[izquierda] = actual;
+        }
+    }
+
+    private static void invertir(int[] datos, int desde, int hasta) {
+        hasta--;
+        while (desde < hasta) {
+            int temporal = datos[desde];
+            datos[desde++] = datos[hasta];
+            datos[hasta--] = temporal;
+        }
+    }
+
+    /**
+     * Galope hacia la izquierda: posicion donde se insertaria clave en el
+     * tramo ordenado [base, base + largo), antes de los elementos iguales.
+     * Empieza en base + pista y avanza con saltos 1, 3, 7, ... antes de la
+     * busqueda binaria, asi el costo depende de la distancia y no del largo.
+     * @return Cantidad de elementos del tramo menores que clave
+     */
+    static int galoparIzquierda(int clave, int[] datos, int base, int largo, int pista) {
+        int anterior = 0;
+        int desplazamiento = 1;
+        if (clave > datos[base + pista]) {
+            // Saltar hacia la derecha hasta datos[base+pista+anterior] < clave <= datos[base+pista+desplazamiento]
+            int maximo = largo - pista;
+            while (desplazamiento < maximo && clave > datos[base + pista + desplazamiento]) {
+                anterior = desplazamiento;
+                desplazamiento = (desplazamiento << 1) + 1;
+                if (desplazamiento <= 0) {
+                    desplazamiento = maximo;
+                }
+            }
+            desplazamiento = Math.min(desplazamiento, maximo);
+            anterior += pista;
+            desplazamiento += pista;
+        } else {
+            // Saltar hacia la izquierda hasta datos[base+pista-desplazamiento] < clave <= datos[base+pista-anterior]
+            int maximo = pista + 1;
+            while (desplazamiento < maximo && clave <= datos[base + pista - desplazamiento]) {
+                anterior = desplazamiento;
+                desplazamiento = (desplazamiento << 1) + 1;
+                if (desplazamiento <= 0) {
+                    desplazamiento = maximo;
+                }
+            }
+            desplazamiento = Math.min(desplazamiento, maximo);
+            int temporal = anterior;
+            anterior = pista - desplazamiento;
+            desplazamiento = pista - temporal;
+        }
+
+        // Busqueda binaria en (anterior, desplazamiento]
+        anterior++;
+        while (anterior < desplazamiento) {
+            int medio = anterior + ((desplazamiento - anterior) >>> 1);
+            if (clave > datos[base + medio]) {
+                anterior = medio + 1;
+            } else {
+                desplazamiento = medio;
+            }
+        }
+        return desplazamiento;
+    }
+
+    /**
+     * Igual que {@link #galoparIzquierda} pero devuelve la posicion despues
+     * de los elementos iguales a clave
+     * @return Cantidad de elementos del tramo menores o iguales que clave
+     */
+    static int galoparDerecha(int clave, int[] datos, int base, int largo, int pista) {
+        int anterior = 0;
+        int desplazamiento = 1;
+        if (clave < datos[base + pista]) {
+            int maximo = pista + 1;
+            while (desplazamiento < maximo && clave < datos[base + pista - desplazamiento]) {
+                anterior = desplazamiento;
+                desplazamiento = (desplazamiento << 1) + 1;
+                if (desplazamiento <= 0) {
+                    desplazamiento = maximo;
+                }
+            }
+            desplazamiento = Math.min(desplazamiento, maximo);
+            int temporal = anterior;
+            anterior = pista - desplazamiento;
+            desplazamiento = pista - temporal;
+        } else {
+            int maximo = largo - pista;
+            while (desplazamiento < maximo && clave >= datos[base + pista + desplazamiento]) {
+                anterior = desplazamiento;
+                desplazamiento = (desplazamiento << 1) + 1;
+                if (desplazamiento <= 0) {
+                    desplazamiento = maximo;
+                }
+            }
+            desplazamiento = Math.min(desplazamiento, maximo);
+            anterior += pista;
+            desplazamiento += pista;
+        }
+
+        anterior++;
+        while (anterior < desplazamiento) {
+            int medio = anterior + ((desplazamiento - anterior) >>> 1);
+            if (clave < datos[base + medio]) {
+                desplazamiento = medio;
+            } else {
+                anterior = medio + 1;
+            }
+        }
+        return desplazamiento;
+    }
+
+    /**
+     * Pila de corridas pendientes y estado de las mezclas de una llamada.
+     * El buffer auxiliar crece a demanda: nunca necesita mas que la mitad
+     * del arreglo, porque siempre se copia el tramo mas corto.
+     */
+    private static final class Mezclador {
+
+        private final int[] datos;
+        private final int[] inicios = new int[MAXIMO_CORRIDAS];
+        private final int[] largos = new int[MAXIMO_CORRIDAS];
+        private int corridas;
+        private int[] auxiliar;
+        private int umbralGalope = UMBRAL_GALOPE_INICIAL;
+
+        Mezclador(int[] datos, int longitud) {
+            this.datos = datos;
+            this.auxiliar = new int[Math.min(256, longitud >>> 1)];
+        }
+
+        void apilarCorrida(int inicio, int largo) {
+            inicios[corridas] = inicio;
+            largos[corridas] = largo;
+            corridas++;
+        }
+
+        /**
+         * Mezcla hasta que las corridas X, Y, Z, W del tope de la pila cumplan
+         * largo(Y) > largo(X) y largo(Z) > largo(Y) + largo(X), revisando
+         * tambien W para que la invariante se cumpla en toda la pila
+         */
+        void mezclarSegunInvariantes() {
+            while (corridas > 1) {
+                int n = corridas - 2;
+                if ((n > 0 && largos[n - 1] <= largos[n] + largos[n + 1])
+                        || (n > 1 && largos[n - 2] <= largos[n] + largos[n - 1])) {
+                    if (largos[n - 1] < largos[n + 1]) {
+                        n--;
+                    }
+                } else if (largos[n] > largos[n + 1]) {
+                    break;
+                }
+                mezclarEn(n);
+            }
+        }
+
+        /**
+         * Mezcla todas las corridas restantes hasta dejar una sola
+         */
+        void mezclarTodo() {
+            while (corridas > 1) {
+                int n = corridas - 2;
+                if (n > 0 && largos[n - 1] < largos[n + 1]) {
+                    n--;
+                }
+                mezclarEn(n);
+            }
+        }
+
+        /**
+         * Mezcla las corridas i e i + 1 de la pila
+         */
+        private void mezclarEn(int i) {
+            int inicio1 = inicios[i];
+            int largo1 = largos[i];
+            int inicio2 = inicios[i + 1];
+            int largo2 = largos[i + 1];
+
+            largos[i] = largo1 + largo2;
+            if (i == corridas - 3) {
+                inicios[i + 1] = inicios[i + 2];
+                largos[i + 1] = largos[i + 2];
+            }
+            corridas--;
+
+            // Los elementos del inicio de la primera corrida que ya son menores
+            // que toda la segunda no se mueven
+            int saltados = galoparDerecha(datos[inicio2], datos, inicio1, largo1, 0);
+            inicio1 += saltados;
+            largo1 -= saltados;
+            if (largo1 == 0) {
+                return;
+            }
+
+            // Igual con el final de la segunda corrida
+            largo2 = galoparIzquierda(datos[inicio1 + largo1 - 1], datos, inicio2, largo2, largo2 - 1);
+            if (largo2 == 0) {
+                return;
+            }
+
+            if (largo1 <= largo2) {
+                mezclarDesdeAbajo(inicio1, largo1, inicio2, largo2);
+            } else {
+                mezclarDesdeArriba(inicio1, largo1, inicio2, largo2);
+            }
+        }
+
+        /**
+         * Mezcla copiando la primera corrida (la mas corta) al auxiliar y
+         * escribiendo de izquierda a derecha
+         */
+        private void mezclarDesdeAbajo(int inicio1, int largo1, int inicio2, int largo2) {
+            int[] arreglo = datos;
+            int[] temporal = asegurarAuxiliar(largo1);
+            System.arraycopy(arreglo, inicio1, temporal, 0, largo1);
+
+            int cursor1 = 0;
+            int cursor2 = inicio2;
+            int destino = inicio1;
+
+            // Por el recorte previo el primero de la segunda corrida va antes que todo
+            arreglo[destino++] = arreglo[cursor2++];
+            if (--largo2 == 0) {
+                System.arraycopy(temporal, cursor1, arreglo, destino, largo1);
+                return;
+            }
+            if (largo1 == 1) {
+                System.arraycopy(arreglo, cursor2, arreglo, destino, largo2);
+                arreglo[destino + largo2] = temporal[cursor1];
+                return;
+            }
+
+            int galope = umbralGalope;
+            externo:
+            while (true) {
+                int victorias1 = 0;
+                int victorias2 = 0;
+
+                // Mezcla normal mientras ninguna corrida gane seguido
+                do {
+                    if (arreglo[cursor2] < temporal[cursor1]) {
+                        arreglo[destino++] = arreglo[cursor2++];
+                        victorias2++;
+                        victorias1 = 0;
+                        if (--largo2 == 0) {
+                            break externo;
+                        }
+                    } else {
+                        arreglo[destino++] = temporal[cursor1++];
+                        victorias1++;
+                        victorias2 = 0;
+                        if (--largo1 == 1) {
+                            break externo;
+                        }
+                    }
+                } while ((victorias1 | victorias2) < galope);
+
+                // Galope: copiar en bloque mientras alguna corrida siga ganando
+                do {
+                    victorias1 = galoparDerecha(arreglo[cursor2], temporal, cursor1, largo1, 0);
+                    if (victorias1 != 0) {
+                        System.arraycopy(temporal, cursor1, arreglo, destino, victorias1);
+                        destino += victorias1;
+                        cursor1 += victorias1;
+                        largo1 -= victorias1;
+                        if (largo1 <= 1) {
+                            break externo;
+                        }
+                    }
+                    arreglo[destino++] = arreglo[cursor2++];
+                    if (--largo2 == 0) {
+                        break externo;
+                    }
+
+                    victorias2 = galoparIzquierda(temporal[cursor1], arreglo, cursor2, largo2, 0);
+                    if (victorias2 != 0) {
+                        System.arraycopy(arreglo, cursor2, arreglo, destino, victorias2);
+                        destino += victorias2;
+                        cursor2 += victorias2;
+                        largo2 -= victorias2;
+                        if (largo2 == 0) {
+                            break externo;
+                        }
+                    }
+                    arreglo[destino++] = temporal[cursor1++];
+                    if (--largo1 == 1) {
+                        break externo;
+                    }
+                    galope--;
+                } while (victorias1 >= UMBRAL_GALOPE_INICIAL || victorias2 >= UMBRAL_GALOPE_INICIAL);
+                if (galope < 0) {
+                    galope = 0;
+                }
+                // Salir del galope cuesta: se premia volver a entrar pronto solo si rindio
+                galope += 2;
+            }
+            umbralGalope = Math.max(1, galope);
+
+            if (largo1 == 1) {
+                System.arraycopy(arreglo, cursor2, arreglo, destino, largo2);
+                arreglo[destino + largo2] = temporal[cursor1];
+            } else {
+                System.arraycopy(temporal, cursor1, arreglo, destino, largo1);
+            }
+        }
+
+        /**
+         * Mezcla copiando la segunda corrida (la mas corta) al auxiliar y
+         * escribiendo de derecha a izquierda
+         */
+        private void mezclarDesdeArriba(int inicio1, int largo1, int inicio2, int largo2) {
+            int[] arreglo = datos;
+            int[] temporal = asegurarAuxiliar(largo2);
+            System.arraycopy(arreglo, inicio2, temporal, 0, largo2);
+
+            int cursor1 = inicio1 + largo1 - 1;
+            int cursor2 = largo2 - 1;
+            int destino = inicio2 + largo2 - 1;
+
+            // Por el recorte previo el ultimo de la primera corrida va despues de todo
+            arreglo[destino--] = arreglo[cursor1--];
+            if (--largo1 == 0) {
+                System.arraycopy(temporal, 0, arreglo, destino - (largo2 - 1), largo2);
+                return;
+            }
+            if (largo2 == 1) {
+                destino -= largo1;
+                cursor1 -= largo1;
+                System.arraycopy(arreglo, cursor1 + 1, arreglo, destino + 1, largo1);
+                arreglo[destino] = temporal[cursor2];
+                return;
+            }
+
+            int galope = umbralGalope;
+            externo:
+            while (true) {
+                int victorias1 = 0;
+                int victorias2 = 0;
+
+                do {
+                    if (temporal[cursor2] < arreglo[cursor1]) {
+                        arreglo[destino--] = arreglo[cursor1--];
+                        victorias1++;
+                        victorias2 = 0;
+                        if (--largo1 == 0) {
+                            break externo;
+                        }
+                    } else {
+                        arreglo[destino--] = temporal[cursor2--];
+                        victorias2++;
+                        victorias1 = 0;
+                        if (--largo2 == 1) {
+                            break externo;
+                        }
+                    }
+                } while ((victorias1 | victorias2) < galope);
+
+                do {
+                    victorias1 = largo1 - galoparDerecha(temporal[cursor2], arreglo, inicio1, largo1, largo1 - 1);
+                    if (victorias1 != 0) {
+                        destino -= victorias1;
+                        cursor1 -= victorias1;
+                        largo1 -= victorias1;
+                        System.arraycopy(arreglo, cursor1 + 1, arreglo, destino + 1, victorias1);
+                        if (largo1 == 0) {
+                            break externo;
+                        }
+                    }
+                    arreglo[destino--] = temporal[cursor2--];
+                    if (--largo2 == 1) {
+                        break externo;
+                    }
+
+                    victorias2 = largo2 - galoparIzquierda(arreglo[cursor1], temporal, 0, largo2, largo2 - 1);
+                    if (victorias2 != 0) {
+                        destino -= victorias2;
+                        cursor2 -= victorias2;
+                        largo2 -= victorias2;
+                        System.arraycopy(temporal, cursor2 + 1, arreglo, destino + 1, victorias2);
+                        if (largo2 <= 1) {
+                            break externo;
+                        }
+                    }
+                    arreglo[destino--] = arreglo[cursor1--];
+                    if (--largo1 == 0) {
+                        break externo;
+                    }
+                    galope--;
+                } while (victorias1 >= UMBRAL_GALOPE_INICIAL || victorias2 >= UMBRAL_GALOPE_INICIAL);
+                if (galope < 0) {
+                    galope = 0;
+                }
+                galope += 2;
+            }
+            umbralGalope = Math.max(1, galope);
+
+            if (largo2 == 1) {
+                destino -= largo1;
+                cursor1 -= largo1;
+                System.arraycopy(arreglo, cursor1 + 1, arreglo, destino + 1, largo1);
+                arreglo[destino] = temporal[cursor2];
+            } else {
+                System.arraycopy(temporal, 0, arreglo, destino - (largo2 - 1), largo2);
+            }
+        }
+
+        private int[] asegurarAuxiliar(int minimo) {
+            if (auxiliar.length < minimo) {
+                int nuevoTamano = Math.max(minimo, Math.min(auxiliar.length * 2, datos.length >>> 1));
+                auxiliar = new int[nuevoTamano];
+            }
+            return auxiliar;
+        }
+    }
+}
@@ -0,0 +1,695 @@
+package com.innoad.ordenamiento;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.CodeSource;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Ordenamiento por muestreo (sample sort) repartido entre varias JVM
+ * trabajadoras de la misma maquina, para entradas que una sola JVM no
+ * ordena a tiempo. El coordinador:
+ * <ol>
+ *   <li>recorre la entrada tomando una muestra uniforme (reservorio) y
+ *       elige con ella los divisores de los rangos de claves;</li>
+ *   <li>recorre la entrada otra vez y reparte cada numero en el archivo de
+ *       su rango;</li>
+ *   <li>entrega cada rango a un {@link TrabajadorOrdenamiento}, un proceso
+ *       aparte que lo ordena con el motor y escribe su resultado;</li>
+ *   <li>concatena los resultados en orden de rango, sin mezcla final.</li>
+ * </ol>
+ * Coordinador y trabajadores se hablan por la entrada y salida estandar de
+ * cada proceso. Si un trabajador muere, responde con error o no responde
+ * en el plazo, se lo reinicia y se repite solo esa particion, hasta
+ * {@link #INTENTOS_MAXIMOS} veces. Lo mismo si su resultado no tiene el
+ * contenido de la particion: al repartir se suma una huella de cada valor,
+ * que no depende del orden, y se compara con la del resultado.
+ * <p>
+ * La cantidad de particiones se elige para que cada una quepa en el heap
+ * de un trabajador; si muchas claves repetidas caen en un mismo rango, el
+ * trabajador la ordena con {@link OrdenamientoExterno}. Los trabajadores se
+ * lanzan con el mismo java del coordinador y con el classpath de donde salen
+ * sus clases: el del coordinador si es un directorio o un jar comun, o el
+ * jar ejecutable de Spring Boot con su PropertiesLauncher.
+ */
+public final class OrdenamientoDistribuido implements AutoCloseable {
+
+    /** Heap predeterminado de cada trabajador */
+    public static final int MEMORIA_TRABAJADOR_PREDETERMINADA_MB = 512;
+
+    /** Particiones minimas por trabajador, para repartir mejor y reintentar menos */
+    public static final int PARTICIONES_POR_TRABAJADOR = 4;
+
+    /** Intentos de cada particion antes de abandonar el ordenamiento */
+    public static final int INTENTOS_MAXIMOS = 3;
+
+    /** Tamano maximo de la muestra de la que salen los divisores */
+    static final int TAMANO_MUESTRA = 1 << 16;
+
+    /** Muestras por particion como minimo, para que los rangos queden parejos */
+    static final int SOBREMUESTREO = 64;
+
+    /** Fraccion del heap del trabajador que ocupa una particion con su auxiliar */
+    private static final double FRACCION_HEAP_PARTICION = 0.5;
+
+    /** Segundos que tiene un trabajador para ordenar una particion */
+    private static final long PLAZO_PARTICION_SEGUNDOS = Long.getLong("innoad.distribuido.plazoSegundos", 600);
+
+    /** Lanzador del jar de Spring Boot que arranca la clase de loader.main con las clases de BOOT-INF */
+    static final String LANZADOR_SPRING_BOOT = "org.springframework.boot.loader.launch.PropertiesLauncher";
+
+    private final int trabajadores;
+    private final int memoriaTrabajadorMB;
+    private final Path directorioTemporal;
+    private final List<String> comando;
+    private final Trabajador[] procesos;
+    private final ExecutorService coordinadores;
+    private final ScheduledExecutorService vigilante;
+    private final AtomicInteger reintentos = new AtomicInteger();
+
+    /**
+     * Crea un coordinador con un trabajador por procesador disponible, el
+     * heap predeterminado y el directorio temporal del sistema
+     */
+    public OrdenamientoDistribuido() {
+        this(Runtime.getRuntime().availableProcessors(), MEMORIA_TRABAJADOR_PREDETERMINADA_MB,
+                Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Los procesos trabajadores se lanzan con el primer ordenamiento y se
+     * reutilizan hasta cerrar el coordinador
+     * @param trabajadores Cantidad de JVM trabajadoras
+     * @param memoriaTrabajadorMB Heap maximo de cada trabajador (-Xmx)
+     * @param directorioTemporal Directorio donde se crean las particiones
+     */
+    public OrdenamientoDistribuido(int trabajadores, int memoriaTrabajadorMB, Path directorioTemporal) {
+        if (trabajadores < 1) {
+            throw new IllegalArgumentException("La cantidad de trabajadores debe ser mayor a 0: " + trabajadores);
+        }
+        if (memoriaTrabajadorMB < 16) {
+            throw new IllegalArgumentException("La memoria de cada trabajador debe ser al menos 16 MB: "
+                    + memoriaTrabajadorMB);
+        }
+        this.trabajadores = trabajadores;
+        this.memoriaTrabajadorMB = memoriaTrabajadorMB;
+        this.directorioTemporal = directorioTemporal;
+        this.comando = armarComando(memoriaTrabajadorMB);
+        this.procesos = new Trabajador[trabajadores];
+        for (int i = 0; i < trabajadores; i++) {
+            procesos[i] = new Trabajador(i + 1, comando);
+        }
+        this.coordinadores = Executors.newFixedThreadPool(trabajadores);
+        this.vigilante = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "innoad-vigilante-trabajadores");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Uso: OrdenamientoDistribuido <entrada> <salida> [trabajadores] [memoriaMB]");
+            System.out.println("La entrada puede ser texto o binaria; la salida es binaria.");
+            return;
+        }
+
+        int trabajadores = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int memoria = args.length > 3 ? Integer.parseInt(args[3]) : MEMORIA_TRABAJADOR_PREDETERMINADA_MB;
+        long tiempoInicio = System.currentTimeMillis();
+        try (OrdenamientoDistribuido ordenador = new OrdenamientoDistribuido(trabajadores, memoria,
+                Paths.get(System.getProperty("java.io.tmpdir")))) {
+            long cantidad = ordenador.ordenar(Paths.get(args[0]), Paths.get(args[1]));
+            long tiempoTranscurrido = System.currentTimeMillis() - tiempoInicio;
+            System.out.println("[OK] " + cantidad + " numeros ordenados en " + tiempoTranscurrido
+                    + " milisegundos con " + trabajadores + " trabajadores ("
+                    + ordenador.obtenerReintentos() + " reintentos)");
+        } catch (IOException e) {
+            System.err.println("Error en el ordenamiento distribuido: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ordena un archivo de texto (un numero por linea) o binario de int
+     * @param entrada Archivo de entrada
+     * @param salida Archivo binario de {@link ArchivoBinarioNumeros}, marcado como ordenado
+     * @return Cantidad de numeros ordenados
+     * @throws IOException si falla la lectura, la entrada es invalida o una
+     *         particion agota sus intentos
+     */
+    public synchronized long ordenar(Path entrada, Path salida) throws IOException {
+        TelemetriaOrdenamiento.Medidor medidor = TelemetriaOrdenamiento.iniciar(0);
+        medidor.fijarEstrategia("DISTRIBUIDO");
+        reintentos.set(0);
+        Path directorioTrabajo = Files.createTempDirectory(directorioTemporal, "innoad-distribuido-");
+        Path salidaTemporal = Files.createTempFile(salida.toAbsolutePath().getParent(),
+                salida.getFileName().toString(), ".parcial");
+        boolean movida = false;
+        try {
+            OrdenamientoExterno.FuenteNumeros fuente = abrirFuente(entrada);
+
+            EventoFase lectura = EventoFase.iniciar(EventoFase.Fase.LECTURA, 0);
+            Muestreo muestreo = new Muestreo();
+            recorrer(fuente, muestreo);
+            lectura.fijarElementos(muestreo.cantidad);
+            lectura.commit();
+            medidor.fijarElementos(muestreo.cantidad);
+
+            int[] divisores = muestreo.elegirDivisores(calcularParticiones(muestreo.cantidad));
+            EventoFase division = EventoFase.iniciar(EventoFase.Fase.DIVISION, muestreo.cantidad);
+            List<Particion> particiones = particionar(fuente, divisores, directorioTrabajo);
+            division.commit();
+
+            repartir(particiones);
+
+            EventoFase escritura = EventoFase.iniciar(EventoFase.Fase.ESCRITURA, muestreo.cantidad);
+            long cantidad = concatenar(particiones, salidaTemporal);
+            escritura.commit();
+            Files.move(salidaTemporal, salida, StandardCopyOption.REPLACE_EXISTING);
+            movida = true;
+            return cantidad;
+        } finally {
+            if (!movida) {
+                Files.deleteIfExists(salidaTemporal);
+            }
+            OrdenamientoExterno.borrarDirectorio(directorioTrabajo);
+            medidor.terminar();
+        }
+    }
+
+    /**
+     * @return Particiones que se repitieron por la falla de un trabajador en el ultimo ordenamiento
+     */
+    public int obtenerReintentos() {
+        return reintentos.get();
+    }
+
+    /**
+     * Pide a los trabajadores que terminen y libera los hilos del coordinador
+     */
+    @Override
+    public void close() {
+        coordinadores.shutdown();
+        vigilante.shutdownNow();
+        for (Trabajador trabajador : procesos) {
+            trabajador.close();
+        }
+    }
+
+    /**
+     * Particiones suficientes para ocupar a todos los trabajadores y para
+     * que cada una quepa en el heap de uno, sin pasar de lo que la muestra
+     * puede dividir con precision
+     */
+    int calcularParticiones(long cantidad) {
+        long porMemoria = (long) (memoriaTrabajadorMB * 1024L * 1024 * FRACCION_HEAP_PARTICION)
+                / (2L * Integer.BYTES);
+        long necesarias = (cantidad + porMemoria - 1) / porMemoria;
+        long particiones = Math.max((long) trabajadores * PARTICIONES_POR_TRABAJADOR, necesarias);
+        return (int) Math.min(particiones, TAMANO_MUESTRA / SOBREMUESTREO);
+    }
+
+    /**
+     * Indice de la particion de un valor: la cantidad de divisores menores
+     * o iguales. Con divisores repetidos las particiones intermedias quedan
+     * vacias y todas las copias del valor van a la misma
+     */
+    static int buscarParticion(int[] divisores, int valor) {
+        int bajo = 0;
+        int alto = divisores.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (divisores[medio] <= valor) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    private static OrdenamientoExterno.FuenteNumeros abrirFuente(Path entrada) throws IOException {
+        if (ArchivoBinarioNumeros.esBinario(entrada)) {
+            return destino -> {
+                try (InputStream flujo = Files.newInputStream(entrada)) {
+                    ArchivoBinarioNumeros.recorrer(flujo, destino);
+                }
+            };
+        }
+        return destino -> {
+            LectorNumerosTexto.Resultado resultado = LectorNumerosTexto.recorrer(entrada, destino);
+            if (!resultado.esValido()) {
+                throw new IOException(LectorNumerosTexto.describirErrores(entrada, resultado));
+            }
+        };
+    }
+
+    private static void recorrer(OrdenamientoExterno.FuenteNumeros fuente, IntConsumer destino) throws IOException {
+        try {
+            fuente.recorrer(destino);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Segunda pasada: escribe cada numero en el archivo binario de su rango
+     * @return Particiones en orden de rango, con su cantidad
+     */
+    private static List<Particion> particionar(OrdenamientoExterno.FuenteNumeros fuente, int[] divisores,
+                                               Path directorioTrabajo) throws IOException {
+        List<Particion> particiones = new ArrayList<>(divisores.length + 1);
+        EscritorNumeros[] escritores = new EscritorNumeros[divisores.length + 1];
+        try {
+            for (int i = 0; i < escritores.length; i++) {
+                Particion particion = new Particion(i, directorioTrabajo.resolve("particion-" + i + ".bin"),
+                        directorioTrabajo.resolve("ordenada-" + i + ".bin"));
+                particiones.add(particion);
+                escritores[i] = EscritorNumeros.abrir(particion.entrada, EscritorNumeros.Formato.BINARIO);
+            }
+            recorrer(fuente, valor -> {
+                int indice = buscarParticion(divisores, valor);
+                escritores[indice].accept(valor);
+                particiones.get(indice).contenido.accept(valor);
+            });
+        } finally {
+            IOException primerError = null;
+            for (int i = 0; i < escritores.length && escritores[i] != null; i++) {
+                try {
+                    escritores[i].close();
+                    particiones.get(i).cantidad = escritores[i].obtenerCantidad();
+                } catch (IOException e) {
+                    primerError = primerError == null ? e : primerError;
+                }
+            }
+            if (primerError != null) {
+                throw primerError;
+            }
+        }
+        return particiones;
+    }
+
+    /**
+     * Reparte las particiones no vacias entre los trabajadores, las mas
+     * grandes primero para equilibrar la carga. Cada hilo del coordinador
+     * atiende a un trabajador y toma la siguiente particion al terminar
+     * la anterior
+     */
+    private void repartir(List<Particion> particiones) throws IOException {
+        List<Particion> ordenPorTamano = new ArrayList<>();
+        for (Particion particion : particiones) {
+            if (particion.cantidad > 0) {
+                ordenPorTamano.add(particion);
+            }
+        }
+        ordenPorTamano.sort(Comparator.comparingLong((Particion particion) -> particion.cantidad).reversed());
+        Queue<Particion> pendientes = new ConcurrentLinkedQueue<>(ordenPorTamano);
+        AtomicBoolean abandonado = new AtomicBoolean();
+
+        List<Future<Void>> tareas = new ArrayList<>(trabajadores);
+        for (Trabajador trabajador : procesos) {
+            tareas.add(coordinadores.submit(() -> {
+                Particion particion;
+                while (!abandonado.get() && (particion = pendientes.poll()) != null) {
+                    try {
+                        ordenarConReintentos(trabajador, particion);
+                    } catch (IOException e) {
+                        abandonado.set(true);
+                        throw e;
+                    }
+                }
+                return null;
+            }));
+        }
+
+        IOException primerError = null;
+        for (Future<Void> tarea : tareas) {
+            try {
+                tarea.get();
+            } catch (ExecutionException e) {
+                if (primerError == null) {
+                    primerError = e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Ordenamiento distribuido interrumpido");
+            }
+        }
+        if (primerError != null) {
+            throw primerError;
+        }
+    }
+
+    /**
+     * Ordena una particion en un trabajador; si falla, reinicia el
+     * trabajador si hace falta y repite solo esta particion
+     */
+    private void ordenarConReintentos(Trabajador trabajador, Particion particion) throws IOException {
+        for (int intento = 1; ; intento++) {
+            try {
+                trabajador.asegurarVivo();
+                long cantidad = trabajador.ordenar(particion.entrada, particion.salida, PLAZO_PARTICION_SEGUNDOS,
+                        vigilante);
+                verificarResultado(particion, cantidad);
+                // La entrada ya no hace falta: libera disco mientras siguen las demas
+                Files.deleteIfExists(particion.entrada);
+                return;
+            } catch (IOException e) {
+                if (intento >= INTENTOS_MAXIMOS) {
+                    throw new IOException("La particion " + particion.indice + " fallo " + intento
+                            + " veces; ultimo error: " + e.getMessage(), e);
+                }
+                reintentos.incrementAndGet();
+                System.err.println("Reintentando la particion " + particion.indice + " (intento " + (intento + 1)
+                        + " de " + INTENTOS_MAXIMOS + "): " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Un resultado solo se acepta si tiene todos los numeros de la particion y esta ordenado.
+     * Se relee entero: la lectura verifica su suma de control, y la huella
+     * y el orden se comprueban sobre los valores, no sobre la cabecera
+     */
+    private static void verificarResultado(Particion particion, long cantidad) throws IOException {
+        ArchivoBinarioNumeros.Cabecera cabecera = ArchivoBinarioNumeros.leerCabecera(particion.salida);
+        if (cantidad != particion.cantidad || cabecera.obtenerCantidad() != particion.cantidad
+                || !cabecera.estaOrdenado()) {
+            throw new IOException("Resultado inconsistente de la particion " + particion.indice + ": se esperaban "
+                    + particion.cantidad + " numeros ordenados y hay " + cabecera.obtenerCantidad()
+                    + (cabecera.estaOrdenado() ? "" : " sin ordenar"));
+        }
+
+        Contenido resultado = new Contenido();
+        try (InputStream flujo = new BufferedInputStream(Files.newInputStream(particion.salida), 1 << 16)) {
+            ArchivoBinarioNumeros.recorrer(flujo, resultado);
+        }
+        if (resultado.huella != particion.contenido.huella) {
+            throw new IOException("Resultado inconsistente de la particion " + particion.indice
+                    + ": los numeros no son los de la particion");
+        }
+        if (!resultado.ascendente) {
+            throw new IOException("Resultado inconsistente de la particion " + particion.indice
+                    + ": los numeros no estan en orden ascendente");
+        }
+    }
+
+    /**
+     * Copia el contenido de los resultados, en orden de rango, detras de la
+     * cabecera de la salida, calculando la suma de control en la misma pasada
+     * @return Cantidad de numeros escritos
+     */
+    private static long concatenar(List<Particion> particiones, Path salida) throws IOException {
+        CRC32C suma = new CRC32C();
+        ByteBuffer bloque = ByteBuffer.allocateDirect(1 << 20);
+        long cantidad = 0;
+        try (FileChannel destino = FileChannel.open(salida, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long posicion = ArchivoBinarioNumeros.TAMANO_CABECERA;
+            for (Particion particion : particiones) {
+                if (particion.cantidad == 0) {
+                    continue;
+                }
+                try (FileChannel origen = FileChannel.open(particion.salida, StandardOpenOption.READ)) {
+                    long lectura = ArchivoBinarioNumeros.TAMANO_CABECERA;
+                    int leidos;
+                    while ((leidos = origen.read(bloque, lectura)) > 0) {
+                        lectura += leidos;
+                        bloque.flip();
+                        suma.update(bloque.duplicate());
+                        while (bloque.hasRemaining()) {
+                            posicion += destino.write(bloque, posicion);
+                        }
+                        bloque.clear();
+                    }
+                }
+                cantidad += particion.cantidad;
+                Files.deleteIfExists(particion.salida);
+            }
+            ArchivoBinarioNumeros.escribirCabecera(destino, new ArchivoBinarioNumeros.Cabecera(
+                    ArchivoBinarioNumeros.ANCHO_INT, true, cantidad, suma.getValue()));
+        }
+        return cantidad;
+    }
+
+    /**
+     * Linea de comandos de un trabajador: el mismo java del coordinador, el
+     * modulo de vectores si el coordinador lo tiene y la clase principal
+     * segun de donde salen las clases
+     */
+    private static List<String> armarComando(int memoriaMB) {
+        List<String> comando = new ArrayList<>();
+        comando.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        comando.add("-Xmx" + memoriaMB + "m");
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            comando.add("--add-modules");
+            comando.add("jdk.incubator.vector");
+        }
+        Path jarEjecutable = buscarJarEjecutable();
+        if (jarEjecutable == null) {
+            comando.add("-cp");
+            comando.add(System.getProperty("java.class.path"));
+            comando.add(TrabajadorOrdenamiento.class.getName());
+        } else {
+            // El classpath es el jar de Spring Boot: sus clases estan en BOOT-INF y solo las carga su lanzador
+            comando.add("-Dloader.main=" + TrabajadorOrdenamiento.class.getName());
+            comando.add("-cp");
+            comando.add(jarEjecutable.toString());
+            comando.add(LANZADOR_SPRING_BOOT);
+        }
+        return comando;
+    }
+
+    /**
+     * Revisa de donde salen las clases del trabajador. En un directorio o un
+     * jar comun la ubicacion es file:...; dentro del jar de Spring Boot es
+     * jar:nested:/ruta/app.jar/!BOOT-INF/classes/!/ (o jar:file:/ruta/app.jar!/...
+     * en lanzadores anteriores)
+     * @return Ruta del jar ejecutable, o null si las clases no estan dentro de uno
+     */
+    static Path buscarJarEjecutable() {
+        CodeSource origen = TrabajadorOrdenamiento.class.getProtectionDomain().getCodeSource();
+        if (origen == null || origen.getLocation() == null || !"jar".equals(origen.getLocation().getProtocol())) {
+            return null;
+        }
+        String externa = origen.getLocation().toString().substring("jar:".length());
+        int separador = externa.indexOf('!');
+        if (separador >= 0) {
+            externa = externa.substring(0, separador);
+        }
+        String ruta = URI.create(externa).getRawPath();
+        if (ruta.endsWith("/")) {
+            ruta = ruta.substring(0, ruta.length() - 1);
+        }
+        return Paths.get(URI.create("file:" + ruta));
+    }
+
+    /**
+     * Un rango de claves: el archivo que arma el coordinador y el que devuelve el trabajador
+     */
+    private static final class Particion {
+        private final int indice;
+        private final Path entrada;
+        private final Path salida;
+        private final Contenido contenido = new Contenido();
+        private long cantidad;
+
+        Particion(int indice, Path entrada, Path salida) {
+            this.indice = indice;
+            this.entrada = entrada;
+            this.salida = salida;
+        }
+    }
+
+    /**
+     * Huella de un conjunto de numeros: la suma de una mezcla de cada valor,
+     * que no cambia al ordenarlos pero si al perder, repetir o alterar
+     * alguno. Anota ademas si los valores llegaron en orden ascendente
+     */
+    private static final class Contenido implements IntConsumer {
+        private long huella;
+        private boolean ascendente = true;
+        private int anterior = Integer.MIN_VALUE;
+
+        @Override
+        public void accept(int valor) {
+            // Paso de SplitMix64: valores cercanos dan huellas sin relacion
+            long mezcla = valor + 0x9E3779B97F4A7C15L;
+            mezcla = (mezcla ^ (mezcla >>> 30)) * 0xBF58476D1CE4E5B9L;
+            mezcla = (mezcla ^ (mezcla >>> 27)) * 0x94D049BB133111EBL;
+            huella += mezcla ^ (mezcla >>> 31);
+            ascendente &= valor >= anterior;
+            anterior = valor;
+        }
+    }
+
+    /**
+     * Primera pasada: cuenta los numeros y guarda una muestra uniforme de
+     * hasta {@link #TAMANO_MUESTRA} con el algoritmo del reservorio
+     */
+    private static final class Muestreo implements IntConsumer {
+        private final int[] muestra = new int[TAMANO_MUESTRA];
+        private final SplittableRandom azar = new SplittableRandom();
+        private long cantidad;
+
+        @Override
+        public void accept(int valor) {
+            if (cantidad < muestra.length) {
+                muestra[(int) cantidad] = valor;
+            } else {
+                long posicion = azar.nextLong(cantidad + 1);
+                if (posicion < muestra.length) {
+                    muestra[(int) posicion] = valor;
+                }
+            }
+            cantidad++;
+        }
+
+        /**
+         * @param particiones Cantidad de rangos deseada
+         * @return particiones - 1 divisores crecientes, en los cuantiles de la muestra
+         */
+        int[] elegirDivisores(int particiones) {
+            int tamano = (int) Math.min(cantidad, muestra.length);
+            if (tamano == 0) {
+                return new int[0];
+            }
+            MotorOrdenamiento.ordenar(muestra, 0, tamano);
+            int[] divisores = new int[particiones - 1];
+            for (int i = 1; i < particiones; i++) {
+                divisores[i - 1] = muestra[(int) ((long) i * tamano / particiones)];
+            }
+            return divisores;
+        }
+    }
+
+    /**
+     * Un proceso trabajador y sus tuberias de ordenes y respuestas. Solo lo
+     * usa un hilo del coordinador a la vez
+     */
+    private static final class Trabajador implements Closeable {
+        private final int numero;
+        private final List<String> comando;
+        private Process proceso;
+        private BufferedWriter ordenes;
+        private BufferedReader respuestas;
+
+        Trabajador(int numero, List<String> comando) {
+            this.numero = numero;
+            this.comando = comando;
+        }
+
+        /**
+         * Lanza el proceso si todavia no existe o si murio
+         */
+        void asegurarVivo() throws IOException {
+            if (proceso != null && proceso.isAlive()) {
+                return;
+            }
+            detener();
+            proceso = new ProcessBuilder(comando).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            ordenes = new BufferedWriter(new OutputStreamWriter(proceso.getOutputStream(), StandardCharsets.UTF_8));
+            respuestas = new BufferedReader(new InputStreamReader(proceso.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Envia una particion y espera la respuesta. Si vence el plazo el
+         * proceso se mata, lo que corta la espera
+         * @return Cantidad que el trabajador dice haber ordenado
+         * @throws IOException si el trabajador responde con error, muere o no responde a tiempo
+         */
+        long ordenar(Path entrada, Path salida, long plazoSegundos, ScheduledExecutorService vigilante)
+                throws IOException {
+            Process actual = proceso;
+            ScheduledFuture<?> limite = vigilante.schedule(actual::destroyForcibly, plazoSegundos, TimeUnit.SECONDS);
+            String respuesta;
+            try {
+                ordenes.write(TrabajadorOrdenamiento.ORDEN_ORDENAR + TrabajadorOrdenamiento.SEPARADOR + entrada
+                        + TrabajadorOrdenamiento.SEPARADOR + salida);
+                ordenes.newLine();
+                ordenes.flush();
+                respuesta = leerRespuesta();
+            } catch (IOException e) {
+                // Tuberia rota: el proceso murio mientras se le escribia
+                respuesta = null;
+            } finally {
+                limite.cancel(false);
+            }
+
+            if (respuesta == null) {
+                boolean vencido = limite.isDone() && !limite.isCancelled();
+                throw new IOException(vencido
+                        ? "El trabajador " + numero + " no respondio en " + plazoSegundos + " segundos"
+                        : "El trabajador " + numero + " termino sin responder");
+            }
+            if (respuesta.startsWith(TrabajadorOrdenamiento.RESPUESTA_ERROR)) {
+                throw new IOException("El trabajador " + numero + " respondio: "
+                        + respuesta.substring(TrabajadorOrdenamiento.RESPUESTA_ERROR.length()).trim());
+            }
+            try {
+                return Long.parseLong(respuesta.substring(TrabajadorOrdenamiento.RESPUESTA_OK.length()).trim());
+            } catch (NumberFormatException e) {
+                throw new IOException("Respuesta invalida del trabajador " + numero + ": " + respuesta);
+            }
+        }
+
+        /**
+         * Primera linea que sea una respuesta del protocolo, o null si el proceso termino
+         */
+        private String leerRespuesta() throws IOException {
+            String linea;
+            while ((linea = respuestas.readLine()) != null) {
+                if (linea.startsWith(TrabajadorOrdenamiento.RESPUESTA_OK + " ")
+                        || linea.startsWith(TrabajadorOrdenamiento.RESPUESTA_ERROR)) {
+                    return linea;
+                }
+            }
+            return null;
+        }
+
+        private void detener() {
+            if (proceso == null) {
+                return;
+            }
+            proceso.destroyForcibly();
+            try {
+                proceso.waitFor();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            proceso = null;
+        }
+
+        /**
+         * Pide al proceso que termine; si no lo hace a tiempo, lo mata
+         */
+        @Override
+        public void close() {
+            if (proceso == null) {
+                return;
+            }
+            try {
+                if (proceso.isAlive()) {
+                    ordenes.write(TrabajadorOrdenamiento.ORDEN_SALIR);
+                    ordenes.newLine();
+                    ordenes.close();
+                    proceso.waitFor(5, TimeUnit.SECONDS);
+                }
+            } catch (IOException e) {
+                // Ya no escucha: se lo mata abajo
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            detener();
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package com.innoad.ordenamiento;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Ordenamiento externo para archivos mas grandes que la memoria disponible.
+ * La entrada se lee con {@link LectorNumerosTexto} por bloques que caben en
+ * el presupuesto de memoria, cada bloque se ordena con {@link MotorOrdenamiento} y se vuelca como corrida
+ * ordenada en un archivo temporal. Despues las corridas se mezclan en k vias
+ * con {@link MezclaCorridas}; si hay mas corridas que el abanico maximo se
+ * hacen varias pasadas de mezcla. Los temporales se borran siempre, tambien
+ * cuando el proceso falla. Ademas de archivos acepta cualquier
+ * {@link FuenteNumeros}, por ejemplo el cuerpo de una solicitud HTTP.
+ */
+public class OrdenamientoExterno {
+
+    /** Presupuesto de memoria predeterminado: 64 MB */
+    public static final long PRESUPUESTO_MEMORIA_PREDETERMINADO = 64L * 1024 * 1024;
+
+    /** Cantidad maxima predeterminada de corridas que se mezclan a la vez */
+    public static final int ABANICO_MAXIMO_PREDETERMINADO = 64;
+
+    /** Tamano minimo del buffer de lectura de cada corrida durante la mezcla */
+    private static final int BUFFER_MINIMO_CORRIDA = 8 * 1024;
+
+    private final long presupuestoMemoria;
+    private final int abanicoMaximo;
+    private final Path directorioTemporal;
+
+    /**
+     * Crea un ordenador externo con el presupuesto y abanico predeterminados,
+     * usando el directorio temporal del sistema
+     */
+    public OrdenamientoExterno() {
+        this(PRESUPUESTO_MEMORIA_PREDETERMINADO, ABANICO_MAXIMO_PREDETERMINADO,
+                Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * @param presupuestoMemoria Bytes de memoria que puede usar cada fase
+     * @param abanicoMaximo Cantidad maxima de corridas por mezcla (al menos 2)
+     * @param directorioTemporal Directorio donde se crean las corridas
+     */
+    public OrdenamientoExterno(long presupuestoMemoria, int abanicoMaximo, Path directorioTemporal) {
+        if (abanicoMaximo < 2) {
+            throw new IllegalArgumentException("El abanico maximo debe ser al menos 2: " + abanicoMaximo);
+        }
+        // El bloque y su buffer auxiliar deben caber en el presupuesto
+        if (presupuestoMemoria < 2L * Integer.BYTES * MotorOrdenamiento.UMBRAL_INSERCION) {
+            throw new IllegalArgumentException("Presupuesto de memoria demasiado pequeno: " + presupuestoMemoria);
+        }
+        this.presupuestoMemoria = presupuestoMemoria;
+        this.abanicoMaximo = abanicoMaximo;
+        this.directorioTemporal = directorioTemporal;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Uso: OrdenamientoExterno <entrada> <salida> [presupuestoMB] [abanico]");
+            return;
+        }
+
+        long presupuesto = args.length > 2 ? Long.parseLong(args[2]) * 1024 * 1024 : PRESUPUESTO_MEMORIA_PREDETERMINADO;
+        int abanico = args.length > 3 ? Integer.parseInt(args[3]) : ABANICO_MAXIMO_PREDETERMINADO;
+        OrdenamientoExterno ordenador = new OrdenamientoExterno(presupuesto, abanico,
+                Paths.get(System.getProperty("java.io.tmpdir")));
+
+        long tiempoInicio = System.currentTimeMillis();
+        try {
+            long cantidad = ordenador.ordenar(Paths.get(args[0]), Paths.get(args[1]));
+            long tiempoTranscurrido = System.currentTimeMillis() - tiempoInicio;
+            System.out.println("[OK] " + cantidad + " numeros ordenados en " + tiempoTranscurrido + " milisegundos");
+        } catch (IOException e) {
+            System.err.println("Error en el ordenamiento externo: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Origen de los numeros a ordenar, por ejemplo un archivo o el cuerpo de
+     * una solicitud HTTP
+     */
+    public interface FuenteNumeros {
+        /**
+         * Entrega todos los numeros al destino
+         * @throws IOException si la lectura falla o la entrada es invalida
+         */
+        void recorrer(IntConsumer destino) throws IOException;
+    }
+
+    /**
+     * Abre el escritor del resultado. Se llama recien cuando la entrada se
+     * leyo completa y sin errores, asi quien llama todavia puede rechazarla
+     * sin haber escrito nada.
+     */
+    public interface DestinoOrdenado {
+        /**
+         * @param cantidad Cantidad total de numeros que se van a escribir
+         * @return Escritor que se cierra al terminar la mezcla
+         */
+        EscritorNumeros abrir(long cantidad) throws IOException;
+    }
+
+    /**
+     * Ordena un archivo de texto con un numero por linea
+     * @param entrada Archivo de entrada
+     * @param salida Archivo donde se escribe el resultado, un numero por linea
+     * @return Cantidad de numeros ordenados
+     * @throws IOException si falla la lectura, la escritura o alguna linea no es un numero
+     */
+    public long ordenar(Path entrada, Path salida) throws IOException {
+        Path padre = salida.toAbsolutePath().getParent();
+        Path salidaTemporal = Files.createTempFile(padre, salida.getFileName().toString(), ".parcial");
+        boolean movida = false;
+        try {
+            long cantidad = ordenar(destino -> {
+                LectorNumerosTexto.Resultado resultado = LectorNumerosTexto.recorrer(entrada, destino);
+                if (!resultado.esValido()) {
+                    throw new IOException(LectorNumerosTexto.describirErrores(entrada, resultado));
+                }
+            }, total -> EscritorNumeros.texto(salidaTemporal));
+            Files.move(salidaTemporal, salida, StandardCopyOption.REPLACE_EXISTING);
+            movida = true;
+            return cantidad;
+        } finally {
+            if (!movida) {
+                Files.deleteIfExists(salidaTemporal);
+            }
+        }
+    }
+
+    /**
+     * Ordena los numeros de una fuente cualquiera sin superar el presupuesto
+     * de memoria y los escribe en el destino
+     * @param fuente Origen de los numeros
+     * @param destino Apertura del escritor del resultado
+     * @return Cantidad de numeros ordenados
+     */
+    public long ordenar(FuenteNumeros fuente, DestinoOrdenado destino) throws IOException {
+        // La cantidad se conoce recien al terminar de leer: la medicion la toma del acumulador
+        TelemetriaOrdenamiento.Medidor medidor = TelemetriaOrdenamiento.iniciar(0);
+        medidor.fijarEstrategia("EXTERNO");
+        Path directorioTrabajo = Files.createTempDirectory(directorioTemporal, "innoad-externo-");
+        try {
+            EventoFase lectura = EventoFase.iniciar(EventoFase.Fase.LECTURA, 0);
+            AcumuladorCorridas acumulador = generarCorridas(fuente, directorioTrabajo);
+            lectura.fijarElementos(acumulador.cantidad);
+            lectura.commit();
+            medidor.fijarElementos(acumulador.cantidad);
+            List<Path> corridas = acumulador.corridas;
+
+            // Reducir la cantidad de corridas hasta que quepan en una sola mezcla
+            while (corridas.size() > abanicoMaximo) {
+                corridas = mezclarPasada(corridas, directorioTrabajo);
+            }
+
+            EventoFase mezcla = EventoFase.iniciar(EventoFase.Fase.MEZCLA, acumulador.cantidad);
+            try (EscritorNumeros escritor = destino.abrir(acumulador.cantidad)) {
+                long cantidad = mezclarCorridas(corridas, escritor::escribir);
+                mezcla.commit();
+                return cantidad;
+            }
+        } finally {
+            borrarDirectorio(directorioTrabajo);
+            medidor.terminar();
+        }
+    }
+
+    /**
+     * Lee la entrada por bloques, ordena cada uno y lo vuelca como corrida
+     * @param fuente Origen de los numeros
+     * @param directorioTrabajo Directorio donde se crean las corridas
+     * @return Acumulador con las corridas generadas, en el orden de la entrada
+     */
+    private AcumuladorCorridas generarCorridas(FuenteNumeros fuente, Path directorioTrabajo) throws IOException {
+        AcumuladorCorridas acumulador = new AcumuladorCorridas(new int[calcularTamanoBloque()], directorioTrabajo);
+        try {
+            fuente.recorrer(acumulador);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (acumulador.ocupados > 0 || acumulador.corridas.isEmpty()) {
+            acumulador.corridas.add(volcarCorrida(acumulador.bloque, acumulador.ocupados, directorioTrabajo));
+        }
+        return acumulador;
+    }
+
+    /**
+     * Cantidad de enteros por bloque: el bloque y el buffer auxiliar del motor
+     * deben caber juntos en el presupuesto de memoria
+     */
+    int calcularTamanoBloque() {
+        long enteros = presupuestoMemoria / (2L * Integer.BYTES);
+        return (int) Math.min(enteros, Integer.MAX_VALUE - 8);
+    }
+
+    /**
+     * Ordena un bloque y lo escribe en binario como corrida temporal
+     * @param bloque Bloque de numeros
+     * @param ocupados Cantidad de posiciones usadas del bloque
+     * @param directorioTrabajo Directorio de la corrida
+     * @return Ruta de la corrida escrita
+     */
+    private Path volcarCorrida(int[] bloque, int ocupados, Path directorioTrabajo) throws IOException {
+        EventoFase division = EventoFase.iniciar(EventoFase.Fase.DIVISION, ocupados);
+        MotorOrdenamiento.ordenar(bloque, 0, ocupados);
+        division.commit();
+
+        EventoFase volcado = EventoFase.iniciar(EventoFase.Fase.VOLCADO, ocupados);
+        Path corrida = Files.createTempFile(directorioTrabajo, "corrida-", ".bin");
+        try (DataOutputStream salida = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(corrida), 1 << 16))) {
+            for (int i = 0; i < ocupados; i++) {
+                salida.writeInt(bloque[i]);
+            }
+        }
+        volcado.commit();
+        return corrida;
+    }
+
+    /**
+     * Una pasada de mezcla: agrupa las corridas de abanicoMaximo en abanicoMaximo
+     * y mezcla cada grupo en una nueva corrida, borrando las de entrada
+     * @param corridas Corridas a mezclar
+     * @param directorioTrabajo Directorio de las nuevas corridas
+     * @return Corridas resultantes, en el mismo orden relativo
+     */
+    private List<Path> mezclarPasada(List<Path> corridas, Path directorioTrabajo) throws IOException {
+        List<Path> resultado = new ArrayList<>();
+        for (int inicio = 0; inicio < corridas.size(); inicio += abanicoMaximo) {
+            List<Path> grupo = corridas.subList(inicio, Math.min(inicio + abanicoMaximo, corridas.size()));
+            Path nuevaCorrida = Files.createTempFile(directorioTrabajo, "mezcla-", ".bin");
+            EventoFase mezcla = EventoFase.iniciar(EventoFase.Fase.MEZCLA, 0);
+            try (DataOutputStream salida = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(nuevaCorrida), 1 << 16))) {
+                mezcla.fijarElementos(mezclarCorridas(grupo, new SalidaBinaria(salida)));
+            }
+            mezcla.commit();
+            for (Path corrida : grupo) {
+                Files.deleteIfExists(corrida);
+            }
+            resultado.add(nuevaCorrida);
+        }
+        return resultado;
+    }
+
+    /**
+     * Mezcla en k vias un grupo de corridas con {@link MezclaCorridas}.
+     * Ante valores iguales gana la corrida anterior, por lo que la mezcla es estable.
+     * @param corridas Corridas ordenadas a mezclar
+     * @param salida Destino de los valores mezclados
+     * @return Cantidad de valores escritos
+     */
+    private long mezclarCorridas(List<Path> corridas, SalidaEnteros salida) throws IOException {
+        int tamanoBuffer = (int) Math.max(BUFFER_MINIMO_CORRIDA,
+                Math.min(1 << 20, presupuestoMemoria / (corridas.size() + 1)));
+        List<LectorCorrida> lectores = new ArrayList<>(corridas.size());
+        long cantidad = 0;
+
+        try {
+            for (Path corrida : corridas) {
+                lectores.add(new LectorCorrida(corrida, tamanoBuffer));
+            }
+
+            MezclaCorridas mezcla = new MezclaCorridas(lectores);
+            while (mezcla.haySiguiente()) {
+                salida.escribir(mezcla.siguiente());
+                cantidad++;
+            }
+        } finally {
+            for (LectorCorrida lector : lectores) {
+                lector.close();
+            }
+        }
+
+        return cantidad;
+    }
+
+    /**
+     * Borra un directorio de trabajo y todo su contenido, sin propagar errores
+     * para no ocultar la excepcion original
+     */
+    static void borrarDirectorio(Path directorio) {
+        try (Stream<Path> contenido = Files.list(directorio)) {
+            contenido.forEach(archivo -> {
+                try {
+                    Files.deleteIfExists(archivo);
+                } catch (IOException e) {
+                    System.err.println("No se pudo borrar el temporal " + archivo + ": " + e.getMessage());
+                }
+            });
+            Files.deleteIfExists(directorio);
+        } catch (IOException e) {
+            System.err.println("No se pudo borrar el directorio temporal " + directorio + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Llena el bloque con los numeros leidos y lo vuelca como corrida cada vez que se completa
+     */
+    private class AcumuladorCorridas implements IntConsumer {
+        private final int[] bloque;
+        private final Path directorioTrabajo;
+        private final List<Path> corridas = new ArrayList<>();
+        private int ocupados;
+        private long cantidad;
+
+        AcumuladorCorridas(int[] bloque, Path directorioTrabajo) {
+            this.bloque = bloque;
+            this.directorioTrabajo = directorioTrabajo;
+        }
+
+        @Override
+        public void accept(int valor) {
+            bloque[ocupados++] = valor;
+            cantidad++;
+            if (ocupados == bloque.length) {
+                try {
+                    corridas.add(volcarCorrida(bloque, ocupados, directorioTrabajo));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                ocupados = 0;
+            }
+        }
+    }
+
+    /**
+     * Destino de los valores producidos por una mezcla
+     */
+    private interface SalidaEnteros {
+        void escribir(int valor) throws IOException;
+    }
+
+    /**
+     * Escribe enteros binarios para una corrida intermedia
+     */
+    private static class SalidaBinaria implements SalidaEnteros {
+        private final DataOutputStream salida;
+
+        SalidaBinaria(DataOutputStream salida) {
+            this.salida = salida;
+        }
+
+        @Override
+        public void escribir(int valor) throws IOException {
+            salida.writeInt(valor);
+        }
+    }
+
+    /**
+     * Lector secuencial de una corrida
+     */
+    private static class LectorCorrida implements MezclaCorridas.Corrida, Closeable {
+        private final DataInputStream entrada;
+        private int actual;
+
+        LectorCorrida(Path corrida, int tamanoBuffer) throws IOException {
+            this.entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(corrida), tamanoBuffer));
+        }
+
+        @Override
+        public boolean avanzar() throws IOException {
+            try {
+                actual = entrada.readInt();
+                return true;
+            } catch (EOFException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public int actual() {
+            return actual;
+        }
+
+        @Override
+        public void close() throws IOException {
+            entrada.close();
+        }
+    }
+}
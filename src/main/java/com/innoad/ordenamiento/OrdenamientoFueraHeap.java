@@ -0,0 +1,265 @@
+package com.innoad.ordenamiento;
+
+/**
+ * Ordenamiento de un {@link SegmentoEnteros}, fuera del heap y con indices
+ * long, con los mismos algoritmos que el motor en heap:
+ * <ul>
+ *   <li>Merge Sort: los tramos de {@link #TRAMO_EN_HEAP} enteros se ordenan
+ *       con {@link MotorOrdenamiento} sobre un arreglo chico del heap y
+ *       despues se mezclan de a pares, de abajo hacia arriba, alternando
+ *       entre el segmento y un auxiliar del mismo tamano. La mezcla lee y
+ *       escribe por bloques y en caso de empate toma primero el izquierdo.</li>
+ *   <li>Radix LSD de 11 bits como {@link OrdenamientoRadix}: histogramas en
+ *       una sola lectura y sin las pasadas de digitos constantes, con
+ *       contadores long.</li>
+ * </ul>
+ * El heap solo ve unos pocos buffers de tamano fijo, sin importar cuantos
+ * elementos tenga el segmento; el auxiliar se reserva en una arena propia
+ * que se libera al terminar.
+ */
+public final class OrdenamientoFueraHeap {
+
+    /** Enteros de cada tramo que se ordena en el heap antes de mezclar */
+    static final int TRAMO_EN_HEAP = 1 << 16;
+
+    /** Enteros de cada buffer de lectura y escritura de la mezcla y del radix */
+    private static final int TAMANO_BUFFER = 1 << 13;
+
+    private static final int MASCARA_DIGITO = OrdenamientoRadix.TAMANO_DIGITO - 1;
+    private static final int PASADAS_INT = (Integer.SIZE + OrdenamientoRadix.BITS_DIGITO - 1) / OrdenamientoRadix.BITS_DIGITO;
+
+    private OrdenamientoFueraHeap() {
+    }
+
+    /**
+     * Ordena ascendentemente todo el segmento con Merge Sort
+     * @param datos Segmento a ordenar (se modifica en sitio)
+     */
+    public static void ordenar(SegmentoEnteros datos) {
+        ordenar(datos, Algoritmo.MERGE_SORT);
+    }
+
+    /**
+     * Ordena ascendentemente todo el segmento con el algoritmo indicado
+     * @param datos Segmento a ordenar (se modifica en sitio)
+     * @param algoritmo MERGE_SORT o RADIX
+     * @throws IllegalArgumentException si el algoritmo no tiene version fuera del heap
+     */
+    public static void ordenar(SegmentoEnteros datos, Algoritmo algoritmo) {
+        if (algoritmo != Algoritmo.MERGE_SORT && algoritmo != Algoritmo.RADIX) {
+            throw new IllegalArgumentException("Algoritmo no soportado fuera del heap: " + algoritmo);
+        }
+        long longitud = datos.obtenerLongitud();
+        TelemetriaOrdenamiento.Medidor medidor = TelemetriaOrdenamiento.iniciar(longitud);
+        medidor.fijarEstrategia(algoritmo.name() + "_FUERA_HEAP");
+        try {
+            if (longitud <= TRAMO_EN_HEAP) {
+                // Entra en un solo tramo: basta con el motor en heap
+                int[] tramo = new int[(int) longitud];
+                datos.leer(0, tramo, 0, tramo.length);
+                MotorOrdenamiento.ordenar(tramo, algoritmo);
+                datos.escribir(0, tramo, 0, tramo.length);
+                return;
+            }
+
+            try (ArenaFueraHeap temporal = new ArenaFueraHeap()) {
+                SegmentoEnteros auxiliar = temporal.reservarEnteros(longitud);
+                if (algoritmo == Algoritmo.RADIX) {
+                    ordenarRadix(datos, auxiliar);
+                } else {
+                    ordenarMergeSort(datos, auxiliar);
+                }
+            }
+        } finally {
+            medidor.terminar();
+        }
+    }
+
+    private static void ordenarMergeSort(SegmentoEnteros datos, SegmentoEnteros auxiliar) {
+        long longitud = datos.obtenerLongitud();
+
+        // Los tramos ordenados van donde haga falta para que la ultima mezcla termine en datos
+        int niveles = 0;
+        for (long ancho = TRAMO_EN_HEAP; ancho < longitud; ancho <<= 1) {
+            niveles++;
+        }
+        SegmentoEnteros origen = niveles % 2 == 0 ? datos : auxiliar;
+        SegmentoEnteros destino = origen == datos ? auxiliar : datos;
+
+        // El tramo y su copia se reutilizan, asi el heap no recibe basura por cada tramo
+        int[] tramo = new int[TRAMO_EN_HEAP];
+        int[] copiaTramo = new int[TRAMO_EN_HEAP];
+        EventoFase division = EventoFase.iniciar(EventoFase.Fase.DIVISION, longitud);
+        for (long inicio = 0; inicio < longitud; inicio += TRAMO_EN_HEAP) {
+            int cantidad = (int) Math.min(TRAMO_EN_HEAP, longitud - inicio);
+            datos.leer(inicio, tramo, 0, cantidad);
+            System.arraycopy(tramo, 0, copiaTramo, 0, cantidad);
+            MotorOrdenamiento.mergeSort(copiaTramo, 0, tramo, 0, cantidad);
+            origen.escribir(inicio, tramo, 0, cantidad);
+        }
+        division.commit();
+
+        Mezcla mezcla = new Mezcla();
+        for (long ancho = TRAMO_EN_HEAP; ancho < longitud; ancho <<= 1) {
+            EventoFase pasada = EventoFase.iniciar(EventoFase.Fase.MEZCLA, longitud);
+            for (long inicio = 0; inicio < longitud; inicio += ancho << 1) {
+                long mitad = Math.min(inicio + ancho, longitud);
+                long fin = Math.min(mitad + ancho, longitud);
+                // Sin mitad derecha, o mitades ya en orden: basta con copiar
+                if (mitad == fin || origen.obtener(mitad - 1) <= origen.obtener(mitad)) {
+                    origen.copiar(inicio, destino, inicio, fin - inicio);
+                } else {
+                    mezcla.mezclar(origen, inicio, mitad, fin, destino);
+                }
+            }
+            pasada.commit();
+            SegmentoEnteros temporal = origen;
+            origen = destino;
+            destino = temporal;
+        }
+    }
+
+    private static void ordenarRadix(SegmentoEnteros datos, SegmentoEnteros auxiliar) {
+        long longitud = datos.obtenerLongitud();
+        int[] buffer = new int[TAMANO_BUFFER];
+
+        // Histogramas de todas las pasadas en una sola lectura
+        long[][] conteos = new long[PASADAS_INT][OrdenamientoRadix.TAMANO_DIGITO];
+        for (long inicio = 0; inicio < longitud; inicio += TAMANO_BUFFER) {
+            int cantidad = (int) Math.min(TAMANO_BUFFER, longitud - inicio);
+            datos.leer(inicio, buffer, 0, cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                int clave = buffer[i] ^ Integer.MIN_VALUE;
+                for (int pasada = 0; pasada < PASADAS_INT; pasada++) {
+                    conteos[pasada][(clave >>> (pasada * OrdenamientoRadix.BITS_DIGITO)) & MASCARA_DIGITO]++;
+                }
+            }
+        }
+
+        SegmentoEnteros origen = datos;
+        SegmentoEnteros destino = auxiliar;
+        for (int pasada = 0; pasada < PASADAS_INT; pasada++) {
+            long[] conteo = conteos[pasada];
+            if (esColumnaConstante(conteo, longitud)) {
+                continue;
+            }
+
+            convertirEnPosiciones(conteo);
+            int desplazamiento = pasada * OrdenamientoRadix.BITS_DIGITO;
+            for (long inicio = 0; inicio < longitud; inicio += TAMANO_BUFFER) {
+                int cantidad = (int) Math.min(TAMANO_BUFFER, longitud - inicio);
+                origen.leer(inicio, buffer, 0, cantidad);
+                for (int i = 0; i < cantidad; i++) {
+                    int valor = buffer[i];
+                    destino.asignar(conteo[((valor ^ Integer.MIN_VALUE) >>> desplazamiento) & MASCARA_DIGITO]++, valor);
+                }
+            }
+
+            SegmentoEnteros temporal = origen;
+            origen = destino;
+            destino = temporal;
+        }
+
+        if (origen != datos) {
+            origen.copiar(0, datos, 0, longitud);
+        }
+    }
+
+    private static boolean esColumnaConstante(long[] conteo, long longitud) {
+        for (long cantidad : conteo) {
+            if (cantidad != 0) {
+                return cantidad == longitud;
+            }
+        }
+        return true;
+    }
+
+    private static void convertirEnPosiciones(long[] conteo) {
+        long suma = 0;
+        for (int i = 0; i < conteo.length; i++) {
+            long cantidad = conteo[i];
+            conteo[i] = suma;
+            suma += cantidad;
+        }
+    }
+
+    /**
+     * Mezcla de dos tramos de un segmento a traves de buffers del heap: cada
+     * lado se lee por bloques y la salida se acumula y se escribe por bloques.
+     * Los buffers se reutilizan entre mezclas
+     */
+    private static final class Mezcla {
+        private final int[] izquierda = new int[TAMANO_BUFFER];
+        private final int[] derecha = new int[TAMANO_BUFFER];
+        private final int[] salida = new int[TAMANO_BUFFER];
+
+        void mezclar(SegmentoEnteros origen, long inicio, long mitad, long fin, SegmentoEnteros destino) {
+            long siguienteIzq = inicio;
+            long siguienteDer = mitad;
+            long posicionDestino = inicio;
+            int indiceIzq = 0;
+            int finIzq = 0;
+            int indiceDer = 0;
+            int finDer = 0;
+            int cantidadSalida = 0;
+
+            while (true) {
+                if (indiceIzq == finIzq) {
+                    if (siguienteIzq == mitad) {
+                        break;
+                    }
+                    finIzq = (int) Math.min(TAMANO_BUFFER, mitad - siguienteIzq);
+                    origen.leer(siguienteIzq, izquierda, 0, finIzq);
+                    siguienteIzq += finIzq;
+                    indiceIzq = 0;
+                }
+                if (indiceDer == finDer) {
+                    if (siguienteDer == fin) {
+                        break;
+                    }
+                    finDer = (int) Math.min(TAMANO_BUFFER, fin - siguienteDer);
+                    origen.leer(siguienteDer, derecha, 0, finDer);
+                    siguienteDer += finDer;
+                    indiceDer = 0;
+                }
+
+                // Hasta agotar uno de los buffers o llenar la salida, sin controles de bloque
+                int limite = Math.min(finIzq - indiceIzq, finDer - indiceDer);
+                limite = Math.min(limite, TAMANO_BUFFER - cantidadSalida);
+                for (int i = 0; i < limite; i++) {
+                    int valorIzq = izquierda[indiceIzq];
+                    int valorDer = derecha[indiceDer];
+                    // En caso de empate se toma primero el izquierdo: la mezcla es estable
+                    if (valorIzq <= valorDer) {
+                        salida[cantidadSalida++] = valorIzq;
+                        indiceIzq++;
+                    } else {
+                        salida[cantidadSalida++] = valorDer;
+                        indiceDer++;
+                    }
+                }
+                if (cantidadSalida == TAMANO_BUFFER) {
+                    destino.escribir(posicionDestino, salida, 0, cantidadSalida);
+                    posicionDestino += cantidadSalida;
+                    cantidadSalida = 0;
+                }
+            }
+
+            destino.escribir(posicionDestino, salida, 0, cantidadSalida);
+            posicionDestino += cantidadSalida;
+
+            // Un lado se agoto: lo que queda en el buffer del otro y el resto de su tramo van tal cual
+            if (indiceIzq < finIzq) {
+                destino.escribir(posicionDestino, izquierda, indiceIzq, finIzq - indiceIzq);
+                posicionDestino += finIzq - indiceIzq;
+            }
+            if (indiceDer < finDer) {
+                destino.escribir(posicionDestino, derecha, indiceDer, finDer - indiceDer);
+                posicionDestino += finDer - indiceDer;
+            }
+            origen.copiar(siguienteIzq, destino, posicionDestino, mitad - siguienteIzq);
+            posicionDestino += mitad - siguienteIzq;
+            origen.copiar(siguienteDer, destino, posicionDestino, fin - siguienteDer);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.innoad.ordenamiento;
+
+/**
+ * Radix Sort LSD (digito menos significativo primero) para claves int y long
+ * de rango completo. Usa digitos de 11 bits: 3 pasadas para int y 6 para long.
+ * El bit de signo se invierte al extraer los digitos, asi los negativos quedan
+ * antes que los positivos. Todos los histogramas se calculan en una sola
+ * lectura y se omite cualquier pasada cuyo digito sea igual en todos los
+ * elementos. Cada pasada es estable, igual que la mezcla de Merge Sort.
+ */
+public final class OrdenamientoRadix {
+
+    /** Bits por digito */
+    static final int BITS_DIGITO = 11;
+
+    /** Cantidad de cubetas por pasada */
+    static final int TAMANO_DIGITO = 1 << BITS_DIGITO;
+
+    private static final int MASCARA_DIGITO = TAMANO_DIGITO - 1;
+    private static final int PASADAS_INT = (Integer.SIZE + BITS_DIGITO - 1) / BITS_DIGITO;
+    private static final int PASADAS_LONG = (Long.SIZE + BITS_DIGITO - 1) / BITS_DIGITO;
+
+    private OrdenamientoRadix() {
+    }
+
+    /**
+     * Ordena ascendentemente todo el arreglo
+     * @param datos Arreglo a ordenar (se modifica en sitio)
+     */
+    public static void ordenar(int[] datos) {
+        ordenar(datos, 0, datos.length);
+    }
+
+    /**
+     * Ordena ascendentemente el rango [desde, hasta) del arreglo
+     * @param datos Arreglo a ordenar (se modifica en sitio)
+     * @param desde Indice inicial, inclusivo
+     * @param hasta Indice final, exclusivo
+     */
+    public static void ordenar(int[] datos, int desde, int hasta) {
+        MotorOrdenamiento.verificarRango(datos.length, desde, hasta);
+        int longitud = hasta - desde;
+        if (longitud <= MotorOrdenamiento.UMBRAL_INSERCION) {
+            MotorOrdenamiento.ordenarInsercion(datos, desde, hasta);
+            return;
+        }
+
+        // Histogramas de todas las pasadas en una sola lectura
+        int[][] conteos = new int[PASADAS_INT][TAMANO_DIGITO];
+        for (int i = desde; i < hasta; i++) {
+            int clave = datos[i] ^ Integer.MIN_VALUE;
+            for (int pasada = 0; pasada < PASADAS_INT; pasada++) {
+                conteos[pasada][(clave >>> (pasada * BITS_DIGITO)) & MASCARA_DIGITO]++;
+            }
+        }
+
+        int[] origen = datos;
+        int inicioOrigen = desde;
+        int[] destino = null;
+        int inicioDestino = 0;
+        for (int pasada = 0; pasada < PASADAS_INT; pasada++) {
+            int[] conteo = conteos[pasada];
+            if (esColumnaConstante(conteo, longitud)) {
+                continue;
+            }
+            if (destino == null) {
+                destino = new int[longitud];
+            }
+
+            convertirEnPosiciones(conteo);
+            int desplazamiento = pasada * BITS_DIGITO;
+            int finOrigen = inicioOrigen + longitud;
+            for (int i = inicioOrigen; i < finOrigen; i++) {
+                int valor = origen[i];
+                int digito = ((valor ^ Integer.MIN_VALUE) >>> desplazamiento) & MASCARA_DIGITO;
+                destino[inicioDestino + conteo[digito]++] = valor;
+            }
+
+            // Intercambiar origen y destino para la siguiente pasada
+            int[] temporal = origen;
+            origen = destino;
+            destino = temporal;
+            int inicioTemporal = inicioOrigen;
+            inicioOrigen = inicioDestino;
+            inicioDestino = inicioTemporal;
+        }
+
+        if (origen != datos) {
+            System.arraycopy(origen, inicioOrigen, datos, desde, longitud);
+        }
+    }
+
+    /**
+     * Ordena ascendentemente todo el arreglo de claves long
+     * @param datos Arreglo a ordenar (se modifica en sitio)
+     */
+    public static void ordenar(long[] datos) {
+        ordenar(datos, 0, datos.length);
+    }
+
+    /**
+     * Ordena ascendentemente el rango [desde, hasta) de un arreglo de claves long
+     * @param datos Arreglo a ordenar (se modifica en sitio)
+     * @param desde Indice inicial, inclusivo
+     * @param hasta Indice final, exclusivo
+     */
+    public static void ordenar(long[] datos, int desde, int hasta) {
+        MotorOrdenamiento.verificarRango(datos.length, desde, hasta);
+        if (hasta - desde <= MotorOrdenamiento.UMBRAL_INSERCION) {
+            ordenarInsercion(datos, desde, hasta);
+            return;
+        }
+        ordenarDesdeBit(datos, desde, hasta, 0);
+    }
+
+    /**
+     * Ordena un arreglo long mirando solo los 32 bits altos de cada valor. Los
+     * 32 bits bajos no se comparan: como cada pasada es estable, los valores
+     * con la misma mitad alta conservan el orden que traian. Sirve para pares
+     * clave-carga empaquetados como {@code (clave << 32) | carga}
+     * @param datos Arreglo a ordenar (se modifica en sitio)
+     */
+    static void ordenarPorMitadAlta(long[] datos) {
+        ordenarDesdeBit(datos, 0, datos.length, Integer.SIZE);
+    }
+
+    /**
+     * Ordena claves long y mueve junto a cada una el entero de la misma
+     * posicion de cargas, por ejemplo su indice original. A igual clave las
+     * cargas conservan el orden que traian
+     * @param claves Claves a ordenar (se modifica en sitio)
+     * @param cargas Enteros asociados a cada clave (se reordenan igual que las claves)
+     * @throws IllegalArgumentException si los arreglos no tienen la misma longitud
+     */
+    public static void ordenar(long[] claves, int[] cargas) {
+        if (claves.length != cargas.length) {
+            throw new IllegalArgumentException("Hay " + claves.length + " claves y "
+                    + cargas.length + " cargas");
+        }
+        int longitud = claves.length;
+        if (longitud <= MotorOrdenamiento.UMBRAL_INSERCION) {
+            ordenarInsercion(claves, cargas);
+            return;
+        }
+
+        int[][] conteos = histogramas(claves, 0, longitud, 0);
+        long[] origenClaves = claves;
+        int[] origenCargas = cargas;
+        long[] destinoClaves = null;
+        int[] destinoCargas = null;
+        for (int pasada = 0; pasada < PASADAS_LONG; pasada++) {
+            int[] conteo = conteos[pasada];
+            if (esColumnaConstante(conteo, longitud)) {
+                continue;
+            }
+            if (destinoClaves == null) {
+                destinoClaves = new long[longitud];
+                destinoCargas = new int[longitud];
+            }
+
+            convertirEnPosiciones(conteo);
+            int desplazamiento = pasada * BITS_DIGITO;
+            for (int i = 0; i < longitud; i++) {
+                long valor = origenClaves[i];
+                int posicion = conteo[(int) ((valor ^ Long.MIN_VALUE) >>> desplazamiento) & MASCARA_DIGITO]++;
+                destinoClaves[posicion] = valor;
+                destinoCargas[posicion] = origenCargas[i];
+            }
+
+            long[] temporalClaves = origenClaves;
+            origenClaves = destinoClaves;
+            destinoClaves = temporalClaves;
+            int[] temporalCargas = origenCargas;
+            origenCargas = destinoCargas;
+            destinoCargas = temporalCargas;
+        }
+
+        if (origenClaves != claves) {
+            System.arraycopy(origenClaves, 0, claves, 0, longitud);
+            System.arraycopy(origenCargas, 0, cargas, 0, longitud);
+        }
+    }
+
+    /**
+     * Radix sobre [desde, hasta) que solo recorre los digitos desde primerBit
+     * hacia arriba; los bits mas bajos no intervienen en el orden
+     */
+    private static void ordenarDesdeBit(long[] datos, int desde, int hasta, int primerBit) {
+        int longitud = hasta - desde;
+        int[][] conteos = histogramas(datos, desde, hasta, primerBit);
+
+        long[] origen = datos;
+        int inicioOrigen = desde;
+        long[] destino = null;
+        int inicioDestino = 0;
+        for (int pasada = 0; pasada < conteos.length; pasada++) {
+            int[] conteo = conteos[pasada];
+            if (esColumnaConstante(conteo, longitud)) {
+                continue;
+            }
+            if (destino == null) {
+                destino = new long[longitud];
+            }
+
+            convertirEnPosiciones(conteo);
+            int desplazamiento = primerBit + pasada * BITS_DIGITO;
+            int finOrigen = inicioOrigen + longitud;
+            for (int i = inicioOrigen; i < finOrigen; i++) {
+                long valor = origen[i];
+                int digito = (int) ((valor ^ Long.MIN_VALUE) >>> desplazamiento) & MASCARA_DIGITO;
+                destino[inicioDestino + conteo[digito]++] = valor;
+            }
+
+            long[] temporal = origen;
+            origen = destino;
+            destino = temporal;
+            int inicioTemporal = inicioOrigen;
+            inicioOrigen = inicioDestino;
+            inicioDestino = inicioTemporal;
+        }
+
+        if (origen != datos) {
+            System.arraycopy(origen, inicioOrigen, datos, desde, longitud);
+        }
+    }
+
+    /**
+     * Histogramas de todas las pasadas long desde primerBit en una sola lectura
+     */
+    private static int[][] histogramas(long[] datos, int desde, int hasta, int primerBit) {
+        int pasadas = (Long.SIZE - primerBit + BITS_DIGITO - 1) / BITS_DIGITO;
+        int[][] conteos = new int[pasadas][TAMANO_DIGITO];
+        for (int i = desde; i < hasta; i++) {
+            long clave = (datos[i] ^ Long.MIN_VALUE) >>> primerBit;
+            for (int pasada = 0; pasada < pasadas; pasada++) {
+                conteos[pasada][(int) (clave >>> (pasada * BITS_DIGITO)) & MASCARA_DIGITO]++;
+            }
+        }
+        return conteos;
+    }
+
+    /**
+     * Indica si todos los elementos caen en la misma cubeta, en cuyo caso la
+     * pasada no cambiaria el orden y se puede omitir
+     * @param conteo Histograma de la pasada
+     * @param longitud Cantidad total de elementos
+     */
+    static boolean esColumnaConstante(int[] conteo, int longitud) {
+        for (int cantidad : conteo) {
+            if (cantidad != 0) {
+                return cantidad == longitud;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Convierte un histograma en la posicion inicial de cada cubeta (suma prefija exclusiva)
+     * @param conteo Histograma que se reemplaza por las posiciones
+     */
+    static void convertirEnPosiciones(int[] conteo) {
+        int suma = 0;
+        for (int i = 0; i < conteo.length; i++) {
+            int cantidad = conteo[i];
+            conteo[i] = suma;
+            suma += cantidad;
+        }
+    }
+
+    /**
+     * Ordenamiento por insercion del rango [desde, hasta) de un arreglo long
+     */
+    static void ordenarInsercion(long[] datos, int desde, int hasta) {
+        for (int i = desde + 1; i < hasta; i++) {
+            long actual = datos[i];
+            int j = i - 1;
+            while (j >= desde && datos[j] > actual) {
+                datos[j + 1] = datos[j];
+                j--;
+            }
+            datos[j + 1] = actual;
+        }
+    }
+
+    /**
+     * Ordenamiento por insercion de claves long que mueve tambien sus cargas
+     */
+    private static void ordenarInsercion(long[] claves, int[] cargas) {
+        for (int i = 1; i < claves.length; i++) {
+            long actual = claves[i];
+            int carga = cargas[i];
+            int j = i - 1;
+            while (j >= 0 && claves[j] > actual) {
+                claves[j + 1] = claves[j];
+                cargas[j + 1] = cargas[j];
+                j--;
+            }
+            claves[j + 1] = actual;
+            cargas[j + 1] = carga;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.innoad.ordenamiento;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Ordenamiento estable de registros (objetos) por una o varias claves. Los
+ * objetos no se mueven mientras se ordena: se ordena una permutacion de
+ * indices y al final cada registro se copia una sola vez a su lugar.
+ * <ul>
+ *   <li>Con una clave int, clave e indice original se empaquetan en un long
+ *       {@code (clave << 32) | indice} y se ordenan con Radix mirando solo la
+ *       mitad alta; el indice viaja en la mitad baja sin costo extra.</li>
+ *   <li>Con claves long, o varias claves, se extrae cada clave una vez a un
+ *       long[] y se aplica Radix LSD por clave, de la ultima a la primera,
+ *       moviendo el indice junto a la clave. Dos claves int seguidas se
+ *       combinan en un solo long, asi se ahorra una ronda de pasadas. En el
+ *       camino caliente no hay llamadas a comparadores.</li>
+ *   <li>Con un Comparator se ordena la permutacion con Merge Sort; la mezcla
+ *       toma primero el izquierdo en caso de empate, igual que
+ *       {@link MotorOrdenamiento}.</li>
+ * </ul>
+ * En todos los casos, los registros con claves iguales conservan su orden
+ * original.
+ */
+public final class OrdenamientoRegistros {
+
+    private OrdenamientoRegistros() {
+    }
+
+    /**
+     * Una clave de ordenamiento: una funcion que extrae un int o un long del
+     * registro y el sentido del orden
+     * @param <T> Tipo de registro
+     */
+    public static final class Clave<T> {
+        private final ToIntFunction<? super T> entero;
+        private final ToLongFunction<? super T> largo;
+        private final boolean descendente;
+
+        private Clave(ToIntFunction<? super T> entero, ToLongFunction<? super T> largo, boolean descendente) {
+            this.entero = entero;
+            this.largo = largo;
+            this.descendente = descendente;
+        }
+
+        /**
+         * @param extractor Funcion que devuelve la clave int del registro
+         * @return Clave ascendente
+         */
+        public static <T> Clave<T> entero(ToIntFunction<? super T> extractor) {
+            if (extractor == null) {
+                throw new IllegalArgumentException("El extractor de la clave no puede ser null");
+            }
+            return new Clave<>(extractor, null, false);
+        }
+
+        /**
+         * @param extractor Funcion que devuelve la clave long del registro
+         * @return Clave ascendente
+         */
+        public static <T> Clave<T> largo(ToLongFunction<? super T> extractor) {
+            if (extractor == null) {
+                throw new IllegalArgumentException("El extractor de la clave no puede ser null");
+            }
+            return new Clave<>(null, extractor, false);
+        }
+
+        /**
+         * @return La misma clave en orden descendente. A igual clave se
+         *         mantiene el orden original, no se invierte
+         */
+        public Clave<T> descendente() {
+            return new Clave<>(entero, largo, !descendente);
+        }
+
+        /** @return true si la clave es de 32 bits */
+        boolean esEntera() {
+            return entero != null;
+        }
+
+        /**
+         * El complemento invierte el orden sin desbordar, a diferencia de la negacion
+         */
+        int extraerEntero(T registro) {
+            int clave = entero.applyAsInt(registro);
+            return descendente ? ~clave : clave;
+        }
+
+        long extraerLargo(T registro) {
+            if (entero != null) {
+                return extraerEntero(registro);
+            }
+            long clave = largo.applyAsLong(registro);
+            return descendente ? ~clave : clave;
+        }
+    }
+
+    /**
+     * Ordena los registros por una clave int
+     * @param registros Registros a ordenar (se modifica en sitio)
+     * @param clave Funcion que devuelve la clave de cada registro
+     */
+    public static <T> void ordenarPorEntero(T[] registros, ToIntFunction<? super T> clave) {
+        ordenar(registros, Clave.entero(clave));
+    }
+
+    /**
+     * Ordena los registros por una clave long
+     * @param registros Registros a ordenar (se modifica en sitio)
+     * @param clave Funcion que devuelve la clave de cada registro
+     */
+    public static <T> void ordenarPorLargo(T[] registros, ToLongFunction<? super T> clave) {
+        ordenar(registros, Clave.largo(clave));
+    }
+
+    /**
+     * Ordena los registros lexicograficamente por varias claves: primero por
+     * la primera, a igual primera por la segunda, y asi sucesivamente
+     * @param registros Registros a ordenar (se modifica en sitio)
+     * @param claves Claves en orden de prioridad
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> void ordenar(T[] registros, Clave<? super T>... claves) {
+        aplicar(registros, permutacionClaves(registros, claves));
+    }
+
+    /**
+     * Ordena los registros con un comparador, de forma estable
+     * @param registros Registros a ordenar (se modifica en sitio)
+     * @param comparador Orden de los registros
+     */
+    public static <T> void ordenar(T[] registros, Comparator<? super T> comparador) {
+        aplicar(registros, permutacion(registros, comparador));
+    }
+
+    /**
+     * Ordena una lista lexicograficamente por varias claves
+     * @param lista Lista a ordenar (se modifica en sitio)
+     * @param claves Claves en orden de prioridad
+     */
+    @SafeVarargs
+    @SuppressWarnings({"unchecked", "varargs"})
+    public static <T> void ordenar(List<T> lista, Clave<? super T>... claves) {
+        T[] registros = (T[]) lista.toArray();
+        aplicar(lista, registros, permutacionClaves(registros, claves));
+    }
+
+    /**
+     * Ordena una lista con un comparador, de forma estable
+     * @param lista Lista a ordenar (se modifica en sitio)
+     * @param comparador Orden de los registros
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void ordenar(List<T> lista, Comparator<? super T> comparador) {
+        T[] registros = (T[]) lista.toArray();
+        aplicar(lista, registros, permutacion(registros, comparador));
+    }
+
+    /**
+     * Calcula el orden de los registros sin moverlos
+     * @param registros Registros a ordenar (no se modifica)
+     * @param claves Claves en orden de prioridad
+     * @return Permutacion: la posicion i del resultado tiene el indice
+     *         original del registro que va en el lugar i
+     * @throws IllegalArgumentException si no se indica ninguna clave
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> int[] permutacion(T[] registros, Clave<? super T>... claves) {
+        return permutacionClaves(registros, claves);
+    }
+
+    /**
+     * Calcula el orden de los registros con un comparador sin moverlos
+     * @param registros Registros a ordenar (no se modifica)
+     * @param comparador Orden de los registros
+     * @return Permutacion: la posicion i del resultado tiene el indice
+     *         original del registro que va en el lugar i
+     */
+    public static <T> int[] permutacion(T[] registros, Comparator<? super T> comparador) {
+        int[] indices = identidad(registros.length);
+        if (indices.length > 1) {
+            int[] auxiliar = indices.clone();
+            mergeSort(registros, comparador, auxiliar, indices, 0, indices.length);
+        }
+        return indices;
+    }
+
+    /**
+     * Solo lee el arreglo de claves y no lo guarda: por eso los metodos
+     * varargs que le pasan el suyo son seguros
+     */
+    private static <T> int[] permutacionClaves(T[] registros, Clave<? super T>[] claves) {
+        if (claves.length == 0) {
+            throw new IllegalArgumentException("Hace falta al menos una clave");
+        }
+        int longitud = registros.length;
+        if (claves.length == 1 && claves[0].esEntera()) {
+            return permutacionEntera(registros, claves[0]);
+        }
+
+        List<long[]> columnas = extraerColumnas(registros, claves);
+        int[] indices = identidad(longitud);
+        // LSD por columnas: la ultima clave primero; al ser cada ronda estable,
+        // las rondas siguientes respetan el orden de las claves menos importantes
+        for (int c = columnas.size() - 1; c >= 0; c--) {
+            long[] columna = columnas.get(c);
+            if (c < columnas.size() - 1) {
+                long[] permutada = new long[longitud];
+                for (int i = 0; i < longitud; i++) {
+                    permutada[i] = columna[indices[i]];
+                }
+                columna = permutada;
+            }
+            OrdenamientoRadix.ordenar(columna, indices);
+        }
+        return indices;
+    }
+
+    /**
+     * Una sola clave int: clave e indice empaquetados en un long y Radix sobre la mitad alta
+     */
+    private static <T> int[] permutacionEntera(T[] registros, Clave<? super T> clave) {
+        int longitud = registros.length;
+        long[] pares = new long[longitud];
+        for (int i = 0; i < longitud; i++) {
+            pares[i] = ((long) clave.extraerEntero(registros[i]) << Integer.SIZE) | i;
+        }
+        OrdenamientoRadix.ordenarPorMitadAlta(pares);
+
+        int[] indices = new int[longitud];
+        for (int i = 0; i < longitud; i++) {
+            indices[i] = (int) pares[i];
+        }
+        return indices;
+    }
+
+    /**
+     * Extrae cada clave una sola vez. Dos claves int seguidas comparten una
+     * columna: la primera en la mitad alta con signo y la segunda en la baja
+     * con el signo invertido, asi el orden del long es el lexicografico
+     */
+    private static <T> List<long[]> extraerColumnas(T[] registros, Clave<? super T>[] claves) {
+        int longitud = registros.length;
+        List<long[]> columnas = new ArrayList<>(claves.length);
+        int c = 0;
+        while (c < claves.length) {
+            Clave<? super T> clave = claves[c];
+            long[] columna = new long[longitud];
+            if (clave.esEntera() && c + 1 < claves.length && claves[c + 1].esEntera()) {
+                Clave<? super T> siguiente = claves[c + 1];
+                for (int i = 0; i < longitud; i++) {
+                    T registro = registros[i];
+                    columna[i] = ((long) clave.extraerEntero(registro) << Integer.SIZE)
+                            | ((siguiente.extraerEntero(registro) ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+                }
+                c += 2;
+            } else {
+                for (int i = 0; i < longitud; i++) {
+                    columna[i] = clave.extraerLargo(registros[i]);
+                }
+                c++;
+            }
+            columnas.add(columna);
+        }
+        return columnas;
+    }
+
+    /**
+     * Merge Sort de indices con el mismo esquema que
+     * {@link MotorOrdenamiento#mergeSort}: origen y destino alternan su papel
+     * en cada nivel y el resultado queda en destino
+     */
+    private static <T> void mergeSort(T[] registros, Comparator<? super T> comparador,
+                                      int[] origen, int[] destino, int desde, int hasta) {
+        if (hasta - desde <= MotorOrdenamiento.UMBRAL_INSERCION) {
+            ordenarInsercion(registros, comparador, destino, desde, hasta);
+            return;
+        }
+
+        int mitad = (desde + hasta) >>> 1;
+        mergeSort(registros, comparador, destino, origen, desde, mitad);
+        mergeSort(registros, comparador, destino, origen, mitad, hasta);
+
+        // Si las mitades ya estan en orden basta con copiar
+        if (comparador.compare(registros[origen[mitad - 1]], registros[origen[mitad]]) <= 0) {
+            System.arraycopy(origen, desde, destino, desde, hasta - desde);
+            return;
+        }
+
+        // En caso de empate se toma primero el izquierdo: la mezcla es estable
+        int izquierda = desde;
+        int derecha = mitad;
+        for (int i = desde; i < hasta; i++) {
+            if (derecha >= hasta || (izquierda < mitad
+                    && comparador.compare(registros[origen[izquierda]], registros[origen[derecha]]) <= 0)) {
+                destino[i] = origen[izquierda++];
+            } else {
+                destino[i] = origen[derecha++];
+            }
+        }
+    }
+
+    private static <T> void ordenarInsercion(T[] registros, Comparator<? super T> comparador,
+                                             int[] indices, int desde, int hasta) {
+        for (int i = desde + 1; i < hasta; i++) {
+            int actual = indices[i];
+            T registro = registros[actual];
+            int j = i - 1;
+            while (j >= desde && comparador.compare(registros[indices[j]], registro) > 0) {
+                indices[j + 1] = indices[j];
+                j--;
+            }
+            indices[j + 1] = actual;
+        }
+    }
+
+    private static int[] identidad(int longitud) {
+        int[] indices = new int[longitud];
+        for (int i = 0; i < longitud; i++) {
+            indices[i] = i;
+        }
+        return indices;
+    }
+
+    /**
+     * Mueve cada registro a su lugar segun la permutacion
+     */
+    private static <T> void aplicar(T[] registros, int[] indices) {
+        T[] originales = registros.clone();
+        for (int i = 0; i < indices.length; i++) {
+            registros[i] = originales[indices[i]];
+        }
+    }
+
+    /**
+     * Escribe los registros en la lista con un ListIterator, como List.sort
+     */
+    private static <T> void aplicar(List<T> lista, T[] registros, int[] indices) {
+        ListIterator<T> iterador = lista.listIterator();
+        for (int indice : indices) {
+            iterador.next();
+            iterador.set(registros[indice]);
+        }
+    }
+}
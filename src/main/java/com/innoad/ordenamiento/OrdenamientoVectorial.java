@@ -0,0 +1,127 @@
+package com.innoad.ordenamiento;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Merge Sort con instrucciones SIMD a traves de la Vector API
+ * (jdk.incubator.vector): bloques ordenados con redes bitonicas dentro de
+ * los registros y mezclas que avanzan de a un vector por comparacion. Los
+ * nucleos estan en {@link NucleosVectoriales}.
+ * <p>
+ * La Vector API sigue en incubacion, asi que el modulo solo esta presente
+ * si la JVM se lanza con {@code --add-modules jdk.incubator.vector}. Si no
+ * esta, si el procesador tiene vectores de menos de 4 enteros o si la
+ * propiedad de sistema innoad.ordenamiento.vectorial vale false, se usa el
+ * motor escalar, con el mismo resultado.
+ */
+public final class OrdenamientoVectorial {
+
+    /** Por debajo de esta longitud el Merge Sort escalar es igual o mas rapido */
+    static final int LONGITUD_MINIMA = 256;
+
+    private static final String MODULO = "jdk.incubator.vector";
+
+    /** Numeros que ordena el main si no se indica otra cantidad */
+    private static final int CANTIDAD_PREDETERMINADA = 1_000_000;
+
+    /** Carriles int por vector, o 0 si se usa el motor escalar */
+    private static final int CARRILES = detectarCarriles();
+
+    private OrdenamientoVectorial() {
+    }
+
+    /**
+     * Muestra el modo en uso y ordena numeros aleatorios comparando contra
+     * Arrays.sort. Sirve para confirmar que la JVM se lanzo con el modulo, o
+     * que sin el se usa el motor escalar
+     */
+    public static void main(String[] args) {
+        if (args.length > 1) {
+            System.out.println("Uso: OrdenamientoVectorial [cantidad]");
+            return;
+        }
+
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : CANTIDAD_PREDETERMINADA;
+        System.out.println("Modo: " + describir());
+        int[] datos = new Random(GeneradorDatos.SEMILLA_PREDETERMINADA).ints(cantidad).toArray();
+        int[] esperado = datos.clone();
+        Arrays.sort(esperado);
+
+        long tiempoInicio = System.currentTimeMillis();
+        ordenar(datos);
+        long tiempoTranscurrido = System.currentTimeMillis() - tiempoInicio;
+        if (Arrays.equals(datos, esperado)) {
+            System.out.println("[OK] " + cantidad + " numeros ordenados en " + tiempoTranscurrido + " milisegundos");
+        } else {
+            System.out.println("Error: el resultado no coincide con Arrays.sort");
+        }
+    }
+
+    /**
+     * @return true si los nucleos vectoriales estan en uso
+     */
+    public static boolean estaDisponible() {
+        return CARRILES > 0;
+    }
+
+    /**
+     * @return Descripcion del modo en uso, para mostrar en consola o en los reportes
+     */
+    public static String describir() {
+        return estaDisponible()
+                ? "Vector API con " + CARRILES + " enteros por vector"
+                : "motor escalar (Vector API no disponible o desactivada)";
+    }
+
+    /**
+     * Ordena ascendentemente todo el arreglo
+     * @param datos Arreglo a ordenar (se modifica en sitio)
+     */
+    public static void ordenar(int[] datos) {
+        ordenar(datos, 0, datos.length);
+    }
+
+    /**
+     * Ordena ascendentemente el rango [desde, hasta) del arreglo
+     * @param datos Arreglo a ordenar (se modifica en sitio)
+     * @param desde Indice inicial, inclusivo
+     * @param hasta Indice final, exclusivo
+     */
+    public static void ordenar(int[] datos, int desde, int hasta) {
+        MotorOrdenamiento.verificarRango(datos.length, desde, hasta);
+        int longitud = hasta - desde;
+        if (!estaDisponible() || longitud < LONGITUD_MINIMA) {
+            MotorOrdenamiento.ordenar(datos, desde, hasta, 0);
+            return;
+        }
+        if (desde == 0) {
+            NucleosVectoriales.ordenar(datos, new int[longitud], 0, longitud);
+            return;
+        }
+        // Los nucleos usan los mismos indices en datos y en el auxiliar: un
+        // rango interior se ordena sobre una copia para no reservar de mas
+        int[] tramo = Arrays.copyOfRange(datos, desde, hasta);
+        NucleosVectoriales.ordenar(tramo, new int[longitud], 0, longitud);
+        System.arraycopy(tramo, 0, datos, desde, longitud);
+    }
+
+    /**
+     * Solo toca {@link NucleosVectoriales} si el modulo esta en la capa de
+     * arranque; si aun asi la clase no se puede cargar, se usa el motor escalar
+     */
+    private static int detectarCarriles() {
+        if (!Boolean.parseBoolean(System.getProperty("innoad.ordenamiento.vectorial", "true"))) {
+            return 0;
+        }
+        if (ModuleLayer.boot().findModule(MODULO).isEmpty()) {
+            return 0;
+        }
+        try {
+            int carriles = NucleosVectoriales.CARRILES;
+            return carriles >= 4 ? carriles : 0;
+        } catch (LinkageError e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.innoad.ordenamiento;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prueba de carga del endpoint POST /ordenar de la aplicacion Spring.
+ * Lanza varios clientes concurrentes, cada uno en un hilo virtual, que
+ * envian el mismo cuerpo de texto una y otra vez durante el tiempo indicado.
+ * Cada respuesta se verifica (cantidad y orden) mientras se lee, sin
+ * guardarla completa. Al final muestra el throughput sostenido, la latencia
+ * por percentiles y cuantas solicitudes fueron rechazadas por falta de memoria.
+ */
+public class PruebaCargaServicio {
+
+    private static final String URL_PREDETERMINADA = "http://localhost:8080/ordenar";
+    private static final int CLIENTES_PREDETERMINADOS = 16;
+    private static final int SEGUNDOS_PREDETERMINADOS = 30;
+    private static final int NUMEROS_POR_SOLICITUD_PREDETERMINADOS = 100_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        URI destino = URI.create(args.length > 0 ? args[0] : URL_PREDETERMINADA);
+        int clientes = args.length > 1 ? Integer.parseInt(args[1]) : CLIENTES_PREDETERMINADOS;
+        int segundos = args.length > 2 ? Integer.parseInt(args[2]) : SEGUNDOS_PREDETERMINADOS;
+        int numerosPorSolicitud = args.length > 3 ? Integer.parseInt(args[3]) : NUMEROS_POR_SOLICITUD_PREDETERMINADOS;
+
+        System.out.println("╔══════════════════════════════════════════════════════════════╗");
+        System.out.println("║     PRUEBA DE CARGA DEL SERVICIO DE ORDENAMIENTO             ║");
+        System.out.println("╚══════════════════════════════════════════════════════════════╝");
+        System.out.println("Destino: " + destino);
+        System.out.println("Clientes: " + clientes + ", duración: " + segundos + " s, números por solicitud: "
+                + numerosPorSolicitud);
+
+        byte[] cuerpo = generarCuerpo(numerosPorSolicitud);
+        Estadisticas estadisticas = new Estadisticas();
+        long fin = System.nanoTime() + Duration.ofSeconds(segundos).toNanos();
+
+        long tiempoInicio = System.nanoTime();
+        try (HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+             ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clientes; i++) {
+                hilos.submit(() -> ejecutarCliente(cliente, destino, cuerpo, numerosPorSolicitud, fin, estadisticas));
+            }
+        }
+        long nanosTotales = System.nanoTime() - tiempoInicio;
+
+        mostrarResumen(estadisticas, nanosTotales, cuerpo.length, numerosPorSolicitud);
+    }
+
+    /**
+     * Envia solicitudes en bucle hasta el instante fin
+     */
+    private static void ejecutarCliente(HttpClient cliente, URI destino, byte[] cuerpo, int numerosPorSolicitud,
+                                        long fin, Estadisticas estadisticas) {
+        HttpRequest solicitud = HttpRequest.newBuilder(destino)
+                .header("Content-Type", "text/plain")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(cuerpo))
+                .build();
+
+        while (System.nanoTime() < fin) {
+            long tiempoInicio = System.nanoTime();
+            try {
+                HttpResponse<InputStream> respuesta = cliente.send(solicitud, HttpResponse.BodyHandlers.ofInputStream());
+                try (InputStream contenido = respuesta.body()) {
+                    if (respuesta.statusCode() == 503) {
+                        contenido.readAllBytes();
+                        estadisticas.rechazadas.incrementAndGet();
+                        continue;
+                    }
+                    if (respuesta.statusCode() != 200) {
+                        System.err.println("Respuesta " + respuesta.statusCode() + ": "
+                                + new String(contenido.readAllBytes(), StandardCharsets.UTF_8));
+                        estadisticas.errores.incrementAndGet();
+                        continue;
+                    }
+                    if (!verificarRespuesta(contenido, numerosPorSolicitud)) {
+                        estadisticas.errores.incrementAndGet();
+                        continue;
+                    }
+                }
+                estadisticas.registrarExito(System.nanoTime() - tiempoInicio);
+            } catch (IOException e) {
+                System.err.println("Error en la solicitud: " + e.getMessage());
+                estadisticas.errores.incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Lee la respuesta como flujo comprobando que venga ordenada y completa
+     */
+    private static boolean verificarRespuesta(InputStream contenido, int esperados) throws IOException {
+        long[] anterior = {Long.MIN_VALUE};
+        boolean[] ordenado = {true};
+        LectorNumerosTexto.Resultado resultado = LectorNumerosTexto.recorrer(contenido, valor -> {
+            ordenado[0] &= valor >= anterior[0];
+            anterior[0] = valor;
+        });
+        return ordenado[0] && resultado.esValido() && resultado.obtenerCantidad() == esperados;
+    }
+
+    /**
+     * Genera un cuerpo de texto con enteros aleatorios de rango completo
+     */
+    private static byte[] generarCuerpo(int cantidad) {
+        Random random = new Random();
+        StringBuilder texto = new StringBuilder(cantidad * 12);
+        for (int i = 0; i < cantidad; i++) {
+            texto.append(random.nextInt()).append('\n');
+        }
+        return texto.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static void mostrarResumen(Estadisticas estadisticas, long nanosTotales, int bytesCuerpo,
+                                       int numerosPorSolicitud) {
+        List<Long> latencias = estadisticas.obtenerLatenciasOrdenadas();
+        double segundos = nanosTotales / 1e9;
+        long exitosas = latencias.size();
+
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║RESULTADOS");
+        System.out.println("════════════════════════════════════════════════════════");
+        System.out.println("  Solicitudes exitosas:   " + exitosas);
+        System.out.println("  Rechazadas (503):       " + estadisticas.rechazadas.get());
+        System.out.println("  Errores:                " + estadisticas.errores.get());
+        System.out.println("  Solicitudes por segundo: " + String.format("%.1f", exitosas / segundos));
+        System.out.println("  Números por segundo:     " + String.format("%.0f", exitosas * numerosPorSolicitud / segundos));
+        System.out.println("  MB enviados por segundo: " + String.format("%.2f", exitosas * (double) bytesCuerpo / segundos / (1024 * 1024)));
+        if (!latencias.isEmpty()) {
+            System.out.println("  Latencia p50: " + String.format("%.2f", percentil(latencias, 50) / 1e6) + " ms");
+            System.out.println("  Latencia p95: " + String.format("%.2f", percentil(latencias, 95) / 1e6) + " ms");
+            System.out.println("  Latencia p99: " + String.format("%.2f", percentil(latencias, 99) / 1e6) + " ms");
+            System.out.println("  Latencia máxima: " + String.format("%.2f", latencias.get(latencias.size() - 1) / 1e6) + " ms");
+        }
+    }
+
+    private static long percentil(List<Long> ordenadas, int percentil) {
+        int indice = (int) Math.ceil(percentil / 100.0 * ordenadas.size()) - 1;
+        return ordenadas.get(Math.max(0, indice));
+    }
+
+    /**
+     * Contadores compartidos por todos los clientes
+     */
+    private static class Estadisticas {
+        private final AtomicLong rechazadas = new AtomicLong();
+        private final AtomicLong errores = new AtomicLong();
+        // Cola sin bloqueos: synchronized fijaria el hilo virtual a su hilo portador
+        private final Queue<Long> latencias = new ConcurrentLinkedQueue<>();
+
+        void registrarExito(long nanos) {
+            latencias.add(nanos);
+        }
+
+        List<Long> obtenerLatenciasOrdenadas() {
+            List<Long> copia = new ArrayList<>(latencias);
+            Collections.sort(copia);
+            return copia;
+        }
+    }
+}
@@ -1,15 +1,76 @@
 package com.innoad.ordenamiento;
 
 import java.io.*;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 
 public class PruebasAutomaticas {
 
     private static final String ARCHIVO_RESULTADOS = "resultados_pruebas.txt";
     private static final int NUMERO_MINIMO = 100;
     private static final int NUMERO_MAXIMO = 999;
+    private static final int CANTIDAD_PRUEBA_PARALELA = 2_000_000;
+    private static final int CANTIDAD_PRUEBA_COMPARACION = 1_000_000;
+    private static final int REPETICIONES_MEDICION = 3;
+    private static final int CANTIDAD_ARREGLOS_LOTE = 10_000;
+    private static final int LONGITUD_MINIMA_LOTE = 10;
+    private static final int LONGITUD_MAXIMA_LOTE = 1000;
+    private static final long TAMANO_CACHE_PRUEBA = 64L * 1024 * 1024;
+    private static final int CANTIDAD_MENORES_SELECCION = 10;
+    private static final int CANTIDAD_PRUEBA_FUERA_HEAP = 20_000_000;
+    private static final int CASOS_ALEATORIOS_VERIFICACION = 20;
+    private static final int CANTIDAD_MAXIMA_VERIFICACION = 200_000;
+    private static final int ARBOLES_VERIFICACION = 3;
+    private static final int ARCHIVOS_MAXIMOS_ARBOL = 300;
+    private static final long ESPERA_VIGILANCIA_MS = 15_000;
+    private static final long TAMANO_PRUEBA_LINEAS = 32L * 1024 * 1024;
+    private static final int CANTIDAD_PRUEBA_ESCALAR = 100_000;
+    private static final long ESPERA_PROCESO_MS = 60_000;
+    private static final int TRABAJADORES_VERIFICACION = 2;
+    private static final int MEMORIA_TRABAJADOR_VERIFICACION_MB = 64;
+    private static final int CAPACIDAD_ALMACEN_VERIFICACION = 1000;
+    private static final int FACTOR_ALMACEN_VERIFICACION = 3;
+    private static final int LOTE_MAXIMO_ALMACEN = 20_000;
+    private static final Path DIRECTORIO_JAR = Paths.get("build", "libs");
+    private static final int CANTIDAD_ARENA_VERIFICACION = 16 * 1024 * 1024;
+    private static final long ESPERA_RECOLECTOR_MS = 10_000;
+    private static final String[] LINEAS_MAL_FORMADAS = {
+            "12a", "1 2", "-", "+", "--5", "2147483648", "-2147483649", "abc", "9 -", "0x10"
+    };
+
+    /** Errores informados en consola; si hay alguno el proceso termina con codigo 1 */
+    private static final AtomicInteger ERRORES = new AtomicInteger();
 
     public static void main(String[] args) {
         System.out.println("╔══════════════════════════════════════════════════════════════╗");
@@ -17,162 +78,2004 @@ public class PruebasAutomaticas {
         System.out.println("╚══════════════════════════════════════════════════════════════╝");
         System.out.println();
 
-        // Cantidades de números a probar (mínimo 5 pruebas)
+        // Cantidades de números a probar (mínimo 5 pruebas). Aqui solo se comprueba el resultado:
+        // los tiempos de Merge Sort salen de los benchmarks JMH
         int[] cantidadesPruebas = {1000, 5000, 10000, 25000, 50000};
+        List<ResultadoVerificacion> verificaciones = new ArrayList<>(verificarMergeSort(cantidadesPruebas));
 
-        List<ResultadoPrueba> todosLosResultados = new ArrayList<>();
+        // Medir aceleracion del modo paralelo frente al secuencial
+        List<ResultadoParalelo> resultadosParalelos = medirAceleracionParalela(CANTIDAD_PRUEBA_PARALELA);
 
-        // Realizar pruebas para cada cantidad
-        for (int cantidad : cantidadesPruebas) {
-            System.out.println("\n════════════════════════════════════════════════════════");
-            System.out.println("║PRUEBA CON " + cantidad + " NÚMEROS");
-            System.out.println("════════════════════════════════════════════════════════");
+        // Comparar los demas algoritmos contra Merge Sort
+        List<ResultadoComparacion> comparaciones = new ArrayList<>();
+        comparaciones.addAll(compararRadixContraMergeSort(CANTIDAD_PRUEBA_COMPARACION));
+        comparaciones.addAll(compararAdaptativoContraMergeSort(CANTIDAD_PRUEBA_COMPARACION));
+        comparaciones.addAll(compararCacheContraMergeSort(CANTIDAD_PRUEBA_COMPARACION));
+        comparaciones.addAll(compararSeleccionContraMergeSort(CANTIDAD_PRUEBA_COMPARACION));
+        comparaciones.addAll(compararRegistrosContraComparador(CANTIDAD_PRUEBA_COMPARACION));
+        comparaciones.addAll(compararSelectorContraMergeSort(CANTIDAD_PRUEBA_COMPARACION));
 
-            // Primera ejecución
-            long tiempoEjecucion1 = ejecutarPrueba(cantidad, 1);
+        // Muchos arreglos pequenos: una llamada por arreglo contra el lote
+        List<ResultadoLote> resultadosLotes = medirOrdenamientoPorLotes(CANTIDAD_ARREGLOS_LOTE);
 
-            // Segunda ejecución con los mismos datos
-            long tiempoEjecucion2 = ejecutarPrueba(cantidad, 2);
+        // Mismo ordenamiento en heap y fuera del heap, con uso de heap y recolecciones
+        List<ResultadoMemoria> resultadosMemoria = medirOrdenamientoFueraHeap(CANTIDAD_PRUEBA_FUERA_HEAP);
 
-            // Guardar resultados
-            ResultadoPrueba resultado = new ResultadoPrueba(
-                    cantidad,
-                    tiempoEjecucion1,
-                    tiempoEjecucion2
-            );
-            todosLosResultados.add(resultado);
+        // Resultados de los demas caminos comparados contra una referencia conocida
+        verificaciones.addAll(verificarOrdenamientoExterno());
+        verificaciones.addAll(verificarArchivoBinario());
+        verificaciones.addAll(verificarLectorTexto());
+        verificaciones.addAll(verificarEscritorNumeros());
+        verificaciones.addAll(verificarEscanerCodigoFuente());
+        verificaciones.addAll(verificarIndiceLineasCodigo());
+        verificaciones.addAll(verificarClasificadorLineas());
+        verificaciones.addAll(verificarOrdenamientoVectorial());
+        verificaciones.addAll(verificarOrdenamientoDistribuido());
+        verificaciones.addAll(verificarAlmacenIncremental());
+        verificaciones.addAll(verificarArenaFueraHeap());
 
-            // Mostrar resumen de esta prueba
-            System.out.println("\n--- RESUMEN ---");
-            System.out.println("Cantidad de números: " + cantidad);
-            System.out.println("Tiempo Ejecución 1: " + tiempoEjecucion1 + " ms");
-            System.out.println("Tiempo Ejecución 2: " + tiempoEjecucion2 + " ms");
-            System.out.println("Promedio: " + resultado.obtenerPromedio() + " ms");
-            System.out.println("Diferencia: " + resultado.obtenerDiferencia() + " ms");
-        }
+        // Clasificador de lineas contra el recorte con String.trim() del contador original
+        ResultadoLineas resultadoLineas = medirClasificadorLineas(TAMANO_PRUEBA_LINEAS);
 
         // Generar reporte final
-        generarReporte(todosLosResultados);
+        generarReporte(resultadosParalelos, comparaciones, resultadosLotes, resultadosMemoria, verificaciones,
+                resultadoLineas);
 
         System.out.println("\n╔══════════════════════════════════════════════════════════════╗");
         System.out.println("║  PRUEBAS COMPLETADAS - Resultados guardados en:            ║");
         System.out.println("║  " + ARCHIVO_RESULTADOS);
         System.out.println("╚══════════════════════════════════════════════════════════════╝");
+
+        // Las verificaciones fallidas ya se informaron; las interrumpidas solo quedan en la lista
+        long fallidas = verificaciones.stream().filter(resultado -> !resultado.correcto).count();
+        if (ERRORES.get() > 0 || fallidas > 0) {
+            System.out.println("\n✗ " + ERRORES.get() + " errores informados y " + fallidas
+                    + " verificaciones fallidas");
+            System.exit(1);
+        }
     }
 
     /**
-     * Ejecuta una prueba de ordenamiento con una cantidad especIfica de nUmeros
-     * @param cantidad Cantidad de números a generar y ordenar
-     * @param numeroEjecucion NUmero de ejecucion (1 o 2)
-     * @return Tiempo en milisegundos que tardo el ordenamiento
+     * Ordena con Merge Sort una lista aleatoria de cada cantidad y la compara
+     * contra Arrays.sort. No mide tiempos: una sola ejecucion en frio no dice
+     * nada, los de Merge Sort salen de BenchmarkOrdenamiento con ./gradlew jmh
+     * @param cantidades Cantidades de números a generar y ordenar
      */
-    private static long ejecutarPrueba(int cantidad, int numeroEjecucion) {
-        System.out.println("\n→ Ejecución " + numeroEjecucion + ":");
+    private static List<ResultadoVerificacion> verificarMergeSort(int[] cantidades) {
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║VERIFICACIÓN DE MERGE SORT");
+        System.out.println("════════════════════════════════════════════════════════");
 
-        // Generar números aleatorios
-        List<Integer> numeros = generarNumerosAleatorios(cantidad);
-        System.out.println("  ✓ Generados " + cantidad + " números aleatorios");
+        List<ResultadoVerificacion> resultados = new ArrayList<>();
+        for (int cantidad : cantidades) {
+            List<Integer> numeros = generarNumerosAleatorios(cantidad);
+            Integer[] esperado = numeros.toArray(new Integer[0]);
+            Arrays.sort(esperado);
+            resultados.add(verificar("Merge Sort de " + cantidad + " números",
+                    mergeSort(numeros).equals(Arrays.asList(esperado))));
+        }
+        System.out.println("  Tiempos: ./gradlew jmh -PjmhIncluir=BenchmarkOrdenamiento");
+        return resultados;
+    }
 
-        // Iniciar cronómetro
-        long tiempoInicio = System.currentTimeMillis();
+    /**
+     * Compara el ordenamiento secuencial contra el paralelo para cada cantidad
+     * de nucleos (1, 2, 4, ... hasta los procesadores disponibles)
+     * @param cantidad Cantidad de números a ordenar en cada medición
+     * @return Resultados por cantidad de nucleos
+     */
+    private static List<ResultadoParalelo> medirAceleracionParalela(int cantidad) {
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║PRUEBA PARALELA CON " + cantidad + " NÚMEROS");
+        System.out.println("════════════════════════════════════════════════════════");
 
-        // Ordenar usando Merge Sort
-        List<Integer> numerosOrdenados = mergeSort(numeros);
+        // Rango completo de int: con valores 100..999 ambos caminos usarian conteo
+        int[] original = generarEnterosRangoCompleto(cantidad);
 
-        // Detener cronómetro
-        long tiempoFin = System.currentTimeMillis();
-        long tiempoTranscurrido = tiempoFin - tiempoInicio;
+        // Referencia secuencial: mejor tiempo de varias repeticiones sobre los mismos datos
+        long mejorSecuencial = medirMejorTiempo(original, MotorOrdenamiento::ordenar);
+        System.out.println("  ✓ Secuencial: " + String.format("%.2f", mejorSecuencial / 1e6) + " ms");
 
-        System.out.println("  ✓ Ordenamiento completado en: " + tiempoTranscurrido + " ms");
+        List<ResultadoParalelo> resultados = new ArrayList<>();
+        int procesadores = Runtime.getRuntime().availableProcessors();
+        for (int nucleos = 1; nucleos <= procesadores; nucleos = siguienteCantidadNucleos(nucleos, procesadores)) {
+            long mejorParalelo;
+            try (OrdenadorParalelo ordenador = new OrdenadorParalelo(nucleos,
+                    OrdenadorParalelo.UMBRAL_SECUENCIAL_PREDETERMINADO)) {
+                mejorParalelo = medirMejorTiempo(original, ordenador::ordenar);
+            }
 
-        // Verificar que el ordenamiento sea correcto
-        if (verificarOrdenamiento(numerosOrdenados)) {
-            System.out.println("  ✓ Verificación: Lista correctamente ordenada");
-        } else {
-            System.out.println("  ✗ ERROR: Lista NO está ordenada correctamente");
+            ResultadoParalelo resultado = new ResultadoParalelo(nucleos, mejorSecuencial, mejorParalelo);
+            resultados.add(resultado);
+            System.out.println("  ✓ " + nucleos + " nucleo(s): "
+                    + String.format("%.2f", mejorParalelo / 1e6) + " ms, aceleracion "
+                    + String.format("%.2fx", resultado.obtenerAceleracion()));
         }
 
-        return tiempoTranscurrido;
+        return resultados;
     }
 
     /**
-     * Genera una lista de numeros enteros aleatorios
-     * @param cantidad Cantidad de números a generar
-     * @return Lista con números aleatorios entre 100 y 999
+     * Compara Radix Sort contra Merge Sort con claves int y long de rango completo
+     * @param cantidad Cantidad de números a ordenar en cada medición
+     * @return Resultados de la comparación
      */
-    private static List<Integer> generarNumerosAleatorios(int cantidad) {
-        List<Integer> numeros = new ArrayList<>();
-        Random random = new Random();
+    private static List<ResultadoComparacion> compararRadixContraMergeSort(int cantidad) {
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║RADIX SORT CONTRA MERGE SORT CON " + cantidad + " NÚMEROS");
+        System.out.println("════════════════════════════════════════════════════════");
+
+        List<ResultadoComparacion> resultados = new ArrayList<>();
+
+        int[] enteros = generarEnterosRangoCompleto(cantidad);
+        resultados.add(compararContraMergeSort("Radix int aleatorio", enteros,
+                datos -> MotorOrdenamiento.ordenar(datos, Algoritmo.RADIX)));
+
+        // El motor de Merge Sort trabaja sobre int[]; para long la referencia es Arrays.sort
+        long[] largos;
+        try (GeneradorDatos generador = new GeneradorDatos()) {
+            largos = generador.generarLargos(GeneradorDatos.Configuracion.de(GeneradorDatos.Perfil.UNIFORME)
+                    .conRango(Long.MIN_VALUE, Long.MAX_VALUE), cantidad);
+        }
+        long mejorReferencia = medirMejorTiempo(largos, Arrays::sort);
+        long mejorRadix = medirMejorTiempo(largos, OrdenamientoRadix::ordenar);
+        ResultadoComparacion resultadoLong = new ResultadoComparacion("Radix long (ref. Arrays.sort)",
+                mejorReferencia, mejorRadix);
+        mostrarComparacion(resultadoLong);
+        resultados.add(resultadoLong);
+
+        return resultados;
+    }
+
+    /**
+     * Compara el modo adaptativo contra Merge Sort con entradas ordenadas,
+     * invertidas, casi ordenadas y aleatorias
+     * @param cantidad Cantidad de números a ordenar en cada medición
+     * @return Resultados de la comparación
+     */
+    private static List<ResultadoComparacion> compararAdaptativoContraMergeSort(int cantidad) {
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║MODO ADAPTATIVO CONTRA MERGE SORT CON " + cantidad + " NÚMEROS");
+        System.out.println("════════════════════════════════════════════════════════");
+
+        List<ResultadoComparacion> resultados = new ArrayList<>();
+
+        int[] ordenados = generarEnteros(GeneradorDatos.Perfil.ORDENADO, cantidad);
+        int[] invertidos = generarEnteros(GeneradorDatos.Perfil.INVERSO, cantidad);
+
+        // Casi ordenado: un intercambio de dos posiciones al azar cada 100 elementos
+        int[] casiOrdenados = generarEnteros(GeneradorDatos.Perfil.CASI_ORDENADO, cantidad);
+
+        // Lote anexado: un archivo ya ordenado seguido de un lote nuevo ordenado
+        int[] loteAnexado = generarEnterosRangoCompleto(cantidad);
+        int corte = cantidad - cantidad / 10;
+        Arrays.sort(loteAnexado, 0, corte);
+        Arrays.sort(loteAnexado, corte, cantidad);
+
+        resultados.add(compararContraMergeSort("Adaptativo ordenado", ordenados,
+                datos -> MotorOrdenamiento.ordenar(datos, Algoritmo.ADAPTATIVO)));
+        resultados.add(compararContraMergeSort("Adaptativo invertido", invertidos,
+                datos -> MotorOrdenamiento.ordenar(datos, Algoritmo.ADAPTATIVO)));
+        resultados.add(compararContraMergeSort("Adaptativo casi ordenado", casiOrdenados,
+                datos -> MotorOrdenamiento.ordenar(datos, Algoritmo.ADAPTATIVO)));
+        resultados.add(compararContraMergeSort("Adaptativo lote anexado", loteAnexado,
+                datos -> MotorOrdenamiento.ordenar(datos, Algoritmo.ADAPTATIVO)));
+        resultados.add(compararContraMergeSort("Adaptativo aleatorio", generarEnterosRangoCompleto(cantidad),
+                datos -> MotorOrdenamiento.ordenar(datos, Algoritmo.ADAPTATIVO)));
+
+        return resultados;
+    }
+
+    /**
+     * Compara el selector automatico contra Merge Sort con cada perfil de
+     * {@link GeneradorDatos}, mostrando la estrategia elegida y el motivo
+     * @param cantidad Cantidad de números de cada caso
+     * @return Resultados de cada perfil
+     */
+    private static List<ResultadoComparacion> compararSelectorContraMergeSort(int cantidad) {
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║SELECTOR AUTOMÁTICO CONTRA MERGE SORT CON " + cantidad + " NÚMEROS");
+        System.out.println("════════════════════════════════════════════════════════");
+
+        List<ResultadoComparacion> resultados = new ArrayList<>();
+        try (SelectorAlgoritmo selector = new SelectorAlgoritmo()) {
+            for (GeneradorDatos.Perfil perfil : GeneradorDatos.Perfil.values()) {
+                int[] datos = generarEnteros(perfil, cantidad);
+                SelectorAlgoritmo.Decision decision = selector.elegir(datos);
+                System.out.println("  " + perfil + " → " + decision);
+                resultados.add(compararContraMergeSort("Auto " + perfil + " (" + decision.obtenerEstrategia() + ")",
+                        datos, selector::ordenar));
+            }
+
+            // Hasta TAMANO_MUESTRA la muestra es la entrada completa y las inversiones deciden
+            int[] chicos = generarEnteros(GeneradorDatos.Perfil.CASI_ORDENADO, SelectorAlgoritmo.TAMANO_MUESTRA);
+            SelectorAlgoritmo.Decision decision = selector.elegir(chicos);
+            System.out.println("  " + GeneradorDatos.Perfil.CASI_ORDENADO + " " + chicos.length + " → " + decision);
+            resultados.add(compararContraMergeSort("Auto " + GeneradorDatos.Perfil.CASI_ORDENADO + " " + chicos.length
+                    + " (" + decision.obtenerEstrategia() + ")", chicos, selector::ordenar));
+        }
+        return resultados;
+    }
+
+    /**
+     * Compara volver a ordenar los mismos datos contra servirlos desde
+     * {@link CacheOrdenamiento}, copiando el resultado o como vista de solo lectura
+     * @param cantidad Cantidad de números de cada caso
+     * @return Resultados de cada caso
+     */
+    private static List<ResultadoComparacion> compararCacheContraMergeSort(int cantidad) {
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║CACHE DE RESULTADOS CONTRA MERGE SORT CON " + cantidad + " NÚMEROS");
+        System.out.println("════════════════════════════════════════════════════════");
+
+        List<ResultadoComparacion> resultados = new ArrayList<>();
+        int[] original = generarEnterosRangoCompleto(cantidad);
+        CacheOrdenamiento cache = new CacheOrdenamiento(TAMANO_CACHE_PRUEBA);
+
+        // La primera vez es un fallo y deja el resultado en la cache
+        cache.ordenar(original.clone());
+        ResultadoComparacion copia = compararContraMergeSort("Cache acierto (copia)", original, cache::ordenar);
+        resultados.add(copia);
+
+        long mejorSoloLectura = Long.MAX_VALUE;
+        for (int i = 0; i < REPETICIONES_MEDICION; i++) {
+            long tiempoInicio = System.nanoTime();
+            IntBuffer ordenados = cache.ordenarSoloLectura(original);
+            mejorSoloLectura = Math.min(mejorSoloLectura, System.nanoTime() - tiempoInicio);
+            int[] contenido = new int[ordenados.remaining()];
+            ordenados.get(contenido);
+            if (!verificarOrdenamiento(contenido)) {
+                informarError("arreglo NO está ordenado correctamente");
+            }
+        }
+        ResultadoComparacion soloLectura = new ResultadoComparacion("Cache acierto (solo lectura)",
+                copia.nanosMergeSort, mejorSoloLectura);
+        mostrarComparacion(soloLectura);
+        resultados.add(soloLectura);
+
+        System.out.println("  ✓ Aciertos: " + cache.obtenerAciertosMemoria() + ", fallos: " + cache.obtenerFallos()
+                + ", desalojos: " + cache.obtenerDesalojos());
+        return resultados;
+    }
+
+    /**
+     * Compara ordenar todo contra {@link Seleccion} cuando solo se necesitan
+     * los menores o un percentil. Cada resultado se verifica contra el
+     * arreglo ordenado completo
+     * @param cantidad Cantidad de números de cada caso
+     * @return Resultados de cada caso
+     */
+    private static List<ResultadoComparacion> compararSeleccionContraMergeSort(int cantidad) {
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║SELECCIÓN PARCIAL CONTRA MERGE SORT CON " + cantidad + " NÚMEROS");
+        System.out.println("════════════════════════════════════════════════════════");
+
+        List<ResultadoComparacion> resultados = new ArrayList<>();
+        int[] original = generarEnterosRangoCompleto(cantidad);
+        int[] ordenados = original.clone();
+        MotorOrdenamiento.ordenar(ordenados);
+        long mejorMergeSort = medirMejorTiempo(original, datos -> MotorOrdenamiento.ordenar(datos, Algoritmo.MERGE_SORT));
+
+        int k = CANTIDAD_MENORES_SELECCION;
+        resultados.add(compararSeleccion("Selección " + k + " menores", mejorMergeSort, original,
+                datos -> Seleccion.menores(datos, k), Arrays.copyOf(ordenados, k)));
+        int decimo = cantidad / 10;
+        resultados.add(compararSeleccion("Selección " + decimo + " menores", mejorMergeSort, original,
+                datos -> Seleccion.menores(datos, decimo), Arrays.copyOf(ordenados, decimo)));
+        resultados.add(compararSeleccion("Selección mediana", mejorMergeSort, original,
+                datos -> new int[]{Seleccion.percentil(datos, 50)}, new int[]{ordenados[(cantidad + 1) / 2 - 1]}));
+        return resultados;
+    }
+
+    /**
+     * Mide una operación de selección sobre copias de los datos y la compara con ordenar todo
+     * @param caso Descripción del caso
+     * @param nanosMergeSort Mejor tiempo de ordenar todo
+     * @param original Datos de entrada (no se modifican)
+     * @param seleccion Operación a medir
+     * @param esperado Resultado correcto, tomado del arreglo ordenado
+     * @return Resultado de la comparación
+     */
+    private static ResultadoComparacion compararSeleccion(String caso, long nanosMergeSort, int[] original,
+                                                          Function<int[], int[]> seleccion, int[] esperado) {
+        long mejor = Long.MAX_VALUE;
+        for (int i = 0; i < REPETICIONES_MEDICION; i++) {
+            int[] datos = original.clone();
+            long tiempoInicio = System.nanoTime();
+            int[] obtenido = seleccion.apply(datos);
+            mejor = Math.min(mejor, System.nanoTime() - tiempoInicio);
+            if (!Arrays.equals(obtenido, esperado)) {
+                informarError("la selección no coincide con el arreglo ordenado");
+            }
+        }
+        ResultadoComparacion resultado = new ResultadoComparacion(caso, nanosMergeSort, mejor);
+        mostrarComparacion(resultado);
+        return resultado;
+    }
+
+    /**
+     * Compara ordenar registros con {@link OrdenamientoRegistros} contra
+     * Arrays.sort con una cadena de comparadores, que tambien es estable,
+     * por una clave int y por tres claves. Cada resultado se verifica contra
+     * el de Arrays.sort
+     * @param cantidad Cantidad de registros de cada caso
+     * @return Resultados de cada caso
+     */
+    private static List<ResultadoComparacion> compararRegistrosContraComparador(int cantidad) {
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║REGISTROS POR CLAVE CONTRA COMPARATOR CON " + cantidad + " REGISTROS");
+        System.out.println("════════════════════════════════════════════════════════");
 
+        int[] prioridades = generarEnteros(GeneradorDatos.Perfil.POCOS_UNICOS, cantidad);
+        int[] usuarios = generarEnteros(GeneradorDatos.Perfil.ZIPF, cantidad);
+        int[] marcas = generarEnterosRangoCompleto(cantidad);
+        RegistroPrueba[] original = new RegistroPrueba[cantidad];
         for (int i = 0; i < cantidad; i++) {
-            int numeroAleatorio = random.nextInt(NUMERO_MAXIMO - NUMERO_MINIMO + 1) + NUMERO_MINIMO;
-            numeros.add(numeroAleatorio);
+            original[i] = new RegistroPrueba(prioridades[i], usuarios[i], marcas[i]);
         }
 
-        return numeros;
+        List<ResultadoComparacion> resultados = new ArrayList<>();
+        resultados.add(compararRegistros("Registros 1 clave int (ref. Arrays.sort)", original,
+                Comparator.comparingInt(RegistroPrueba::obtenerUsuario),
+                datos -> OrdenamientoRegistros.ordenarPorEntero(datos, RegistroPrueba::obtenerUsuario)));
+        resultados.add(compararRegistros("Registros 3 claves (ref. Arrays.sort)", original,
+                Comparator.comparingInt(RegistroPrueba::obtenerPrioridad).reversed()
+                        .thenComparingInt(RegistroPrueba::obtenerUsuario)
+                        .thenComparingLong(RegistroPrueba::obtenerMarcaTiempo),
+                datos -> OrdenamientoRegistros.ordenar(datos,
+                        OrdenamientoRegistros.Clave.<RegistroPrueba>entero(RegistroPrueba::obtenerPrioridad).descendente(),
+                        OrdenamientoRegistros.Clave.entero(RegistroPrueba::obtenerUsuario),
+                        OrdenamientoRegistros.Clave.largo(RegistroPrueba::obtenerMarcaTiempo))));
+        return resultados;
     }
 
     /**
-     * Implementacion del algoritmo Merge Sort
-     * @param lista Lista de numeros a ordenar
+     * Mide un ordenamiento de registros contra Arrays.sort con el comparador equivalente
+     * @param caso Descripción del caso
+     * @param original Registros de entrada (no se modifican)
+     * @param comparador Orden de referencia
+     * @param alternativa Ordenamiento a comparar
+     * @return Resultado de la comparación
      */
-    private static List<Integer> mergeSort(List<Integer> lista) {
-        if (lista.size() <= 1) {
-            return lista;
+    private static ResultadoComparacion compararRegistros(String caso, RegistroPrueba[] original,
+                                                          Comparator<RegistroPrueba> comparador,
+                                                          Consumer<RegistroPrueba[]> alternativa) {
+        RegistroPrueba[] esperado = original.clone();
+        Arrays.sort(esperado, comparador);
+
+        long mejorReferencia = Long.MAX_VALUE;
+        long mejorAlternativa = Long.MAX_VALUE;
+        for (int i = 0; i < REPETICIONES_MEDICION; i++) {
+            RegistroPrueba[] datos = original.clone();
+            long tiempoInicio = System.nanoTime();
+            Arrays.sort(datos, comparador);
+            mejorReferencia = Math.min(mejorReferencia, System.nanoTime() - tiempoInicio);
+
+            datos = original.clone();
+            tiempoInicio = System.nanoTime();
+            alternativa.accept(datos);
+            mejorAlternativa = Math.min(mejorAlternativa, System.nanoTime() - tiempoInicio);
+            if (!Arrays.equals(datos, esperado)) {
+                informarError("el orden no coincide con el de Arrays.sort");
+            }
+        }
+        ResultadoComparacion resultado = new ResultadoComparacion(caso, mejorReferencia, mejorAlternativa);
+        mostrarComparacion(resultado);
+        return resultado;
+    }
+
+    /**
+     * Mide cuantos arreglos pequenos por segundo se ordenan con una llamada
+     * por lista, una llamada por arreglo int[] y con {@link OrdenadorLotes}
+     * @param cantidadArreglos Cantidad de arreglos del lote
+     * @return Resultados de cada modo
+     */
+    private static List<ResultadoLote> medirOrdenamientoPorLotes(int cantidadArreglos) {
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║LOTE DE " + cantidadArreglos + " ARREGLOS DE " + LONGITUD_MINIMA_LOTE + " A "
+                + LONGITUD_MAXIMA_LOTE + " NÚMEROS");
+        System.out.println("════════════════════════════════════════════════════════");
+
+        Random random = new Random(GeneradorDatos.SEMILLA_PREDETERMINADA);
+        List<int[]> arreglos = new ArrayList<>(cantidadArreglos);
+        List<List<Integer>> listas = new ArrayList<>(cantidadArreglos);
+        for (int i = 0; i < cantidadArreglos; i++) {
+            int longitud = LONGITUD_MINIMA_LOTE + random.nextInt(LONGITUD_MAXIMA_LOTE - LONGITUD_MINIMA_LOTE + 1);
+            int[] arreglo = random.ints(longitud).toArray();
+            arreglos.add(arreglo);
+            listas.add(MotorOrdenamiento.aLista(arreglo));
+        }
+
+        List<ResultadoLote> resultados = new ArrayList<>();
+
+        // Una llamada a mergeSort por cada lista, como en OrdenadorMergeSort
+        long mejorListas = Long.MAX_VALUE;
+        for (int repeticion = 0; repeticion < REPETICIONES_MEDICION; repeticion++) {
+            List<List<Integer>> ordenadas = new ArrayList<>(cantidadArreglos);
+            long tiempoInicio = System.nanoTime();
+            for (List<Integer> lista : listas) {
+                ordenadas.add(mergeSort(lista));
+            }
+            mejorListas = Math.min(mejorListas, System.nanoTime() - tiempoInicio);
+            for (List<Integer> ordenada : ordenadas) {
+                if (!verificarOrdenamiento(ordenada)) {
+                    informarError("Lista NO está ordenada correctamente");
+                    break;
+                }
+            }
+        }
+        resultados.add(new ResultadoLote("Una llamada por lista", cantidadArreglos, mejorListas));
+
+        // Una llamada al motor por cada arreglo int[]
+        long mejorArreglos = Long.MAX_VALUE;
+        for (int repeticion = 0; repeticion < REPETICIONES_MEDICION; repeticion++) {
+            List<int[]> copias = new ArrayList<>(cantidadArreglos);
+            for (int[] arreglo : arreglos) {
+                copias.add(arreglo.clone());
+            }
+            long tiempoInicio = System.nanoTime();
+            for (int[] copia : copias) {
+                MotorOrdenamiento.ordenar(copia);
+            }
+            mejorArreglos = Math.min(mejorArreglos, System.nanoTime() - tiempoInicio);
+            for (int[] copia : copias) {
+                if (!verificarOrdenamiento(copia)) {
+                    informarError("arreglo NO está ordenado correctamente");
+                    break;
+                }
+            }
+        }
+        resultados.add(new ResultadoLote("Una llamada por arreglo", cantidadArreglos, mejorArreglos));
+
+        // Lote con un hilo y con todos los procesadores
+        int procesadores = Runtime.getRuntime().availableProcessors();
+        for (int hilos : new int[]{1, procesadores}) {
+            long mejorLote = Long.MAX_VALUE;
+            try (OrdenadorLotes ordenador = new OrdenadorLotes(hilos, OrdenadorLotes.ELEMENTOS_POR_TAREA_PREDETERMINADO)) {
+                for (int repeticion = 0; repeticion < REPETICIONES_MEDICION; repeticion++) {
+                    LoteArreglos lote = LoteArreglos.de(arreglos);
+                    long tiempoInicio = System.nanoTime();
+                    ordenador.ordenar(lote);
+                    mejorLote = Math.min(mejorLote, System.nanoTime() - tiempoInicio);
+                    for (int segmento = 0; segmento < lote.cantidadSegmentos(); segmento++) {
+                        if (!verificarOrdenamiento(lote.copiarSegmento(segmento))) {
+                            informarError("segmento NO está ordenado correctamente");
+                            break;
+                        }
+                    }
+                }
+            }
+            resultados.add(new ResultadoLote("Lote (" + hilos + " hilo(s))", cantidadArreglos, mejorLote));
+            if (procesadores == 1) {
+                break;
+            }
+        }
+
+        for (ResultadoLote resultado : resultados) {
+            System.out.println("  ✓ " + resultado.modo + ": " + String.format("%.2f", resultado.nanos / 1e6)
+                    + " ms, " + String.format("%.0f", resultado.obtenerArreglosPorSegundo()) + " arreglos/s ("
+                    + String.format("%.2fx", mejorListas / (double) resultado.nanos) + ")");
+        }
+
+        return resultados;
+    }
+
+    /**
+     * Ordena los mismos datos con Merge Sort en heap y con
+     * {@link OrdenamientoFueraHeap}, midiendo ademas cuanto heap extra se
+     * uso y cuantas recolecciones hubo. Los datos de entrada se guardan fuera
+     * del heap para que no pesen en la medicion de ningun modo
+     * @param cantidad Cantidad de números de cada caso
+     * @return Resultados de cada modo
+     */
+    private static List<ResultadoMemoria> medirOrdenamientoFueraHeap(int cantidad) {
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║ORDENAMIENTO FUERA DEL HEAP CON " + cantidad + " NÚMEROS");
+        System.out.println("════════════════════════════════════════════════════════");
+
+        List<ResultadoMemoria> resultados = new ArrayList<>();
+        try (ArenaFueraHeap arena = new ArenaFueraHeap()) {
+            SegmentoEnteros fuente = arena.reservarEnteros(cantidad);
+            fuente.escribir(0, generarEnterosRangoCompleto(cantidad), 0, cantidad);
+
+            resultados.add(medirMemoria("Merge Sort en heap", cantidad, () -> {
+                long tiempoInicio = System.nanoTime();
+                int[] datos = new int[cantidad];
+                fuente.leer(0, datos, 0, cantidad);
+                MotorOrdenamiento.ordenar(datos, Algoritmo.MERGE_SORT);
+                long nanos = System.nanoTime() - tiempoInicio;
+                if (!verificarOrdenamiento(datos)) {
+                    informarError("arreglo NO está ordenado correctamente");
+                }
+                return nanos;
+            }));
+            resultados.add(medirMemoria("Merge Sort fuera del heap", cantidad,
+                    () -> ordenarFueraHeap(fuente, Algoritmo.MERGE_SORT)));
+            resultados.add(medirMemoria("Radix fuera del heap", cantidad,
+                    () -> ordenarFueraHeap(fuente, Algoritmo.RADIX)));
+        }
+        return resultados;
+    }
+
+    /**
+     * Copia la fuente a un segmento nuevo y lo ordena fuera del heap
+     * @return Tiempo en nanosegundos de reservar, copiar y ordenar
+     */
+    private static long ordenarFueraHeap(SegmentoEnteros fuente, Algoritmo algoritmo) {
+        try (ArenaFueraHeap arena = new ArenaFueraHeap()) {
+            long tiempoInicio = System.nanoTime();
+            SegmentoEnteros datos = arena.reservarEnteros(fuente.obtenerLongitud());
+            fuente.copiar(0, datos, 0, fuente.obtenerLongitud());
+            OrdenamientoFueraHeap.ordenar(datos, algoritmo);
+            long nanos = System.nanoTime() - tiempoInicio;
+
+            for (long i = 1; i < datos.obtenerLongitud(); i++) {
+                if (datos.obtener(i - 1) > datos.obtener(i)) {
+                    informarError("segmento NO está ordenado correctamente");
+                    break;
+                }
+            }
+            return nanos;
+        }
+    }
+
+    /**
+     * Ejecuta un ordenamiento midiendo el pico de heap y las recolecciones.
+     * El pico es la suma de los picos de cada zona del heap menos lo usado
+     * al empezar, despues de pedir una recoleccion
+     * @param modo Descripción del modo
+     * @param cantidad Cantidad de números ordenados
+     * @param ordenamiento Ordenamiento a medir; devuelve su tiempo en nanosegundos
+     * @return Resultado de la medición
+     */
+    private static ResultadoMemoria medirMemoria(String modo, int cantidad, LongSupplier ordenamiento) {
+        List<MemoryPoolMXBean> zonasHeap = new ArrayList<>();
+        for (MemoryPoolMXBean zona : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (zona.getType() == MemoryType.HEAP) {
+                zonasHeap.add(zona);
+            }
+        }
+        System.gc();
+        long heapInicial = 0;
+        for (MemoryPoolMXBean zona : zonasHeap) {
+            zona.resetPeakUsage();
+            heapInicial += zona.getUsage().getUsed();
+        }
+        long recoleccionesIniciales = 0;
+        long milisRecoleccionIniciales = 0;
+        for (GarbageCollectorMXBean recolector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            recoleccionesIniciales += recolector.getCollectionCount();
+            milisRecoleccionIniciales += recolector.getCollectionTime();
+        }
+
+        long nanos = ordenamiento.getAsLong();
+
+        long picoHeap = 0;
+        for (MemoryPoolMXBean zona : zonasHeap) {
+            picoHeap += zona.getPeakUsage().getUsed();
+        }
+        long recolecciones = -recoleccionesIniciales;
+        long milisRecoleccion = -milisRecoleccionIniciales;
+        for (GarbageCollectorMXBean recolector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            recolecciones += recolector.getCollectionCount();
+            milisRecoleccion += recolector.getCollectionTime();
+        }
+
+        ResultadoMemoria resultado = new ResultadoMemoria(modo, cantidad, nanos,
+                Math.max(0, picoHeap - heapInicial), recolecciones, milisRecoleccion);
+        System.out.println("  ✓ " + modo + ": " + String.format("%.2f", nanos / 1e6) + " ms ("
+                + String.format("%.1f", resultado.obtenerMillonesPorSegundo()) + " M números/s), heap extra "
+                + String.format("%.1f", resultado.bytesHeap / 1e6) + " MB, " + recolecciones
+                + " recolecciones, " + milisRecoleccion + " ms de recolección");
+        return resultado;
+    }
+
+    /**
+     * Ordena archivos aleatorios con {@link OrdenamientoExterno} usando un
+     * presupuesto de memoria y un abanico chicos, para forzar muchas
+     * corridas y varias pasadas de mezcla, y compara el archivo resultante
+     * contra Arrays.sort sobre los mismos datos
+     * @return Resultado de cada caso
+     */
+    private static List<ResultadoVerificacion> verificarOrdenamientoExterno() {
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║VERIFICACIÓN DEL ORDENAMIENTO EXTERNO CON " + CASOS_ALEATORIOS_VERIFICACION
+                + " CASOS ALEATORIOS");
+        System.out.println("════════════════════════════════════════════════════════");
+
+        List<ResultadoVerificacion> resultados = new ArrayList<>();
+        Random random = new Random(GeneradorDatos.SEMILLA_PREDETERMINADA);
+        Path directorio = null;
+        try {
+            directorio = Files.createTempDirectory("innoad-verificacion-");
+            Path entrada = directorio.resolve("entrada.txt");
+            Path salida = directorio.resolve("salida.txt");
+            for (int caso = 0; caso < CASOS_ALEATORIOS_VERIFICACION; caso++) {
+                // Los dos primeros casos son el archivo vacio y el de un solo numero
+                int cantidad = caso < 2 ? caso : random.nextInt(CANTIDAD_MAXIMA_VERIFICACION + 1);
+                // Rango angosto en la mitad de los casos: muchos valores repetidos entre corridas
+                int[] original = caso % 2 == 0
+                        ? random.ints(cantidad).toArray()
+                        : random.ints(cantidad, -50, 50).toArray();
+                try (EscritorNumeros escritor = EscritorNumeros.texto(entrada)) {
+                    escritor.escribir(original, 0, cantidad);
+                }
+
+                // Entre 256 bytes (el minimo) y 64 KB de presupuesto, abanico de 2 a 8
+                long presupuesto = 2L * Integer.BYTES * MotorOrdenamiento.UMBRAL_INSERCION << random.nextInt(9);
+                int abanico = 2 + random.nextInt(7);
+                OrdenamientoExterno ordenador = new OrdenamientoExterno(presupuesto, abanico, directorio);
+                long ordenados = ordenador.ordenar(entrada, salida);
+
+                int[] esperado = original.clone();
+                Arrays.sort(esperado);
+                LectorNumerosTexto.Resultado leido = LectorNumerosTexto.leer(salida, 1);
+                resultados.add(verificar(cantidad + " números, " + presupuesto + " bytes, abanico " + abanico,
+                        ordenados == cantidad && leido.esValido()
+                                && Arrays.equals(Arrays.copyOf(leido.obtenerNumeros(), (int) leido.obtenerCantidad()),
+                                esperado)));
+            }
+        } catch (IOException e) {
+            informarError(e.getMessage());
+            resultados.add(new ResultadoVerificacion("Ordenamiento externo", false));
+        } finally {
+            borrarDirectorio(directorio);
+        }
+        return resultados;
+    }
+
+    /**
+     * Ordena archivos binarios aleatorios con
+     * {@link ArchivoBinarioNumeros#ordenarArchivo(Path)} y los compara contra
+     * Arrays.sort. Ademas verifica que un archivo con el contenido corrupto se
+     * rechace sin modificarlo, y que una cabecera con una cantidad enorme no
+     * se acepte por desbordar el calculo del tamano
+     * @return Resultado de cada caso
+     */
+    private static List<ResultadoVerificacion> verificarArchivoBinario() {
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║VERIFICACIÓN DEL FORMATO BINARIO CON " + CASOS_ALEATORIOS_VERIFICACION
+                + " CASOS ALEATORIOS");
+        System.out.println("════════════════════════════════════════════════════════");
+
+        List<ResultadoVerificacion> resultados = new ArrayList<>();
+        Random random = new Random(GeneradorDatos.SEMILLA_PREDETERMINADA);
+        Path directorio = null;
+        try {
+            directorio = Files.createTempDirectory("innoad-verificacion-");
+            Path archivo = directorio.resolve("numeros.bin");
+            for (int caso = 0; caso < CASOS_ALEATORIOS_VERIFICACION; caso++) {
+                int cantidad = caso < 2 ? caso : random.nextInt(CANTIDAD_MAXIMA_VERIFICACION + 1);
+                int[] original = random.ints(cantidad).toArray();
+                ArchivoBinarioNumeros.escribir(archivo, original);
+                long ordenados = ArchivoBinarioNumeros.ordenarArchivo(archivo);
+
+                int[] esperado = original.clone();
+                Arrays.sort(esperado);
+                resultados.add(verificar(cantidad + " números ordenados en el archivo",
+                        ordenados == cantidad
+                                && ArchivoBinarioNumeros.leerCabecera(archivo).estaOrdenado()
+                                && Arrays.equals(ArchivoBinarioNumeros.leerEnteros(archivo), esperado)));
+            }
+
+            // Un byte cambiado en el contenido: ordenarlo dejaria una suma valida sobre datos corruptos
+            ArchivoBinarioNumeros.escribir(archivo, random.ints(1000).toArray());
+            byte[] bytes = Files.readAllBytes(archivo);
+            bytes[ArchivoBinarioNumeros.TAMANO_CABECERA + random.nextInt(1000 * Integer.BYTES)] ^= 1;
+            Files.write(archivo, bytes);
+            boolean rechazado = false;
+            try {
+                ArchivoBinarioNumeros.ordenarArchivo(archivo);
+            } catch (IOException e) {
+                rechazado = true;
+            }
+            resultados.add(verificar("Contenido corrupto rechazado sin modificar el archivo",
+                    rechazado && Arrays.equals(Files.readAllBytes(archivo), bytes)));
+
+            // Una conversion a texto fallida no debe vaciar el destino que ya existia
+            Path texto = directorio.resolve("numeros.txt");
+            byte[] textoPrevio = "1\n2\n3\n".getBytes(StandardCharsets.UTF_8);
+            Path noBinario = directorio.resolve("no-binario.bin");
+            Files.write(noBinario, textoPrevio);
+            boolean destinoIntacto = true;
+            for (Path origen : List.of(archivo, noBinario)) {
+                Files.write(texto, textoPrevio);
+                boolean fallo = false;
+                try {
+                    ArchivoBinarioNumeros.convertirBinarioATexto(origen, texto);
+                } catch (IOException e) {
+                    fallo = true;
+                }
+                destinoIntacto &= fallo && Arrays.equals(Files.readAllBytes(texto), textoPrevio);
+            }
+            try (Stream<Path> restos = Files.list(directorio)) {
+                destinoIntacto &= restos.noneMatch(resto -> resto.toString().endsWith(".parcial"));
+            }
+            resultados.add(verificar("Conversión a texto fallida sin tocar el destino", destinoIntacto));
+
+            // Solo la cabecera, declarando 2^62 elementos con suma 0: 2^62 * 8 desborda a 0
+            ByteBuffer cabecera = ByteBuffer.allocate(ArchivoBinarioNumeros.TAMANO_CABECERA)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            cabecera.put(new byte[]{'I', 'N', 'A', 'D', ArchivoBinarioNumeros.VERSION,
+                    (byte) ArchivoBinarioNumeros.ANCHO_LONG, 0, 0});
+            cabecera.putLong(1L << 62).putLong(0L).putLong(0L);
+            Files.write(archivo, cabecera.array());
+            boolean rechazadoArchivo = false;
+            try {
+                ArchivoBinarioNumeros.leerCabecera(archivo);
+            } catch (IOException e) {
+                rechazadoArchivo = true;
+            }
+            cabecera.put(5, (byte) ArchivoBinarioNumeros.ANCHO_INT);
+            boolean rechazadoFlujo = false;
+            try {
+                ArchivoBinarioNumeros.recorrer(new ByteArrayInputStream(cabecera.array()), valor -> { });
+            } catch (IOException e) {
+                rechazadoFlujo = true;
+            }
+            resultados.add(verificar("Cabecera con 2^62 elementos rechazada en archivo y flujo",
+                    rechazadoArchivo && rechazadoFlujo));
+        } catch (IOException e) {
+            informarError(e.getMessage());
+            resultados.add(new ResultadoVerificacion("Formato binario", false));
+        } finally {
+            borrarDirectorio(directorio);
+        }
+        return resultados;
+    }
+
+    /**
+     * Escribe archivos de texto aleatorios con espacios, tabuladores, CRLF,
+     * signos, lineas vacias y lineas mal formadas, y compara lo que lee
+     * {@link LectorNumerosTexto} contra los numeros que se escribieron. Los
+     * archivos chicos se leen de forma secuencial y como flujo; el ultimo
+     * supera UMBRAL_PARALELO para pasar por la lectura en paralelo
+     * @return Resultado de cada caso
+     */
+    private static List<ResultadoVerificacion> verificarLectorTexto() {
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║VERIFICACIÓN DEL LECTOR DE TEXTO CON " + CASOS_ALEATORIOS_VERIFICACION
+                + " CASOS ALEATORIOS");
+        System.out.println("════════════════════════════════════════════════════════");
+
+        List<ResultadoVerificacion> resultados = new ArrayList<>();
+        Random random = new Random(GeneradorDatos.SEMILLA_PREDETERMINADA);
+        Path directorio = null;
+        try {
+            directorio = Files.createTempDirectory("innoad-verificacion-");
+            Path archivo = directorio.resolve("numeros.txt");
+            for (int caso = 0; caso < CASOS_ALEATORIOS_VERIFICACION; caso++) {
+                ArregloEnteros esperados = new ArregloEnteros();
+                int lineas = random.nextInt(CANTIDAD_MAXIMA_VERIFICACION + 1);
+                long malFormadas = escribirLineasAleatorias(archivo, random, lineas, esperados);
+
+                LectorNumerosTexto.Resultado leido = LectorNumerosTexto.leer(archivo, 1);
+                LectorNumerosTexto.Resultado flujo;
+                ArregloEnteros delFlujo = new ArregloEnteros();
+                try (InputStream entrada = Files.newInputStream(archivo)) {
+                    flujo = LectorNumerosTexto.recorrer(entrada, delFlujo::agregar);
+                }
+                resultados.add(verificar(lineas + " líneas, " + malFormadas + " mal formadas",
+                        coincideLectura(leido, leido.obtenerNumeros(), esperados, malFormadas)
+                                && coincideLectura(flujo, delFlujo.aArreglo(), esperados, malFormadas)));
+            }
+
+            // Unas 4 lineas por cada 32 bytes superan el umbral con numeros de rango completo
+            ArregloEnteros esperados = new ArregloEnteros();
+            int lineas = (int) (LectorNumerosTexto.UMBRAL_PARALELO / 8);
+            long malFormadas = escribirLineasAleatorias(archivo, random, lineas, esperados);
+            LectorNumerosTexto.Resultado paralelo = LectorNumerosTexto.leer(archivo, 4);
+            resultados.add(verificar(lineas + " líneas en paralelo (" + Files.size(archivo) / (1024 * 1024)
+                    + " MB), " + malFormadas + " mal formadas",
+                    Files.size(archivo) >= LectorNumerosTexto.UMBRAL_PARALELO
+                            && coincideLectura(paralelo, paralelo.obtenerNumeros(), esperados, malFormadas)));
+        } catch (IOException e) {
+            informarError(e.getMessage());
+            resultados.add(new ResultadoVerificacion("Lector de texto", false));
+        } finally {
+            borrarDirectorio(directorio);
+        }
+        return resultados;
+    }
+
+    /**
+     * Escribe un archivo con una linea aleatoria por vez: un numero con
+     * adornos validos, una linea vacia o una linea mal formada
+     * @param archivo Archivo a escribir (se reemplaza)
+     * @param lineas Cantidad de lineas
+     * @param esperados Recibe los numeros validos en el orden del archivo
+     * @return Cantidad de lineas mal formadas escritas
+     */
+    private static long escribirLineasAleatorias(Path archivo, Random random, int lineas,
+                                                 ArregloEnteros esperados) throws IOException {
+        long malFormadas = 0;
+        try (Writer escritor = Files.newBufferedWriter(archivo)) {
+            for (int i = 0; i < lineas; i++) {
+                int tipo = random.nextInt(100);
+                if (tipo < 5) {
+                    escritor.write(random.nextBoolean() ? "" : " \t ");
+                } else if (tipo < 8) {
+                    escritor.write(LINEAS_MAL_FORMADAS[random.nextInt(LINEAS_MAL_FORMADAS.length)]);
+                    malFormadas++;
+                } else {
+                    int valor = switch (random.nextInt(10)) {
+                        case 0 -> Integer.MIN_VALUE;
+                        case 1 -> Integer.MAX_VALUE;
+                        case 2 -> random.nextInt(10);
+                        default -> random.nextInt();
+                    };
+                    esperados.agregar(valor);
+                    escritor.write(" ".repeat(random.nextInt(3)));
+                    escritor.write(random.nextInt(4) == 0 ? "\t" : "");
+                    escritor.write(valor >= 0 && random.nextInt(4) == 0 ? "+" + valor : Integer.toString(valor));
+                    escritor.write(random.nextInt(4) == 0 ? " \t" : "");
+                }
+                // CRLF en algunas lineas, y a veces sin salto al final del archivo
+                if (random.nextInt(4) == 0) {
+                    escritor.write('\r');
+                }
+                if (i < lineas - 1 || random.nextBoolean()) {
+                    escritor.write('\n');
+                }
+            }
+        }
+        return malFormadas;
+    }
+
+    /**
+     * @return true si la lectura trajo exactamente los numeros y la cantidad de errores esperados
+     */
+    private static boolean coincideLectura(LectorNumerosTexto.Resultado resultado, int[] numeros,
+                                           ArregloEnteros esperados, long malFormadas) {
+        return resultado.obtenerCantidad() == esperados.tamano()
+                && resultado.obtenerTotalErrores() == malFormadas
+                && Arrays.equals(numeros, 0, esperados.tamano(), esperados.aArreglo(), 0, esperados.tamano());
+    }
+
+    /**
+     * Escribe datos aleatorios con {@link EscritorNumeros} en cada formato y
+     * compara lo escrito contra el texto armado con Integer.toString o contra
+     * los numeros originales en binario. Tambien compara la salida de
+     * {@link MotorOrdenamiento#ordenarHacia(int[], java.util.function.IntConsumer)}
+     * contra Arrays.sort, con tamanos por debajo del umbral de insercion,
+     * rangos angostos que usan conteo y rangos completos que usan la mezcla
+     * @return Resultado de cada caso
+     */
+    private static List<ResultadoVerificacion> verificarEscritorNumeros() {
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║VERIFICACIÓN DEL ESCRITOR Y LA SALIDA ORDENADA CON " + CASOS_ALEATORIOS_VERIFICACION
+                + " CASOS ALEATORIOS");
+        System.out.println("════════════════════════════════════════════════════════");
+
+        List<ResultadoVerificacion> resultados = new ArrayList<>();
+        Random random = new Random(GeneradorDatos.SEMILLA_PREDETERMINADA);
+        Path directorio = null;
+        try {
+            directorio = Files.createTempDirectory("innoad-verificacion-");
+            Path archivo = directorio.resolve("numeros");
+            for (int caso = 0; caso < CASOS_ALEATORIOS_VERIFICACION; caso++) {
+                int cantidad = caso < 2 ? caso : random.nextInt(CANTIDAD_MAXIMA_VERIFICACION + 1);
+                int[] original = random.ints(cantidad).toArray();
+                if (cantidad > 0) {
+                    original[0] = Integer.MIN_VALUE;
+                    original[cantidad - 1] = Integer.MAX_VALUE;
+                }
+                StringBuilder texto = new StringBuilder();
+                for (int valor : original) {
+                    texto.append(valor).append('\n');
+                }
+                byte[] esperado = texto.toString().getBytes(StandardCharsets.US_ASCII);
+
+                // La mitad por arreglo y la otra mitad de a uno, para cruzar los vaciados del buffer
+                for (EscritorNumeros.Formato formato : EscritorNumeros.Formato.values()) {
+                    try (EscritorNumeros escritor = EscritorNumeros.abrir(archivo, formato)) {
+                        escritor.escribir(original, 0, cantidad / 2);
+                        for (int i = cantidad / 2; i < cantidad; i++) {
+                            escritor.escribir(original[i]);
+                        }
+                    }
+                    boolean correcto = switch (formato) {
+                        case TEXTO -> Arrays.equals(Files.readAllBytes(archivo), esperado);
+                        case TEXTO_GZIP -> {
+                            try (InputStream entrada = new GZIPInputStream(Files.newInputStream(archivo))) {
+                                yield Arrays.equals(entrada.readAllBytes(), esperado);
+                            }
+                        }
+                        case BINARIO -> Arrays.equals(ArchivoBinarioNumeros.leerEnteros(archivo), original)
+                                && ArchivoBinarioNumeros.leerCabecera(archivo).estaOrdenado()
+                                == verificarOrdenamiento(original);
+                    };
+                    resultados.add(verificar(cantidad + " números escritos en " + formato, correcto));
+                }
+
+                // Rango angosto en un tercio de los casos y tamanos chicos en otro tercio
+                int[] desordenados = switch (caso % 3) {
+                    case 0 -> random.ints(cantidad, -100, 100).toArray();
+                    case 1 -> random.ints(random.nextInt(MotorOrdenamiento.UMBRAL_INSERCION * 2)).toArray();
+                    default -> original.clone();
+                };
+                int[] ordenados = desordenados.clone();
+                Arrays.sort(ordenados);
+                ArregloEnteros emitidos = new ArregloEnteros();
+                MotorOrdenamiento.ordenarHacia(desordenados, emitidos::agregar);
+                resultados.add(verificar(desordenados.length + " números ordenados hacia un consumidor",
+                        Arrays.equals(emitidos.aArreglo(), ordenados)));
+            }
+        } catch (IOException e) {
+            informarError(e.getMessage());
+            resultados.add(new ResultadoVerificacion("Escritor de números", false));
+        } finally {
+            borrarDirectorio(directorio);
+        }
+        return resultados;
+    }
+
+    /**
+     * Crea arboles de archivos fuente aleatorios y compara el escaneo en
+     * paralelo de {@link EscanerCodigoFuente} contra contar cada archivo en
+     * secuencia, y las lineas de los .java contra el contador original que
+     * recortaba cada linea con String.trim(). Los archivos solo tienen
+     * lineas que ambos clasifican igual: codigo sin cadenas, comentarios de
+     * linea y bloques que empiezan al comienzo de la linea
+     * @return Resultado de cada caso
+     */
+    private static List<ResultadoVerificacion> verificarEscanerCodigoFuente() {
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║VERIFICACIÓN DEL ESCANER DE CÓDIGO CON " + ARBOLES_VERIFICACION + " ÁRBOLES ALEATORIOS");
+        System.out.println("════════════════════════════════════════════════════════");
+
+        List<ResultadoVerificacion> resultados = new ArrayList<>();
+        Random random = new Random(GeneradorDatos.SEMILLA_PREDETERMINADA);
+        Path directorio = null;
+        try (EscanerCodigoFuente escaner = new EscanerCodigoFuente(4)) {
+            directorio = Files.createTempDirectory("innoad-verificacion-");
+            for (int arbol = 0; arbol < ARBOLES_VERIFICACION; arbol++) {
+                Path raiz = directorio.resolve("arbol" + arbol);
+                int fuentes = crearArbolFuentes(raiz, random, random.nextInt(ARCHIVOS_MAXIMOS_ARBOL + 1));
+
+                EscanerCodigoFuente.ResultadoEscaneo paralelo = escaner.escanear(raiz);
+                ConteoLineas secuencial = ConteoLineas.VACIO;
+                ConteoLineas recortado = ConteoLineas.VACIO;
+                try (Stream<Path> rutas = Files.walk(raiz)) {
+                    for (Path archivo : rutas.filter(Files::isRegularFile).toList()) {
+                        if (EscanerCodigoFuente.esFuente(archivo)) {
+                            secuencial = secuencial.sumar(EscanerCodigoFuente.contarArchivo(archivo));
+                        }
+                        if (archivo.toString().endsWith(".java")) {
+                            recortado = recortado.sumar(contarConRecorte(archivo));
+                        }
+                    }
+                }
+                resultados.add(verificar(fuentes + " archivos: escaneo paralelo igual al secuencial",
+                        paralelo.obtenerErrores().isEmpty()
+                                && paralelo.obtenerArchivos().size() == fuentes
+                                && paralelo.obtenerTotal().equals(secuencial)));
+
+                // COCOMO usa el total de Java del indice: debe ser el del contador original
+                ConteoLineas java = ConteoLineas.VACIO;
+                for (EscanerCodigoFuente.ArchivoContado archivo : paralelo.obtenerArchivos()) {
+                    if (archivo.obtenerLenguaje() == LenguajeFuente.JAVA) {
+                        java = java.sumar(archivo.obtenerConteo());
+                    }
+                }
+                try (IndiceLineasCodigo indice = new IndiceLineasCodigo(raiz,
+                        directorio.resolve("indice" + arbol + ".idx"), escaner)) {
+                    indice.actualizar();
+                    resultados.add(verificar(fuentes + " archivos: líneas .java iguales al contador original ("
+                            + recortado.obtenerCodigo() + " de código)",
+                            java.equals(recortado) && indice.obtenerTotal(LenguajeFuente.JAVA).equals(recortado)));
+                }
+            }
+        } catch (IOException e) {
+            informarError(e.getMessage());
+            resultados.add(new ResultadoVerificacion("Escaner de código fuente", false));
+        } finally {
+            borrarDirectorio(directorio);
+        }
+        return resultados;
+    }
+
+    /**
+     * Cuenta las lineas de un archivo como el contador original, que
+     * recortaba cada linea con String.trim() y solo miraba como empezaba
+     * @param archivo Archivo a contar
+     * @return Conteo del archivo, sin lineas mixtas
+     */
+    private static ConteoLineas contarConRecorte(Path archivo) throws IOException {
+        long total = 0;
+        long codigo = 0;
+        long comentarios = 0;
+        long blanco = 0;
+        try (BufferedReader lector = Files.newBufferedReader(archivo)) {
+            String linea;
+            boolean enComentarioMultilinea = false;
+            while ((linea = lector.readLine()) != null) {
+                total++;
+                String lineaLimpia = linea.trim();
+                if (lineaLimpia.isEmpty()) {
+                    blanco++;
+                } else if (lineaLimpia.startsWith("/*") || enComentarioMultilinea) {
+                    comentarios++;
+                    enComentarioMultilinea = !lineaLimpia.contains("*/");
+                } else if (lineaLimpia.startsWith("//")) {
+                    comentarios++;
+                } else {
+                    codigo++;
+                }
+            }
+        }
+        return new ConteoLineas(total, codigo, comentarios, blanco, 0);
+    }
+
+    /**
+     * Crea un arbol de directorios con archivos .java, .kt y .properties de
+     * contenido aleatorio, y algunos .txt que no son fuentes
+     * @param raiz Directorio a crear
+     * @param archivos Cantidad de archivos
+     * @return Cantidad de archivos fuente creados
+     */
+    private static int crearArbolFuentes(Path raiz, Random random, int archivos) throws IOException {
+        int fuentes = 0;
+        for (int i = 0; i < archivos; i++) {
+            Path paquete = raiz.resolve("modulo" + random.nextInt(3)).resolve("paquete" + random.nextInt(4));
+            Files.createDirectories(paquete);
+            int tipo = random.nextInt(10);
+            String extension = tipo < 7 ? ".java" : tipo == 7 ? ".kt" : tipo == 8 ? ".properties" : ".txt";
+            Files.writeString(paquete.resolve("Archivo" + i + extension),
+                    generarFuente(random, extension.equals(".properties")));
+            if (!extension.equals(".txt")) {
+                fuentes++;
+            }
+        }
+        return fuentes;
+    }
+
+    /**
+     * @param propiedades true para el formato .properties, false para Java o Kotlin
+     * @return Contenido aleatorio de un archivo fuente
+     */
+    private static String generarFuente(Random random, boolean propiedades) {
+        StringBuilder texto = new StringBuilder();
+        int lineas = random.nextInt(200);
+        for (int i = 0; i < lineas; i++) {
+            switch (random.nextInt(propiedades ? 3 : 5)) {
+                case 0 -> texto.append(random.nextBoolean() ? "" : "    ");
+                case 1 -> texto.append(propiedades ? "# comentario " : "    // comentario ").append(i);
+                case 2 -> texto.append(propiedades ? "clave" + i + "=valor" : "    int valor" + i + " = " + i + ";");
+                case 3 -> texto.append("    /**\n     * Documentacion ").append(i).append("\n     */");
+                default -> texto.append("    /* bloque ").append(i).append(" */");
+            }
+            texto.append('\n');
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Crea un arbol de archivos fuente, lo cambia varias veces (modifica,
+     * borra y renombra archivos, renombra un directorio y crea otro) y
+     * compara los totales incrementales de {@link IndiceLineasCodigo} contra
+     * un escaneo completo nuevo: aplicando las rutas cambiadas, al reabrir el
+     * indice guardado, al recorrer todo el arbol cuando se perdieron eventos y
+     * mientras se vigila el directorio
+     * @return Resultado de cada caso
+     */
+    private static List<ResultadoVerificacion> verificarIndiceLineasCodigo() {
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║VERIFICACIÓN DEL ÍNDICE INCREMENTAL DE LÍNEAS");
+        System.out.println("════════════════════════════════════════════════════════");
+
+        List<ResultadoVerificacion> resultados = new ArrayList<>();
+        Random random = new Random(GeneradorDatos.SEMILLA_PREDETERMINADA);
+        Path directorio = null;
+        try (EscanerCodigoFuente escaner = new EscanerCodigoFuente(4)) {
+            directorio = Files.createTempDirectory("innoad-verificacion-");
+            Path raiz = directorio.resolve("arbol");
+            Path archivoIndice = directorio.resolve("indice.idx");
+            crearArbolFuentes(raiz, random, ARCHIVOS_MAXIMOS_ARBOL / 2);
+
+            try (IndiceLineasCodigo indice = new IndiceLineasCodigo(raiz, archivoIndice, escaner)) {
+                indice.actualizar();
+                resultados.add(verificar("Primer análisis igual al escaneo completo",
+                        coincideConEscaneo(indice, escaner)));
+
+                Set<Path> cambiadas = cambiarArbol(raiz, random, 1);
+                indice.actualizar(cambiadas);
+                resultados.add(verificar(cambiadas.size() + " rutas cambiadas aplicadas una por una",
+                        coincideConEscaneo(indice, escaner)));
+            }
+
+            try (IndiceLineasCodigo reabierto = new IndiceLineasCodigo(raiz, archivoIndice, escaner)) {
+                resultados.add(verificar("Índice reabierto desde el archivo igual al escaneo completo",
+                        coincideConEscaneo(reabierto, escaner)));
+
+                // Sin ninguna ruta: solo el recorrido completo puede encontrar los cambios
+                cambiarArbol(raiz, random, 2);
+                reabierto.actualizarTrasEventos(Set.of(), true);
+                resultados.add(verificar("Eventos perdidos: recorrido completo igual al escaneo completo",
+                        coincideConEscaneo(reabierto, escaner)));
+
+                resultados.add(verificarVigilancia(reabierto, escaner, raiz, random));
+            }
+        } catch (IOException e) {
+            informarError(e.getMessage());
+            resultados.add(new ResultadoVerificacion("Índice incremental de líneas", false));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resultados.add(new ResultadoVerificacion("Índice incremental de líneas", false));
+        } finally {
+            borrarDirectorio(directorio);
+        }
+        return resultados;
+    }
+
+    /**
+     * Vigila el arbol en otro hilo, lo cambia y espera hasta que la ultima
+     * actualizacion recibida coincida con un escaneo completo
+     */
+    private static ResultadoVerificacion verificarVigilancia(IndiceLineasCodigo indice, EscanerCodigoFuente escaner,
+                                                            Path raiz, Random random)
+            throws IOException, InterruptedException {
+        BlockingQueue<IndiceLineasCodigo.Actualizacion> recibidas = new LinkedBlockingQueue<>();
+        Thread vigilancia = new Thread(() -> {
+            try {
+                indice.vigilar(recibidas::add);
+            } catch (IOException e) {
+                informarError(e.getMessage());
+            } catch (InterruptedException e) {
+                // Fin de la prueba
+            }
+        }, "vigilancia-prueba");
+        vigilancia.start();
+        try {
+            // Los directorios se registran en el otro hilo: se reescribe un archivo hasta que llegue su evento
+            Path marca = raiz.resolve("Marca.java");
+            long limite = System.currentTimeMillis() + ESPERA_VIGILANCIA_MS;
+            for (int i = 0; recibidas.poll(200, TimeUnit.MILLISECONDS) == null; i++) {
+                if (System.currentTimeMillis() > limite) {
+                    return verificar("Vigilancia: no llegó ningún evento", false);
+                }
+                Files.writeString(marca, "class Marca {\n" + "    int valor;\n".repeat(i + 1) + "}\n");
+            }
+
+            Set<Path> cambiadas = cambiarArbol(raiz, random, 3);
+            ConteoLineas esperado = escaner.escanear(raiz).obtenerTotal();
+            limite = System.currentTimeMillis() + ESPERA_VIGILANCIA_MS;
+            IndiceLineasCodigo.Actualizacion ultima = null;
+            while (ultima == null || !ultima.obtenerTotal().equals(esperado)) {
+                long restante = limite - System.currentTimeMillis();
+                IndiceLineasCodigo.Actualizacion recibida = restante > 0
+                        ? recibidas.poll(restante, TimeUnit.MILLISECONDS) : null;
+                if (recibida == null) {
+                    break;
+                }
+                ultima = recibida;
+            }
+            return verificar("Vigilancia: " + cambiadas.size() + " rutas cambiadas, total igual al escaneo completo",
+                    ultima != null && ultima.obtenerTotal().equals(esperado));
+        } finally {
+            vigilancia.interrupt();
+            vigilancia.join();
+        }
+    }
+
+    /**
+     * @return true si el total del indice, y el de Java, coinciden con un escaneo completo del arbol
+     */
+    private static boolean coincideConEscaneo(IndiceLineasCodigo indice, EscanerCodigoFuente escaner)
+            throws IOException {
+        EscanerCodigoFuente.ResultadoEscaneo completo = escaner.escanear(indice.obtenerRaiz());
+        ConteoLineas java = ConteoLineas.VACIO;
+        for (EscanerCodigoFuente.ArchivoContado archivo : completo.obtenerArchivos()) {
+            if (archivo.obtenerLenguaje() == LenguajeFuente.JAVA) {
+                java = java.sumar(archivo.obtenerConteo());
+            }
+        }
+        return indice.cantidadArchivos() == completo.obtenerArchivos().size()
+                && indice.obtenerTotal().equals(completo.obtenerTotal())
+                && indice.obtenerTotal(LenguajeFuente.JAVA).equals(java);
+    }
+
+    /**
+     * Cambia archivos al azar: agrega lineas a algunos, borra otros y
+     * renombra otros (a veces a otro lenguaje). Ademas renombra un directorio
+     * y crea uno nuevo con archivos
+     * @param ronda Numero de ronda, para que los nombres nuevos no se repitan
+     * @return Rutas afectadas: archivos cambiados, viejos y nuevos, y el directorio renombrado
+     */
+    private static Set<Path> cambiarArbol(Path raiz, Random random, int ronda) throws IOException {
+        Set<Path> cambiadas = new TreeSet<>();
+        List<Path> archivos;
+        try (Stream<Path> rutas = Files.walk(raiz)) {
+            archivos = rutas.filter(Files::isRegularFile).sorted().toList();
+        }
+        for (Path archivo : archivos) {
+            int accion = random.nextInt(20);
+            if (accion < 2) {
+                Files.writeString(archivo, generarFuente(random, archivo.toString().endsWith(".properties")),
+                        StandardOpenOption.APPEND);
+                cambiadas.add(archivo);
+            } else if (accion == 2) {
+                Files.delete(archivo);
+                cambiadas.add(archivo);
+            } else if (accion == 3 && !archivo.toString().endsWith(".properties")) {
+                String extension = random.nextBoolean() ? ".java" : ".kt";
+                Path nuevo = archivo.resolveSibling("Renombrado" + ronda + "_" + archivo.getFileName() + extension);
+                Files.move(archivo, nuevo);
+                cambiadas.add(archivo);
+                cambiadas.add(nuevo);
+            }
+        }
+
+        try (Stream<Path> rutas = Files.list(raiz)) {
+            Path modulo = rutas.filter(Files::isDirectory).sorted().findFirst().orElse(null);
+            if (modulo != null) {
+                Path nuevo = raiz.resolve("movido" + ronda);
+                Files.move(modulo, nuevo);
+                cambiadas.add(modulo);
+                try (Stream<Path> movidos = Files.walk(nuevo)) {
+                    movidos.filter(Files::isRegularFile).forEach(cambiadas::add);
+                }
+            }
+        }
+        Path nuevo = raiz.resolve("nuevo" + ronda).resolve("paquete");
+        Files.createDirectories(nuevo);
+        for (int i = 0; i < 5; i++) {
+            Path archivo = nuevo.resolve("Nuevo" + i + ".java");
+            Files.writeString(archivo, generarFuente(random, false));
+            cambiadas.add(archivo);
+        }
+        return cambiadas;
+    }
+
+    /**
+     * Clasifica fuentes escritos a mano con casos dificiles (cadenas y
+     * bloques de texto con marcas de comentario, comentarios al final de la
+     * linea, codigo despues de cerrar un bloque, comentarios anidados,
+     * continuaciones de .properties y CRLF) y compara contra los conteos
+     * esperados. Cada fuente se procesa entero y de a un byte por llamada
+     * @return Resultado de cada caso
+     */
+    private static List<ResultadoVerificacion> verificarClasificadorLineas() {
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║VERIFICACIÓN DEL CLASIFICADOR DE LÍNEAS CON CASOS DIFÍCILES");
+        System.out.println("════════════════════════════════════════════════════════");
+
+        List<ResultadoVerificacion> resultados = new ArrayList<>();
+        resultados.add(verificarClasificacion("Marca de comentario dentro de una cadena", LenguajeFuente.JAVA,
+                "String s = \"// no es comentario\";\n",
+                new ConteoLineas(1, 1, 0, 0, 0)));
+        resultados.add(verificarClasificacion("Comillas escapadas dentro de una cadena", LenguajeFuente.JAVA,
+                "String e = \"dice \\\"// no\\\" /*\";\n",
+                new ConteoLineas(1, 1, 0, 0, 0)));
+        resultados.add(verificarClasificacion("Comilla doble como carácter", LenguajeFuente.JAVA,
+                "char c = '\"'; // comilla\n",
+                new ConteoLineas(1, 1, 0, 0, 1)));
+        resultados.add(verificarClasificacion("Comentario al final de la línea", LenguajeFuente.JAVA,
+                "int x = 1; // comentario\nint y = a / b; /* fin */\n",
+                new ConteoLineas(2, 2, 0, 0, 2)));
+        resultados.add(verificarClasificacion("Código después de cerrar un bloque", LenguajeFuente.JAVA,
+                "/* inicio */ int y = 2;\n/* comentario\n   sigue */ int z = 3;\n   /* solo */\n",
+                new ConteoLineas(4, 2, 2, 0, 2)));
+        resultados.add(verificarClasificacion("Bloque de texto con marcas y línea vacía", LenguajeFuente.JAVA,
+                "String t = \"\"\"\n    // dentro del bloque\n\n    /* tampoco */\n    \"\"\"; // fin\n\n",
+                new ConteoLineas(6, 5, 0, 1, 1)));
+        resultados.add(verificarClasificacion("Cadena triple cerrada con cuatro comillas", LenguajeFuente.KOTLIN,
+                "val s = \"\"\"dijo \"hola\"\"\"\" // comentario\nval t = 1\n",
+                new ConteoLineas(2, 2, 0, 0, 1)));
+        resultados.add(verificarClasificacion("Comentarios anidados", LenguajeFuente.KOTLIN,
+                "/* externo /* interno */ sigue */\nval k = 1\n",
+                new ConteoLineas(2, 1, 1, 0, 0)));
+        resultados.add(verificarClasificacion("Continuación de un valor", LenguajeFuente.PROPIEDADES,
+                "# comentario\nclave = valor \\\n    # sigue el valor\n! otro comentario\n\n",
+                new ConteoLineas(5, 2, 2, 1, 0)));
+        resultados.add(verificarClasificacion("Fin de línea CRLF y última línea sin salto", LenguajeFuente.JAVA,
+                "int a;\r\n// c\r\n\r\nint b;",
+                new ConteoLineas(4, 2, 1, 1, 0)));
+        return resultados;
+    }
+
+    /**
+     * Clasifica un fuente de una vez y de a un byte, y compara ambos conteos con el esperado
+     */
+    private static ResultadoVerificacion verificarClasificacion(String caso, LenguajeFuente lenguaje,
+                                                                String contenido, ConteoLineas esperado) {
+        byte[] bytes = contenido.getBytes(StandardCharsets.UTF_8);
+        ClasificadorLineas completo = new ClasificadorLineas(lenguaje);
+        completo.procesar(bytes, 0, bytes.length);
+        ClasificadorLineas porByte = new ClasificadorLineas(lenguaje);
+        for (int i = 0; i < bytes.length; i++) {
+            porByte.procesar(bytes, i, i + 1);
+        }
+        ConteoLineas conteo = completo.terminar();
+        boolean correcto = conteo.equals(esperado) && porByte.terminar().equals(esperado);
+        if (!correcto) {
+            System.out.println("    esperado " + esperado + ", obtenido " + conteo);
+        }
+        return verificar(caso, correcto);
+    }
+
+    /**
+     * Ordena arreglos aleatorios con {@link OrdenamientoVectorial} y los
+     * compara contra el motor escalar, con longitudes alrededor de
+     * {@link OrdenamientoVectorial#LONGITUD_MINIMA} y rangos interiores.
+     * Ademas lanza dos JVM hijas, una sin el modulo jdk.incubator.vector y
+     * otra con los vectores desactivados por propiedad, y verifica que ambas
+     * usen el motor escalar y ordenen bien
+     * @return Resultado de cada caso
+     */
+    private static List<ResultadoVerificacion> verificarOrdenamientoVectorial() {
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║VERIFICACIÓN DEL ORDENAMIENTO VECTORIAL CON " + CASOS_ALEATORIOS_VERIFICACION
+                + " CASOS ALEATORIOS");
+        System.out.println("════════════════════════════════════════════════════════");
+        System.out.println("  Modo: " + OrdenamientoVectorial.describir());
+
+        List<ResultadoVerificacion> resultados = new ArrayList<>();
+        Random random = new Random(GeneradorDatos.SEMILLA_PREDETERMINADA);
+        for (int caso = 0; caso < CASOS_ALEATORIOS_VERIFICACION; caso++) {
+            // Los primeros casos rodean el umbral, con colas que no llenan un vector
+            int cantidad = caso < 4
+                    ? OrdenamientoVectorial.LONGITUD_MINIMA - 1 + caso * 3
+                    : random.nextInt(CANTIDAD_MAXIMA_VERIFICACION + 1);
+            // Rango angosto en la mitad de los casos: muchos valores repetidos
+            int[] datos = caso % 2 == 0
+                    ? random.ints(cantidad).toArray()
+                    : random.ints(cantidad, -50, 50).toArray();
+            // Un tercio de los casos ordena solo un rango interior
+            int desde = caso % 3 == 2 ? random.nextInt(cantidad / 4 + 1) : 0;
+            int hasta = caso % 3 == 2 ? cantidad - random.nextInt(cantidad / 4 + 1) : cantidad;
+
+            int[] esperado = datos.clone();
+            MotorOrdenamiento.ordenar(esperado, desde, hasta, 0);
+            OrdenamientoVectorial.ordenar(datos, desde, hasta);
+            resultados.add(verificar(cantidad + " números, rango [" + desde + ", " + hasta + ")",
+                    Arrays.equals(datos, esperado)));
+        }
+
+        resultados.add(verificarMotorEscalar("JVM sin el módulo jdk.incubator.vector", List.of()));
+        resultados.add(verificarMotorEscalar("Vectores desactivados por propiedad",
+                List.of("--add-modules", "jdk.incubator.vector", "-Dinnoad.ordenamiento.vectorial=false")));
+        return resultados;
+    }
+
+    /**
+     * Ejecuta el main de {@link OrdenamientoVectorial} en una JVM hija y
+     * verifica que informe el motor escalar y un ordenamiento correcto
+     * @param opciones Opciones de la JVM hija, antes de la clase
+     */
+    private static ResultadoVerificacion verificarMotorEscalar(String caso, List<String> opciones) {
+        List<String> comando = new ArrayList<>();
+        comando.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        comando.addAll(opciones);
+        comando.add("-cp");
+        comando.add(System.getProperty("java.class.path"));
+        comando.add(OrdenamientoVectorial.class.getName());
+        comando.add(String.valueOf(CANTIDAD_PRUEBA_ESCALAR));
+
+        Process proceso = null;
+        try {
+            proceso = new ProcessBuilder(comando).redirectErrorStream(true).start();
+            String salida = new String(proceso.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            if (!proceso.waitFor(ESPERA_PROCESO_MS, TimeUnit.MILLISECONDS)) {
+                informarError("la JVM hija no terminó en " + ESPERA_PROCESO_MS + " ms");
+                return new ResultadoVerificacion(caso, false);
+            }
+            boolean correcto = proceso.exitValue() == 0
+                    && salida.contains("Modo: motor escalar")
+                    && salida.contains("[OK] " + CANTIDAD_PRUEBA_ESCALAR + " numeros ordenados");
+            if (!correcto) {
+                System.out.println("    salida de la JVM hija: " + salida.strip().replace('\n', ' '));
+            }
+            return verificar(caso, correcto);
+        } catch (IOException e) {
+            informarError(e.getMessage());
+            return new ResultadoVerificacion(caso, false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ResultadoVerificacion(caso, false);
+        } finally {
+            if (proceso != null) {
+                proceso.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Ordena con {@link OrdenamientoDistribuido} una entrada vacia, una de
+     * texto aleatoria y una binaria con muchos repetidos, con los mismos
+     * trabajadores, y compara contra Arrays.sort. Despues mata al primer
+     * trabajador de un coordinador nuevo mientras ordena su primera
+     * particion y verifica que se repita solo esa particion y que el
+     * resultado siga siendo correcto. Al final ordena lo mismo desde el jar
+     * ejecutable de Spring Boot
+     * @return Resultado de cada caso
+     */
+    private static List<ResultadoVerificacion> verificarOrdenamientoDistribuido() {
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║VERIFICACIÓN DEL ORDENAMIENTO DISTRIBUIDO CON " + TRABAJADORES_VERIFICACION
+                + " TRABAJADORES");
+        System.out.println("════════════════════════════════════════════════════════");
+
+        List<ResultadoVerificacion> resultados = new ArrayList<>();
+        Random random = new Random(GeneradorDatos.SEMILLA_PREDETERMINADA);
+        Path directorio = null;
+        try {
+            directorio = Files.createTempDirectory("innoad-verificacion-");
+            Path texto = directorio.resolve("entrada.txt");
+            Path binaria = directorio.resolve("entrada.bin");
+            Path salida = directorio.resolve("salida.bin");
+
+            try (OrdenamientoDistribuido ordenador = new OrdenamientoDistribuido(TRABAJADORES_VERIFICACION,
+                    MEMORIA_TRABAJADOR_VERIFICACION_MB, directorio)) {
+                int[] vacia = new int[0];
+                escribirNumeros(texto, EscritorNumeros.Formato.TEXTO, vacia);
+                resultados.add(verificarDistribuido("Entrada vacía", ordenador, texto, salida, vacia, 0));
+
+                int[] aleatorios = random.ints(CANTIDAD_MAXIMA_VERIFICACION).toArray();
+                escribirNumeros(texto, EscritorNumeros.Formato.TEXTO, aleatorios);
+                resultados.add(verificarDistribuido(aleatorios.length + " números en texto", ordenador, texto,
+                        salida, aleatorios, 0));
+
+                // Rango angosto: divisores repetidos y particiones vacias
+                int[] repetidos = random.ints(CANTIDAD_MAXIMA_VERIFICACION, -50, 50).toArray();
+                escribirNumeros(binaria, EscritorNumeros.Formato.BINARIO, repetidos);
+                resultados.add(verificarDistribuido(repetidos.length + " números binarios con repetidos",
+                        ordenador, binaria, salida, repetidos, 0));
+            }
+
+            // Los trabajadores se lanzan con el primer ordenamiento: el primer
+            // proceso hijo nuevo es el que recibe la primera particion. Se
+            // espera a que ya sea java y no el proceso auxiliar que lo lanza
+            Set<Long> hijosPrevios = new TreeSet<>();
+            ProcessHandle.current().children().forEach(hijo -> hijosPrevios.add(hijo.pid()));
+            Thread falla = new Thread(() -> {
+                long limite = System.currentTimeMillis() + ESPERA_PROCESO_MS;
+                try {
+                    while (System.currentTimeMillis() < limite) {
+                        Optional<ProcessHandle> trabajador = ProcessHandle.current().children()
+                                .filter(hijo -> !hijosPrevios.contains(hijo.pid()))
+                                .filter(hijo -> hijo.info().command().orElse("").endsWith("java"))
+                                .findFirst();
+                        if (trabajador.isPresent()) {
+                            trabajador.get().destroyForcibly();
+                            return;
+                        }
+                        Thread.sleep(1);
+                    }
+                } catch (InterruptedException e) {
+                    // Fin de la prueba
+                }
+            }, "falla-trabajador");
+            int[] datos = random.ints(CANTIDAD_MAXIMA_VERIFICACION).toArray();
+            escribirNumeros(binaria, EscritorNumeros.Formato.BINARIO, datos);
+            try (OrdenamientoDistribuido ordenador = new OrdenamientoDistribuido(1,
+                    MEMORIA_TRABAJADOR_VERIFICACION_MB, directorio)) {
+                falla.start();
+                resultados.add(verificarDistribuido("Trabajador muerto durante una partición: un reintento",
+                        ordenador, binaria, salida, datos, 1));
+            } finally {
+                falla.interrupt();
+            }
+
+            resultados.add(verificarDesdeJarEjecutable(binaria, salida, datos));
+        } catch (IOException e) {
+            informarError(e.getMessage());
+            resultados.add(new ResultadoVerificacion("Ordenamiento distribuido", false));
+        } finally {
+            borrarDirectorio(directorio);
+        }
+        return resultados;
+    }
+
+    /**
+     * Ordena con el coordinador y compara la salida contra Arrays.sort y los reintentos contra los esperados
+     */
+    private static ResultadoVerificacion verificarDistribuido(String caso, OrdenamientoDistribuido ordenador,
+                                                              Path entrada, Path salida, int[] original,
+                                                              int reintentosEsperados) throws IOException {
+        long ordenados = ordenador.ordenar(entrada, salida);
+        int[] esperado = original.clone();
+        Arrays.sort(esperado);
+        boolean correcto = ordenados == original.length
+                && ordenador.obtenerReintentos() == reintentosEsperados
+                && Arrays.equals(ArchivoBinarioNumeros.leerEnteros(salida), esperado);
+        if (!correcto) {
+            System.out.println("    " + ordenados + " números ordenados con " + ordenador.obtenerReintentos()
+                    + " reintentos");
+        }
+        return verificar(caso, correcto);
+    }
+
+    /**
+     * Ejecuta el main de {@link OrdenamientoDistribuido} en una JVM hija desde
+     * el jar ejecutable de Spring Boot, con su PropertiesLauncher, asi los
+     * trabajadores tambien salen del jar. Usa el jar del que corre la prueba,
+     * si corre desde uno, o el que arma gradle bootJar en build/libs
+     */
+    private static ResultadoVerificacion verificarDesdeJarEjecutable(Path entrada, Path salida, int[] original) {
+        String caso = "Coordinador y trabajadores desde el jar ejecutable";
+        Path jar = OrdenamientoDistribuido.buscarJarEjecutable();
+        Process proceso = null;
+        try {
+            if (jar == null) {
+                jar = buscarJarConstruido();
+            }
+            if (jar == null) {
+                informarError("no hay jar ejecutable en " + DIRECTORIO_JAR
+                        + "; se arma con ./gradlew bootJar");
+                return new ResultadoVerificacion(caso, false);
+            }
+
+            List<String> comando = new ArrayList<>();
+            comando.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            comando.add("-Dloader.main=" + OrdenamientoDistribuido.class.getName());
+            comando.add("-cp");
+            comando.add(jar.toString());
+            comando.add(OrdenamientoDistribuido.LANZADOR_SPRING_BOOT);
+            comando.add(entrada.toString());
+            comando.add(salida.toString());
+            comando.add(String.valueOf(TRABAJADORES_VERIFICACION));
+            comando.add(String.valueOf(MEMORIA_TRABAJADOR_VERIFICACION_MB));
+
+            Files.deleteIfExists(salida);
+            proceso = new ProcessBuilder(comando).redirectErrorStream(true).start();
+            String consola = new String(proceso.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            if (!proceso.waitFor(ESPERA_PROCESO_MS, TimeUnit.MILLISECONDS)) {
+                informarError("la JVM hija no terminó en " + ESPERA_PROCESO_MS + " ms");
+                return new ResultadoVerificacion(caso, false);
+            }
+            int[] esperado = original.clone();
+            Arrays.sort(esperado);
+            boolean correcto = proceso.exitValue() == 0
+                    && consola.contains("[OK] " + original.length + " numeros ordenados")
+                    && Arrays.equals(ArchivoBinarioNumeros.leerEnteros(salida), esperado);
+            if (!correcto) {
+                System.out.println("    salida de la JVM hija: " + consola.strip().replace('\n', ' '));
+            }
+            return verificar(caso + " (" + jar.getFileName() + ")", correcto);
+        } catch (IOException e) {
+            informarError(e.getMessage());
+            return new ResultadoVerificacion(caso, false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ResultadoVerificacion(caso, false);
+        } finally {
+            if (proceso != null) {
+                proceso.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * @return El jar de build/libs cuyo Main-Class es un lanzador de Spring Boot, o null si no hay
+     */
+    private static Path buscarJarConstruido() throws IOException {
+        if (!Files.isDirectory(DIRECTORIO_JAR)) {
+            return null;
+        }
+        try (Stream<Path> archivos = Files.list(DIRECTORIO_JAR)) {
+            for (Path archivo : archivos.filter(ruta -> ruta.toString().endsWith(".jar")).toList()) {
+                try (JarFile jar = new JarFile(archivo.toFile())) {
+                    Manifest manifiesto = jar.getManifest();
+                    String principal = manifiesto == null ? null
+                            : manifiesto.getMainAttributes().getValue(Attributes.Name.MAIN_CLASS);
+                    if (principal != null && principal.startsWith("org.springframework.boot.loader.")) {
+                        return archivo;
+                    }
+                }
+            }
         }
+        return null;
+    }
+
+    private static void escribirNumeros(Path ruta, EscritorNumeros.Formato formato, int[] numeros)
+            throws IOException {
+        try (EscritorNumeros escritor = EscritorNumeros.abrir(ruta, formato)) {
+            escritor.escribir(numeros, 0, numeros.length);
+        }
+    }
 
-        int puntoMedio = lista.size() / 2;
-        List<Integer> izquierda = new ArrayList<>();
-        List<Integer> derecha = new ArrayList<>();
+    /**
+     * Agrega lotes aleatorios a un {@link AlmacenIncremental} con buffers
+     * chicos, vaciando solo algunos, y despues de cada lote compara la
+     * lectura contra Arrays.sort y la cantidad de segmentos contra el limite
+     * de la compactacion. Al final lo cierra sin vaciar, verifica que el
+     * directorio no se pueda abrir dos veces y que al reabrirlo este todo
+     * @return Resultado de cada caso
+     */
+    private static List<ResultadoVerificacion> verificarAlmacenIncremental() {
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║VERIFICACIÓN DEL ALMACÉN INCREMENTAL CON " + CASOS_ALEATORIOS_VERIFICACION
+                + " LOTES ALEATORIOS");
+        System.out.println("════════════════════════════════════════════════════════");
+
+        List<ResultadoVerificacion> resultados = new ArrayList<>();
+        Random random = new Random(GeneradorDatos.SEMILLA_PREDETERMINADA);
+        Path directorio = null;
+        try {
+            directorio = Files.createTempDirectory("innoad-verificacion-");
+            Path ruta = directorio.resolve("almacen");
+            ArregloEnteros agregados = new ArregloEnteros();
+            long vaciados = 0;
+            try (AlmacenIncremental almacen = new AlmacenIncremental(ruta, CAPACIDAD_ALMACEN_VERIFICACION,
+                    FACTOR_ALMACEN_VERIFICACION)) {
+                for (int lote = 0; lote < CASOS_ALEATORIOS_VERIFICACION; lote++) {
+                    int cantidad = random.nextInt(LOTE_MAXIMO_ALMACEN + 1);
+                    // Rango angosto en la mitad de los lotes: valores repetidos entre segmentos
+                    int[] valores = lote % 2 == 0
+                            ? random.ints(cantidad).toArray()
+                            : random.ints(cantidad, -50, 50).toArray();
+                    if (lote % 3 == 0) {
+                        for (int valor : valores) {
+                            almacen.agregar(valor);
+                        }
+                    } else {
+                        almacen.agregar(valores, 0, cantidad);
+                    }
+                    for (int valor : valores) {
+                        agregados.agregar(valor);
+                    }
+                    // Sin vaciar, la lectura incluye los buffers en memoria
+                    if (lote % 2 == 0) {
+                        almacen.vaciar();
+                        vaciados++;
+                    }
+
+                    int segmentos = almacen.obtenerSegmentos();
+                    long limite = limiteSegmentosAlmacen(agregados.tamano(), vaciados);
+                    resultados.add(verificar("Lote de " + cantidad + " valores: " + segmentos + " segmentos de "
+                                    + limite + " como máximo",
+                            almacen.obtenerCantidad() == agregados.tamano() && segmentos <= limite
+                                    && coincideLecturaAlmacen(almacen, agregados)));
+                }
 
-        for (int i = 0; i < puntoMedio; i++) {
-            izquierda.add(lista.get(i));
+                boolean rechazado;
+                try {
+                    new AlmacenIncremental(ruta).close();
+                    rechazado = false;
+                } catch (IOException e) {
+                    rechazado = true;
+                }
+                resultados.add(verificar("Un segundo almacén sobre el mismo directorio se rechaza", rechazado));
+            }
+
+            try (AlmacenIncremental reabierto = new AlmacenIncremental(ruta, CAPACIDAD_ALMACEN_VERIFICACION,
+                    FACTOR_ALMACEN_VERIFICACION)) {
+                resultados.add(verificar("Reabierto con " + agregados.tamano() + " valores",
+                        reabierto.obtenerCantidad() == agregados.tamano()
+                                && coincideLecturaAlmacen(reabierto, agregados)));
+
+                Path exportado = directorio.resolve("exportado.bin");
+                long exportados = reabierto.exportar(exportado, EscritorNumeros.Formato.BINARIO);
+                int[] esperado = agregados.aArreglo();
+                Arrays.sort(esperado);
+                resultados.add(verificar("Exportación binaria ordenada", exportados == esperado.length
+                        && Arrays.equals(ArchivoBinarioNumeros.leerEnteros(exportado), esperado)));
+            }
+        } catch (IOException e) {
+            informarError(e.getMessage());
+            resultados.add(new ResultadoVerificacion("Almacén incremental", false));
+        } finally {
+            borrarDirectorio(directorio);
         }
+        return resultados;
+    }
 
-        for (int i = puntoMedio; i < lista.size(); i++) {
-            derecha.add(lista.get(i));
+    /**
+     * Segmentos que puede tener el almacen de la prueba. Cada buffer lleno y
+     * cada vaciado con valores en memoria crean un segmento de nivel 0, y uno
+     * de nivel k reune factor^k de ellos, asi que los niveles no pasan de
+     * log_factor(volcados) + 1. Con factor - 1 segmentos por nivel, uno mas
+     * por el nivel que puede crear la proxima mezcla y un grupo por mezclar
+     */
+    private static long limiteSegmentosAlmacen(long agregados, long vaciados) {
+        long volcados = agregados / CAPACIDAD_ALMACEN_VERIFICACION + vaciados;
+        int niveles = 1;
+        for (long reunidos = FACTOR_ALMACEN_VERIFICACION; reunidos <= volcados;
+             reunidos *= FACTOR_ALMACEN_VERIFICACION) {
+            niveles++;
         }
+        return (long) (FACTOR_ALMACEN_VERIFICACION - 1) * (niveles + 1) + FACTOR_ALMACEN_VERIFICACION;
+    }
+
+    /**
+     * @return true si la lectura del almacen es exactamente lo agregado, ordenado
+     */
+    private static boolean coincideLecturaAlmacen(AlmacenIncremental almacen, ArregloEnteros agregados)
+            throws IOException {
+        int[] esperado = agregados.aArreglo();
+        Arrays.sort(esperado);
+        try (AlmacenIncremental.Lectura lectura = almacen.leer()) {
+            for (int valor : esperado) {
+                if (!lectura.hasNext() || lectura.nextInt() != valor) {
+                    return false;
+                }
+            }
+            return !lectura.hasNext();
+        }
+    }
+
+    /**
+     * Mide el conteo de lineas de un mismo archivo Java grande con
+     * {@link ClasificadorLineas} y con el recorte por String.trim() del
+     * contador original
+     * @param tamano Tamano aproximado del archivo en bytes
+     * @return Mejor tiempo de cada uno
+     */
+    private static ResultadoLineas medirClasificadorLineas(long tamano) {
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║CLASIFICADOR DE LÍNEAS CONTRA String.trim() CON " + tamano / (1024 * 1024) + " MB");
+        System.out.println("════════════════════════════════════════════════════════");
+
+        Random random = new Random(GeneradorDatos.SEMILLA_PREDETERMINADA);
+        Path directorio = null;
+        try {
+            directorio = Files.createTempDirectory("innoad-verificacion-");
+            Path archivo = directorio.resolve("Grande.java");
+            try (Writer escritor = Files.newBufferedWriter(archivo)) {
+                long escritos = 0;
+                while (escritos < tamano) {
+                    String fuente = generarFuente(random, false);
+                    escritor.write(fuente);
+                    escritos += fuente.length();
+                }
+            }
+
+            long mejorRecorte = Long.MAX_VALUE;
+            long mejorClasificador = Long.MAX_VALUE;
+            ConteoLineas recorte = null;
+            ConteoLineas clasificador = null;
+            for (int i = 0; i < REPETICIONES_MEDICION; i++) {
+                long tiempoInicio = System.nanoTime();
+                recorte = contarConRecorte(archivo);
+                mejorRecorte = Math.min(mejorRecorte, System.nanoTime() - tiempoInicio);
 
-        izquierda = mergeSort(izquierda);
-        derecha = mergeSort(derecha);
+                tiempoInicio = System.nanoTime();
+                clasificador = EscanerCodigoFuente.contarArchivo(archivo);
+                mejorClasificador = Math.min(mejorClasificador, System.nanoTime() - tiempoInicio);
+            }
+            if (!clasificador.equals(recorte)) {
+                informarError("los conteos no coinciden: " + clasificador + " contra " + recorte);
+            }
 
-        return mezclar(izquierda, derecha);
+            ResultadoLineas resultado = new ResultadoLineas(Files.size(archivo), mejorRecorte, mejorClasificador);
+            System.out.println("  ✓ " + clasificador.obtenerTotal() + " líneas: String.trim() "
+                    + String.format("%.2f", mejorRecorte / 1e6) + " ms, clasificador "
+                    + String.format("%.2f", mejorClasificador / 1e6) + " ms ("
+                    + String.format("%.2fx", resultado.obtenerAceleracion()) + ")");
+            return resultado;
+        } catch (IOException e) {
+            informarError(e.getMessage());
+            return new ResultadoLineas(0, 0, 0);
+        } finally {
+            borrarDirectorio(directorio);
+        }
     }
 
     /**
-     * Mezcla dos listas ordenadas en una sola lista ordenada
-     * @param izquierda Primera lista ordenada
-     * @param derecha Segunda lista ordenada
-     * @return Lista resultante de mezclar ambas listas de forma ordenada
+     * Reserva memoria con {@link ArenaFueraHeap} y sigue el uso de memoria
+     * directa de la JVM. Con invokeCleaner tiene que volver al cerrar la
+     * arena. Sin el, la arena cerrada tiene que rechazar el segmento y soltar
+     * sus buffers aunque el segmento siga referenciado, y la memoria tiene que
+     * volver con el recolector
+     * @return Resultado de cada caso
      */
-    private static List<Integer> mezclar(List<Integer> izquierda, List<Integer> derecha) {
-        List<Integer> resultado = new ArrayList<>();
-        int indiceIzq = 0;
-        int indiceDer = 0;
+    private static List<ResultadoVerificacion> verificarArenaFueraHeap() {
+        System.out.println("\n════════════════════════════════════════════════════════");
+        System.out.println("║VERIFICACIÓN DE LA ARENA FUERA DEL HEAP CON " + CANTIDAD_ARENA_VERIFICACION + " NÚMEROS");
+        System.out.println("════════════════════════════════════════════════════════");
+
+        List<ResultadoVerificacion> resultados = new ArrayList<>();
+        BufferPoolMXBean directa = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(zona -> zona.getName().equals("direct"))
+                .findFirst()
+                .orElseThrow();
+        long bytes = (long) CANTIDAD_ARENA_VERIFICACION * Integer.BYTES;
+        // Buffers de secciones anteriores que ya nadie usa: que no se cuenten como liberados por la arena
+        System.gc();
+
+        ArenaFueraHeap conUnsafe = new ArenaFueraHeap();
+        if (conUnsafe.liberaAlCerrar()) {
+            long antes = directa.getMemoryUsed();
+            conUnsafe.reservarEnteros(CANTIDAD_ARENA_VERIFICACION);
+            boolean reservada = directa.getMemoryUsed() >= antes + bytes;
+            conUnsafe.close();
+            resultados.add(verificar("invokeCleaner: la memoria directa vuelve al cerrar la arena",
+                    reservada && directa.getMemoryUsed() <= antes));
+        } else {
+            System.out.println("  · invokeCleaner no está disponible: solo se verifica el recolector");
+        }
 
-        while (indiceIzq < izquierda.size() && indiceDer < derecha.size()) {
-            if (izquierda.get(indiceIzq) <= derecha.get(indiceDer)) {
-                resultado.add(izquierda.get(indiceIzq));
-                indiceIzq++;
-            } else {
-                resultado.add(derecha.get(indiceDer));
-                indiceDer++;
+        long antes = directa.getMemoryUsed();
+        ArenaFueraHeap sinUnsafe = new ArenaFueraHeap(false);
+        SegmentoEnteros segmento = sinUnsafe.reservarEnteros(CANTIDAD_ARENA_VERIFICACION);
+        sinUnsafe.close();
+        boolean rechazado = false;
+        try {
+            segmento.leer(0, new int[1], 0, 1);
+        } catch (IllegalStateException e) {
+            rechazado = true;
+        }
+        // Sin invokeCleaner la memoria sigue reservada hasta que el recolector descarte los buffers
+        boolean retenida = directa.getMemoryUsed() >= antes + bytes;
+        long limite = System.currentTimeMillis() + ESPERA_RECOLECTOR_MS;
+        try {
+            while (directa.getMemoryUsed() > antes && System.currentTimeMillis() < limite) {
+                System.gc();
+                Thread.sleep(10);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+        resultados.add(verificar("Sin invokeCleaner: segmento rechazado al cerrar y memoria devuelta por el recolector",
+                rechazado && retenida && directa.getMemoryUsed() <= antes
+                        && segmento.obtenerLongitud() == CANTIDAD_ARENA_VERIFICACION));
+        return resultados;
+    }
+
+    /**
+     * Muestra un error y lo cuenta para el codigo de salida
+     * @param mensaje Descripcion del error
+     */
+    private static void informarError(String mensaje) {
+        ERRORES.incrementAndGet();
+        System.out.println("  ✗ ERROR: " + mensaje);
+    }
 
-        while (indiceIzq < izquierda.size()) {
-            resultado.add(izquierda.get(indiceIzq));
-            indiceIzq++;
+    /**
+     * Muestra en consola si un caso de verificación dio el resultado esperado
+     * @param caso Descripción del caso
+     * @param correcto true si coincidió con la referencia
+     * @return Resultado para el reporte
+     */
+    private static ResultadoVerificacion verificar(String caso, boolean correcto) {
+        if (correcto) {
+            System.out.println("  ✓ " + caso);
+        } else {
+            informarError(caso + " no coincide con el resultado esperado");
         }
+        return new ResultadoVerificacion(caso, correcto);
+    }
 
-        while (indiceDer < derecha.size()) {
-            resultado.add(derecha.get(indiceDer));
-            indiceDer++;
+    /**
+     * Borra un directorio temporal de prueba con todo su contenido
+     * @param directorio Directorio a borrar; si es null no hace nada
+     */
+    private static void borrarDirectorio(Path directorio) {
+        if (directorio == null) {
+            return;
         }
+        try (Stream<Path> rutas = Files.walk(directorio)) {
+            for (Path ruta : rutas.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(ruta);
+            }
+        } catch (IOException e) {
+            System.err.println("No se pudo borrar " + directorio + ": " + e.getMessage());
+        }
+    }
 
+    /**
+     * Mide Merge Sort y otra alternativa sobre los mismos datos
+     * @param caso Descripción del caso
+     * @param original Datos de entrada (no se modifican)
+     * @param alternativa Ordenamiento a comparar
+     * @return Resultado de la comparación
+     */
+    private static ResultadoComparacion compararContraMergeSort(String caso, int[] original,
+                                                                Consumer<int[]> alternativa) {
+        long mejorMergeSort = medirMejorTiempo(original, datos -> MotorOrdenamiento.ordenar(datos, Algoritmo.MERGE_SORT));
+        long mejorAlternativa = medirMejorTiempo(original, alternativa);
+        ResultadoComparacion resultado = new ResultadoComparacion(caso, mejorMergeSort, mejorAlternativa);
+        mostrarComparacion(resultado);
         return resultado;
     }
 
+    /**
+     * Muestra en consola el resultado de una comparación
+     */
+    private static void mostrarComparacion(ResultadoComparacion resultado) {
+        System.out.println("  ✓ " + resultado.caso + ": Merge Sort "
+                + String.format("%.2f", resultado.nanosMergeSort / 1e6) + " ms, alternativa "
+                + String.format("%.2f", resultado.nanosAlternativa / 1e6) + " ms ("
+                + String.format("%.2fx", resultado.obtenerAceleracion()) + ")");
+    }
+
+    /**
+     * Mejor tiempo de varias repeticiones de un ordenamiento sobre copias de los mismos datos
+     * @param original Datos de entrada (no se modifican)
+     * @param ordenamiento Ordenamiento a medir
+     * @return Mejor tiempo en nanosegundos
+     */
+    private static long medirMejorTiempo(int[] original, Consumer<int[]> ordenamiento) {
+        long mejor = Long.MAX_VALUE;
+        for (int i = 0; i < REPETICIONES_MEDICION; i++) {
+            int[] datos = original.clone();
+            long tiempoInicio = System.nanoTime();
+            ordenamiento.accept(datos);
+            mejor = Math.min(mejor, System.nanoTime() - tiempoInicio);
+            if (!verificarOrdenamiento(datos)) {
+                informarError("arreglo NO está ordenado correctamente");
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Mejor tiempo de varias repeticiones de un ordenamiento de claves long
+     * @param original Datos de entrada (no se modifican)
+     * @param ordenamiento Ordenamiento a medir
+     * @return Mejor tiempo en nanosegundos
+     */
+    private static long medirMejorTiempo(long[] original, Consumer<long[]> ordenamiento) {
+        long mejor = Long.MAX_VALUE;
+        for (int i = 0; i < REPETICIONES_MEDICION; i++) {
+            long[] datos = original.clone();
+            long tiempoInicio = System.nanoTime();
+            ordenamiento.accept(datos);
+            mejor = Math.min(mejor, System.nanoTime() - tiempoInicio);
+            for (int j = 0; j < datos.length - 1; j++) {
+                if (datos[j] > datos[j + 1]) {
+                    informarError("arreglo NO está ordenado correctamente");
+                    break;
+                }
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Genera enteros aleatorios en todo el rango de int, siempre con la misma
+     * semilla para que cada corrida mida los mismos datos
+     * @param cantidad Cantidad de números a generar
+     * @return Arreglo con los números generados
+     */
+    private static int[] generarEnterosRangoCompleto(int cantidad) {
+        return generarEnteros(GeneradorDatos.Perfil.UNIFORME, cantidad);
+    }
+
+    /**
+     * Genera enteros con un perfil de {@link GeneradorDatos} en todo el rango de int
+     * @param perfil Forma de los datos
+     * @param cantidad Cantidad de números a generar
+     * @return Arreglo con los números generados
+     */
+    private static int[] generarEnteros(GeneradorDatos.Perfil perfil, int cantidad) {
+        try (GeneradorDatos generador = new GeneradorDatos()) {
+            return generador.generarEnteros(GeneradorDatos.Configuracion.de(perfil), cantidad);
+        }
+    }
+
+    /**
+     * Duplica la cantidad de nucleos sin saltarse el total de procesadores disponibles
+     */
+    private static int siguienteCantidadNucleos(int nucleos, int procesadores) {
+        if (nucleos == procesadores) {
+            return procesadores + 1;
+        }
+        return Math.min(nucleos * 2, procesadores);
+    }
+
+    /**
+     * Genera una lista de numeros enteros aleatorios con la semilla predeterminada
+     * @param cantidad Cantidad de números a generar
+     * @return Lista con números aleatorios entre 100 y 999
+     */
+    private static List<Integer> generarNumerosAleatorios(int cantidad) {
+        try (GeneradorDatos generador = new GeneradorDatos()) {
+            return MotorOrdenamiento.aLista(generador.generarEnteros(GeneradorDatos.Configuracion
+                    .de(GeneradorDatos.Perfil.UNIFORME).conRango(NUMERO_MINIMO, NUMERO_MAXIMO), cantidad));
+        }
+    }
+
+    /**
+     * Implementacion del algoritmo Merge Sort
+     * Usa el mismo motor que {@link OrdenadorMergeSort}
+     * @param lista Lista de numeros a ordenar
+     */
+    private static List<Integer> mergeSort(List<Integer> lista) {
+        return MotorOrdenamiento.ordenar(lista);
+    }
+
     /**
      * Verifica si una lista está correctamente ordenada
      * @param lista Lista a verificar
@@ -187,74 +2090,280 @@ public class PruebasAutomaticas {
         return true;
     }
 
+    /**
+     * Verifica si un arreglo está correctamente ordenado
+     * @param datos Arreglo a verificar
+     * @return true si está ordenado, false en caso contrario
+     */
+    private static boolean verificarOrdenamiento(int[] datos) {
+        for (int i = 0; i < datos.length - 1; i++) {
+            if (datos[i] > datos[i + 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Genera un reporte con todos los resultados de las pruebas
-     * @param resultados Lista de resultados de pruebas
+     * @param resultadosParalelos Resultados de la comparación secuencial contra paralelo
+     * @param comparaciones Resultados de otros algoritmos frente a Merge Sort
+     * @param verificaciones Casos aleatorios comparados contra el resultado esperado
+     * @param resultadoLineas Tiempos del clasificador de lineas contra String.trim()
      */
-    private static void generarReporte(List<ResultadoPrueba> resultados) {
+    private static void generarReporte(List<ResultadoParalelo> resultadosParalelos,
+                                       List<ResultadoComparacion> comparaciones,
+                                       List<ResultadoLote> resultadosLotes,
+                                       List<ResultadoMemoria> resultadosMemoria,
+                                       List<ResultadoVerificacion> verificaciones,
+                                       ResultadoLineas resultadoLineas) {
         try (BufferedWriter escritor = new BufferedWriter(new FileWriter(ARCHIVO_RESULTADOS))) {
             escritor.write("═══════════════════════════════════════════════════════════════════\n");
             escritor.write("  REPORTE DE PRUEBAS - MERGE SORT - EQUIPO INNOAD\n");
             escritor.write("═══════════════════════════════════════════════════════════════════\n\n");
 
-            escritor.write("TABLA DE RESULTADOS:\n");
+            // Análisis de complejidad
+            escritor.write("ANÁLISIS DE COMPLEJIDAD:\n");
+            escritor.write("El algoritmo Merge Sort tiene una complejidad temporal de O(n log n)\n");
+            escritor.write("en todos los casos (mejor, promedio y peor caso).\n\n");
+
+            // Tiempos de Merge Sort: una sola fuente, los benchmarks JMH
+            escritor.write("TIEMPOS DE MERGE SORT:\n");
+            escritor.write("Este reporte solo verifica el resultado. Los tiempos se miden con JMH,\n");
+            escritor.write("con calentamiento y varias iteraciones:\n");
+            escritor.write("  ./gradlew jmh -PjmhIncluir=BenchmarkOrdenamiento\n");
+            escritor.write("Resultados en build/reports/jmh/resultados.json\n");
+
+            // Aceleración paralela
+            escritor.write("\nACELERACIÓN PARALELA (" + CANTIDAD_PRUEBA_PARALELA + " números):\n");
+            escritor.write("─────────────────────────────────────────────────────────────────\n");
+            escritor.write(String.format("%-20s %-20s %-20s %-20s\n",
+                    "Núcleos", "Secuencial (ms)", "Paralelo (ms)", "Aceleración"));
+            escritor.write("─────────────────────────────────────────────────────────────────\n");
+            for (ResultadoParalelo resultado : resultadosParalelos) {
+                escritor.write(String.format("%-20d %-20.2f %-20.2f %-20s\n",
+                        resultado.nucleos,
+                        resultado.nanosSecuencial / 1e6,
+                        resultado.nanosParalelo / 1e6,
+                        String.format("%.2fx", resultado.obtenerAceleracion())));
+            }
+
+            // Otros algoritmos frente a Merge Sort
+            escritor.write("\nCOMPARACIÓN CONTRA MERGE SORT (" + CANTIDAD_PRUEBA_COMPARACION + " números):\n");
             escritor.write("─────────────────────────────────────────────────────────────────\n");
-            escritor.write(String.format("%-20s %-20s %-20s %-20s %-20s\n",
-                    "Cantidad Números", "Resultado 1 (ms)", "Resultado 2 (ms)", "Promedio (ms)", "Diferencia (ms)"));
+            escritor.write(String.format("%-30s %-20s %-20s %-20s\n",
+                    "Caso", "Merge Sort (ms)", "Alternativa (ms)", "Aceleración"));
             escritor.write("─────────────────────────────────────────────────────────────────\n");
+            for (ResultadoComparacion resultado : comparaciones) {
+                escritor.write(String.format("%-30s %-20.2f %-20.2f %-20s\n",
+                        resultado.caso,
+                        resultado.nanosMergeSort / 1e6,
+                        resultado.nanosAlternativa / 1e6,
+                        String.format("%.2fx", resultado.obtenerAceleracion())));
+            }
 
-            for (ResultadoPrueba resultado : resultados) {
-                escritor.write(String.format("%-20d %-20d %-20d %-20.2f %-20d\n",
-                        resultado.cantidad,
-                        resultado.tiempo1,
-                        resultado.tiempo2,
-                        resultado.obtenerPromedio(),
-                        resultado.obtenerDiferencia()));
+            // Muchos arreglos pequenos
+            escritor.write("\nORDENAMIENTO POR LOTES (" + CANTIDAD_ARREGLOS_LOTE + " arreglos de "
+                    + LONGITUD_MINIMA_LOTE + " a " + LONGITUD_MAXIMA_LOTE + " números):\n");
+            escritor.write("─────────────────────────────────────────────────────────────────\n");
+            escritor.write(String.format("%-30s %-20s %-20s %-20s\n",
+                    "Modo", "Tiempo (ms)", "Arreglos/s", "Aceleración"));
+            escritor.write("─────────────────────────────────────────────────────────────────\n");
+            for (ResultadoLote resultado : resultadosLotes) {
+                escritor.write(String.format("%-30s %-20.2f %-20.0f %-20s\n",
+                        resultado.modo,
+                        resultado.nanos / 1e6,
+                        resultado.obtenerArreglosPorSegundo(),
+                        String.format("%.2fx", resultadosLotes.get(0).nanos / (double) resultado.nanos)));
             }
 
-            escritor.write("─────────────────────────────────────────────────────────────────\n\n");
+            // Heap y recolecciones dentro y fuera del heap
+            escritor.write("\nORDENAMIENTO FUERA DEL HEAP (" + CANTIDAD_PRUEBA_FUERA_HEAP + " números):\n");
+            escritor.write("─────────────────────────────────────────────────────────────────\n");
+            escritor.write(String.format("%-30s %-15s %-15s %-15s %-15s %-15s\n",
+                    "Modo", "Tiempo (ms)", "M números/s", "Heap extra (MB)", "Recolecciones", "Tiempo GC (ms)"));
+            escritor.write("─────────────────────────────────────────────────────────────────\n");
+            for (ResultadoMemoria resultado : resultadosMemoria) {
+                escritor.write(String.format("%-30s %-15.2f %-15.1f %-15.1f %-15d %-15d\n",
+                        resultado.modo,
+                        resultado.nanos / 1e6,
+                        resultado.obtenerMillonesPorSegundo(),
+                        resultado.bytesHeap / 1e6,
+                        resultado.recolecciones,
+                        resultado.milisRecoleccion));
+            }
 
-            // Análisis de complejidad
-            escritor.write("ANÁLISIS DE COMPLEJIDAD:\n");
-            escritor.write("El algoritmo Merge Sort tiene una complejidad temporal de O(n log n)\n");
-            escritor.write("en todos los casos (mejor, promedio y peor caso).\n\n");
+            // Conteo de lineas del contador de codigo
+            escritor.write("\nCLASIFICADOR DE LÍNEAS (" + resultadoLineas.bytes / (1024 * 1024) + " MB de Java):\n");
+            escritor.write("─────────────────────────────────────────────────────────────────\n");
+            escritor.write(String.format("%-20s %-20s %-20s\n",
+                    "String.trim() (ms)", "Clasificador (ms)", "Aceleración"));
+            escritor.write("─────────────────────────────────────────────────────────────────\n");
+            escritor.write(String.format("%-20.2f %-20.2f %-20s\n",
+                    resultadoLineas.nanosRecorte / 1e6,
+                    resultadoLineas.nanosClasificador / 1e6,
+                    String.format("%.2fx", resultadoLineas.obtenerAceleracion())));
 
-            // Observaciones
-            escritor.write("OBSERVACIONES:\n");
-            for (ResultadoPrueba resultado : resultados) {
-                double porcentajeDiferencia = (resultado.obtenerDiferencia() / (double)resultado.tiempo1) * 100;
-                escritor.write("- Con " + resultado.cantidad + " números: ");
-                escritor.write("Diferencia de " + resultado.obtenerDiferencia() + " ms ");
-                escritor.write("(" + String.format("%.2f", porcentajeDiferencia) + "%)\n");
+            // Correccion de los caminos que no pasan por Merge Sort en memoria
+            long fallidas = verificaciones.stream().filter(verificacion -> !verificacion.correcto).count();
+            escritor.write("\nVERIFICACIONES DE CORRECCIÓN (" + (verificaciones.size() - fallidas) + " de "
+                    + verificaciones.size() + " correctas):\n");
+            escritor.write("─────────────────────────────────────────────────────────────────\n");
+            escritor.write(String.format("%-60s %-10s\n", "Caso", "Resultado"));
+            escritor.write("─────────────────────────────────────────────────────────────────\n");
+            for (ResultadoVerificacion verificacion : verificaciones) {
+                escritor.write(String.format("%-60s %-10s\n",
+                        verificacion.caso,
+                        verificacion.correcto ? "OK" : "FALLO"));
             }
 
             escritor.write("\n═══════════════════════════════════════════════════════════════════\n");
 
         } catch (IOException e) {
+            ERRORES.incrementAndGet();
             System.err.println("Error al generar el reporte: " + e.getMessage());
         }
     }
 
     /**
-     * Clase interna para almacenar resultados de una prueba
+     * Clase interna para almacenar la comparación secuencial contra paralelo
+     */
+    private static class ResultadoParalelo {
+        int nucleos;
+        long nanosSecuencial;
+        long nanosParalelo;
+
+        public ResultadoParalelo(int nucleos, long nanosSecuencial, long nanosParalelo) {
+            this.nucleos = nucleos;
+            this.nanosSecuencial = nanosSecuencial;
+            this.nanosParalelo = nanosParalelo;
+        }
+
+        public double obtenerAceleracion() {
+            return nanosSecuencial / (double) nanosParalelo;
+        }
+    }
+
+    /**
+     * Clase interna con un registro de prueba: prioridad, usuario y marca de tiempo
+     */
+    private static class RegistroPrueba {
+        final int prioridad;
+        final int usuario;
+        final long marcaTiempo;
+
+        RegistroPrueba(int prioridad, int usuario, long marcaTiempo) {
+            this.prioridad = prioridad;
+            this.usuario = usuario;
+            this.marcaTiempo = marcaTiempo;
+        }
+
+        int obtenerPrioridad() {
+            return prioridad;
+        }
+
+        int obtenerUsuario() {
+            return usuario;
+        }
+
+        long obtenerMarcaTiempo() {
+            return marcaTiempo;
+        }
+    }
+
+    /**
+     * Clase interna para almacenar la comparación de un algoritmo contra Merge Sort
+     */
+    private static class ResultadoComparacion {
+        String caso;
+        long nanosMergeSort;
+        long nanosAlternativa;
+
+        public ResultadoComparacion(String caso, long nanosMergeSort, long nanosAlternativa) {
+            this.caso = caso;
+            this.nanosMergeSort = nanosMergeSort;
+            this.nanosAlternativa = nanosAlternativa;
+        }
+
+        public double obtenerAceleracion() {
+            return nanosMergeSort / (double) nanosAlternativa;
+        }
+    }
+
+    /**
+     * Clase interna para almacenar el tiempo de un modo de ordenar muchos arreglos
      */
-    private static class ResultadoPrueba {
+    private static class ResultadoLote {
+        String modo;
+        int arreglos;
+        long nanos;
+
+        public ResultadoLote(String modo, int arreglos, long nanos) {
+            this.modo = modo;
+            this.arreglos = arreglos;
+            this.nanos = nanos;
+        }
+
+        public double obtenerArreglosPorSegundo() {
+            return arreglos / (nanos / 1e9);
+        }
+    }
+
+    /**
+     * Clase interna para almacenar el tiempo, el heap y las recolecciones de un modo de ordenar
+     */
+    private static class ResultadoMemoria {
+        String modo;
         int cantidad;
-        long tiempo1;
-        long tiempo2;
+        long nanos;
+        long bytesHeap;
+        long recolecciones;
+        long milisRecoleccion;
 
-        public ResultadoPrueba(int cantidad, long tiempo1, long tiempo2) {
+        public ResultadoMemoria(String modo, int cantidad, long nanos, long bytesHeap,
+                                long recolecciones, long milisRecoleccion) {
+            this.modo = modo;
             this.cantidad = cantidad;
-            this.tiempo1 = tiempo1;
-            this.tiempo2 = tiempo2;
+            this.nanos = nanos;
+            this.bytesHeap = bytesHeap;
+            this.recolecciones = recolecciones;
+            this.milisRecoleccion = milisRecoleccion;
+        }
+
+        public double obtenerMillonesPorSegundo() {
+            return cantidad / (nanos / 1e3);
         }
+    }
+
+    /**
+     * Clase interna para almacenar si un caso de verificación coincidió con la referencia
+     */
+    private static class ResultadoVerificacion {
+        String caso;
+        boolean correcto;
+
+        public ResultadoVerificacion(String caso, boolean correcto) {
+            this.caso = caso;
+            this.correcto = correcto;
+        }
+    }
+
+    /**
+     * Clase interna para almacenar el tiempo de contar las lineas de un archivo con y sin el clasificador
+     */
+    private static class ResultadoLineas {
+        long bytes;
+        long nanosRecorte;
+        long nanosClasificador;
 
-        public double obtenerPromedio() {
-            return (tiempo1 + tiempo2) / 2.0;
+        public ResultadoLineas(long bytes, long nanosRecorte, long nanosClasificador) {
+            this.bytes = bytes;
+            this.nanosRecorte = nanosRecorte;
+            this.nanosClasificador = nanosClasificador;
         }
 
-        public long obtenerDiferencia() {
-            return Math.abs(tiempo1 - tiempo2);
+        public double obtenerAceleracion() {
+            return nanosRecorte / (double) nanosClasificador;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,179 @@
+package com.innoad.ordenamiento;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * Arreglo de int fuera del heap con indices long, para mas elementos de los
+ * que caben en un int[]. La memoria se divide en bloques de hasta 2^28
+ * enteros (1 GiB), cada uno un ByteBuffer directo o una ventana mapeada de
+ * un archivo; el indice se separa en bloque y posicion con un desplazamiento
+ * y una mascara. Los segmentos se crean con {@link ArenaFueraHeap} y dejan
+ * de ser validos cuando la arena se cierra. Igual que la arena, un segmento
+ * no es seguro para usar desde varios hilos a la vez.
+ */
+public final class SegmentoEnteros {
+
+    /** Bits de la posicion dentro de un bloque */
+    static final int BITS_BLOQUE = 28;
+
+    /** Enteros por bloque */
+    static final int ENTEROS_BLOQUE = 1 << BITS_BLOQUE;
+
+    private static final int MASCARA_BLOQUE = ENTEROS_BLOQUE - 1;
+
+    private final ArenaFueraHeap arena;
+    private final ByteBuffer[] memoria;
+    private final IntBuffer[] bloques;
+    private final long longitud;
+
+    /**
+     * @param arena Arena duena de la memoria
+     * @param memoria Bloques de memoria, todos de ENTEROS_BLOQUE enteros salvo el ultimo
+     * @param orden Orden de bytes de los enteros
+     * @param longitud Cantidad total de enteros
+     */
+    SegmentoEnteros(ArenaFueraHeap arena, ByteBuffer[] memoria, ByteOrder orden, long longitud) {
+        this.arena = arena;
+        this.memoria = memoria;
+        this.longitud = longitud;
+        this.bloques = new IntBuffer[memoria.length];
+        for (int i = 0; i < memoria.length; i++) {
+            bloques[i] = memoria[i].order(orden).asIntBuffer();
+        }
+    }
+
+    /** @return Cantidad de enteros */
+    public long obtenerLongitud() {
+        return longitud;
+    }
+
+    /**
+     * @param indice Posicion del valor
+     * @return Valor en la posicion indicada
+     * @throws IndexOutOfBoundsException si el indice esta fuera del segmento
+     */
+    public int obtener(long indice) {
+        return bloques[(int) (indice >>> BITS_BLOQUE)].get((int) indice & MASCARA_BLOQUE);
+    }
+
+    /**
+     * @param indice Posicion a escribir
+     * @param valor Valor a guardar
+     * @throws IndexOutOfBoundsException si el indice esta fuera del segmento
+     */
+    public void asignar(long indice, int valor) {
+        bloques[(int) (indice >>> BITS_BLOQUE)].put((int) indice & MASCARA_BLOQUE, valor);
+    }
+
+    /**
+     * Copia un tramo del segmento a un arreglo del heap
+     * @param desde Primera posicion del segmento a copiar
+     * @param destino Arreglo destino
+     * @param inicio Posicion del arreglo donde se escribe el primer valor
+     * @param cantidad Cantidad de valores
+     */
+    public void leer(long desde, int[] destino, int inicio, int cantidad) {
+        verificarTramo(desde, cantidad);
+        while (cantidad > 0) {
+            int posicion = (int) desde & MASCARA_BLOQUE;
+            int parte = Math.min(cantidad, ENTEROS_BLOQUE - posicion);
+            bloques[(int) (desde >>> BITS_BLOQUE)].get(posicion, destino, inicio, parte);
+            desde += parte;
+            inicio += parte;
+            cantidad -= parte;
+        }
+    }
+
+    /**
+     * Copia valores de un arreglo del heap al segmento
+     * @param desde Primera posicion del segmento a escribir
+     * @param origen Arreglo de origen
+     * @param inicio Posicion del arreglo del primer valor
+     * @param cantidad Cantidad de valores
+     */
+    public void escribir(long desde, int[] origen, int inicio, int cantidad) {
+        verificarTramo(desde, cantidad);
+        while (cantidad > 0) {
+            int posicion = (int) desde & MASCARA_BLOQUE;
+            int parte = Math.min(cantidad, ENTEROS_BLOQUE - posicion);
+            bloques[(int) (desde >>> BITS_BLOQUE)].put(posicion, origen, inicio, parte);
+            desde += parte;
+            inicio += parte;
+            cantidad -= parte;
+        }
+    }
+
+    /**
+     * Copia un tramo a otro segmento sin pasar por el heap
+     * @param desde Primera posicion de este segmento
+     * @param destino Segmento destino
+     * @param desdeDestino Primera posicion del destino
+     * @param cantidad Cantidad de valores
+     */
+    public void copiar(long desde, SegmentoEnteros destino, long desdeDestino, long cantidad) {
+        verificarTramo(desde, cantidad);
+        destino.verificarTramo(desdeDestino, cantidad);
+        while (cantidad > 0) {
+            int posicion = (int) desde & MASCARA_BLOQUE;
+            int posicionDestino = (int) desdeDestino & MASCARA_BLOQUE;
+            int parte = (int) Math.min(cantidad,
+                    Math.min(ENTEROS_BLOQUE - posicion, ENTEROS_BLOQUE - posicionDestino));
+            destino.bloques[(int) (desdeDestino >>> BITS_BLOQUE)]
+                    .put(posicionDestino, bloques[(int) (desde >>> BITS_BLOQUE)], posicion, parte);
+            desde += parte;
+            desdeDestino += parte;
+            cantidad -= parte;
+        }
+    }
+
+    /**
+     * Agrega el contenido a una suma de control, en el orden de bytes del segmento
+     * @param suma Suma a actualizar
+     */
+    public void actualizarSuma(CRC32C suma) {
+        arena.verificarAbierta();
+        for (ByteBuffer bloque : memoria) {
+            suma.update(bloque.duplicate().clear());
+        }
+    }
+
+    /**
+     * Si el segmento es un archivo mapeado, escribe en disco los cambios pendientes
+     */
+    public void forzar() {
+        arena.verificarAbierta();
+        for (ByteBuffer bloque : memoria) {
+            if (bloque instanceof MappedByteBuffer mapeado) {
+                mapeado.force();
+            }
+        }
+    }
+
+    /** @return Bytes de memoria del segmento */
+    long obtenerBytes() {
+        return longitud * Integer.BYTES;
+    }
+
+    /**
+     * Bloques de memoria para que la arena los libere; despues de esto el
+     * segmento no se puede usar
+     */
+    ByteBuffer[] soltar() {
+        for (int i = 0; i < bloques.length; i++) {
+            bloques[i] = null;
+        }
+        return memoria;
+    }
+
+    private void verificarTramo(long desde, long cantidad) {
+        arena.verificarAbierta();
+        if (desde < 0 || cantidad < 0 || desde + cantidad > longitud) {
+            throw new IndexOutOfBoundsException("Tramo [" + desde + ", " + (desde + cantidad)
+                    + ") fuera del segmento de longitud " + longitud);
+        }
+    }
+}
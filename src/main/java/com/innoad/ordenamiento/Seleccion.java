@@ -0,0 +1,437 @@
+package com.innoad.ordenamiento;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Seleccion parcial para cuando no hace falta ordenar todo: los k menores
+ * o mayores, el k-esimo elemento y percentiles.
+ * <ul>
+ *   <li>Los k menores se calculan con un monticulo maximo acotado a k
+ *       elementos sobre un int[], en O(n log k) y sin tocar la entrada. Si k
+ *       es una fraccion grande de n conviene mas un quicksort parcial: se
+ *       selecciona el k-esimo sobre una copia y se ordenan solo los k primeros.</li>
+ *   <li>El k-esimo elemento usa introselect: quickselect con particion en
+ *       tres partes, que no se degrada con valores repetidos, y si las
+ *       particiones salen malas demasiadas veces ordena el tramo restante,
+ *       asi el peor caso queda en O(n log n).</li>
+ *   <li>{@link Acumulador} es el mismo monticulo como IntConsumer, para
+ *       recorrer archivos o flujos que no entran en memoria.</li>
+ * </ul>
+ */
+public final class Seleccion {
+
+    /** Por debajo de este tamano el tramo se termina con insercion */
+    private static final int UMBRAL_INSERCION = 16;
+
+    /**
+     * Si k es al menos n / DIVISOR_QUICKSORT_PARCIAL se usa el quicksort
+     * parcial en lugar del monticulo
+     */
+    private static final int DIVISOR_QUICKSORT_PARCIAL = 64;
+
+    private Seleccion() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Uso: Seleccion menores <archivo> <k>");
+            System.out.println("     Seleccion mayores <archivo> <k>");
+            System.out.println("     Seleccion percentil <archivo> <p> [p...]");
+            return;
+        }
+
+        try {
+            Path ruta = Paths.get(args[1]);
+            long tiempoInicio = System.currentTimeMillis();
+            switch (args[0]) {
+                case "menores", "mayores" -> {
+                    Acumulador acumulador = args[0].equals("menores")
+                            ? menoresDeArchivo(ruta, Integer.parseInt(args[2]))
+                            : mayoresDeArchivo(ruta, Integer.parseInt(args[2]));
+                    long tiempoTranscurrido = System.currentTimeMillis() - tiempoInicio;
+                    System.out.println("[OK] " + acumulador.obtenerVistos() + " numeros recorridos en "
+                            + tiempoTranscurrido + " milisegundos");
+                    try (EscritorNumeros escritor = EscritorNumeros.consola(10)) {
+                        int[] resultado = acumulador.obtenerResultado();
+                        escritor.escribir(resultado, 0, resultado.length);
+                    }
+                }
+                case "percentil" -> {
+                    int[] datos = ArchivoBinarioNumeros.leerNumeros(ruta);
+                    double[] consultas = new double[args.length - 2];
+                    for (int i = 0; i < consultas.length; i++) {
+                        consultas[i] = Double.parseDouble(args[i + 2]);
+                    }
+                    int[] valores = percentiles(datos, consultas);
+                    long tiempoTranscurrido = System.currentTimeMillis() - tiempoInicio;
+                    System.out.println("[OK] " + datos.length + " numeros en " + tiempoTranscurrido + " milisegundos");
+                    for (int i = 0; i < consultas.length; i++) {
+                        System.out.println("  p" + args[i + 2] + " = " + valores[i]);
+                    }
+                }
+                default -> System.out.println("Error: operacion desconocida " + args[0]);
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Error al leer el archivo: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Los k menores de un arreglo, sin modificarlo
+     * @param datos Numeros de entrada
+     * @param k Cantidad de valores a devolver
+     * @return Los min(k, n) menores en orden ascendente
+     */
+    public static int[] menores(int[] datos, int k) {
+        verificarK(k);
+        int n = datos.length;
+        if (k >= n) {
+            int[] copia = datos.clone();
+            MotorOrdenamiento.ordenar(copia);
+            return copia;
+        }
+        if ((long) k * DIVISOR_QUICKSORT_PARCIAL >= n) {
+            // Quicksort parcial: el k-esimo separa los k menores y solo esos se ordenan
+            int[] copia = datos.clone();
+            if (k > 0) {
+                seleccionar(copia, 0, n, k - 1);
+            }
+            int[] resultado = Arrays.copyOf(copia, k);
+            MotorOrdenamiento.ordenar(resultado);
+            return resultado;
+        }
+        Acumulador acumulador = new Acumulador(k, false);
+        for (int valor : datos) {
+            acumulador.accept(valor);
+        }
+        return acumulador.obtenerResultado();
+    }
+
+    /**
+     * Los k mayores de un arreglo, sin modificarlo
+     * @param datos Numeros de entrada
+     * @param k Cantidad de valores a devolver
+     * @return Los min(k, n) mayores en orden descendente
+     */
+    public static int[] mayores(int[] datos, int k) {
+        verificarK(k);
+        int n = datos.length;
+        if ((long) k * DIVISOR_QUICKSORT_PARCIAL >= n) {
+            int[] ascendentes = datos.clone();
+            int cantidad = Math.min(k, n);
+            if (cantidad > 0 && cantidad < n) {
+                seleccionar(ascendentes, 0, n, n - cantidad);
+            }
+            int[] resultado = Arrays.copyOfRange(ascendentes, n - cantidad, n);
+            MotorOrdenamiento.ordenar(resultado);
+            invertir(resultado);
+            return resultado;
+        }
+        Acumulador acumulador = new Acumulador(k, true);
+        for (int valor : datos) {
+            acumulador.accept(valor);
+        }
+        return acumulador.obtenerResultado();
+    }
+
+    /**
+     * Los k menores de un archivo de texto o binario, sin cargarlo en memoria
+     * @param ruta Archivo de numeros; el formato se detecta por la cabecera
+     * @param k Cantidad de valores a conservar
+     * @return Acumulador con los k menores y la cantidad de numeros recorridos
+     * @throws IOException si falla la lectura o el archivo tiene lineas que no son numeros
+     */
+    public static Acumulador menoresDeArchivo(Path ruta, int k) throws IOException {
+        Acumulador acumulador = new Acumulador(k, false);
+        recorrerArchivo(ruta, acumulador);
+        return acumulador;
+    }
+
+    /**
+     * Los k mayores de un archivo de texto o binario, sin cargarlo en memoria
+     * @param ruta Archivo de numeros; el formato se detecta por la cabecera
+     * @param k Cantidad de valores a conservar
+     * @return Acumulador con los k mayores y la cantidad de numeros recorridos
+     * @throws IOException si falla la lectura o el archivo tiene lineas que no son numeros
+     */
+    public static Acumulador mayoresDeArchivo(Path ruta, int k) throws IOException {
+        Acumulador acumulador = new Acumulador(k, true);
+        recorrerArchivo(ruta, acumulador);
+        return acumulador;
+    }
+
+    /**
+     * Valor que ocuparia la posicion k si el arreglo estuviera ordenado.
+     * Reordena el arreglo: al terminar datos[k] tiene ese valor, a su
+     * izquierda quedan solo valores menores o iguales y a su derecha mayores o iguales
+     * @param datos Arreglo a reordenar
+     * @param k Posicion, desde 0
+     * @return El k-esimo menor
+     */
+    public static int seleccionar(int[] datos, int k) {
+        return seleccionar(datos, 0, datos.length, k);
+    }
+
+    /**
+     * Como {@link #seleccionar(int[], int)} dentro del rango [desde, hasta)
+     * @param datos Arreglo a reordenar
+     * @param desde Indice inicial, inclusivo
+     * @param hasta Indice final, exclusivo
+     * @param k Posicion absoluta dentro del arreglo, entre desde y hasta - 1
+     * @return El valor que queda en datos[k]
+     */
+    public static int seleccionar(int[] datos, int desde, int hasta, int k) {
+        MotorOrdenamiento.verificarRango(datos.length, desde, hasta);
+        if (k < desde || k >= hasta) {
+            throw new IllegalArgumentException("La posicion " + k + " esta fuera de [" + desde + ", " + hasta + ")");
+        }
+
+        // Cada particion deberia reducir el tramo a la mitad; con el doble de
+        // particiones que eso la entrada es adversa y se ordena lo que queda
+        int particionesRestantes = 2 * (32 - Integer.numberOfLeadingZeros(hasta - desde));
+        while (hasta - desde > UMBRAL_INSERCION) {
+            if (particionesRestantes-- == 0) {
+                MotorOrdenamiento.ordenar(datos, desde, hasta);
+                return datos[k];
+            }
+            int pivote = elegirPivote(datos, desde, hasta);
+
+            // Particion de Dijkstra: [desde, menores) < pivote, [menores, i) == pivote, (mayores, hasta) > pivote
+            int menores = desde;
+            int mayores = hasta - 1;
+            int i = desde;
+            while (i <= mayores) {
+                int valor = datos[i];
+                if (valor < pivote) {
+                    datos[i++] = datos[menores];
+                    datos[menores++] = valor;
+                } else if (valor > pivote) {
+                    datos[i] = datos[mayores];
+                    datos[mayores--] = valor;
+                } else {
+                    i++;
+                }
+            }
+
+            if (k < menores) {
+                hasta = menores;
+            } else if (k > mayores) {
+                desde = mayores + 1;
+            } else {
+                return pivote;
+            }
+        }
+        ordenarPorInsercion(datos, desde, hasta);
+        return datos[k];
+    }
+
+    /**
+     * Percentil por rango mas cercano: el menor valor que es mayor o igual
+     * a ese porcentaje de los datos. Reordena el arreglo
+     * @param datos Arreglo a reordenar, no vacio
+     * @param percentil Porcentaje entre 0 y 100
+     * @return Valor del percentil
+     */
+    public static int percentil(int[] datos, double percentil) {
+        return seleccionar(datos, posicionPercentil(datos.length, percentil));
+    }
+
+    /**
+     * Varios percentiles sobre el mismo arreglo. Se seleccionan de menor a
+     * mayor y cada seleccion solo recorre lo que queda a la derecha de la
+     * anterior. Reordena el arreglo
+     * @param datos Arreglo a reordenar, no vacio
+     * @param consultas Porcentajes entre 0 y 100, en cualquier orden
+     * @return Valor de cada percentil, en el orden de las consultas
+     */
+    public static int[] percentiles(int[] datos, double... consultas) {
+        long[] posiciones = new long[consultas.length];
+        for (int i = 0; i < consultas.length; i++) {
+            // Posicion en los 32 bits altos e indice de la consulta en los bajos, para ordenar ambos juntos
+            posiciones[i] = ((long) posicionPercentil(datos.length, consultas[i]) << 32) | i;
+        }
+        Arrays.sort(posiciones);
+
+        int[] valores = new int[consultas.length];
+        int desde = 0;
+        for (long codificada : posiciones) {
+            int posicion = (int) (codificada >>> 32);
+            if (posicion >= desde) {
+                seleccionar(datos, desde, datos.length, posicion);
+                desde = posicion + 1;
+            }
+            valores[(int) codificada] = datos[posicion];
+        }
+        return valores;
+    }
+
+    /**
+     * Conserva los k menores (o mayores) de todos los numeros que recibe, en
+     * un monticulo maximo sobre un int[] de k posiciones. Cada numero que no
+     * mejora al peor conservado se descarta con una sola comparacion, por eso
+     * una entrada ya ordenada cuesta O(n). No es seguro entre hilos.
+     */
+    public static final class Acumulador implements IntConsumer {
+        private final int[] monticulo;
+        private final boolean mayores;
+        private int tamano;
+        private long vistos;
+
+        /**
+         * @param k Cantidad de valores a conservar
+         * @param mayores true para conservar los mayores en lugar de los menores
+         */
+        public Acumulador(int k, boolean mayores) {
+            verificarK(k);
+            this.monticulo = new int[k];
+            this.mayores = mayores;
+        }
+
+        /**
+         * Para conservar los mayores se guarda el complemento ~valor, que
+         * invierte el orden sin desbordar, y el monticulo es siempre de menores
+         */
+        @Override
+        public void accept(int valor) {
+            vistos++;
+            int clave = mayores ? ~valor : valor;
+            if (tamano < monticulo.length) {
+                subir(clave);
+            } else if (tamano > 0 && clave < monticulo[0]) {
+                bajar(clave);
+            }
+        }
+
+        /** @return Cantidad de numeros recibidos */
+        public long obtenerVistos() {
+            return vistos;
+        }
+
+        /**
+         * @return Los valores conservados, ascendentes si son los menores y
+         *         descendentes si son los mayores
+         */
+        public int[] obtenerResultado() {
+            int[] resultado = Arrays.copyOf(monticulo, tamano);
+            MotorOrdenamiento.ordenar(resultado);
+            if (mayores) {
+                for (int i = 0; i < resultado.length; i++) {
+                    resultado[i] = ~resultado[i];
+                }
+            }
+            return resultado;
+        }
+
+        private void subir(int clave) {
+            int i = tamano++;
+            while (i > 0) {
+                int padre = (i - 1) >>> 1;
+                if (monticulo[padre] >= clave) {
+                    break;
+                }
+                monticulo[i] = monticulo[padre];
+                i = padre;
+            }
+            monticulo[i] = clave;
+        }
+
+        /**
+         * Reemplaza la raiz (el mayor conservado) por la clave y la hunde
+         */
+        private void bajar(int clave) {
+            int i = 0;
+            int mitad = tamano >>> 1;
+            while (i < mitad) {
+                int hijo = 2 * i + 1;
+                if (hijo + 1 < tamano && monticulo[hijo + 1] > monticulo[hijo]) {
+                    hijo++;
+                }
+                if (monticulo[hijo] <= clave) {
+                    break;
+                }
+                monticulo[i] = monticulo[hijo];
+                i = hijo;
+            }
+            monticulo[i] = clave;
+        }
+    }
+
+    private static void recorrerArchivo(Path ruta, IntConsumer destino) throws IOException {
+        if (ArchivoBinarioNumeros.esBinario(ruta)) {
+            try (InputStream entrada = new BufferedInputStream(Files.newInputStream(ruta), 1 << 16)) {
+                ArchivoBinarioNumeros.recorrer(entrada, destino);
+            }
+            return;
+        }
+        LectorNumerosTexto.Resultado resultado = LectorNumerosTexto.recorrer(ruta, destino);
+        if (!resultado.esValido()) {
+            throw new IOException(LectorNumerosTexto.describirErrores(ruta, resultado));
+        }
+    }
+
+    /**
+     * Mediana de tres muestras, o de tres medianas de tres en tramos grandes
+     */
+    private static int elegirPivote(int[] datos, int desde, int hasta) {
+        int n = hasta - desde;
+        int medio = desde + (n >>> 1);
+        if (n < 1024) {
+            return mediana(datos[desde], datos[medio], datos[hasta - 1]);
+        }
+        int paso = n >>> 3;
+        return mediana(
+                mediana(datos[desde], datos[desde + paso], datos[desde + 2 * paso]),
+                mediana(datos[medio - paso], datos[medio], datos[medio + paso]),
+                mediana(datos[hasta - 1 - 2 * paso], datos[hasta - 1 - paso], datos[hasta - 1]));
+    }
+
+    private static int mediana(int a, int b, int c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private static void ordenarPorInsercion(int[] datos, int desde, int hasta) {
+        for (int i = desde + 1; i < hasta; i++) {
+            int valor = datos[i];
+            int j = i - 1;
+            while (j >= desde && datos[j] > valor) {
+                datos[j + 1] = datos[j];
+                j--;
+            }
+            datos[j + 1] = valor;
+        }
+    }
+
+    private static int posicionPercentil(int cantidad, double percentil) {
+        if (cantidad == 0) {
+            throw new IllegalArgumentException("No hay datos para calcular un percentil");
+        }
+        if (!(percentil >= 0 && percentil <= 100)) {
+            throw new IllegalArgumentException("El percentil debe estar entre 0 y 100: " + percentil);
+        }
+        long rango = (long) Math.ceil(percentil / 100 * cantidad);
+        return (int) Math.max(0, Math.min(cantidad, rango) - 1);
+    }
+
+    private static void invertir(int[] datos) {
+        for (int i = 0, j = datos.length - 1; i < j; i++, j--) {
+            int temporal = datos[i];
+            datos[i] = datos[j];
+            datos[j] = temporal;
+        }
+    }
+
+    private static void verificarK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k no puede ser negativo: " + k);
+        }
+    }
+}
@@ -0,0 +1,575 @@
+package com.innoad.ordenamiento;
+
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Punto de entrada que elige el algoritmo segun los datos. Antes de ordenar
+ * toma una muestra de {@link #TAMANO_MUESTRA} posiciones repartidas en todo
+ * el rango y estima con ella el rango de valores, la cantidad de claves
+ * distintas y cuan ordenada viene la entrada (corridas monotonas e
+ * inversiones de la muestra). Con eso elige entre insercion,
+ * conteo, Radix, el modo adaptativo por corridas, Merge Sort o Merge Sort
+ * paralelo, y devuelve la {@link Decision} con el motivo para diagnostico.
+ * Las inversiones solo deciden cuando la muestra es la entrada completa:
+ * entonces son exactas y la insercion se elige si hace menos pasos que
+ * Merge Sort. En una muestra parcial no ven el desorden entre posiciones
+ * vecinas y solo aparecen en el motivo.
+ * <p>
+ * Los umbrales de tamano salen de {@link #calibrar(int)}, que mide los
+ * puntos de cruce entre algoritmos en la maquina actual; los valores
+ * predeterminados son los medidos en el equipo de referencia y se pueden
+ * cambiar con propiedades de sistema innoad.selector.*.
+ */
+public class SelectorAlgoritmo implements AutoCloseable {
+
+    /** Posiciones que se leen para estimar las caracteristicas de la entrada */
+    public static final int TAMANO_MUESTRA = 1024;
+
+    /**
+     * Si las corridas de la muestra son a lo sumo esta fraccion de sus pares
+     * vecinos, la entrada viene en corridas largas; con valores al azar hay
+     * una corrida cada 2 o 3 posiciones
+     */
+    private static final int DIVISOR_CORRIDAS = 16;
+
+    private final OrdenadorParalelo paralelo;
+    private final Umbrales umbrales;
+
+    /**
+     * Crea un selector con un hilo por procesador disponible y los umbrales predeterminados
+     */
+    public SelectorAlgoritmo() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param paralelismo Hilos para la estrategia paralela; con 1 nunca se elige
+     */
+    public SelectorAlgoritmo(int paralelismo) {
+        this(paralelismo, Umbrales.predeterminados());
+    }
+
+    /**
+     * @param paralelismo Hilos para la estrategia paralela; con 1 nunca se elige
+     * @param umbrales Umbrales de tamano, por ejemplo los de {@link #calibrar(int)}
+     */
+    public SelectorAlgoritmo(int paralelismo, Umbrales umbrales) {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("El paralelismo debe ser mayor a 0: " + paralelismo);
+        }
+        this.paralelo = paralelismo > 1
+                ? new OrdenadorParalelo(paralelismo, OrdenadorParalelo.UMBRAL_SECUENCIAL_PREDETERMINADO)
+                : null;
+        this.umbrales = umbrales;
+    }
+
+    /**
+     * Estrategias entre las que se elige
+     */
+    public enum Estrategia {
+        /** Insercion directa, para arreglos muy chicos o chicos y casi ordenados */
+        INSERCION,
+        /** Conteo en O(n + k), para rangos de valores angostos */
+        CONTEO,
+        /** Radix LSD, para valores de rango amplio sin orden previo */
+        RADIX,
+        /** Deteccion y mezcla de corridas, para entradas ya ordenadas en buena parte */
+        ADAPTATIVO,
+        /** Merge Sort secuencial */
+        MERGE_SORT,
+        /** Merge Sort sobre ForkJoinPool */
+        PARALELO
+    }
+
+    /**
+     * Caracteristicas de la entrada estimadas con la muestra. Si la entrada
+     * tiene a lo sumo TAMANO_MUESTRA elementos la muestra es la entrada
+     * completa y las estimaciones son exactas
+     */
+    public static final class Muestra {
+        private final int longitud;
+        private final int tamano;
+        private final int minimo;
+        private final int maximo;
+        private final long distintos;
+        private final int descensos;
+        private final int corridas;
+        private final double inversiones;
+
+        Muestra(int longitud, int tamano, int minimo, int maximo, long distintos,
+                int descensos, int corridas, double inversiones) {
+            this.longitud = longitud;
+            this.tamano = tamano;
+            this.minimo = minimo;
+            this.maximo = maximo;
+            this.distintos = distintos;
+            this.descensos = descensos;
+            this.corridas = corridas;
+            this.inversiones = inversiones;
+        }
+
+        /** @return Cantidad de elementos de la entrada */
+        public int obtenerLongitud() {
+            return longitud;
+        }
+
+        /** @return Posiciones leidas */
+        public int obtenerTamano() {
+            return tamano;
+        }
+
+        /** @return Menor valor de la muestra */
+        public int obtenerMinimo() {
+            return minimo;
+        }
+
+        /** @return Mayor valor de la muestra */
+        public int obtenerMaximo() {
+            return maximo;
+        }
+
+        /** @return maximo - minimo + 1 de la muestra */
+        public long obtenerRango() {
+            return (long) maximo - minimo + 1;
+        }
+
+        /**
+         * El mayor entre el estimador GEE (los valores repetidos en la muestra
+         * cuentan una vez y los que aparecen una sola vez se escalan por la
+         * raiz de n / tamano), que subestima cuando casi no hay repetidos, y
+         * el de colisiones (pares de la muestra / pares iguales), que es
+         * exacto para claves equiprobables. Sin ningun par igual se acota por
+         * n y por el rango
+         * @return Claves distintas estimadas en la entrada completa
+         */
+        public long obtenerDistintos() {
+            return distintos;
+        }
+
+        /** @return Pares vecinos de la muestra con el primero mayor que el segundo */
+        public int obtenerDescensos() {
+            return descensos;
+        }
+
+        /**
+         * Corridas como las que detecta {@link OrdenamientoAdaptativo}:
+         * tramos ascendentes o descendentes; los valores iguales no cortan
+         * @return Corridas de la muestra; 1 si esta ordenada o invertida
+         */
+        public int obtenerCorridas() {
+            return corridas;
+        }
+
+        /** @return Fraccion de pares de la muestra fuera de orden: 0 ordenada, 0.5 al azar, 1 invertida */
+        public double obtenerInversiones() {
+            return inversiones;
+        }
+
+        @Override
+        public String toString() {
+            return longitud + " elementos, rango [" + minimo + ", " + maximo + "], ~" + distintos
+                    + " distintos, " + corridas + " corridas y "
+                    + String.format("%.1f", inversiones * 100) + "% de inversiones en la muestra de " + tamano;
+        }
+    }
+
+    /**
+     * Estrategia elegida, el motivo y la muestra en la que se baso
+     */
+    public static final class Decision {
+        private final Estrategia estrategia;
+        private final String motivo;
+        private final Muestra muestra;
+
+        Decision(Estrategia estrategia, String motivo, Muestra muestra) {
+            this.estrategia = estrategia;
+            this.motivo = motivo;
+            this.muestra = muestra;
+        }
+
+        /** @return Estrategia elegida */
+        public Estrategia obtenerEstrategia() {
+            return estrategia;
+        }
+
+        /** @return Por que se eligio */
+        public String obtenerMotivo() {
+            return motivo;
+        }
+
+        /** @return Estimaciones de la entrada, o null si no hizo falta muestrear */
+        public Muestra obtenerMuestra() {
+            return muestra;
+        }
+
+        @Override
+        public String toString() {
+            return estrategia + ": " + motivo;
+        }
+    }
+
+    /**
+     * Umbrales de tamano para elegir entre estrategias
+     */
+    public static final class Umbrales {
+        private final int insercion;
+        private final int radix;
+        private final int paralelo;
+
+        /**
+         * @param insercion Hasta esta longitud se usa insercion
+         * @param radix Desde esta longitud Radix supera a Merge Sort con valores al azar
+         * @param paralelo Desde esta longitud el modo paralelo supera al secuencial
+         */
+        public Umbrales(int insercion, int radix, int paralelo) {
+            if (insercion < 1 || radix < 1 || paralelo < 1) {
+                throw new IllegalArgumentException("Los umbrales deben ser mayores a 0: "
+                        + insercion + ", " + radix + ", " + paralelo);
+            }
+            this.insercion = insercion;
+            this.radix = radix;
+            this.paralelo = paralelo;
+        }
+
+        /**
+         * Valores medidos con {@link #calibrar(int)} en el equipo de referencia,
+         * o los de las propiedades innoad.selector.insercion, .radix y .paralelo
+         */
+        public static Umbrales predeterminados() {
+            return new Umbrales(
+                    Integer.getInteger("innoad.selector.insercion", 32),
+                    Integer.getInteger("innoad.selector.radix", 1 << 10),
+                    Integer.getInteger("innoad.selector.paralelo", 1 << 17));
+        }
+
+        /** @return Longitud maxima para insercion */
+        public int obtenerInsercion() {
+            return insercion;
+        }
+
+        /** @return Longitud minima para Radix */
+        public int obtenerRadix() {
+            return radix;
+        }
+
+        /** @return Longitud minima para el modo paralelo */
+        public int obtenerParalelo() {
+            return paralelo;
+        }
+
+        @Override
+        public String toString() {
+            return "-Dinnoad.selector.insercion=" + insercion + " -Dinnoad.selector.radix=" + radix
+                    + " -Dinnoad.selector.paralelo=" + paralelo;
+        }
+    }
+
+    /**
+     * Mide los umbrales y los muestra en consola como propiedades de sistema
+     */
+    public static void main(String[] args) {
+        int paralelismo = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        System.out.println("Calibrando umbrales con paralelismo " + paralelismo + "...");
+        Umbrales umbrales = calibrar(paralelismo);
+        System.out.println("[OK] " + umbrales);
+    }
+
+    /**
+     * Elige la estrategia para todo el arreglo sin ordenarlo
+     * @param datos Arreglo a revisar (no se modifica)
+     * @return Estrategia elegida y motivo
+     */
+    public Decision elegir(int[] datos) {
+        return elegir(datos, 0, datos.length, paralelo != null, umbrales);
+    }
+
+    /**
+     * Ordena ascendentemente todo el arreglo con la estrategia que indique la muestra
+     * @param datos Arreglo a ordenar (se modifica en sitio)
+     * @return Estrategia usada y motivo
+     */
+    public Decision ordenar(int[] datos) {
+        return ordenar(datos, 0, datos.length);
+    }
+
+    /**
+     * Ordena ascendentemente el rango [desde, hasta) con la estrategia que indique la muestra
+     * @param datos Arreglo a ordenar (se modifica en sitio)
+     * @param desde Indice inicial, inclusivo
+     * @param hasta Indice final, exclusivo
+     * @return Estrategia usada y motivo
+     */
+    public Decision ordenar(int[] datos, int desde, int hasta) {
+        MotorOrdenamiento.verificarRango(datos.length, desde, hasta);
+        TelemetriaOrdenamiento.Medidor medidor = TelemetriaOrdenamiento.iniciar(hasta - desde);
+        try {
+            return ejecutar(elegir(datos, desde, hasta, paralelo != null, umbrales), datos, desde, hasta,
+                    paralelo, medidor);
+        } finally {
+            medidor.terminar();
+        }
+    }
+
+    /**
+     * Ordena sin la estrategia paralela y con los umbrales predeterminados;
+     * es lo que usa {@link Algoritmo#AUTOMATICO}
+     * @param datos Arreglo a ordenar (se modifica en sitio)
+     * @return Estrategia usada y motivo
+     */
+    public static Decision ordenarSecuencial(int[] datos) {
+        TelemetriaOrdenamiento.Medidor medidor = TelemetriaOrdenamiento.iniciar(datos.length);
+        try {
+            return ordenarSecuencial(datos, medidor);
+        } finally {
+            medidor.terminar();
+        }
+    }
+
+    static Decision ordenarSecuencial(int[] datos, TelemetriaOrdenamiento.Medidor medidor) {
+        return ejecutar(elegir(datos, 0, datos.length, false, Umbrales.predeterminados()),
+                datos, 0, datos.length, null, medidor);
+    }
+
+    /** @return Umbrales en uso */
+    public Umbrales obtenerUmbrales() {
+        return umbrales;
+    }
+
+    @Override
+    public void close() {
+        if (paralelo != null) {
+            paralelo.close();
+        }
+    }
+
+    /**
+     * Reglas de eleccion, de la mas especifica a la mas general
+     */
+    static Decision elegir(int[] datos, int desde, int hasta, boolean paraleloDisponible, Umbrales umbrales) {
+        int longitud = hasta - desde;
+        if (longitud <= umbrales.insercion) {
+            return new Decision(Estrategia.INSERCION, longitud + " elementos, no mas de "
+                    + umbrales.insercion, null);
+        }
+
+        Muestra muestra = muestrear(datos, desde, hasta);
+        int pares = muestra.tamano - 1;
+        if (muestra.descensos == 0) {
+            return new Decision(Estrategia.ADAPTATIVO, "la muestra ya esta ordenada", muestra);
+        }
+        long rango = muestra.obtenerRango();
+        if (rango <= MotorOrdenamiento.RANGO_MAXIMO_CONTEO_PREDETERMINADO
+                && rango <= (long) longitud * MotorOrdenamiento.FACTOR_RANGO_CONTEO) {
+            return new Decision(Estrategia.CONTEO, "rango estimado de " + rango + " valores (~"
+                    + muestra.distintos + " distintos) para " + longitud + " elementos", muestra);
+        }
+        // Con la entrada completa las inversiones son exactas: la insercion hace n + inversiones
+        // pasos y Merge Sort unas n log2 n comparaciones
+        if (muestra.tamano == longitud) {
+            long inversiones = Math.round(muestra.inversiones * ((long) longitud * (longitud - 1) / 2));
+            long limite = (long) longitud * (31 - Integer.numberOfLeadingZeros(longitud));
+            if (inversiones <= limite) {
+                return new Decision(Estrategia.INSERCION, inversiones + " inversiones en " + longitud
+                        + " elementos, no mas de n log2 n = " + limite, muestra);
+            }
+        }
+        if (muestra.corridas <= pares / DIVISOR_CORRIDAS) {
+            return new Decision(Estrategia.ADAPTATIVO, "la entrada viene en corridas: "
+                    + muestra.corridas + " corridas y " + String.format("%.1f", muestra.inversiones * 100)
+                    + "% de inversiones en la muestra", muestra);
+        }
+        if (paraleloDisponible && longitud >= umbrales.paralelo) {
+            return new Decision(Estrategia.PARALELO, longitud + " elementos, al menos " + umbrales.paralelo
+                    + ", sin orden previo", muestra);
+        }
+        if (longitud >= umbrales.radix) {
+            return new Decision(Estrategia.RADIX, "rango amplio (" + rango + " valores, ~" + muestra.distintos
+                    + " distintos) sin orden previo y " + longitud + " elementos, al menos " + umbrales.radix, muestra);
+        }
+        return new Decision(Estrategia.MERGE_SORT, longitud + " elementos de rango amplio, menos de "
+                + umbrales.radix + " para Radix", muestra);
+    }
+
+    /**
+     * Aplica la estrategia. Si el conteo descubre que el rango real es mas
+     * amplio que el de la muestra, se ordena con Merge Sort o Radix y la
+     * decision devuelta lo indica
+     */
+    static Decision ejecutar(Decision decision, int[] datos, int desde, int hasta, OrdenadorParalelo paralelo,
+                             TelemetriaOrdenamiento.Medidor medidor) {
+        medidor.fijarEstrategia(decision.estrategia.name());
+        switch (decision.estrategia) {
+            case INSERCION -> MotorOrdenamiento.ordenarInsercion(datos, desde, hasta);
+            case CONTEO -> {
+                if (!MotorOrdenamiento.intentarConteo(datos, desde, hasta,
+                        MotorOrdenamiento.RANGO_MAXIMO_CONTEO_PREDETERMINADO)) {
+                    OrdenamientoRadix.ordenar(datos, desde, hasta);
+                    medidor.fijarEstrategia(Estrategia.RADIX.name());
+                    return new Decision(Estrategia.RADIX, "el rango real supera al de la muestra ("
+                            + decision.muestra.obtenerRango() + " valores); no sirve el conteo", decision.muestra);
+                }
+            }
+            case RADIX -> OrdenamientoRadix.ordenar(datos, desde, hasta);
+            case ADAPTATIVO -> OrdenamientoAdaptativo.ordenar(datos, desde, hasta);
+            case MERGE_SORT -> MotorOrdenamiento.ordenarMergeSort(datos, desde, hasta, medidor);
+            case PARALELO -> paralelo.ordenar(datos, desde, hasta);
+        }
+        return decision;
+    }
+
+    /**
+     * Lee TAMANO_MUESTRA posiciones equiespaciadas y calcula las estimaciones
+     */
+    static Muestra muestrear(int[] datos, int desde, int hasta) {
+        int longitud = hasta - desde;
+        int tamano = Math.min(longitud, TAMANO_MUESTRA);
+        int[] muestra = new int[tamano];
+        for (int i = 0; i < tamano; i++) {
+            muestra[i] = datos[desde + (int) ((long) i * longitud / tamano)];
+        }
+
+        int minimo = muestra[0];
+        int maximo = minimo;
+        int descensos = 0;
+        int corridas = 1;
+        int sentido = 0;
+        for (int i = 1; i < tamano; i++) {
+            int valor = muestra[i];
+            minimo = Math.min(minimo, valor);
+            maximo = Math.max(maximo, valor);
+            int comparacion = Integer.compare(muestra[i - 1], valor);
+            if (comparacion > 0) {
+                descensos++;
+            }
+            // Un par en sentido contrario al de la corrida actual la corta; el siguiente par fija el nuevo sentido
+            if (comparacion != 0) {
+                if (sentido == 0) {
+                    sentido = comparacion;
+                } else if (comparacion != sentido) {
+                    corridas++;
+                    sentido = 0;
+                }
+            }
+        }
+
+        // Las inversiones se cuentan mientras se ordena la muestra con Merge Sort
+        int[] auxiliar = muestra.clone();
+        long inversiones = contarInversiones(auxiliar, muestra, 0, tamano);
+        long paresTotales = (long) tamano * (tamano - 1) / 2;
+
+        // Con la muestra ordenada: distintos vistos, vistos una sola vez y pares iguales
+        long distintosMuestra = 0;
+        long unicos = 0;
+        long paresIguales = 0;
+        for (int i = 0; i < tamano; ) {
+            int j = i + 1;
+            while (j < tamano && muestra[j] == muestra[i]) {
+                j++;
+            }
+            distintosMuestra++;
+            if (j - i == 1) {
+                unicos++;
+            }
+            paresIguales += (long) (j - i) * (j - i - 1) / 2;
+            i = j;
+        }
+        long maximoPosible = Math.min(longitud, (long) maximo - minimo + 1);
+        long gee = Math.round(Math.sqrt((double) longitud / tamano) * unicos) + distintosMuestra - unicos;
+        long colisiones = paresIguales == 0 ? maximoPosible : paresTotales / paresIguales;
+        long distintos = Math.min(Math.max(gee, colisiones), maximoPosible);
+
+        return new Muestra(longitud, tamano, minimo, maximo, distintos, descensos, corridas,
+                paresTotales == 0 ? 0 : inversiones / (double) paresTotales);
+    }
+
+    /**
+     * Merge Sort de la muestra que cuenta los pares fuera de orden: cada vez
+     * que la mezcla toma un elemento de la derecha, salta a todos los que
+     * quedan en la izquierda. Mismo esquema de origen y destino que
+     * {@link MotorOrdenamiento#mergeSort}
+     */
+    private static long contarInversiones(int[] origen, int[] destino, int desde, int hasta) {
+        if (hasta - desde < 2) {
+            return 0;
+        }
+        int mitad = (desde + hasta) >>> 1;
+        long inversiones = contarInversiones(destino, origen, desde, mitad)
+                + contarInversiones(destino, origen, mitad, hasta);
+        int izquierda = desde;
+        int derecha = mitad;
+        for (int i = desde; i < hasta; i++) {
+            if (derecha >= hasta || (izquierda < mitad && origen[izquierda] <= origen[derecha])) {
+                destino[i] = origen[izquierda++];
+            } else {
+                inversiones += mitad - izquierda;
+                destino[i] = origen[derecha++];
+            }
+        }
+        return inversiones;
+    }
+
+    /**
+     * Mide los puntos de cruce en la maquina actual con valores uniformes:
+     * hasta que longitud insercion supera a Merge Sort, desde cual Radix
+     * supera a Merge Sort y desde cual el modo paralelo supera al secuencial
+     * @param paralelismo Hilos del modo paralelo; con 1 no se mide
+     * @return Umbrales medidos
+     */
+    public static Umbrales calibrar(int paralelismo) {
+        SplittableRandom aleatorio = new SplittableRandom(GeneradorDatos.SEMILLA_PREDETERMINADA);
+
+        // Merge Sort ya usa insercion en tramos de hasta UMBRAL_INSERCION: se mide desde ahi
+        int insercion = MotorOrdenamiento.UMBRAL_INSERCION;
+        for (int longitud = insercion + 8; longitud <= 256; longitud += 8) {
+            int[] datos = aleatorio.ints(longitud).toArray();
+            long nanosInsercion = medir(datos, copia -> MotorOrdenamiento.ordenarInsercion(copia, 0, copia.length));
+            long nanosMerge = medir(datos, copia -> MotorOrdenamiento.ordenarMergeSort(copia, 0, copia.length));
+            if (nanosInsercion > nanosMerge) {
+                break;
+            }
+            insercion = longitud;
+        }
+
+        int radix = 1 << 24;
+        for (int longitud = 1 << 6; longitud <= 1 << 24; longitud <<= 1) {
+            int[] datos = aleatorio.ints(longitud).toArray();
+            if (medir(datos, OrdenamientoRadix::ordenar) < medir(datos, MotorOrdenamiento::ordenar)) {
+                radix = longitud;
+                break;
+            }
+        }
+
+        int umbralParalelo = Integer.MAX_VALUE;
+        if (paralelismo > 1) {
+            try (OrdenadorParalelo ordenador = new OrdenadorParalelo(paralelismo,
+                    OrdenadorParalelo.UMBRAL_SECUENCIAL_PREDETERMINADO)) {
+                for (int longitud = 1 << 12; longitud <= 1 << 24; longitud <<= 1) {
+                    int[] datos = aleatorio.ints(longitud).toArray();
+                    if (medir(datos, ordenador::ordenar) < medir(datos, OrdenamientoRadix::ordenar)) {
+                        umbralParalelo = longitud;
+                        break;
+                    }
+                }
+            }
+        }
+        return new Umbrales(insercion, radix, umbralParalelo);
+    }
+
+    /**
+     * Mejor tiempo de varias rondas de ordenamientos sobre copias, con
+     * suficientes repeticiones para que los arreglos chicos no midan ruido
+     */
+    private static long medir(int[] original, Consumer<int[]> ordenamiento) {
+        int repeticiones = Math.max(5, (1 << 20) / original.length);
+        long mejor = Long.MAX_VALUE;
+        for (int ronda = 0; ronda < 5; ronda++) {
+            long tiempoInicio = System.nanoTime();
+            for (int i = 0; i < repeticiones; i++) {
+                ordenamiento.accept(original.clone());
+            }
+            mejor = Math.min(mejor, System.nanoTime() - tiempoInicio);
+        }
+        return mejor;
+    }
+}
@@ -0,0 +1,273 @@
+package com.innoad.ordenamiento;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Medicion de los ordenamientos que entran por las puertas publicas
+ * ({@link MotorOrdenamiento}, {@link SelectorAlgoritmo},
+ * {@link OrdenadorParalelo}, {@link OrdenamientoExterno} y
+ * {@link OrdenamientoFueraHeap}): estrategia usada, elementos, tiempo,
+ * bytes reservados en el heap y, para uno de cada
+ * {@link #obtenerIntervaloConteo()} ordenamientos con Merge Sort,
+ * comparaciones y movimientos. Cada medicion va al
+ * {@link ObservadorOrdenamiento} instalado y, si hay una grabacion de JFR,
+ * a un {@link EventoOrdenamiento}.
+ * <p>
+ * Sin observador ni grabacion cada ordenamiento paga una lectura volatil y
+ * la consulta de JFR; no hay contadores en el camino de las comparaciones.
+ * En los ordenamientos que se cuentan, el Merge Sort del motor informa cada
+ * paso a un {@link ContadorOperaciones}; el ciclo de la mezcla no cambia. Si un
+ * ordenamiento medido usa otra puerta publica en el mismo hilo (por ejemplo
+ * el selector eligiendo el modo paralelo), solo se mide el exterior.
+ */
+public final class TelemetriaOrdenamiento {
+
+    private static volatile ObservadorOrdenamiento observador;
+
+    private static volatile int intervaloConteo = Integer.getInteger("innoad.telemetria.intervaloConteo", 100);
+
+    /** Marca del hilo con una medicion en curso */
+    private static final ThreadLocal<Medidor> EN_CURSO = new ThreadLocal<>();
+
+    /** Bytes reservados por hilo, o null si la JVM no los informa */
+    private static final com.sun.management.ThreadMXBean HILOS = detectarHilos();
+
+    private TelemetriaOrdenamiento() {
+    }
+
+    /**
+     * Instala el observador que recibe las mediciones, reemplazando al anterior
+     * @param nuevo Observador a instalar
+     */
+    public static void instalar(ObservadorOrdenamiento nuevo) {
+        if (nuevo == null) {
+            throw new IllegalArgumentException("El observador no puede ser null");
+        }
+        observador = nuevo;
+    }
+
+    /**
+     * Quita el observador si es el instalado; si ya se instalo otro no hace nada
+     * @param instalado Observador a quitar
+     */
+    public static void quitar(ObservadorOrdenamiento instalado) {
+        synchronized (TelemetriaOrdenamiento.class) {
+            if (observador == instalado) {
+                observador = null;
+            }
+        }
+    }
+
+    /**
+     * @param intervalo Se cuentan comparaciones y movimientos de uno de cada
+     *                  intervalo ordenamientos con Merge Sort; 0 no cuenta nunca
+     */
+    public static void configurarIntervaloConteo(int intervalo) {
+        if (intervalo < 0) {
+            throw new IllegalArgumentException("El intervalo de conteo no puede ser negativo: " + intervalo);
+        }
+        intervaloConteo = intervalo;
+    }
+
+    /** @return Intervalo de muestreo de los conteos; 0 si estan desactivados */
+    public static int obtenerIntervaloConteo() {
+        return intervaloConteo;
+    }
+
+    /**
+     * Empieza a medir un ordenamiento. Siempre se termina con
+     * {@link Medidor#terminar()} en un finally
+     * @param elementos Elementos a ordenar
+     * @return Medidor del ordenamiento, o uno inactivo si no hay a quien
+     *         informar o si este hilo ya esta midiendo otro
+     */
+    static Medidor iniciar(long elementos) {
+        ObservadorOrdenamiento actual = observador;
+        EventoOrdenamiento evento = new EventoOrdenamiento();
+        if (actual == null && !evento.isEnabled()) {
+            return Medidor.INACTIVO;
+        }
+        if (EN_CURSO.get() != null) {
+            return Medidor.INACTIVO;
+        }
+        int intervalo = intervaloConteo;
+        boolean contar = intervalo > 0 && ThreadLocalRandom.current().nextInt(intervalo) == 0;
+        Medidor medidor = new Medidor(actual, evento, elementos, contar);
+        EN_CURSO.set(medidor);
+        evento.begin();
+        return medidor;
+    }
+
+    private static com.sun.management.ThreadMXBean detectarHilos() {
+        ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+        if (hilos instanceof com.sun.management.ThreadMXBean extendido
+                && extendido.isThreadAllocatedMemorySupported() && extendido.isThreadAllocatedMemoryEnabled()) {
+            return extendido;
+        }
+        return null;
+    }
+
+    private static long bytesReservadosHilo() {
+        return HILOS != null ? HILOS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    /**
+     * Datos de un ordenamiento terminado
+     */
+    public static final class Medicion {
+        private final String estrategia;
+        private final long elementos;
+        private final long nanos;
+        private final long bytesReservados;
+        private final long comparaciones;
+        private final long movimientos;
+
+        Medicion(String estrategia, long elementos, long nanos, long bytesReservados,
+                 long comparaciones, long movimientos) {
+            this.estrategia = estrategia;
+            this.elementos = elementos;
+            this.nanos = nanos;
+            this.bytesReservados = bytesReservados;
+            this.comparaciones = comparaciones;
+            this.movimientos = movimientos;
+        }
+
+        /** @return Estrategia que ordeno: MERGE_SORT, CONTEO, INSERCION, RADIX, PARALELO, EXTERNO... */
+        public String obtenerEstrategia() {
+            return estrategia;
+        }
+
+        /** @return Elementos ordenados */
+        public long obtenerElementos() {
+            return elementos;
+        }
+
+        /** @return Duracion en nanosegundos */
+        public long obtenerNanos() {
+            return nanos;
+        }
+
+        /** @return Elementos ordenados por segundo */
+        public double obtenerElementosPorSegundo() {
+            return nanos == 0 ? 0 : elementos * 1e9 / nanos;
+        }
+
+        /**
+         * Solo cuenta el hilo que pidio el ordenamiento, no los del pool paralelo
+         * @return Bytes reservados en el heap durante el ordenamiento, o -1 si la JVM no lo informa
+         */
+        public long obtenerBytesReservados() {
+            return bytesReservados;
+        }
+
+        /** @return true si este ordenamiento fue elegido para contar comparaciones y movimientos */
+        public boolean tieneConteos() {
+            return comparaciones >= 0;
+        }
+
+        /** @return Comparaciones entre elementos, o -1 si no se contaron */
+        public long obtenerComparaciones() {
+            return comparaciones;
+        }
+
+        /** @return Escrituras de elementos en el arreglo o el auxiliar, o -1 si no se contaron */
+        public long obtenerMovimientos() {
+            return movimientos;
+        }
+
+        @Override
+        public String toString() {
+            return estrategia + ": " + elementos + " elementos en " + String.format("%.3f", nanos / 1e6) + " ms"
+                    + (bytesReservados >= 0 ? ", " + bytesReservados + " bytes" : "")
+                    + (tieneConteos() ? ", " + comparaciones + " comparaciones, " + movimientos + " movimientos" : "");
+        }
+    }
+
+    /**
+     * Medicion en curso de un ordenamiento. Quien ordena indica la
+     * estrategia que termino usando y, si {@link #debeContar()}, los conteos
+     */
+    static final class Medidor {
+        /** Medidor que no registra nada, para cuando la telemetria esta apagada */
+        static final Medidor INACTIVO = new Medidor(null, null, 0, false);
+
+        private final ObservadorOrdenamiento destino;
+        private final EventoOrdenamiento evento;
+        private long elementos;
+        private final boolean contar;
+        private final long nanosInicio;
+        private final long bytesInicio;
+        private String estrategia = "DESCONOCIDA";
+        private long comparaciones = -1;
+        private long movimientos = -1;
+
+        private Medidor(ObservadorOrdenamiento destino, EventoOrdenamiento evento, long elementos, boolean contar) {
+            this.destino = destino;
+            this.evento = evento;
+            this.elementos = elementos;
+            this.contar = contar;
+            this.nanosInicio = evento != null ? System.nanoTime() : 0;
+            this.bytesInicio = evento != null ? bytesReservadosHilo() : 0;
+        }
+
+        /**
+         * @return true si el ordenamiento debe informar sus pasos a un {@link ContadorOperaciones}
+         */
+        boolean debeContar() {
+            return contar;
+        }
+
+        void fijarEstrategia(String estrategia) {
+            // El inactivo se comparte entre hilos: no guarda nada
+            if (evento != null) {
+                this.estrategia = estrategia;
+            }
+        }
+
+        /**
+         * Para los ordenamientos que conocen la cantidad recien al leer la entrada
+         */
+        void fijarElementos(long elementos) {
+            if (evento != null) {
+                this.elementos = elementos;
+            }
+        }
+
+        void registrarConteos(ContadorOperaciones contador) {
+            comparaciones = contador.obtenerComparaciones();
+            movimientos = contador.obtenerMovimientos();
+        }
+
+        /**
+         * Informa la medicion al observador y a JFR. Un error del observador
+         * no interrumpe a quien ordeno
+         */
+        void terminar() {
+            if (evento == null) {
+                return;
+            }
+            long nanos = System.nanoTime() - nanosInicio;
+            long bytes = bytesInicio >= 0 ? bytesReservadosHilo() - bytesInicio : -1;
+            EN_CURSO.remove();
+
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.estrategia = estrategia;
+                evento.elementos = elementos;
+                evento.bytesReservados = bytes;
+                evento.comparaciones = comparaciones;
+                evento.movimientos = movimientos;
+                evento.commit();
+            }
+            if (destino != null) {
+                try {
+                    destino.registrar(new Medicion(estrategia, elementos, nanos, bytes, comparaciones, movimientos));
+                } catch (RuntimeException e) {
+                    System.err.println("Error en el observador de ordenamientos: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
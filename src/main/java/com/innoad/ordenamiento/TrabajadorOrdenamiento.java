@@ -0,0 +1,100 @@
+package com.innoad.ordenamiento;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Proceso trabajador de {@link OrdenamientoDistribuido}. Lee ordenes de la
+ * entrada estandar, una por linea, y responde una linea por orden en la
+ * salida estandar:
+ * <pre>
+ * ORDENAR\t&lt;particion&gt;\t&lt;resultado&gt;   -&gt;   OK &lt;cantidad&gt;  o  ERROR &lt;motivo&gt;
+ * SALIR                                 -&gt;   (termina)
+ * </pre>
+ * Cada particion es un archivo de {@link ArchivoBinarioNumeros} y el
+ * resultado se escribe en el mismo formato, marcado como ordenado. Si la
+ * particion cabe en el heap se ordena con {@link MotorOrdenamiento}; si no,
+ * con {@link OrdenamientoExterno}. La salida estandar es el canal de
+ * respuestas: los mensajes de diagnostico van a la salida de errores.
+ */
+public final class TrabajadorOrdenamiento {
+
+    static final String ORDEN_ORDENAR = "ORDENAR";
+    static final String ORDEN_SALIR = "SALIR";
+    static final String RESPUESTA_OK = "OK";
+    static final String RESPUESTA_ERROR = "ERROR";
+
+    /** Separador de los campos de una orden; las rutas pueden tener espacios */
+    static final char SEPARADOR = '\t';
+
+    /** Fraccion del heap que puede ocupar una particion con su buffer auxiliar */
+    private static final double FRACCION_HEAP_EN_MEMORIA = 0.6;
+
+    private TrabajadorOrdenamiento() {
+    }
+
+    public static void main(String[] args) {
+        BufferedReader ordenes = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        PrintStream respuestas = new PrintStream(new FileOutputStream(FileDescriptor.out), true, StandardCharsets.UTF_8);
+        try {
+            String orden;
+            while ((orden = ordenes.readLine()) != null) {
+                if (orden.equals(ORDEN_SALIR)) {
+                    return;
+                }
+                respuestas.println(atender(orden));
+            }
+        } catch (IOException e) {
+            System.err.println("Error en el trabajador de ordenamiento: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ejecuta una orden y arma la respuesta; nunca lanza, los errores se responden
+     */
+    private static String atender(String orden) {
+        String[] campos = orden.split(String.valueOf(SEPARADOR), -1);
+        if (campos.length != 3 || !campos[0].equals(ORDEN_ORDENAR)) {
+            return RESPUESTA_ERROR + " Orden desconocida: " + orden;
+        }
+        try {
+            long cantidad = ordenarParticion(Paths.get(campos[1]), Paths.get(campos[2]));
+            return RESPUESTA_OK + " " + cantidad;
+        } catch (IOException | RuntimeException | OutOfMemoryError e) {
+            // La respuesta es una sola linea
+            return RESPUESTA_ERROR + " " + String.valueOf(e.getMessage()).replace('\n', ' ');
+        }
+    }
+
+    /**
+     * Ordena una particion binaria y escribe el resultado binario ordenado
+     * @param particion Archivo de entrada
+     * @param resultado Archivo de salida (se reemplaza si existe)
+     * @return Cantidad de numeros ordenados
+     */
+    static long ordenarParticion(Path particion, Path resultado) throws IOException {
+        ArchivoBinarioNumeros.Cabecera cabecera = ArchivoBinarioNumeros.leerCabecera(particion);
+        long cantidad = cabecera.obtenerCantidad();
+        // El arreglo y el auxiliar de Merge Sort
+        long bytesNecesarios = 2L * Integer.BYTES * cantidad;
+        long maximoHeap = Runtime.getRuntime().maxMemory();
+
+        if (cantidad <= Integer.MAX_VALUE - 8 && bytesNecesarios <= maximoHeap * FRACCION_HEAP_EN_MEMORIA) {
+            int[] datos = ArchivoBinarioNumeros.leerEnteros(particion);
+            MotorOrdenamiento.ordenar(datos);
+            ArchivoBinarioNumeros.escribir(resultado, datos, 0, datos.length, true);
+            return datos.length;
+        }
+
+        OrdenamientoExterno externo = new OrdenamientoExterno(maximoHeap / 4,
+                OrdenamientoExterno.ABANICO_MAXIMO_PREDETERMINADO, resultado.toAbsolutePath().getParent());
+        return externo.ordenar(destino -> {
+            try (InputStream entrada = new BufferedInputStream(Files.newInputStream(particion), 1 << 16)) {
+                ArchivoBinarioNumeros.recorrer(entrada, destino);
+            }
+        }, total -> EscritorNumeros.abrir(resultado, EscritorNumeros.Formato.BINARIO));
+    }
+}